@@ -0,0 +1,85 @@
+package fr.angelique.bankaccount.benchmark;
+
+import fr.angelique.bankaccount.repository.AccountRepository;
+import fr.angelique.bankaccount.repository.InMemoryAccountRepository;
+import fr.angelique.bankaccount.repository.OpenAddressingAccountRepository;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.UUID;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Lookups and updates on randomly chosen accounts of a large repository. The ids are copies of
+ * the stored keys, as they would be once parsed from a request.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(value = 1, jvmArgsAppend = "-Xmx4g")
+public class AccountRepositoryBenchmark {
+
+    private static final int ACCOUNT_COUNT = 1_000_000;
+
+    @Param({"inMemory", "openAddressing"})
+    private String repository;
+
+    private final UUID[] accountIds = new UUID[ACCOUNT_COUNT];
+
+    private AccountRepository accountRepository;
+
+    private int next;
+
+    @Setup
+    public void setUp() {
+        if (repository.equals("openAddressing")) {
+            OpenAddressingAccountRepository openAddressing = new OpenAddressingAccountRepository();
+            for (int i = 0; i < ACCOUNT_COUNT; i++) {
+                accountIds[i] = UUID.randomUUID();
+                openAddressing.open(accountIds[i], i);
+            }
+            accountRepository = openAddressing;
+        } else {
+            InMemoryAccountRepository inMemory = new InMemoryAccountRepository();
+            for (int i = 0; i < ACCOUNT_COUNT; i++) {
+                accountIds[i] = UUID.randomUUID();
+                inMemory.open(accountIds[i], i);
+            }
+            accountRepository = inMemory;
+        }
+        for (int i = 0; i < ACCOUNT_COUNT; i++) {
+            accountIds[i] = new UUID(accountIds[i].getMostSignificantBits(), accountIds[i].getLeastSignificantBits());
+        }
+    }
+
+    @Benchmark
+    public boolean existsById() {
+        return accountRepository.existsById(nextAccount());
+    }
+
+    @Benchmark
+    public long getBalance() {
+        return accountRepository.getBalance(nextAccount());
+    }
+
+    @Benchmark
+    public void updateBalance() {
+        accountRepository.updateBalance(nextAccount(), next);
+    }
+
+    private UUID nextAccount() {
+        next = (next + 7919) % ACCOUNT_COUNT;
+        return accountIds[next];
+    }
+}
@@ -0,0 +1,94 @@
+package fr.angelique.bankaccount.benchmark;
+
+import fr.angelique.bankaccount.TextOperationsFormatter;
+import fr.angelique.bankaccount.repository.InMemoryAccountRepository;
+import fr.angelique.bankaccount.service.BankAccountCheckingService;
+import fr.angelique.bankaccount.service.exception.AccountNotFoundException;
+import fr.angelique.bankaccount.service.exception.NegativeAmountException;
+import fr.angelique.bankaccount.service.exception.OverdraftAccountException;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Group;
+import org.openjdk.jmh.annotations.GroupThreads;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Threads;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.math.BigDecimal;
+import java.time.Clock;
+import java.util.UUID;
+import java.util.concurrent.TimeUnit;
+
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class BankAccountServiceBenchmark {
+
+    private static final BigDecimal AMOUNT = new BigDecimal("0.01");
+    private static final long INITIAL_BALANCE = Long.MAX_VALUE / 2;
+
+    private final InMemoryAccountRepository accountRepository = new InMemoryAccountRepository();
+
+    private final UUID sharedAccount = UUID.randomUUID();
+
+    private BankAccountCheckingService service;
+
+    @Setup
+    public void setUp() {
+        accountRepository.open(sharedAccount, INITIAL_BALANCE);
+        service = new BankAccountCheckingService(accountRepository, new DiscardingOperationRepository(),
+                new TextOperationsFormatter(), lines -> { }, Clock.systemDefaultZone());
+    }
+
+    @State(Scope.Thread)
+    public static class OwnAccount {
+
+        private final UUID id = UUID.randomUUID();
+
+        @Setup
+        public void setUp(BankAccountServiceBenchmark benchmark) {
+            benchmark.accountRepository.open(id, INITIAL_BALANCE);
+        }
+    }
+
+    @Benchmark
+    @Threads(1)
+    public void deposit(OwnAccount account) throws NegativeAmountException, AccountNotFoundException {
+        service.deposit(account.id, AMOUNT, "depot");
+    }
+
+    @Benchmark
+    @Threads(1)
+    public void withdraw(OwnAccount account) throws NegativeAmountException, AccountNotFoundException, OverdraftAccountException {
+        service.withdraw(account.id, AMOUNT, "retrait");
+    }
+
+    @Benchmark
+    @Threads(Threads.MAX)
+    public void depositOnDistinctAccounts(OwnAccount account) throws NegativeAmountException, AccountNotFoundException {
+        service.deposit(account.id, AMOUNT, "depot");
+    }
+
+    @Benchmark
+    @Group("contended")
+    @GroupThreads(2)
+    public void contendedDeposit() throws NegativeAmountException, AccountNotFoundException {
+        service.deposit(sharedAccount, AMOUNT, "depot");
+    }
+
+    @Benchmark
+    @Group("contended")
+    @GroupThreads(2)
+    public void contendedWithdraw() throws NegativeAmountException, AccountNotFoundException, OverdraftAccountException {
+        service.withdraw(sharedAccount, AMOUNT, "retrait");
+    }
+}
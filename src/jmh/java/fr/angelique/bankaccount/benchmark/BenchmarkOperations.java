@@ -0,0 +1,31 @@
+package fr.angelique.bankaccount.benchmark;
+
+import fr.angelique.bankaccount.enums.OperationType;
+import fr.angelique.bankaccount.service.model.Operation;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+import java.util.UUID;
+
+final class BenchmarkOperations {
+
+    private static final LocalDateTime START = LocalDateTime.of(2022, 11, 21, 15, 22, 48);
+
+    private BenchmarkOperations() {
+    }
+
+    static List<Operation> history(UUID accountId, int size) {
+        Random random = new Random(42);
+        List<Operation> operations = new ArrayList<>(size);
+        long balance = 0;
+        for (int i = 0; i < size; i++) {
+            long amount = 1 + random.nextInt(100_000);
+            OperationType type = balance >= amount && random.nextBoolean() ? OperationType.WITHDRAWAL : OperationType.DEPOSIT;
+            balance += type == OperationType.DEPOSIT ? amount : -amount;
+            operations.add(new Operation(accountId, type, type == OperationType.DEPOSIT ? "salaire" : "course", START.minusMinutes(i), amount, balance));
+        }
+        return operations;
+    }
+}
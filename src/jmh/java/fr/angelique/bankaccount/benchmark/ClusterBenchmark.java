@@ -0,0 +1,81 @@
+package fr.angelique.bankaccount.benchmark;
+
+import fr.angelique.bankaccount.TextOperationsFormatter;
+import fr.angelique.bankaccount.cluster.InProcessTransport;
+import fr.angelique.bankaccount.cluster.ShardNode;
+import fr.angelique.bankaccount.cluster.ShardedBankAccountService;
+import fr.angelique.bankaccount.service.model.OperationResult;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Threads;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.math.BigDecimal;
+import java.time.Clock;
+import java.time.Duration;
+import java.util.UUID;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Deposits spread over 1 to 16 shard nodes, each with a single worker and a simulated round
+ * trip, to check that throughput grows with the number of shards.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Threads(64)
+@Fork(1)
+public class ClusterBenchmark {
+
+    private static final int ACCOUNT_COUNT = 10_000;
+
+    private static final BigDecimal AMOUNT = new BigDecimal("0.01");
+
+    @Param({"1", "2", "4", "8", "16"})
+    private int shards;
+
+    @Param({"200"})
+    private int latencyMicros;
+
+    private final UUID[] accountIds = new UUID[ACCOUNT_COUNT];
+
+    private InProcessTransport transport;
+
+    private ShardedBankAccountService service;
+
+    @Setup
+    public void setUp() {
+        transport = new InProcessTransport(1, 42);
+        service = new ShardedBankAccountService(transport, new TextOperationsFormatter(), lines -> { });
+        for (int i = 0; i < shards; i++) {
+            service.addNode(new ShardNode("shard-" + i, Clock.systemDefaultZone()));
+        }
+        for (int i = 0; i < ACCOUNT_COUNT; i++) {
+            accountIds[i] = UUID.randomUUID();
+            service.openAccount(accountIds[i], 0);
+        }
+        transport.setLatency(Duration.ofNanos(latencyMicros * 1_000L));
+    }
+
+    @TearDown
+    public void tearDown() {
+        transport.close();
+    }
+
+    @Benchmark
+    public OperationResult deposit() {
+        return service.tryDeposit(accountIds[ThreadLocalRandom.current().nextInt(ACCOUNT_COUNT)], AMOUNT, "depot");
+    }
+}
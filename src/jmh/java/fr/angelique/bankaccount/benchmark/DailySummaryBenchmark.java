@@ -0,0 +1,87 @@
+package fr.angelique.bankaccount.benchmark;
+
+import fr.angelique.bankaccount.enums.OperationType;
+import fr.angelique.bankaccount.repository.InMemoryOperationRepository;
+import fr.angelique.bankaccount.repository.summary.DailySummary;
+import fr.angelique.bankaccount.repository.summary.DailySummaryIndex;
+import fr.angelique.bankaccount.repository.summary.SummarizingOperationRepository;
+import fr.angelique.bankaccount.service.model.Operation;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Total of one month of operations, from the daily summary index and from a scan of the history.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(value = 1, jvmArgsAppend = "-Xmx2g")
+public class DailySummaryBenchmark {
+
+    @Param({"1000", "100000"})
+    private int operationCount;
+
+    private final UUID accountId = UUID.randomUUID();
+
+    private final DailySummaryIndex index = new DailySummaryIndex();
+
+    private final InMemoryOperationRepository history = new InMemoryOperationRepository();
+
+    private LocalDate from;
+
+    private LocalDate to;
+
+    @Setup
+    public void setUp() {
+        List<Operation> operations = new ArrayList<>(BenchmarkOperations.history(accountId, operationCount));
+        Collections.reverse(operations);
+        new SummarizingOperationRepository(history, index).createAll(operations);
+        to = operations.get(operations.size() - 1).getDate().toLocalDate();
+        from = to.minusMonths(1);
+    }
+
+    @Benchmark
+    public DailySummary summarizeFromIndex() {
+        return index.summarize(accountId, from, to);
+    }
+
+    @Benchmark
+    public DailySummary summarizeByScan() {
+        long depositTotal = 0;
+        long withdrawalTotal = 0;
+        long depositCount = 0;
+        long withdrawalCount = 0;
+        for (Operation operation : history.findAllByAccountIdOrderByDateDesc(accountId)) {
+            LocalDate day = operation.getDate().toLocalDate();
+            if (day.isBefore(from) || day.isAfter(to)) {
+                continue;
+            }
+            if (operation.getOperationType() == OperationType.DEPOSIT) {
+                depositTotal += operation.getAmount();
+                depositCount++;
+            } else {
+                withdrawalTotal += operation.getAmount();
+                withdrawalCount++;
+            }
+        }
+        return new DailySummary(depositTotal, withdrawalTotal, depositCount, withdrawalCount);
+    }
+}
@@ -0,0 +1,29 @@
+package fr.angelique.bankaccount.benchmark;
+
+import fr.angelique.bankaccount.repository.OperationRepository;
+import fr.angelique.bankaccount.service.model.Operation;
+
+import java.util.List;
+import java.util.UUID;
+
+class DiscardingOperationRepository implements OperationRepository {
+
+    private final List<Operation> operations;
+
+    DiscardingOperationRepository() {
+        this(List.of());
+    }
+
+    DiscardingOperationRepository(List<Operation> operations) {
+        this.operations = operations;
+    }
+
+    @Override
+    public List<Operation> findAllByAccountIdOrderByDateDesc(UUID id) {
+        return operations;
+    }
+
+    @Override
+    public void create(Operation entity) {
+    }
+}
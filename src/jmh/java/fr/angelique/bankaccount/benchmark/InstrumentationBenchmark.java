@@ -0,0 +1,94 @@
+package fr.angelique.bankaccount.benchmark;
+
+import fr.angelique.bankaccount.TextOperationsFormatter;
+import fr.angelique.bankaccount.metrics.InstrumentedAccountRepository;
+import fr.angelique.bankaccount.metrics.InstrumentedBankAccountService;
+import fr.angelique.bankaccount.metrics.InstrumentedOperationRepository;
+import fr.angelique.bankaccount.metrics.MetricsRegistry;
+import fr.angelique.bankaccount.repository.InMemoryAccountRepository;
+import fr.angelique.bankaccount.service.BankAccountCheckingService;
+import fr.angelique.bankaccount.service.BankAccountService;
+import fr.angelique.bankaccount.service.exception.AccountNotFoundException;
+import fr.angelique.bankaccount.service.exception.NegativeAmountException;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Threads;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.math.BigDecimal;
+import java.time.Clock;
+import java.util.UUID;
+import java.util.concurrent.TimeUnit;
+
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class InstrumentationBenchmark {
+
+    private static final BigDecimal AMOUNT = new BigDecimal("0.01");
+    private static final long INITIAL_BALANCE = Long.MAX_VALUE / 2;
+
+    private final InMemoryAccountRepository accountRepository = new InMemoryAccountRepository();
+
+    @Param({"1", "64"})
+    private int samplingInterval;
+
+    private BankAccountService plainService;
+
+    private BankAccountService instrumentedService;
+
+    private BankAccountService fullyInstrumentedService;
+
+    @Setup
+    public void setUp() {
+        MetricsRegistry metrics = new MetricsRegistry(samplingInterval);
+        plainService = new BankAccountCheckingService(accountRepository, new DiscardingOperationRepository(),
+                new TextOperationsFormatter(), lines -> { }, Clock.systemDefaultZone());
+        instrumentedService = new InstrumentedBankAccountService(new BankAccountCheckingService(accountRepository,
+                new DiscardingOperationRepository(), new TextOperationsFormatter(), lines -> { }, Clock.systemDefaultZone()), metrics);
+        fullyInstrumentedService = new InstrumentedBankAccountService(new BankAccountCheckingService(
+                new InstrumentedAccountRepository(accountRepository, metrics),
+                new InstrumentedOperationRepository(new DiscardingOperationRepository(), metrics),
+                new TextOperationsFormatter(), lines -> { }, Clock.systemDefaultZone()), metrics);
+    }
+
+    @State(Scope.Thread)
+    public static class OwnAccount {
+
+        private final UUID id = UUID.randomUUID();
+
+        @Setup
+        public void setUp(InstrumentationBenchmark benchmark) {
+            benchmark.accountRepository.open(id, INITIAL_BALANCE);
+        }
+    }
+
+    @Benchmark
+    @Threads(Threads.MAX)
+    public void plainDeposit(OwnAccount account) throws NegativeAmountException, AccountNotFoundException {
+        plainService.deposit(account.id, AMOUNT, "depot");
+    }
+
+    @Benchmark
+    @Threads(Threads.MAX)
+    public void instrumentedDeposit(OwnAccount account) throws NegativeAmountException, AccountNotFoundException {
+        instrumentedService.deposit(account.id, AMOUNT, "depot");
+    }
+
+    @Benchmark
+    @Threads(Threads.MAX)
+    public void fullyInstrumentedDeposit(OwnAccount account) throws NegativeAmountException, AccountNotFoundException {
+        fullyInstrumentedService.deposit(account.id, AMOUNT, "depot");
+    }
+}
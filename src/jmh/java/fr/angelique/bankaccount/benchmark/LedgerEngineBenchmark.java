@@ -0,0 +1,84 @@
+package fr.angelique.bankaccount.benchmark;
+
+import fr.angelique.bankaccount.TextOperationsFormatter;
+import fr.angelique.bankaccount.ledger.LedgerEngine;
+import fr.angelique.bankaccount.repository.InMemoryAccountRepository;
+import fr.angelique.bankaccount.service.BankAccountCheckingService;
+import fr.angelique.bankaccount.service.model.OperationResult;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OperationsPerInvocation;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.math.BigDecimal;
+import java.time.Clock;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Deposits through the lock-free checking service and through the single-writer ledger engine,
+ * either waiting for each command or keeping a window of commands in flight.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class LedgerEngineBenchmark {
+
+    private static final int WINDOW = 1024;
+
+    private static final BigDecimal AMOUNT = new BigDecimal("0.01");
+
+    private final UUID accountId = UUID.randomUUID();
+
+    private BankAccountCheckingService checkingService;
+
+    private LedgerEngine engine;
+
+    @Setup
+    public void setUp() {
+        InMemoryAccountRepository accountRepository = new InMemoryAccountRepository();
+        accountRepository.open(accountId, 0L);
+        checkingService = new BankAccountCheckingService(accountRepository, new DiscardingOperationRepository(),
+                new TextOperationsFormatter(), lines -> { }, Clock.systemDefaultZone());
+        engine = new LedgerEngine(Map.of(accountId, 0L), new DiscardingOperationRepository(),
+                new TextOperationsFormatter(), lines -> { }, Clock.systemDefaultZone(), 4 * WINDOW);
+    }
+
+    @TearDown
+    public void tearDown() {
+        engine.close();
+    }
+
+    @Benchmark
+    public OperationResult checkingService() {
+        return checkingService.tryDeposit(accountId, AMOUNT, "depot");
+    }
+
+    @Benchmark
+    public OperationResult ledgerEngine() {
+        return engine.tryDeposit(accountId, AMOUNT, "depot");
+    }
+
+    @Benchmark
+    @OperationsPerInvocation(WINDOW)
+    public OperationResult ledgerEngineWindow() {
+        CompletableFuture<OperationResult> last = null;
+        for (int i = 0; i < WINDOW; i++) {
+            last = engine.submitDeposit(accountId, AMOUNT, "depot");
+        }
+        return last.join();
+    }
+}
@@ -0,0 +1,63 @@
+package fr.angelique.bankaccount.benchmark;
+
+import fr.angelique.bankaccount.service.model.Money;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.math.BigDecimal;
+import java.util.concurrent.TimeUnit;
+
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class MoneyBenchmark {
+
+    private final BigDecimal decimalAmount = new BigDecimal("12.34");
+    private final long centsAmount = 1_234L;
+
+    private BigDecimal decimalBalance = new BigDecimal("1000.00");
+    private long centsBalance = 100_000L;
+
+    @Benchmark
+    public BigDecimal bigDecimalDepositThenWithdraw() {
+        if (decimalAmount.compareTo(BigDecimal.ZERO) <= 0) {
+            throw new IllegalStateException();
+        }
+        BigDecimal afterDeposit = decimalBalance.add(decimalAmount);
+        BigDecimal afterWithdrawal = afterDeposit.subtract(decimalAmount);
+        if (afterWithdrawal.compareTo(BigDecimal.ZERO) < 0) {
+            throw new IllegalStateException();
+        }
+        decimalBalance = afterWithdrawal;
+        return decimalBalance;
+    }
+
+    @Benchmark
+    public long longCentsDepositThenWithdraw() {
+        if (centsAmount <= 0) {
+            throw new IllegalStateException();
+        }
+        long afterDeposit = Money.add(centsBalance, centsAmount);
+        long afterWithdrawal = Money.subtract(afterDeposit, centsAmount);
+        if (afterWithdrawal < 0) {
+            throw new IllegalStateException();
+        }
+        centsBalance = afterWithdrawal;
+        return centsBalance;
+    }
+
+    @Benchmark
+    public long apiEdgeConversion() {
+        return Money.toCents(decimalAmount);
+    }
+}
@@ -0,0 +1,63 @@
+package fr.angelique.bankaccount.benchmark;
+
+import fr.angelique.bankaccount.repository.InMemoryOperationRepository;
+import fr.angelique.bankaccount.repository.OperationQuery;
+import fr.angelique.bankaccount.repository.OperationRepository;
+import fr.angelique.bankaccount.repository.columnar.ColumnarOperationRepository;
+import fr.angelique.bankaccount.service.model.Operation;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.TimeUnit;
+
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(value = 1, jvmArgsAppend = "-Xmx2g")
+public class OperationRepositoryBenchmark {
+
+    private static final int HISTORY_SIZE = 100_000;
+
+    @Param({"inMemory", "columnar"})
+    private String repository;
+
+    private final UUID accountId = UUID.randomUUID();
+
+    private final OperationQuery lastPage = OperationQuery.all().limit(100);
+
+    private OperationRepository operationRepository;
+
+    @Setup
+    public void setUp() {
+        List<Operation> history = new ArrayList<>(BenchmarkOperations.history(accountId, HISTORY_SIZE));
+        Collections.reverse(history);
+        operationRepository = repository.equals("columnar") ? new ColumnarOperationRepository() : new InMemoryOperationRepository();
+        operationRepository.createAll(history);
+    }
+
+    @Benchmark
+    public void readLastPage(Blackhole blackhole) {
+        operationRepository.streamByAccountIdOrderByDateDesc(accountId, lastPage).forEach(blackhole::consume);
+    }
+
+    @Benchmark
+    public void readWholeHistory(Blackhole blackhole) {
+        operationRepository.streamByAccountIdOrderByDateDesc(accountId, OperationQuery.all()).forEach(blackhole::consume);
+    }
+}
@@ -0,0 +1,97 @@
+package fr.angelique.bankaccount.benchmark;
+
+import fr.angelique.bankaccount.TextOperationsFormatter;
+import fr.angelique.bankaccount.repository.InMemoryAccountRepository;
+import fr.angelique.bankaccount.service.BankAccountCheckingService;
+import fr.angelique.bankaccount.service.model.OperationResult;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.math.BigDecimal;
+import java.time.Clock;
+import java.util.UUID;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Reject-heavy traffic: overdrafts, negative amounts and unknown accounts, reported through
+ * exceptions and through {@link OperationResult}.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class RejectionBenchmark {
+
+    private static final BigDecimal AMOUNT = new BigDecimal("10.00");
+    private static final BigDecimal NEGATIVE_AMOUNT = new BigDecimal("-10.00");
+
+    private final InMemoryAccountRepository accountRepository = new InMemoryAccountRepository();
+
+    private final UUID emptyAccount = UUID.randomUUID();
+
+    private final UUID unknownAccount = UUID.randomUUID();
+
+    private BankAccountCheckingService service;
+
+    @Setup
+    public void setUp() {
+        accountRepository.open(emptyAccount, 0L);
+        service = new BankAccountCheckingService(accountRepository, new DiscardingOperationRepository(),
+                new TextOperationsFormatter(), lines -> { }, Clock.systemDefaultZone());
+    }
+
+    @Benchmark
+    public Exception throwingOverdraft() {
+        try {
+            service.withdraw(emptyAccount, AMOUNT, "retrait");
+            return null;
+        } catch (Exception e) {
+            return e;
+        }
+    }
+
+    @Benchmark
+    public OperationResult resultOverdraft() {
+        return service.tryWithdraw(emptyAccount, AMOUNT, "retrait");
+    }
+
+    @Benchmark
+    public Exception throwingNegativeAmount() {
+        try {
+            service.deposit(emptyAccount, NEGATIVE_AMOUNT, "depot");
+            return null;
+        } catch (Exception e) {
+            return e;
+        }
+    }
+
+    @Benchmark
+    public OperationResult resultNegativeAmount() {
+        return service.tryDeposit(emptyAccount, NEGATIVE_AMOUNT, "depot");
+    }
+
+    @Benchmark
+    public Exception throwingAccountNotFound() {
+        try {
+            service.deposit(unknownAccount, AMOUNT, "depot");
+            return null;
+        } catch (Exception e) {
+            return e;
+        }
+    }
+
+    @Benchmark
+    public OperationResult resultAccountNotFound() {
+        return service.tryDeposit(unknownAccount, AMOUNT, "depot");
+    }
+}
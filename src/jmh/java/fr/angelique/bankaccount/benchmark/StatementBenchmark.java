@@ -0,0 +1,60 @@
+package fr.angelique.bankaccount.benchmark;
+
+import fr.angelique.bankaccount.TextOperationsFormatter;
+import fr.angelique.bankaccount.repository.InMemoryAccountRepository;
+import fr.angelique.bankaccount.service.BankAccountCheckingService;
+import fr.angelique.bankaccount.service.model.Operation;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+
+import java.time.Clock;
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.TimeUnit;
+
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(value = 1, jvmArgsAppend = {"-Duser.language=fr", "-Duser.country=FR", "-Xmx2g"})
+public class StatementBenchmark {
+
+    @Param({"10", "10000", "1000000"})
+    private int operationCount;
+
+    private final TextOperationsFormatter formatter = new TextOperationsFormatter();
+
+    private final UUID accountId = UUID.randomUUID();
+
+    private List<Operation> operations;
+
+    private BankAccountCheckingService service;
+
+    @Setup
+    public void setUp(Blackhole blackhole) {
+        operations = BenchmarkOperations.history(accountId, operationCount);
+        service = new BankAccountCheckingService(new InMemoryAccountRepository(), new DiscardingOperationRepository(operations),
+                formatter, lines -> lines.forEach(blackhole::consume), Clock.systemDefaultZone());
+    }
+
+    @Benchmark
+    public List<String> format() {
+        return formatter.format(operations);
+    }
+
+    @Benchmark
+    public void printAccountOperations() {
+        service.printAccountOperations(accountId);
+    }
+}
@@ -0,0 +1,96 @@
+package fr.angelique.bankaccount.benchmark;
+
+import fr.angelique.bankaccount.TextOperationsFormatter;
+import fr.angelique.bankaccount.enums.OperationType;
+import fr.angelique.bankaccount.repository.InMemoryOperationRepository;
+import fr.angelique.bankaccount.repository.OperationQuery;
+import fr.angelique.bankaccount.service.model.Operation;
+import fr.angelique.bankaccount.statement.StatementCache;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Statement of a 10 000 operations account printed after each new deposit, rendered from the
+ * history and from the statement cache, and balance of the account at a past date.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(value = 1, jvmArgsAppend = "-Xmx2g")
+public class StatementCacheBenchmark {
+
+    private static final int HISTORY_SIZE = 10_000;
+
+    private final UUID accountId = UUID.randomUUID();
+
+    private final TextOperationsFormatter formatter = new TextOperationsFormatter();
+
+    private InMemoryOperationRepository history;
+
+    private StatementCache cache;
+
+    private LocalDateTime now;
+
+    private LocalDateTime middle;
+
+    @Setup
+    public void setUp() {
+        List<Operation> operations = new ArrayList<>(BenchmarkOperations.history(accountId, HISTORY_SIZE));
+        Collections.reverse(operations);
+        history = new InMemoryOperationRepository();
+        history.createAll(operations);
+        cache = new StatementCache(new InMemoryOperationRepository(), formatter, Long.MAX_VALUE);
+        cache.createAll(operations);
+        now = operations.get(operations.size() - 1).getDate();
+        middle = operations.get(HISTORY_SIZE / 2).getDate();
+    }
+
+    @Benchmark
+    public void printAfterDepositUncached(Blackhole blackhole) {
+        history.create(deposit());
+        formatter.format(history.streamByAccountIdOrderByDateDesc(accountId, OperationQuery.all())).forEach(blackhole::consume);
+    }
+
+    @Benchmark
+    public void printAfterDepositCached(Blackhole blackhole) {
+        cache.create(deposit());
+        cache.statementLines(accountId).forEach(blackhole::consume);
+    }
+
+    @Benchmark
+    public long balanceAtScan() {
+        return history.streamByAccountIdOrderByDateDesc(accountId, OperationQuery.all())
+                .filter(operation -> !operation.getDate().isAfter(middle))
+                .findFirst()
+                .map(Operation::getBalance)
+                .orElse(0L);
+    }
+
+    @Benchmark
+    public long balanceAtCached() {
+        return cache.balanceAt(accountId, middle).orElse(0L);
+    }
+
+    private Operation deposit() {
+        now = now.plusSeconds(1);
+        return new Operation(accountId, OperationType.DEPOSIT, "versement", now, 100, 0);
+    }
+}
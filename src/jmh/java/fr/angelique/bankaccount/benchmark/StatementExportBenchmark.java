@@ -0,0 +1,109 @@
+package fr.angelique.bankaccount.benchmark;
+
+import fr.angelique.bankaccount.ChannelAccountStatementPrinter;
+import fr.angelique.bankaccount.TextOperationsFormatter;
+import fr.angelique.bankaccount.export.BinaryStatementExporter;
+import fr.angelique.bankaccount.export.BinaryStatementReader;
+import fr.angelique.bankaccount.export.CsvStatementExporter;
+import fr.angelique.bankaccount.export.CsvStatementReader;
+import fr.angelique.bankaccount.service.model.Operation;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.Channels;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Writes a 10 000 operation statement as text, CSV and binary to /dev/null, and parses the CSV
+ * and binary exports back.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(value = 1, jvmArgsAppend = {"-Duser.language=fr", "-Duser.country=FR"})
+public class StatementExportBenchmark {
+
+    private static final int OPERATION_COUNT = 10_000;
+
+    private final UUID accountId = UUID.randomUUID();
+
+    private final TextOperationsFormatter textFormatter = new TextOperationsFormatter();
+
+    private final CsvStatementExporter csvExporter = new CsvStatementExporter();
+
+    private final BinaryStatementExporter binaryExporter = new BinaryStatementExporter();
+
+    private List<Operation> operations;
+
+    private FileChannel channel;
+
+    private ChannelAccountStatementPrinter textPrinter;
+
+    private String csv;
+
+    private ByteBuffer binary;
+
+    @Setup
+    public void setUp() throws IOException {
+        operations = BenchmarkOperations.history(accountId, OPERATION_COUNT);
+        channel = FileChannel.open(Path.of("/dev/null"), StandardOpenOption.WRITE);
+        textPrinter = new ChannelAccountStatementPrinter(channel);
+        ByteArrayOutputStream csvOutput = new ByteArrayOutputStream();
+        csvExporter.export(accountId, operations.stream(), Channels.newChannel(csvOutput));
+        csv = csvOutput.toString(StandardCharsets.UTF_8);
+        ByteArrayOutputStream binaryOutput = new ByteArrayOutputStream();
+        binaryExporter.export(accountId, operations.stream(), Channels.newChannel(binaryOutput));
+        binary = ByteBuffer.wrap(binaryOutput.toByteArray());
+    }
+
+    @TearDown
+    public void tearDown() throws IOException {
+        channel.close();
+    }
+
+    @Benchmark
+    public void writeText() {
+        textPrinter.print(textFormatter.format(operations.stream()));
+    }
+
+    @Benchmark
+    public void writeCsv() {
+        csvExporter.export(accountId, operations.stream(), channel);
+    }
+
+    @Benchmark
+    public void writeBinary() {
+        binaryExporter.export(accountId, operations.stream(), channel);
+    }
+
+    @Benchmark
+    public void readCsv(Blackhole blackhole) {
+        CsvStatementReader.read(csv, blackhole::consume);
+    }
+
+    @Benchmark
+    public void readBinary(Blackhole blackhole) {
+        BinaryStatementReader.read(binary.duplicate(), blackhole::consume);
+    }
+}
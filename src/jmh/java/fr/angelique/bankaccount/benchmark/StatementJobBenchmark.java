@@ -0,0 +1,89 @@
+package fr.angelique.bankaccount.benchmark;
+
+import fr.angelique.bankaccount.TextOperationsFormatter;
+import fr.angelique.bankaccount.repository.InMemoryOperationRepository;
+import fr.angelique.bankaccount.repository.OperationQuery;
+import fr.angelique.bankaccount.service.model.Operation;
+import fr.angelique.bankaccount.statement.StatementJob;
+import fr.angelique.bankaccount.statement.StatementJobListener;
+import fr.angelique.bankaccount.statement.StatementJobReport;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Stream;
+
+/**
+ * Month-end run over 10000 accounts of 50 operations each, for several pool sizes.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.SingleShotTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3)
+@Measurement(iterations = 5)
+@Fork(value = 1, jvmArgsAppend = {"-Duser.language=fr", "-Duser.country=FR", "-Xmx2g"})
+public class StatementJobBenchmark {
+
+    private static final int ACCOUNT_COUNT = 10_000;
+    private static final int OPERATIONS_PER_ACCOUNT = 50;
+    private static final int PARTITION_SIZE = 256;
+
+    @Param({"1", "2", "4", "8"})
+    private int parallelism;
+
+    private final InMemoryOperationRepository operationRepository = new InMemoryOperationRepository();
+
+    private final List<UUID> accountIds = new ArrayList<>();
+
+    private Path directory;
+
+    @Setup(Level.Trial)
+    public void setUpAccounts() {
+        for (int i = 0; i < ACCOUNT_COUNT; i++) {
+            UUID accountId = UUID.randomUUID();
+            accountIds.add(accountId);
+            List<Operation> history = new ArrayList<>(BenchmarkOperations.history(accountId, OPERATIONS_PER_ACCOUNT));
+            Collections.reverse(history);
+            operationRepository.createAll(history);
+        }
+    }
+
+    @Setup(Level.Invocation)
+    public void setUpDirectory() throws IOException {
+        directory = Files.createTempDirectory("statement-job");
+    }
+
+    @TearDown(Level.Invocation)
+    public void deleteDirectory() throws IOException {
+        try (Stream<Path> files = Files.walk(directory)) {
+            for (Path file : files.sorted(Comparator.reverseOrder()).toList()) {
+                Files.delete(file);
+            }
+        }
+    }
+
+    @Benchmark
+    public StatementJobReport run() {
+        return new StatementJob(operationRepository, new TextOperationsFormatter(), directory, parallelism, PARTITION_SIZE)
+                .run(accountIds, OperationQuery.all(), StatementJobListener.NONE);
+    }
+}
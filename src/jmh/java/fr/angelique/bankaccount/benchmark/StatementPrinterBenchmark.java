@@ -0,0 +1,80 @@
+package fr.angelique.bankaccount.benchmark;
+
+import fr.angelique.bankaccount.AccountStatementConsolePrinter;
+import fr.angelique.bankaccount.ChannelAccountStatementPrinter;
+import fr.angelique.bankaccount.TextOperationsFormatter;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.io.BufferedOutputStream;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.PrintStream;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.TimeUnit;
+
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(value = 1, jvmArgsAppend = {"-Duser.language=fr", "-Duser.country=FR"})
+public class StatementPrinterBenchmark {
+
+    private static final String DEV_NULL = "/dev/null";
+
+    @Param({"10000"})
+    private int lineCount;
+
+    private List<String> lines;
+
+    private PrintStream originalOut;
+
+    private FileChannel channel;
+
+    private AccountStatementConsolePrinter consolePrinter;
+
+    private ChannelAccountStatementPrinter channelPrinter;
+
+    @Setup
+    public void setUp() throws IOException {
+        lines = new TextOperationsFormatter().format(BenchmarkOperations.history(UUID.randomUUID(), lineCount));
+        originalOut = System.out;
+        System.setOut(new PrintStream(new BufferedOutputStream(new FileOutputStream(DEV_NULL), 128), true, StandardCharsets.UTF_8));
+        consolePrinter = new AccountStatementConsolePrinter();
+        channel = FileChannel.open(Path.of(DEV_NULL), StandardOpenOption.WRITE);
+        channelPrinter = new ChannelAccountStatementPrinter(channel);
+    }
+
+    @TearDown
+    public void tearDown() throws IOException {
+        System.out.close();
+        System.setOut(originalOut);
+        channel.close();
+    }
+
+    @Benchmark
+    public void consolePrinter() {
+        consolePrinter.print(lines);
+    }
+
+    @Benchmark
+    public void channelPrinter() {
+        channelPrinter.print(lines);
+    }
+}
@@ -1,11 +1,11 @@
 package fr.angelique.bankaccount;
 
-import java.util.List;
+import java.util.stream.Stream;
 
 public class AccountStatementConsolePrinter implements AccountStatementPrinter {
 
     @Override
-    public void print(List<String> statementLines) {
-        statementLines.forEach(System.out::println);
+    public void print(Stream<String> statementLines) {
+        statementLines.forEachOrdered(System.out::println);
     }
 }
@@ -1,7 +1,12 @@
 package fr.angelique.bankaccount;
 
 import java.util.List;
+import java.util.stream.Stream;
 
 public interface AccountStatementPrinter {
-    void print(List<String> statementLines);
+    void print(Stream<String> statementLines);
+
+    default void print(List<String> statementLines) {
+        print(statementLines.stream());
+    }
 }
@@ -0,0 +1,33 @@
+package fr.angelique.bankaccount;
+
+import java.io.FileDescriptor;
+import java.io.FileOutputStream;
+import java.nio.channels.WritableByteChannel;
+import java.util.stream.Stream;
+
+public class ChannelAccountStatementPrinter implements AccountStatementPrinter {
+
+    static final int DEFAULT_BUFFER_SIZE = 256 * 1024;
+
+    private final WritableByteChannel channel;
+
+    private final StatementLineEncoder encoder;
+
+    public ChannelAccountStatementPrinter(WritableByteChannel channel) {
+        this(channel, DEFAULT_BUFFER_SIZE);
+    }
+
+    public ChannelAccountStatementPrinter(WritableByteChannel channel, int bufferSize) {
+        this.channel = channel;
+        this.encoder = new StatementLineEncoder(bufferSize);
+    }
+
+    public static ChannelAccountStatementPrinter toStandardOutput() {
+        return new ChannelAccountStatementPrinter(new FileOutputStream(FileDescriptor.out).getChannel());
+    }
+
+    @Override
+    public synchronized void print(Stream<String> statementLines) {
+        encoder.write(statementLines, channel);
+    }
+}
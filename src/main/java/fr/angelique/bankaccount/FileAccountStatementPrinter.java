@@ -0,0 +1,73 @@
+package fr.angelique.bankaccount;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.channels.FileChannel;
+import java.nio.file.FileAlreadyExistsException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.Queue;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+import java.util.stream.Stream;
+
+/**
+ * Writes each statement into its own numbered file. A number already taken in the directory, by
+ * a previous run or another printer, is skipped past the highest number found there.
+ */
+public class FileAccountStatementPrinter implements AccountStatementPrinter {
+
+    private static final Pattern STATEMENT_NAME = Pattern.compile("statement-(\\d+)\\.txt");
+
+    private final Path directory;
+
+    private final AtomicLong statementCount = new AtomicLong();
+
+    private final Queue<StatementLineEncoder> idleEncoders = new ConcurrentLinkedQueue<>();
+
+    public FileAccountStatementPrinter(Path directory) {
+        this.directory = directory;
+    }
+
+    @Override
+    public void print(Stream<String> statementLines) {
+        try {
+            Files.createDirectories(directory);
+            StatementLineEncoder encoder = idleEncoders.poll();
+            if (encoder == null) {
+                encoder = new StatementLineEncoder(ChannelAccountStatementPrinter.DEFAULT_BUFFER_SIZE);
+            }
+            try (FileChannel channel = createStatement()) {
+                encoder.write(statementLines, channel);
+            } finally {
+                idleEncoders.offer(encoder);
+            }
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    private FileChannel createStatement() throws IOException {
+        while (true) {
+            Path statement = directory.resolve(String.format("statement-%09d.txt", statementCount.incrementAndGet()));
+            try {
+                return FileChannel.open(statement, StandardOpenOption.CREATE_NEW, StandardOpenOption.WRITE);
+            } catch (FileAlreadyExistsException e) {
+                statementCount.accumulateAndGet(lastStatementNumber(), Math::max);
+            }
+        }
+    }
+
+    private long lastStatementNumber() throws IOException {
+        try (Stream<Path> files = Files.list(directory)) {
+            return files.map(file -> STATEMENT_NAME.matcher(file.getFileName().toString()))
+                    .filter(Matcher::matches)
+                    .mapToLong(matcher -> Long.parseLong(matcher.group(1)))
+                    .max()
+                    .orElse(0);
+        }
+    }
+}
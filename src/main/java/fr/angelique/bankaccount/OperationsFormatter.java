@@ -3,7 +3,16 @@ package fr.angelique.bankaccount;
 import fr.angelique.bankaccount.service.model.Operation;
 
 import java.util.List;
+import java.util.stream.Stream;
 
 public interface OperationsFormatter {
-    List<String> format(List<Operation> operations);
+    String format(Operation operation);
+
+    default List<String> format(List<Operation> operations) {
+        return operations.stream().map(this::format).toList();
+    }
+
+    default Stream<String> format(Stream<Operation> operations) {
+        return operations.map(this::format);
+    }
 }
@@ -0,0 +1,75 @@
+package fr.angelique.bankaccount;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.WritableByteChannel;
+import java.util.stream.Stream;
+
+class StatementLineEncoder {
+
+    private static final String LINE_SEPARATOR = System.lineSeparator();
+    private static final int MAX_BYTES_PER_CHAR = 3;
+    private static final byte REPLACEMENT = '?';
+
+    private final byte[] bytes;
+    private final ByteBuffer buffer;
+    private int position;
+
+    StatementLineEncoder(int bufferSize) {
+        this.bytes = new byte[Math.max(bufferSize, 2 * MAX_BYTES_PER_CHAR)];
+        this.buffer = ByteBuffer.wrap(bytes);
+    }
+
+    void write(Stream<String> statementLines, WritableByteChannel channel) {
+        try {
+            statementLines.forEachOrdered(line -> {
+                encode(line, channel);
+                encode(LINE_SEPARATOR, channel);
+            });
+            drain(channel);
+        } finally {
+            position = 0;
+        }
+    }
+
+    private void encode(String text, WritableByteChannel channel) {
+        int length = text.length();
+        for (int i = 0; i < length; i++) {
+            if (position > bytes.length - 2 * MAX_BYTES_PER_CHAR) {
+                drain(channel);
+            }
+            char c = text.charAt(i);
+            if (c < 0x80) {
+                bytes[position++] = (byte) c;
+            } else if (c < 0x800) {
+                bytes[position++] = (byte) (0xC0 | c >> 6);
+                bytes[position++] = (byte) (0x80 | c & 0x3F);
+            } else if (Character.isHighSurrogate(c) && i + 1 < length && Character.isLowSurrogate(text.charAt(i + 1))) {
+                int codePoint = Character.toCodePoint(c, text.charAt(++i));
+                bytes[position++] = (byte) (0xF0 | codePoint >> 18);
+                bytes[position++] = (byte) (0x80 | codePoint >> 12 & 0x3F);
+                bytes[position++] = (byte) (0x80 | codePoint >> 6 & 0x3F);
+                bytes[position++] = (byte) (0x80 | codePoint & 0x3F);
+            } else if (Character.isSurrogate(c)) {
+                bytes[position++] = REPLACEMENT;
+            } else {
+                bytes[position++] = (byte) (0xE0 | c >> 12);
+                bytes[position++] = (byte) (0x80 | c >> 6 & 0x3F);
+                bytes[position++] = (byte) (0x80 | c & 0x3F);
+            }
+        }
+    }
+
+    private void drain(WritableByteChannel channel) {
+        buffer.clear().limit(position);
+        try {
+            while (buffer.hasRemaining()) {
+                channel.write(buffer);
+            }
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+        position = 0;
+    }
+}
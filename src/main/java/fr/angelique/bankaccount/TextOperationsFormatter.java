@@ -1,45 +1,185 @@
 package fr.angelique.bankaccount;
 
 import fr.angelique.bankaccount.enums.OperationType;
+import fr.angelique.bankaccount.service.model.Money;
 import fr.angelique.bankaccount.service.model.Operation;
 
 import java.text.DecimalFormat;
+import java.text.DecimalFormatSymbols;
+import java.text.NumberFormat;
+import java.time.LocalDateTime;
 import java.time.format.DateTimeFormatter;
 import java.util.List;
-import java.util.stream.Collectors;
+import java.util.Locale;
+import java.util.stream.Stream;
 
 public class TextOperationsFormatter implements OperationsFormatter {
 
+    private static final String WITHDRAWAL_LABEL = "Retrait";
+    private static final String DEPOSIT_LABEL = "Dépot";
+
+    private static final String TYPE_PREFIX = "Type d'opération : ";
+    private static final String LIBELLE_PREFIX = ", libelle: ";
+    private static final String DATE_PREFIX = ", date : ";
+    private static final String AMOUNT_PREFIX = ", montant de l'opération : ";
+    private static final String BALANCE_PREFIX = " euros, solde après opération : ";
+    private static final String SUFFIX = " euros";
+
+    private static final DateTimeFormatter DATE_FORMAT = DateTimeFormatter.ofPattern("yyyy-MM-dd HH:mm:ss");
+    private static final int LINE_CAPACITY = 192;
+    private static final ThreadLocal<StringBuilder> LINE = ThreadLocal.withInitial(() -> new StringBuilder(LINE_CAPACITY));
+
+    private final Locale locale;
+    private final char zeroDigit;
+    private final char decimalSeparator;
+    private final char groupingSeparator;
+    private final int groupingSize;
+    private final int minimumIntegerDigits;
+    private final int minimumFractionDigits;
+    private final String positivePrefix;
+    private final String positiveSuffix;
+    private final String negativePrefix;
+    private final String negativeSuffix;
+
+    public TextOperationsFormatter() {
+        this(Locale.getDefault(Locale.Category.FORMAT));
+    }
+
+    public TextOperationsFormatter(Locale locale) {
+        this.locale = locale;
+        DecimalFormat decimalFormat = formatDecimal(locale);
+        DecimalFormatSymbols symbols = decimalFormat.getDecimalFormatSymbols();
+        this.zeroDigit = symbols.getZeroDigit();
+        this.decimalSeparator = symbols.getDecimalSeparator();
+        this.groupingSeparator = symbols.getGroupingSeparator();
+        this.groupingSize = decimalFormat.isGroupingUsed() ? decimalFormat.getGroupingSize() : 0;
+        this.minimumIntegerDigits = decimalFormat.getMinimumIntegerDigits();
+        this.minimumFractionDigits = decimalFormat.getMinimumFractionDigits();
+        this.positivePrefix = decimalFormat.getPositivePrefix();
+        this.positiveSuffix = decimalFormat.getPositiveSuffix();
+        this.negativePrefix = decimalFormat.getNegativePrefix();
+        this.negativeSuffix = decimalFormat.getNegativeSuffix();
+    }
+
+    @Override
+    public String format(Operation operation) {
+        StringBuilder line = new StringBuilder(LINE_CAPACITY);
+        formatTo(operation, line);
+        return line.toString();
+    }
+
     @Override
     public List<String> format(List<Operation> operations) {
-        DecimalFormat decimalFormat = formatDecimal();
-
-        DateTimeFormatter dateFormat = DateTimeFormatter.ofPattern("yyyy-MM-dd HH:mm:ss");
-
-        return operations.stream()
-                .map(operation -> String.format("Type d'opération : %s, " +
-                                "libelle: %s, " +
-                                "date : %s, " +
-                                "montant de l'opération : %s euros, " +
-                                "solde après opération : %s euros",
-                        extractOperationLabel(operation.getOperationType()),
-                        operation.getData(),
-                        operation.getDate().format(dateFormat),
-                        decimalFormat.format(operation.getAmount()),
-                        decimalFormat.format(operation.getBalance())
-                ))
-                .collect(Collectors.toList());
-    }
-    private static DecimalFormat formatDecimal() {
-        DecimalFormat decimalFormat = new DecimalFormat();
+        return format(operations.stream()).toList();
+    }
+
+    /**
+     * Renders each line in a builder owned by the rendering thread, so the returned stream may be
+     * made parallel by the caller.
+     */
+    @Override
+    public Stream<String> format(Stream<Operation> operations) {
+        return operations.map(operation -> {
+            StringBuilder line = LINE.get();
+            line.setLength(0);
+            formatTo(operation, line);
+            return line.toString();
+        });
+    }
+
+    public void formatTo(Operation operation, StringBuilder line) {
+        line.append(TYPE_PREFIX).append(extractOperationLabel(operation.getOperationType()))
+                .append(LIBELLE_PREFIX).append(operation.getData())
+                .append(DATE_PREFIX);
+        appendDate(operation.getDate(), line);
+        line.append(AMOUNT_PREFIX);
+        appendAmount(operation.getAmount(), line);
+        line.append(BALANCE_PREFIX);
+        appendAmount(operation.getBalance(), line);
+        line.append(SUFFIX);
+    }
+
+    private void appendAmount(long cents, StringBuilder line) {
+        if (cents == Long.MIN_VALUE) {
+            line.append(formatDecimal(locale).format(Money.toBigDecimal(cents)));
+            return;
+        }
+        boolean negative = cents < 0;
+        long magnitude = Math.abs(cents);
+        long euros = magnitude / 100;
+        int fraction = (int) (magnitude % 100);
+
+        line.append(negative ? negativePrefix : positivePrefix);
+        appendInteger(euros, line);
+        int fractionDigits = fraction % 10 != 0 ? 2 : fraction != 0 ? 1 : 0;
+        fractionDigits = Math.max(fractionDigits, minimumFractionDigits);
+        if (fractionDigits > 0) {
+            line.append(decimalSeparator).append((char) (zeroDigit + fraction / 10));
+            if (fractionDigits > 1) {
+                line.append((char) (zeroDigit + fraction % 10));
+            }
+        }
+        line.append(negative ? negativeSuffix : positiveSuffix);
+    }
+
+    private void appendInteger(long value, StringBuilder line) {
+        int digits = Math.max(digitCount(value), minimumIntegerDigits);
+        long divisor = 1;
+        for (int i = 1; i < digits; i++) {
+            divisor *= 10;
+        }
+        for (int remaining = digits; remaining > 0; remaining--) {
+            line.append((char) (zeroDigit + (value / divisor) % 10));
+            divisor /= 10;
+            if (groupingSize > 0 && remaining > 1 && (remaining - 1) % groupingSize == 0) {
+                line.append(groupingSeparator);
+            }
+        }
+    }
+
+    private static int digitCount(long value) {
+        int digits = 1;
+        while (value >= 10) {
+            value /= 10;
+            digits++;
+        }
+        return digits;
+    }
+
+    private static void appendDate(LocalDateTime date, StringBuilder line) {
+        int year = date.getYear();
+        if (year < 1 || year > 9999) {
+            line.append(date.format(DATE_FORMAT));
+            return;
+        }
+        appendTwoDigits(year / 100, line);
+        appendTwoDigits(year % 100, line);
+        line.append('-');
+        appendTwoDigits(date.getMonthValue(), line);
+        line.append('-');
+        appendTwoDigits(date.getDayOfMonth(), line);
+        line.append(' ');
+        appendTwoDigits(date.getHour(), line);
+        line.append(':');
+        appendTwoDigits(date.getMinute(), line);
+        line.append(':');
+        appendTwoDigits(date.getSecond(), line);
+    }
+
+    private static void appendTwoDigits(int value, StringBuilder line) {
+        line.append((char) ('0' + value / 10)).append((char) ('0' + value % 10));
+    }
+
+    private static DecimalFormat formatDecimal(Locale locale) {
+        DecimalFormat decimalFormat = (DecimalFormat) NumberFormat.getNumberInstance(locale);
         decimalFormat.setMaximumFractionDigits(2);
         return decimalFormat;
     }
 
     private String extractOperationLabel(OperationType operationType) {
         return switch (operationType) {
-            case WITHDRAWAL -> "Retrait";
-            case DEPOSIT -> "Dépot";
+            case WITHDRAWAL -> WITHDRAWAL_LABEL;
+            case DEPOSIT -> DEPOSIT_LABEL;
         };
     }
 }
@@ -0,0 +1,35 @@
+package fr.angelique.bankaccount.cluster;
+
+import fr.angelique.bankaccount.service.model.Operation;
+
+import java.util.List;
+import java.util.UUID;
+
+/**
+ * Balance and full history of an account moving from one node to another, newest operation
+ * first.
+ */
+final class AccountHandoff {
+
+    private final UUID accountId;
+    private final long balance;
+    private final List<Operation> operations;
+
+    AccountHandoff(UUID accountId, long balance, List<Operation> operations) {
+        this.accountId = accountId;
+        this.balance = balance;
+        this.operations = operations;
+    }
+
+    UUID getAccountId() {
+        return accountId;
+    }
+
+    long getBalance() {
+        return balance;
+    }
+
+    List<Operation> getOperations() {
+        return operations;
+    }
+}
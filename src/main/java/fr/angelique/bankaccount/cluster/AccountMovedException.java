@@ -0,0 +1,14 @@
+package fr.angelique.bankaccount.cluster;
+
+/**
+ * Answer of a node asked about an account it no longer owns. The request was not applied, so
+ * the router sends it again to the owner of the current ring.
+ */
+final class AccountMovedException extends RuntimeException {
+
+    static final AccountMovedException INSTANCE = new AccountMovedException();
+
+    private AccountMovedException() {
+        super("Le compte a changé de nœud", null, false, false);
+    }
+}
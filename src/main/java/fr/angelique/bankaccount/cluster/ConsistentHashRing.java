@@ -0,0 +1,121 @@
+package fr.angelique.bankaccount.cluster;
+
+import java.nio.charset.StandardCharsets;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.LinkedHashSet;
+import java.util.Set;
+import java.util.UUID;
+
+/**
+ * Immutable consistent-hash ring placing each node at several virtual points, so that adding or
+ * removing a node only moves the accounts of the arcs it gains or loses.
+ */
+public final class ConsistentHashRing {
+
+    public static final int DEFAULT_VIRTUAL_NODES = 128;
+
+    private final int virtualNodes;
+
+    private final Set<String> nodes;
+
+    private final long[] points;
+
+    private final String[] owners;
+
+    public ConsistentHashRing() {
+        this(DEFAULT_VIRTUAL_NODES);
+    }
+
+    public ConsistentHashRing(int virtualNodes) {
+        this(virtualNodes, Set.of());
+    }
+
+    private ConsistentHashRing(int virtualNodes, Set<String> nodes) {
+        if (virtualNodes <= 0) {
+            throw new IllegalArgumentException("Le nombre de nœuds virtuels doit être positif : " + virtualNodes);
+        }
+        this.virtualNodes = virtualNodes;
+        this.nodes = Collections.unmodifiableSet(nodes);
+        long[] unsortedPoints = new long[nodes.size() * virtualNodes];
+        String[] unsortedOwners = new String[unsortedPoints.length];
+        int count = 0;
+        for (String node : nodes) {
+            for (int i = 0; i < virtualNodes; i++) {
+                unsortedPoints[count] = hash(node + '#' + i);
+                unsortedOwners[count++] = node;
+            }
+        }
+        Integer[] order = new Integer[count];
+        Arrays.setAll(order, i -> i);
+        Arrays.sort(order, (left, right) -> {
+            int comparison = Long.compare(unsortedPoints[left], unsortedPoints[right]);
+            return comparison != 0 ? comparison : unsortedOwners[left].compareTo(unsortedOwners[right]);
+        });
+        points = new long[count];
+        owners = new String[count];
+        for (int i = 0; i < count; i++) {
+            points[i] = unsortedPoints[order[i]];
+            owners[i] = unsortedOwners[order[i]];
+        }
+    }
+
+    public ConsistentHashRing withNode(String nodeId) {
+        if (nodes.contains(nodeId)) {
+            throw new IllegalArgumentException("Le nœud existe déjà : " + nodeId);
+        }
+        Set<String> next = new LinkedHashSet<>(nodes);
+        next.add(nodeId);
+        return new ConsistentHashRing(virtualNodes, next);
+    }
+
+    public ConsistentHashRing withoutNode(String nodeId) {
+        if (!nodes.contains(nodeId)) {
+            throw new IllegalArgumentException("Le nœud n'existe pas : " + nodeId);
+        }
+        Set<String> next = new LinkedHashSet<>(nodes);
+        next.remove(nodeId);
+        return new ConsistentHashRing(virtualNodes, next);
+    }
+
+    public Set<String> getNodes() {
+        return nodes;
+    }
+
+    public boolean isEmpty() {
+        return nodes.isEmpty();
+    }
+
+    /**
+     * Returns the node owning the first point at or after the hash of the account, wrapping
+     * around the ring.
+     */
+    public String nodeFor(UUID accountId) {
+        if (points.length == 0) {
+            throw new IllegalStateException("Aucun nœud dans le cluster");
+        }
+        int index = Arrays.binarySearch(points, hash(accountId));
+        if (index < 0) {
+            index = -index - 1;
+        }
+        return owners[index == points.length ? 0 : index];
+    }
+
+    private static long hash(UUID accountId) {
+        return mix(accountId.getMostSignificantBits() * 0x9E3779B97F4A7C15L + accountId.getLeastSignificantBits());
+    }
+
+    private static long hash(String point) {
+        long hash = 0xCBF29CE484222325L;
+        for (byte b : point.getBytes(StandardCharsets.UTF_8)) {
+            hash = (hash ^ b) * 0x100000001B3L;
+        }
+        return mix(hash);
+    }
+
+    private static long mix(long hash) {
+        hash = (hash ^ (hash >>> 33)) * 0xFF51AFD7ED558CCDL;
+        hash = (hash ^ (hash >>> 33)) * 0xC4CEB9FE1A85EC53L;
+        return hash ^ (hash >>> 33);
+    }
+}
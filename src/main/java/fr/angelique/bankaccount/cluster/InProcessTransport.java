@@ -0,0 +1,136 @@
+package fr.angelique.bankaccount.cluster;
+
+import java.time.Duration;
+import java.util.Random;
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.locks.LockSupport;
+import java.util.function.Function;
+
+/**
+ * Runs every registered node in this JVM with a fixed number of worker threads, as if each node
+ * were a separate process.
+ * <p>
+ * The injected latency is spent on the worker of the target node before the request runs, so a
+ * node with one worker serves at most one request per latency period. Injected failures drop
+ * the request before delivery, drawn from a seeded generator so that a test replays the same
+ * failures. A disconnected node fails every request until it is reconnected.
+ */
+public class InProcessTransport implements ShardTransport, AutoCloseable {
+
+    private final ConcurrentMap<String, Endpoint> endpoints = new ConcurrentHashMap<>();
+
+    private final Set<String> disconnected = ConcurrentHashMap.newKeySet();
+
+    private final int workersPerNode;
+
+    private final Random random;
+
+    private volatile long latencyNanos;
+
+    private volatile double failureRate;
+
+    public InProcessTransport(int workersPerNode, long seed) {
+        if (workersPerNode <= 0) {
+            throw new IllegalArgumentException("Le nombre de threads par nœud doit être positif : " + workersPerNode);
+        }
+        this.workersPerNode = workersPerNode;
+        this.random = new Random(seed);
+    }
+
+    public void setLatency(Duration latency) {
+        this.latencyNanos = latency.toNanos();
+    }
+
+    public void setFailureRate(double failureRate) {
+        if (failureRate < 0 || failureRate > 1) {
+            throw new IllegalArgumentException("Le taux d'échec doit être compris entre 0 et 1 : " + failureRate);
+        }
+        this.failureRate = failureRate;
+    }
+
+    public void disconnect(String nodeId) {
+        disconnected.add(nodeId);
+    }
+
+    public void reconnect(String nodeId) {
+        disconnected.remove(nodeId);
+    }
+
+    @Override
+    public void register(ShardNode node) {
+        Endpoint endpoint = new Endpoint(node, workersPerNode);
+        if (endpoints.putIfAbsent(node.getId(), endpoint) != null) {
+            endpoint.executor.shutdown();
+            throw new IllegalArgumentException("Le nœud existe déjà : " + node.getId());
+        }
+    }
+
+    @Override
+    public void unregister(String nodeId) {
+        Endpoint endpoint = endpoints.remove(nodeId);
+        if (endpoint != null) {
+            endpoint.executor.shutdown();
+        }
+    }
+
+    @Override
+    public <T> CompletableFuture<T> send(String nodeId, Function<ShardNode, T> request) {
+        Endpoint endpoint = endpoints.get(nodeId);
+        double rate = failureRate;
+        if (endpoint == null || disconnected.contains(nodeId) || (rate > 0 && random.nextDouble() < rate)) {
+            return unavailable(nodeId);
+        }
+        long latency = latencyNanos;
+        try {
+            return CompletableFuture.supplyAsync(() -> {
+                if (latency > 0) {
+                    sleep(latency);
+                }
+                return request.apply(endpoint.node);
+            }, endpoint.executor);
+        } catch (RejectedExecutionException e) {
+            return unavailable(nodeId);
+        }
+    }
+
+    @Override
+    public void close() {
+        endpoints.values().forEach(endpoint -> endpoint.executor.shutdown());
+        endpoints.clear();
+    }
+
+    private static <T> CompletableFuture<T> unavailable(String nodeId) {
+        return CompletableFuture.failedFuture(new ShardUnavailableException("Le nœud " + nodeId + " est injoignable"));
+    }
+
+    private static void sleep(long nanos) {
+        long deadline = System.nanoTime() + nanos;
+        for (long remaining = nanos; remaining > 0; remaining = deadline - System.nanoTime()) {
+            LockSupport.parkNanos(remaining);
+        }
+    }
+
+    private static final class Endpoint {
+
+        private final ShardNode node;
+
+        private final ExecutorService executor;
+
+        Endpoint(ShardNode node, int workers) {
+            this.node = node;
+            AtomicInteger threadCount = new AtomicInteger();
+            this.executor = Executors.newFixedThreadPool(workers, runnable -> {
+                Thread thread = new Thread(runnable, "shard-" + node.getId() + "-" + threadCount.incrementAndGet());
+                thread.setDaemon(true);
+                return thread;
+            });
+        }
+    }
+}
@@ -0,0 +1,240 @@
+package fr.angelique.bankaccount.cluster;
+
+import fr.angelique.bankaccount.TextOperationsFormatter;
+import fr.angelique.bankaccount.repository.InMemoryAccountRepository;
+import fr.angelique.bankaccount.repository.InMemoryOperationRepository;
+import fr.angelique.bankaccount.repository.OperationQuery;
+import fr.angelique.bankaccount.service.BankAccountCheckingService;
+import fr.angelique.bankaccount.service.model.Movement;
+import fr.angelique.bankaccount.service.model.MovementResult;
+import fr.angelique.bankaccount.service.model.Operation;
+import fr.angelique.bankaccount.service.model.OperationResult;
+
+import java.math.BigDecimal;
+import java.time.Clock;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.UUID;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+import java.util.function.Supplier;
+import java.util.stream.Stream;
+
+/**
+ * Shard owning the accounts that its view of the {@link ConsistentHashRing} assigns to it, with
+ * its own account and operation repositories behind a {@link BankAccountCheckingService}.
+ * <p>
+ * Requests run under the read lock of the node and a hand-off takes the write lock, so an
+ * account leaves with every operation applied to it. During a rebalance, a request for an
+ * account that has not arrived yet waits for the hand-off of its previous owner.
+ */
+public class ShardNode {
+
+    private final String id;
+
+    private final InMemoryAccountRepository accountRepository = new InMemoryAccountRepository();
+
+    private final InMemoryOperationRepository operationRepository = new InMemoryOperationRepository();
+
+    private final BankAccountCheckingService service;
+
+    private final ReentrantReadWriteLock handoffLock = new ReentrantReadWriteLock();
+
+    private final Object handoffMonitor = new Object();
+
+    private volatile ConsistentHashRing ring = new ConsistentHashRing();
+
+    private volatile ConsistentHashRing previousRing = new ConsistentHashRing();
+
+    private volatile Set<String> pendingSources = Set.of();
+
+    public ShardNode(String id, Clock clock) {
+        this.id = id;
+        this.service = new BankAccountCheckingService(accountRepository, operationRepository, new TextOperationsFormatter(), lines -> { }, clock);
+    }
+
+    public String getId() {
+        return id;
+    }
+
+    public int getAccountCount() {
+        return accountRepository.accountIds().size();
+    }
+
+    void open(UUID accountId, long balance) {
+        owned(accountId, () -> {
+            accountRepository.open(accountId, balance);
+            return null;
+        });
+    }
+
+    long balance(UUID accountId) {
+        return owned(accountId, () -> accountRepository.getBalance(accountId));
+    }
+
+    boolean exists(UUID accountId) {
+        return owned(accountId, () -> accountRepository.existsById(accountId));
+    }
+
+    OperationResult tryDeposit(UUID accountId, BigDecimal amount, String libelle) {
+        return owned(accountId, () -> service.tryDeposit(accountId, amount, libelle));
+    }
+
+    OperationResult tryWithdraw(UUID accountId, BigDecimal amount, String libelle) {
+        return owned(accountId, () -> service.tryWithdraw(accountId, amount, libelle));
+    }
+
+    List<Operation> operations(UUID accountId, OperationQuery query) {
+        return owned(accountId, () -> {
+            try (Stream<Operation> operations = operationRepository.streamByAccountIdOrderByDateDesc(accountId, query)) {
+                return operations.toList();
+            }
+        });
+    }
+
+    /**
+     * Applies the movements of the accounts this node owns. The result of a movement whose
+     * account lives elsewhere is left {@code null}.
+     */
+    List<MovementResult> applyBatch(List<Movement> movements) {
+        for (Movement movement : movements) {
+            awaitHandoff(movement.getAccountId());
+        }
+        MovementResult[] results = new MovementResult[movements.size()];
+        handoffLock.readLock().lock();
+        try {
+            List<Movement> owned = new ArrayList<>(movements.size());
+            List<Integer> indexes = new ArrayList<>(movements.size());
+            for (int i = 0; i < movements.size(); i++) {
+                UUID accountId = movements.get(i).getAccountId();
+                if (owns(accountId) && !isArriving(accountId)) {
+                    owned.add(movements.get(i));
+                    indexes.add(i);
+                }
+            }
+            List<MovementResult> applied = service.applyBatch(owned);
+            for (int i = 0; i < applied.size(); i++) {
+                results[indexes.get(i)] = applied.get(i);
+            }
+        } finally {
+            handoffLock.readLock().unlock();
+        }
+        return Arrays.asList(results);
+    }
+
+    /**
+     * First step of a rebalance: switches to the next ring and remembers which nodes may still
+     * hand accounts over.
+     */
+    void beginRebalance(ConsistentHashRing previous, ConsistentHashRing next) {
+        Set<String> sources = new HashSet<>(previous.getNodes());
+        sources.remove(id);
+        synchronized (handoffMonitor) {
+            previousRing = previous;
+            pendingSources = Collections.unmodifiableSet(sources);
+            ring = next;
+        }
+    }
+
+    /**
+     * Removes and returns the accounts that the current ring assigns to other nodes.
+     */
+    List<AccountHandoff> handOff() {
+        handoffLock.writeLock().lock();
+        try {
+            List<AccountHandoff> handoffs = new ArrayList<>();
+            for (UUID accountId : List.copyOf(accountRepository.accountIds())) {
+                if (!owns(accountId)) {
+                    long balance = accountRepository.remove(accountId);
+                    handoffs.add(new AccountHandoff(accountId, balance, operationRepository.removeAllByAccountId(accountId)));
+                }
+            }
+            return handoffs;
+        } finally {
+            handoffLock.writeLock().unlock();
+        }
+    }
+
+    /**
+     * Opens the accounts handed over, with their history. Either every account is accepted, or
+     * none is and the failure is thrown, so the caller can give the accounts back.
+     */
+    void accept(List<AccountHandoff> handoffs) {
+        handoffLock.writeLock().lock();
+        List<UUID> accepted = new ArrayList<>(handoffs.size());
+        try {
+            for (AccountHandoff handoff : handoffs) {
+                accountRepository.open(handoff.getAccountId(), handoff.getBalance());
+                accepted.add(handoff.getAccountId());
+                List<Operation> oldestFirst = new ArrayList<>(handoff.getOperations());
+                Collections.reverse(oldestFirst);
+                operationRepository.createAll(oldestFirst);
+            }
+        } catch (RuntimeException e) {
+            for (UUID accountId : accepted) {
+                accountRepository.remove(accountId);
+                operationRepository.removeAllByAccountId(accountId);
+            }
+            throw e;
+        } finally {
+            handoffLock.writeLock().unlock();
+        }
+    }
+
+    void handoffCompleted(String sourceId) {
+        synchronized (handoffMonitor) {
+            Set<String> sources = new HashSet<>(pendingSources);
+            sources.remove(sourceId);
+            pendingSources = Collections.unmodifiableSet(sources);
+            handoffMonitor.notifyAll();
+        }
+    }
+
+    private <T> T owned(UUID accountId, Supplier<T> call) {
+        while (true) {
+            awaitHandoff(accountId);
+            handoffLock.readLock().lock();
+            try {
+                if (!owns(accountId)) {
+                    throw AccountMovedException.INSTANCE;
+                }
+                if (!isArriving(accountId)) {
+                    return call.get();
+                }
+            } finally {
+                handoffLock.readLock().unlock();
+            }
+        }
+    }
+
+    private boolean owns(UUID accountId) {
+        ConsistentHashRing current = ring;
+        return !current.isEmpty() && id.equals(current.nodeFor(accountId));
+    }
+
+    private boolean isArriving(UUID accountId) {
+        Set<String> sources = pendingSources;
+        return !sources.isEmpty()
+                && !accountRepository.existsById(accountId)
+                && sources.contains(previousRing.nodeFor(accountId));
+    }
+
+    private void awaitHandoff(UUID accountId) {
+        if (pendingSources.isEmpty()) {
+            return;
+        }
+        synchronized (handoffMonitor) {
+            while (isArriving(accountId)) {
+                try {
+                    handoffMonitor.wait();
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                    throw new ShardUnavailableException("Le nœud " + id + " a été interrompu");
+                }
+            }
+        }
+    }
+}
@@ -0,0 +1,16 @@
+package fr.angelique.bankaccount.cluster;
+
+import java.util.concurrent.CompletableFuture;
+import java.util.function.Function;
+
+/**
+ * Carries requests from the router to the shard nodes. A request that fails with
+ * {@link ShardUnavailableException} was not delivered.
+ */
+public interface ShardTransport {
+    void register(ShardNode node);
+
+    void unregister(String nodeId);
+
+    <T> CompletableFuture<T> send(String nodeId, Function<ShardNode, T> request);
+}
@@ -0,0 +1,7 @@
+package fr.angelique.bankaccount.cluster;
+
+public class ShardUnavailableException extends RuntimeException {
+    public ShardUnavailableException(String message) {
+        super(message);
+    }
+}
@@ -0,0 +1,258 @@
+package fr.angelique.bankaccount.cluster;
+
+import fr.angelique.bankaccount.AccountStatementPrinter;
+import fr.angelique.bankaccount.OperationsFormatter;
+import fr.angelique.bankaccount.enums.MovementStatus;
+import fr.angelique.bankaccount.repository.OperationQuery;
+import fr.angelique.bankaccount.service.BankAccountService;
+import fr.angelique.bankaccount.service.model.Movement;
+import fr.angelique.bankaccount.service.model.MovementResult;
+import fr.angelique.bankaccount.service.model.Operation;
+import fr.angelique.bankaccount.service.model.OperationResult;
+
+import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.UUID;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.function.Function;
+
+/**
+ * {@link BankAccountService} routing each account to the shard node that the consistent-hash
+ * ring assigns to it.
+ * <p>
+ * Adding or removing a node rebalances the cluster: every node switches to the next ring, then
+ * each previous node hands the accounts it lost over to their new owner, balance and history
+ * together. Requests keep flowing meanwhile; one that reaches a node which no longer owns the
+ * account, or a node already removed, is sent again to the new owner, which holds it until the
+ * account has arrived. Other transport failures are reported to the caller; in a batch, they
+ * fail only the movements that were sent to the unreachable node.
+ * <p>
+ * If a node cannot accept the accounts handed over to it, they go back to their previous owner
+ * and the cluster is rebalanced back to the previous ring before the failure is reported.
+ */
+public class ShardedBankAccountService implements BankAccountService {
+
+    private static final int MAX_ATTEMPTS = 16;
+
+    private final ShardTransport transport;
+
+    private final OperationsFormatter operationListFormatter;
+
+    private final AccountStatementPrinter accountStatementPrinter;
+
+    private final Map<String, ShardNode> nodes = new HashMap<>();
+
+    private volatile ConsistentHashRing ring;
+
+    public ShardedBankAccountService(ShardTransport transport, OperationsFormatter operationListFormatter, AccountStatementPrinter accountStatementPrinter) {
+        this(transport, operationListFormatter, accountStatementPrinter, ConsistentHashRing.DEFAULT_VIRTUAL_NODES);
+    }
+
+    public ShardedBankAccountService(ShardTransport transport, OperationsFormatter operationListFormatter, AccountStatementPrinter accountStatementPrinter, int virtualNodes) {
+        this.transport = transport;
+        this.operationListFormatter = operationListFormatter;
+        this.accountStatementPrinter = accountStatementPrinter;
+        this.ring = new ConsistentHashRing(virtualNodes);
+    }
+
+    public synchronized void addNode(ShardNode node) {
+        ConsistentHashRing next = ring.withNode(node.getId());
+        transport.register(node);
+        nodes.put(node.getId(), node);
+        try {
+            rebalance(next);
+        } catch (RuntimeException e) {
+            nodes.remove(node.getId());
+            transport.unregister(node.getId());
+            throw e;
+        }
+    }
+
+    public synchronized void removeNode(String nodeId) {
+        ConsistentHashRing next = ring.withoutNode(nodeId);
+        if (next.isEmpty() && nodes.get(nodeId).getAccountCount() > 0) {
+            throw new IllegalStateException("Impossible de retirer le dernier nœud : " + nodeId);
+        }
+        rebalance(next);
+        nodes.remove(nodeId);
+        transport.unregister(nodeId);
+    }
+
+    public Set<String> getNodes() {
+        return ring.getNodes();
+    }
+
+    public String nodeFor(UUID accountId) {
+        return ring.nodeFor(accountId);
+    }
+
+    public void openAccount(UUID accountId, long balance) {
+        route(accountId, node -> {
+            node.open(accountId, balance);
+            return null;
+        });
+    }
+
+    public boolean existsById(UUID accountId) {
+        return route(accountId, node -> node.exists(accountId));
+    }
+
+    public long getBalance(UUID accountId) {
+        return route(accountId, node -> node.balance(accountId));
+    }
+
+    @Override
+    public OperationResult tryDeposit(UUID accountId, BigDecimal amount, String libelle) {
+        return route(accountId, node -> node.tryDeposit(accountId, amount, libelle));
+    }
+
+    @Override
+    public OperationResult tryWithdraw(UUID accountId, BigDecimal amount, String libelle) {
+        return route(accountId, node -> node.tryWithdraw(accountId, amount, libelle));
+    }
+
+    @Override
+    public List<MovementResult> applyBatch(List<Movement> movements) {
+        MovementResult[] results = new MovementResult[movements.size()];
+        List<Integer> pending = new ArrayList<>(movements.size());
+        for (int i = 0; i < movements.size(); i++) {
+            pending.add(i);
+        }
+        for (int attempt = 0; !pending.isEmpty(); attempt++) {
+            if (attempt == MAX_ATTEMPTS) {
+                fail(movements, pending, results);
+                break;
+            }
+            ConsistentHashRing current = ring;
+            Map<String, List<Integer>> indexesByNode = new LinkedHashMap<>();
+            for (int index : pending) {
+                indexesByNode.computeIfAbsent(current.nodeFor(movements.get(index).getAccountId()), node -> new ArrayList<>()).add(index);
+            }
+            Map<List<Integer>, CompletableFuture<List<MovementResult>>> replies = new LinkedHashMap<>();
+            indexesByNode.forEach((node, indexes) -> {
+                List<Movement> nodeMovements = indexes.stream().map(movements::get).toList();
+                replies.put(indexes, transport.send(node, shard -> shard.applyBatch(nodeMovements)));
+            });
+            pending = new ArrayList<>();
+            for (Map.Entry<List<Integer>, CompletableFuture<List<MovementResult>>> reply : replies.entrySet()) {
+                List<MovementResult> nodeResults;
+                try {
+                    nodeResults = join(reply.getValue());
+                } catch (ShardUnavailableException e) {
+                    if (current == ring) {
+                        fail(movements, reply.getKey(), results);
+                    } else {
+                        pending.addAll(reply.getKey());
+                    }
+                    continue;
+                }
+                for (int i = 0; i < nodeResults.size(); i++) {
+                    int index = reply.getKey().get(i);
+                    if (nodeResults.get(i) == null) {
+                        pending.add(index);
+                    } else {
+                        results[index] = nodeResults.get(i);
+                    }
+                }
+            }
+        }
+        return Arrays.asList(results);
+    }
+
+    @Override
+    public void printAccountOperations(UUID accountId) {
+        printAccountOperations(accountId, OperationQuery.all());
+    }
+
+    @Override
+    public void printAccountOperations(UUID accountId, OperationQuery query) {
+        List<Operation> operations = route(accountId, node -> node.operations(accountId, query));
+        accountStatementPrinter.print(operationListFormatter.format(operations.stream()));
+    }
+
+    private static void fail(List<Movement> movements, List<Integer> indexes, MovementResult[] results) {
+        for (int index : indexes) {
+            results[index] = MovementResult.rejected(movements.get(index), MovementStatus.FAILED);
+        }
+    }
+
+    private void rebalance(ConsistentHashRing next) {
+        ConsistentHashRing previous = ring;
+        RuntimeException failure = moveAccounts(previous, next);
+        if (failure != null) {
+            RuntimeException rollbackFailure = moveAccounts(next, previous);
+            if (rollbackFailure != null) {
+                failure.addSuppressed(rollbackFailure);
+            }
+            throw failure;
+        }
+    }
+
+    /**
+     * Switches every node to the next ring and hands each account over to its new owner. Accounts
+     * that their new owner cannot accept go back to the node that handed them over, and the first
+     * such failure is returned once every node has handed its accounts over.
+     */
+    private RuntimeException moveAccounts(ConsistentHashRing previous, ConsistentHashRing next) {
+        for (ShardNode node : nodes.values()) {
+            node.beginRebalance(previous, next);
+        }
+        ring = next;
+        RuntimeException failure = null;
+        for (String sourceId : previous.getNodes()) {
+            ShardNode source = nodes.get(sourceId);
+            Map<String, List<AccountHandoff>> handoffsByTarget = new HashMap<>();
+            for (AccountHandoff handoff : source.handOff()) {
+                handoffsByTarget.computeIfAbsent(next.nodeFor(handoff.getAccountId()), target -> new ArrayList<>()).add(handoff);
+            }
+            for (Map.Entry<String, List<AccountHandoff>> handoffs : handoffsByTarget.entrySet()) {
+                try {
+                    nodes.get(handoffs.getKey()).accept(handoffs.getValue());
+                } catch (RuntimeException e) {
+                    source.accept(handoffs.getValue());
+                    if (failure == null) {
+                        failure = e;
+                    }
+                }
+            }
+            for (ShardNode node : nodes.values()) {
+                node.handoffCompleted(sourceId);
+            }
+        }
+        return failure;
+    }
+
+    private <T> T route(UUID accountId, Function<ShardNode, T> request) {
+        for (int attempt = 0; attempt < MAX_ATTEMPTS; attempt++) {
+            ConsistentHashRing current = ring;
+            try {
+                return join(transport.send(current.nodeFor(accountId), request));
+            } catch (AccountMovedException e) {
+                Thread.yield();
+            } catch (ShardUnavailableException e) {
+                if (current == ring) {
+                    throw e;
+                }
+            }
+        }
+        throw new ShardUnavailableException("Le cluster est en cours de rééquilibrage");
+    }
+
+    private static <T> T join(CompletableFuture<T> future) {
+        try {
+            return future.join();
+        } catch (CompletionException e) {
+            if (e.getCause() instanceof RuntimeException cause) {
+                throw cause;
+            }
+            throw e;
+        }
+    }
+}
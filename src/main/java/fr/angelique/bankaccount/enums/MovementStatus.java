@@ -0,0 +1,11 @@
+package fr.angelique.bankaccount.enums;
+
+public enum MovementStatus {
+    ACCEPTED,
+    INVALID_AMOUNT,
+    NEGATIVE_AMOUNT,
+    ACCOUNT_NOT_FOUND,
+    OVERDRAFT,
+    INVALID_LIBELLE,
+    FAILED
+}
@@ -0,0 +1,163 @@
+package fr.angelique.bankaccount.export;
+
+import fr.angelique.bankaccount.enums.OperationType;
+import fr.angelique.bankaccount.service.model.Operation;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.WritableByteChannel;
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDateTime;
+import java.time.ZoneOffset;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.Queue;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.stream.Stream;
+import java.util.zip.CRC32C;
+
+import static fr.angelique.bankaccount.export.BinaryStatementFormat.*;
+
+/**
+ * Exports statements in the layout described by {@link BinaryStatementFormat}: a few bytes per
+ * operation instead of about 150 for the text statement.
+ */
+public class BinaryStatementExporter implements StatementExporter {
+
+    static final int DEFAULT_BUFFER_SIZE = 64 * 1024;
+
+    private final int bufferSize;
+
+    private final Queue<Encoder> idleEncoders = new ConcurrentLinkedQueue<>();
+
+    public BinaryStatementExporter() {
+        this(DEFAULT_BUFFER_SIZE);
+    }
+
+    public BinaryStatementExporter(int bufferSize) {
+        this.bufferSize = Math.max(bufferSize, HEADER_SIZE + MAX_RECORD_SIZE);
+    }
+
+    @Override
+    public void export(UUID accountId, Stream<Operation> operations, WritableByteChannel channel) {
+        Encoder encoder = idleEncoders.poll();
+        if (encoder == null) {
+            encoder = new Encoder(bufferSize);
+        }
+        try {
+            encoder.write(accountId, operations, channel);
+        } finally {
+            idleEncoders.offer(encoder);
+        }
+    }
+
+    private static final class Encoder {
+
+        private byte[] bytes;
+        private ByteBuffer buffer;
+        private int position;
+        private int checksumFrom;
+        private long previousSecond;
+        private long previousBalance;
+        private final CRC32C checksum = new CRC32C();
+        private final Map<String, Integer> libelleIds = new HashMap<>();
+
+        Encoder(int bufferSize) {
+            bytes = new byte[bufferSize];
+            buffer = ByteBuffer.wrap(bytes);
+        }
+
+        void write(UUID accountId, Stream<Operation> operations, WritableByteChannel channel) {
+            checksum.reset();
+            libelleIds.clear();
+            position = 0;
+            checksumFrom = 0;
+            previousSecond = 0;
+            previousBalance = 0;
+            try {
+                buffer.clear();
+                buffer.putInt(MAGIC).put(VERSION)
+                        .putLong(accountId.getMostSignificantBits())
+                        .putLong(accountId.getLeastSignificantBits());
+                position = buffer.position();
+                operations.forEachOrdered(operation -> writeOperation(operation, channel));
+                ensure(TRAILER_SIZE, channel);
+                bytes[position++] = END;
+                checksum.update(bytes, checksumFrom, position - checksumFrom);
+                buffer.clear().position(position);
+                buffer.putInt((int) checksum.getValue());
+                position = buffer.position();
+                drain(channel);
+            } finally {
+                position = 0;
+            }
+        }
+
+        private void writeOperation(Operation operation, WritableByteChannel channel) {
+            byte tag = operation.getOperationType() == OperationType.DEPOSIT ? DEPOSIT : WITHDRAWAL;
+            String libelle = operation.getData();
+            if (libelle == null) {
+                ensure(MAX_RECORD_SIZE, channel);
+                bytes[position++] = (byte) (tag | NO_LIBELLE);
+            } else {
+                Integer libelleId = libelleIds.get(libelle);
+                if (libelleId == null) {
+                    byte[] encoded = libelle.getBytes(StandardCharsets.UTF_8);
+                    libelleIds.put(libelle, libelleIds.size());
+                    ensure(MAX_RECORD_SIZE + encoded.length, channel);
+                    bytes[position++] = (byte) (tag | NEW_LIBELLE);
+                    putVarLong(encoded.length);
+                    System.arraycopy(encoded, 0, bytes, position, encoded.length);
+                    position += encoded.length;
+                } else {
+                    ensure(MAX_RECORD_SIZE, channel);
+                    bytes[position++] = tag;
+                    putVarLong(libelleId);
+                }
+            }
+            LocalDateTime date = operation.getDate();
+            long second = date.toEpochSecond(ZoneOffset.UTC);
+            putVarLong(zigzag(second - previousSecond));
+            putVarLong(date.getNano());
+            putVarLong(zigzag(operation.getAmount()));
+            putVarLong(zigzag(operation.getBalance() - previousBalance));
+            previousSecond = second;
+            previousBalance = operation.getBalance();
+        }
+
+        private void putVarLong(long value) {
+            while ((value & ~0x7FL) != 0) {
+                bytes[position++] = (byte) ((value & 0x7F) | 0x80);
+                value >>>= 7;
+            }
+            bytes[position++] = (byte) value;
+        }
+
+        private void ensure(int size, WritableByteChannel channel) {
+            if (position + size <= bytes.length) {
+                return;
+            }
+            checksum.update(bytes, checksumFrom, position - checksumFrom);
+            drain(channel);
+            checksumFrom = 0;
+            if (size > bytes.length) {
+                bytes = new byte[size];
+                buffer = ByteBuffer.wrap(bytes);
+            }
+        }
+
+        private void drain(WritableByteChannel channel) {
+            buffer.clear().limit(position);
+            try {
+                while (buffer.hasRemaining()) {
+                    channel.write(buffer);
+                }
+            } catch (IOException e) {
+                throw new UncheckedIOException(e);
+            }
+            position = 0;
+        }
+    }
+}
@@ -0,0 +1,53 @@
+package fr.angelique.bankaccount.export;
+
+/**
+ * Layout of a binary statement:
+ * <pre>
+ * int    magic
+ * byte   version
+ * long   account id (most significant bits)
+ * long   account id (least significant bits)
+ * record*
+ * byte   end of statement (0)
+ * int    CRC32C of everything above, from the magic
+ * </pre>
+ * and of each record:
+ * <pre>
+ * byte    tag: operation type, plus a flag for a new or an absent libelle
+ * varint  libelle id, or the UTF-8 length followed by the bytes of a new libelle
+ * varlong zigzag delta of the epoch second (UTC) with the previous record
+ * varint  nano of second
+ * varlong zigzag amount in cents
+ * varlong zigzag delta of the balance with the previous record
+ * </pre>
+ * New libelles get the next id of a dictionary local to the statement.
+ */
+final class BinaryStatementFormat {
+
+    static final int MAGIC = 0x424B5354;
+    static final byte VERSION = 1;
+    static final int HEADER_SIZE = Integer.BYTES + Byte.BYTES + 2 * Long.BYTES;
+    static final int TRAILER_SIZE = Byte.BYTES + Integer.BYTES;
+
+    static final byte END = 0;
+    static final byte DEPOSIT = 1;
+    static final byte WITHDRAWAL = 2;
+    static final byte TYPE_MASK = 0x0F;
+    static final byte NEW_LIBELLE = 0x10;
+    static final byte NO_LIBELLE = 0x20;
+
+    static final int MAX_VARINT_SIZE = 5;
+    static final int MAX_VARLONG_SIZE = 10;
+    static final int MAX_RECORD_SIZE = Byte.BYTES + MAX_VARINT_SIZE + 3 * MAX_VARLONG_SIZE + MAX_VARINT_SIZE;
+
+    private BinaryStatementFormat() {
+    }
+
+    static long zigzag(long value) {
+        return (value << 1) ^ (value >> 63);
+    }
+
+    static long unzigzag(long value) {
+        return (value >>> 1) ^ -(value & 1);
+    }
+}
@@ -0,0 +1,109 @@
+package fr.angelique.bankaccount.export;
+
+import fr.angelique.bankaccount.enums.OperationType;
+import fr.angelique.bankaccount.service.model.Operation;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Path;
+import java.time.LocalDateTime;
+import java.time.ZoneOffset;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+import java.util.function.Consumer;
+import java.util.zip.CRC32C;
+
+import static fr.angelique.bankaccount.export.BinaryStatementFormat.*;
+
+/**
+ * Decodes the statements written by {@link BinaryStatementExporter}. The operations of a
+ * statement are handed over only once its checksum is verified.
+ */
+public final class BinaryStatementReader {
+
+    private BinaryStatementReader() {
+    }
+
+    public static List<Operation> readAll(Path file) {
+        try (FileChannel channel = FileChannel.open(file)) {
+            List<Operation> operations = new ArrayList<>();
+            read(channel.map(FileChannel.MapMode.READ_ONLY, 0, channel.size()), operations::add);
+            return operations;
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    /**
+     * Reads every statement from the position of the buffer to its limit.
+     */
+    public static void read(ByteBuffer buffer, Consumer<Operation> consumer) {
+        List<Operation> statement = new ArrayList<>();
+        List<String> libelles = new ArrayList<>();
+        CRC32C checksum = new CRC32C();
+        while (buffer.hasRemaining()) {
+            statement.clear();
+            libelles.clear();
+            readStatement(buffer, statement, libelles, checksum);
+            statement.forEach(consumer);
+        }
+    }
+
+    private static void readStatement(ByteBuffer buffer, List<Operation> statement, List<String> libelles, CRC32C checksum) {
+        int start = buffer.position();
+        if (buffer.remaining() < HEADER_SIZE + TRAILER_SIZE || buffer.getInt() != MAGIC) {
+            throw new IllegalArgumentException("Relevé binaire invalide à la position " + start);
+        }
+        byte version = buffer.get();
+        if (version != VERSION) {
+            throw new IllegalArgumentException("Version de relevé binaire inconnue : " + version);
+        }
+        UUID accountId = new UUID(buffer.getLong(), buffer.getLong());
+        long second = 0;
+        long balance = 0;
+        try {
+            for (byte tag = buffer.get(); tag != END; tag = buffer.get()) {
+                String libelle;
+                if ((tag & NO_LIBELLE) != 0) {
+                    libelle = null;
+                } else if ((tag & NEW_LIBELLE) != 0) {
+                    byte[] encoded = new byte[(int) getVarLong(buffer)];
+                    buffer.get(encoded);
+                    libelle = new String(encoded, StandardCharsets.UTF_8);
+                    libelles.add(libelle);
+                } else {
+                    libelle = libelles.get((int) getVarLong(buffer));
+                }
+                second += unzigzag(getVarLong(buffer));
+                int nano = (int) getVarLong(buffer);
+                long amount = unzigzag(getVarLong(buffer));
+                balance += unzigzag(getVarLong(buffer));
+                OperationType operationType = (tag & TYPE_MASK) == DEPOSIT ? OperationType.DEPOSIT : OperationType.WITHDRAWAL;
+                statement.add(new Operation(accountId, operationType, libelle, LocalDateTime.ofEpochSecond(second, nano, ZoneOffset.UTC), amount, balance));
+            }
+        } catch (RuntimeException e) {
+            throw new IllegalArgumentException("Relevé binaire tronqué ou corrompu à la position " + start, e);
+        }
+        checksum.reset();
+        checksum.update(buffer.duplicate().position(start).limit(buffer.position()));
+        if (buffer.remaining() < Integer.BYTES || buffer.getInt() != (int) checksum.getValue()) {
+            throw new IllegalArgumentException("Somme de contrôle du relevé binaire invalide à la position " + start);
+        }
+    }
+
+    private static long getVarLong(ByteBuffer buffer) {
+        long value = 0;
+        for (int shift = 0; shift < 64; shift += 7) {
+            byte b = buffer.get();
+            value |= (long) (b & 0x7F) << shift;
+            if (b >= 0) {
+                return value;
+            }
+        }
+        throw new IllegalArgumentException("Entier variable trop long");
+    }
+}
@@ -0,0 +1,231 @@
+package fr.angelique.bankaccount.export;
+
+import fr.angelique.bankaccount.enums.OperationType;
+import fr.angelique.bankaccount.service.model.Operation;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.WritableByteChannel;
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDateTime;
+import java.util.Queue;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.stream.Stream;
+
+/**
+ * Exports statements as RFC 4180 CSV, one operation per line after a header line:
+ * <pre>
+ * compte,type,libelle,date,montant,solde
+ * 9b2c...,DEPOSIT,salaire,2024-01-05T10:15:30,1500.00,2300.50
+ * </pre>
+ * Amounts are in euros with a dot and two decimals; dates are ISO-8601 local date-times with the
+ * nanoseconds when there are any. Every field is encoded straight into the output buffer,
+ * without an intermediate string per line.
+ */
+public class CsvStatementExporter implements StatementExporter {
+
+    static final String ACCOUNT_COLUMN = "compte";
+
+    static final String HEADER = ACCOUNT_COLUMN + ",type,libelle,date,montant,solde";
+
+    private static final byte[] HEADER_LINE = (HEADER + '\n').getBytes(StandardCharsets.US_ASCII);
+    private static final byte[] DEPOSIT = OperationType.DEPOSIT.name().getBytes(StandardCharsets.US_ASCII);
+    private static final byte[] WITHDRAWAL = OperationType.WITHDRAWAL.name().getBytes(StandardCharsets.US_ASCII);
+    private static final byte[] HEX_DIGITS = "0123456789abcdef".getBytes(StandardCharsets.US_ASCII);
+
+    private static final int MAX_FIXED_LINE_SIZE = 160;
+    private static final int MAX_BYTES_PER_CHAR = 3;
+
+    private final int bufferSize;
+
+    private final Queue<Encoder> idleEncoders = new ConcurrentLinkedQueue<>();
+
+    public CsvStatementExporter() {
+        this(BinaryStatementExporter.DEFAULT_BUFFER_SIZE);
+    }
+
+    public CsvStatementExporter(int bufferSize) {
+        this.bufferSize = Math.max(bufferSize, 2 * MAX_FIXED_LINE_SIZE);
+    }
+
+    @Override
+    public void export(UUID accountId, Stream<Operation> operations, WritableByteChannel channel) {
+        Encoder encoder = idleEncoders.poll();
+        if (encoder == null) {
+            encoder = new Encoder(bufferSize);
+        }
+        try {
+            encoder.write(accountId, operations, channel);
+        } finally {
+            idleEncoders.offer(encoder);
+        }
+    }
+
+    private static final class Encoder {
+
+        private final byte[] bytes;
+        private final ByteBuffer buffer;
+        private final byte[] accountId = new byte[36];
+        private int position;
+
+        Encoder(int bufferSize) {
+            bytes = new byte[bufferSize];
+            buffer = ByteBuffer.wrap(bytes);
+        }
+
+        void write(UUID id, Stream<Operation> operations, WritableByteChannel channel) {
+            encodeAccountId(id);
+            try {
+                putBytes(HEADER_LINE);
+                operations.forEachOrdered(operation -> writeOperation(operation, channel));
+                drain(channel);
+            } finally {
+                position = 0;
+            }
+        }
+
+        private void writeOperation(Operation operation, WritableByteChannel channel) {
+            ensure(MAX_FIXED_LINE_SIZE, channel);
+            putBytes(accountId);
+            bytes[position++] = ',';
+            putBytes(operation.getOperationType() == OperationType.DEPOSIT ? DEPOSIT : WITHDRAWAL);
+            bytes[position++] = ',';
+            if (operation.getData() != null) {
+                putLibelle(operation.getData(), channel);
+            }
+            ensure(MAX_FIXED_LINE_SIZE, channel);
+            bytes[position++] = ',';
+            putDate(operation.getDate());
+            bytes[position++] = ',';
+            putAmount(operation.getAmount());
+            bytes[position++] = ',';
+            putAmount(operation.getBalance());
+            bytes[position++] = '\n';
+        }
+
+        private void putLibelle(String libelle, WritableByteChannel channel) {
+            boolean quoted = needsQuotes(libelle);
+            if (quoted) {
+                bytes[position++] = '"';
+            }
+            int length = libelle.length();
+            for (int i = 0; i < length; i++) {
+                if (position > bytes.length - 2 * MAX_BYTES_PER_CHAR - 1) {
+                    drain(channel);
+                }
+                char c = libelle.charAt(i);
+                if (c == '"') {
+                    bytes[position++] = '"';
+                    bytes[position++] = '"';
+                } else if (c < 0x80) {
+                    bytes[position++] = (byte) c;
+                } else if (c < 0x800) {
+                    bytes[position++] = (byte) (0xC0 | c >> 6);
+                    bytes[position++] = (byte) (0x80 | c & 0x3F);
+                } else if (Character.isHighSurrogate(c) && i + 1 < length && Character.isLowSurrogate(libelle.charAt(i + 1))) {
+                    int codePoint = Character.toCodePoint(c, libelle.charAt(++i));
+                    bytes[position++] = (byte) (0xF0 | codePoint >> 18);
+                    bytes[position++] = (byte) (0x80 | codePoint >> 12 & 0x3F);
+                    bytes[position++] = (byte) (0x80 | codePoint >> 6 & 0x3F);
+                    bytes[position++] = (byte) (0x80 | codePoint & 0x3F);
+                } else if (Character.isSurrogate(c)) {
+                    bytes[position++] = '?';
+                } else {
+                    bytes[position++] = (byte) (0xE0 | c >> 12);
+                    bytes[position++] = (byte) (0x80 | c >> 6 & 0x3F);
+                    bytes[position++] = (byte) (0x80 | c & 0x3F);
+                }
+            }
+            if (quoted) {
+                bytes[position++] = '"';
+            }
+        }
+
+        private void putDate(LocalDateTime date) {
+            putDigits(date.getYear(), 4);
+            bytes[position++] = '-';
+            putDigits(date.getMonthValue(), 2);
+            bytes[position++] = '-';
+            putDigits(date.getDayOfMonth(), 2);
+            bytes[position++] = 'T';
+            putDigits(date.getHour(), 2);
+            bytes[position++] = ':';
+            putDigits(date.getMinute(), 2);
+            bytes[position++] = ':';
+            putDigits(date.getSecond(), 2);
+            if (date.getNano() != 0) {
+                bytes[position++] = '.';
+                putDigits(date.getNano(), 9);
+            }
+        }
+
+        private void putAmount(long cents) {
+            if (cents < 0) {
+                bytes[position++] = '-';
+            }
+            long euros = Math.abs(cents / 100);
+            int fraction = (int) Math.abs(cents % 100);
+            int digits = 1;
+            for (long rest = euros; rest >= 10; rest /= 10) {
+                digits++;
+            }
+            putDigits(euros, digits);
+            bytes[position++] = '.';
+            putDigits(fraction, 2);
+        }
+
+        private void putDigits(long value, int digits) {
+            for (int i = position + digits - 1; i >= position; i--) {
+                bytes[i] = (byte) ('0' + value % 10);
+                value /= 10;
+            }
+            position += digits;
+        }
+
+        private void putBytes(byte[] source) {
+            System.arraycopy(source, 0, bytes, position, source.length);
+            position += source.length;
+        }
+
+        private void encodeAccountId(UUID id) {
+            int index = 0;
+            for (int nibble = 0; nibble < 32; nibble++) {
+                if (nibble == 8 || nibble == 12 || nibble == 16 || nibble == 20) {
+                    accountId[index++] = '-';
+                }
+                long half = nibble < 16 ? id.getMostSignificantBits() : id.getLeastSignificantBits();
+                accountId[index++] = HEX_DIGITS[(int) (half >>> (60 - 4 * (nibble % 16))) & 0xF];
+            }
+        }
+
+        private void ensure(int size, WritableByteChannel channel) {
+            if (position + size > bytes.length) {
+                drain(channel);
+            }
+        }
+
+        private void drain(WritableByteChannel channel) {
+            buffer.clear().limit(position);
+            try {
+                while (buffer.hasRemaining()) {
+                    channel.write(buffer);
+                }
+            } catch (IOException e) {
+                throw new UncheckedIOException(e);
+            }
+            position = 0;
+        }
+
+        private static boolean needsQuotes(String libelle) {
+            for (int i = 0; i < libelle.length(); i++) {
+                char c = libelle.charAt(i);
+                if (c == ',' || c == '"' || c == '\n' || c == '\r') {
+                    return true;
+                }
+            }
+            return false;
+        }
+    }
+}
@@ -0,0 +1,121 @@
+package fr.angelique.bankaccount.export;
+
+import fr.angelique.bankaccount.enums.OperationType;
+import fr.angelique.bankaccount.service.model.Operation;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+import java.util.function.Consumer;
+
+/**
+ * Parses the statements written by {@link CsvStatementExporter}, skipping their header lines.
+ * An empty libelle reads back as {@code null}.
+ */
+public final class CsvStatementReader {
+
+    private static final int FIELD_COUNT = 6;
+
+    private CsvStatementReader() {
+    }
+
+    public static List<Operation> readAll(Path file) {
+        try {
+            List<Operation> operations = new ArrayList<>();
+            read(Files.readString(file), operations::add);
+            return operations;
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    public static void read(CharSequence csv, Consumer<Operation> consumer) {
+        String[] fields = new String[FIELD_COUNT];
+        StringBuilder field = new StringBuilder();
+        String previousAccount = null;
+        UUID accountId = null;
+        int index = 0;
+        int length = csv.length();
+        while (index < length) {
+            int lineStart = index;
+            for (int f = 0; f < FIELD_COUNT; f++) {
+                field.setLength(0);
+                if (index < length && csv.charAt(index) == '"') {
+                    index++;
+                    while (true) {
+                        if (index >= length) {
+                            throw new IllegalArgumentException("Guillemet non fermé à la position " + lineStart);
+                        }
+                        char c = csv.charAt(index++);
+                        if (c != '"') {
+                            field.append(c);
+                        } else if (index < length && csv.charAt(index) == '"') {
+                            field.append('"');
+                            index++;
+                        } else {
+                            break;
+                        }
+                    }
+                } else {
+                    while (index < length && csv.charAt(index) != ',' && csv.charAt(index) != '\n') {
+                        field.append(csv.charAt(index++));
+                    }
+                }
+                fields[f] = field.toString();
+                char expected = f == FIELD_COUNT - 1 ? '\n' : ',';
+                if (index < length && csv.charAt(index) != expected || index >= length && f < FIELD_COUNT - 1) {
+                    throw new IllegalArgumentException("Ligne CSV invalide à la position " + lineStart);
+                }
+                index++;
+            }
+            if (fields[0].equals(CsvStatementExporter.ACCOUNT_COLUMN)) {
+                continue;
+            }
+            if (!fields[0].equals(previousAccount)) {
+                previousAccount = fields[0];
+                accountId = UUID.fromString(previousAccount);
+            }
+            consumer.accept(new Operation(
+                    accountId,
+                    OperationType.valueOf(fields[1]),
+                    fields[2].isEmpty() ? null : fields[2],
+                    parseDate(fields[3]),
+                    parseCents(fields[4]),
+                    parseCents(fields[5])));
+        }
+    }
+
+    /**
+     * Parses the fixed layout written by the exporter by hand, and any other ISO-8601 layout
+     * through {@link LocalDateTime#parse(CharSequence)}.
+     */
+    private static LocalDateTime parseDate(String date) {
+        int length = date.length();
+        if ((length != 19 && length != 29) || date.charAt(4) != '-' || date.charAt(10) != 'T') {
+            return LocalDateTime.parse(date);
+        }
+        return LocalDateTime.of(
+                Integer.parseInt(date, 0, 4, 10),
+                Integer.parseInt(date, 5, 7, 10),
+                Integer.parseInt(date, 8, 10, 10),
+                Integer.parseInt(date, 11, 13, 10),
+                Integer.parseInt(date, 14, 16, 10),
+                Integer.parseInt(date, 17, 19, 10),
+                length == 29 ? Integer.parseInt(date, 20, 29, 10) : 0);
+    }
+
+    private static long parseCents(String amount) {
+        int dot = amount.length() - 3;
+        if (dot < 1 || amount.charAt(dot) != '.') {
+            throw new IllegalArgumentException("Montant CSV invalide : " + amount);
+        }
+        long euros = Long.parseLong(amount, 0, dot, 10);
+        long fraction = Long.parseLong(amount, dot + 1, amount.length(), 10);
+        return amount.charAt(0) == '-' ? euros * 100 - fraction : euros * 100 + fraction;
+    }
+}
@@ -0,0 +1,15 @@
+package fr.angelique.bankaccount.export;
+
+import fr.angelique.bankaccount.service.model.Operation;
+
+import java.nio.channels.WritableByteChannel;
+import java.util.UUID;
+import java.util.stream.Stream;
+
+/**
+ * Writes the statement of an account straight to a channel, for consumers that parse the
+ * statements rather than read them.
+ */
+public interface StatementExporter {
+    void export(UUID accountId, Stream<Operation> operations, WritableByteChannel channel);
+}
@@ -0,0 +1,99 @@
+package fr.angelique.bankaccount.ledger;
+
+import java.util.UUID;
+
+/**
+ * Open-addressing map from account id to balance in cents, stored in parallel primitive arrays.
+ * Only the business thread of the {@link LedgerEngine} touches it, so it is not synchronized.
+ */
+final class AccountBalances {
+
+    private static final int INITIAL_CAPACITY = 1024;
+
+    private long[] mostSignificantBits;
+    private long[] leastSignificantBits;
+    private long[] balances;
+    private boolean[] occupied;
+    private int mask;
+    private int size;
+
+    AccountBalances() {
+        allocate(INITIAL_CAPACITY);
+    }
+
+    int size() {
+        return size;
+    }
+
+    /**
+     * Returns the slot of the account, or {@code -1} when it is unknown.
+     */
+    int indexOf(UUID accountId) {
+        long msb = accountId.getMostSignificantBits();
+        long lsb = accountId.getLeastSignificantBits();
+        for (int index = slot(msb, lsb); occupied[index]; index = (index + 1) & mask) {
+            if (mostSignificantBits[index] == msb && leastSignificantBits[index] == lsb) {
+                return index;
+            }
+        }
+        return -1;
+    }
+
+    long balanceAt(int index) {
+        return balances[index];
+    }
+
+    void setBalanceAt(int index, long balance) {
+        balances[index] = balance;
+    }
+
+    void put(UUID accountId, long balance) {
+        int index = indexOf(accountId);
+        if (index >= 0) {
+            balances[index] = balance;
+            return;
+        }
+        if (2 * (size + 1) > occupied.length) {
+            resize();
+        }
+        insert(accountId.getMostSignificantBits(), accountId.getLeastSignificantBits(), balance);
+        size++;
+    }
+
+    private void insert(long msb, long lsb, long balance) {
+        int index = slot(msb, lsb);
+        while (occupied[index]) {
+            index = (index + 1) & mask;
+        }
+        occupied[index] = true;
+        mostSignificantBits[index] = msb;
+        leastSignificantBits[index] = lsb;
+        balances[index] = balance;
+    }
+
+    private void resize() {
+        long[] oldMsbs = mostSignificantBits;
+        long[] oldLsbs = leastSignificantBits;
+        long[] oldBalances = balances;
+        boolean[] oldOccupied = occupied;
+        allocate(oldOccupied.length * 2);
+        for (int i = 0; i < oldOccupied.length; i++) {
+            if (oldOccupied[i]) {
+                insert(oldMsbs[i], oldLsbs[i], oldBalances[i]);
+            }
+        }
+    }
+
+    private void allocate(int capacity) {
+        mostSignificantBits = new long[capacity];
+        leastSignificantBits = new long[capacity];
+        balances = new long[capacity];
+        occupied = new boolean[capacity];
+        mask = capacity - 1;
+    }
+
+    private int slot(long msb, long lsb) {
+        long hash = (msb ^ lsb) * 0x9E3779B97F4A7C15L;
+        return (int) (hash ^ (hash >>> 32)) & mask;
+    }
+}
@@ -0,0 +1,112 @@
+package fr.angelique.bankaccount.ledger;
+
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.concurrent.locks.LockSupport;
+
+/**
+ * Fixed ring of preallocated {@link LedgerCommand} slots shared by many producers and a chain of
+ * single-threaded consumer stages.
+ * <p>
+ * Producers claim increasing sequences, fill the slot and publish it. A slot is reused only once
+ * the last stage has released its sequence, so a full ring makes producers wait instead of
+ * allocating.
+ */
+final class CommandRing {
+
+    private static final long CLOSED = 1L << 62;
+
+    private static final int SPIN_TRIES = 100;
+
+    private static final int YIELD_TRIES = 200;
+
+    private static final long PARK_NANOS = 50_000;
+
+    private final LedgerCommand[] slots;
+    private final AtomicLongArray published;
+    private final int mask;
+    private final AtomicLong nextSequence = new AtomicLong();
+    private final AtomicLong released = new AtomicLong(-1);
+
+    CommandRing(int capacity) {
+        if (capacity <= 0 || Integer.bitCount(capacity) != 1) {
+            throw new IllegalArgumentException("La capacité doit être une puissance de deux : " + capacity);
+        }
+        slots = new LedgerCommand[capacity];
+        published = new AtomicLongArray(capacity);
+        for (int i = 0; i < capacity; i++) {
+            slots[i] = new LedgerCommand();
+            published.set(i, -1);
+        }
+        mask = capacity - 1;
+    }
+
+    /**
+     * Claims the next sequence and waits for its slot to be released, or returns {@code -1} once
+     * the ring is closed.
+     */
+    long claim() {
+        long current;
+        do {
+            current = nextSequence.get();
+            if ((current & CLOSED) != 0) {
+                return -1;
+            }
+        } while (!nextSequence.compareAndSet(current, current + 1));
+        long sequence = current;
+        int idle = 0;
+        while (sequence - slots.length > released.getAcquire()) {
+            idle = idle(idle);
+        }
+        return sequence;
+    }
+
+    LedgerCommand slot(long sequence) {
+        return slots[(int) sequence & mask];
+    }
+
+    void publish(long sequence) {
+        published.setRelease((int) sequence & mask, sequence);
+    }
+
+    boolean isPublished(long sequence) {
+        return published.getAcquire((int) sequence & mask) == sequence;
+    }
+
+    void release(long sequence) {
+        released.setRelease(sequence);
+    }
+
+    /**
+     * Refuses further claims. Sequences claimed before still get published and processed.
+     */
+    void close() {
+        long current;
+        do {
+            current = nextSequence.get();
+        } while ((current & CLOSED) == 0 && !nextSequence.compareAndSet(current, current | CLOSED));
+    }
+
+    boolean isClosed() {
+        return (nextSequence.get() & CLOSED) != 0;
+    }
+
+    long lastClaimed() {
+        return (nextSequence.get() & ~CLOSED) - 1;
+    }
+
+    /**
+     * Waiting policy shared by producers and stages: spin, then yield, then park briefly.
+     */
+    static int idle(int attempts) {
+        if (attempts < SPIN_TRIES) {
+            Thread.onSpinWait();
+        } else if (attempts < YIELD_TRIES) {
+            Thread.yield();
+        } else {
+            LockSupport.parkNanos(PARK_NANOS);
+            return attempts;
+        }
+        return attempts + 1;
+    }
+}
@@ -0,0 +1,50 @@
+package fr.angelique.bankaccount.ledger;
+
+import fr.angelique.bankaccount.enums.MovementStatus;
+import fr.angelique.bankaccount.service.model.Operation;
+
+import java.util.UUID;
+
+/**
+ * Preallocated slot of the {@link CommandRing}. Producers fill the request fields, the business
+ * thread fills the outcome, the journal thread reads the operation and the completion thread
+ * clears the slot before it is claimed again.
+ */
+final class LedgerCommand {
+
+    enum Kind {
+        OPEN,
+        DEPOSIT,
+        WITHDRAWAL
+    }
+
+    Kind kind;
+    UUID accountId;
+    long amount;
+    String libelle;
+    LedgerCompletion completion;
+    int completionIndex;
+
+    MovementStatus status;
+    long balance;
+    Operation operation;
+    Throwable failure;
+
+    void set(Kind kind, UUID accountId, long amount, String libelle, LedgerCompletion completion, int completionIndex) {
+        this.kind = kind;
+        this.accountId = accountId;
+        this.amount = amount;
+        this.libelle = libelle;
+        this.completion = completion;
+        this.completionIndex = completionIndex;
+    }
+
+    void clear() {
+        accountId = null;
+        libelle = null;
+        completion = null;
+        status = null;
+        operation = null;
+        failure = null;
+    }
+}
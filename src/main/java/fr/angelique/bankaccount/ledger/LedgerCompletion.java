@@ -0,0 +1,14 @@
+package fr.angelique.bankaccount.ledger;
+
+import fr.angelique.bankaccount.enums.MovementStatus;
+
+/**
+ * Receives the outcome of a command once its operation is journaled. Called from the completion
+ * thread only.
+ */
+interface LedgerCompletion {
+
+    void complete(int index, MovementStatus status, long balance);
+
+    void fail(int index, Throwable failure);
+}
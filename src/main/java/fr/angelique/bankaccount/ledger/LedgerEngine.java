@@ -0,0 +1,474 @@
+package fr.angelique.bankaccount.ledger;
+
+import fr.angelique.bankaccount.AccountStatementPrinter;
+import fr.angelique.bankaccount.OperationsFormatter;
+import fr.angelique.bankaccount.enums.MovementStatus;
+import fr.angelique.bankaccount.enums.OperationType;
+import fr.angelique.bankaccount.repository.OperationQuery;
+import fr.angelique.bankaccount.repository.OperationRepository;
+import fr.angelique.bankaccount.service.BankAccountService;
+import fr.angelique.bankaccount.service.model.Money;
+import fr.angelique.bankaccount.service.model.Movement;
+import fr.angelique.bankaccount.service.model.MovementResult;
+import fr.angelique.bankaccount.service.model.Operation;
+import fr.angelique.bankaccount.service.model.OperationResult;
+
+import java.math.BigDecimal;
+import java.time.Clock;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.stream.Stream;
+
+/**
+ * {@link BankAccountService} in which a single business thread owns every balance.
+ * <p>
+ * Deposits and withdrawals are published into a {@link CommandRing}. The business thread applies
+ * them in sequence order with the rules of {@code BankAccountCheckingService}, the journal thread
+ * writes the resulting operations with one {@link OperationRepository#createAll(List)} per batch
+ * and the account openings with {@link OperationRepository#recordOpening(UUID, long)}, and the
+ * completion thread completes the callers' futures. A command therefore completes only once its
+ * operation is journaled, and the journal order is the order in which the balances changed, so
+ * replaying it rebuilds the same state.
+ * <p>
+ * A journal failure stops the engine: the balances it holds are no longer backed by the journal,
+ * so every command not yet completed fails and the following ones are refused.
+ */
+public class LedgerEngine implements BankAccountService, AutoCloseable {
+
+    private final CommandRing ring;
+
+    private final AccountBalances balances = new AccountBalances();
+
+    private final OperationRepository operationRepository;
+
+    private final OperationsFormatter operationListFormatter;
+
+    private final AccountStatementPrinter accountStatementPrinter;
+
+    private final Clock clock;
+
+    private final StageSequence applied = new StageSequence();
+
+    private final StageSequence journaled = new StageSequence();
+
+    private final List<Thread> threads;
+
+    private volatile IllegalStateException journalFailure;
+
+    public LedgerEngine(Map<UUID, Long> openingBalances, OperationRepository operationRepository, OperationsFormatter operationListFormatter, AccountStatementPrinter accountStatementPrinter, Clock clock, int capacity) {
+        this.ring = new CommandRing(capacity);
+        this.operationRepository = operationRepository;
+        this.operationListFormatter = operationListFormatter;
+        this.accountStatementPrinter = accountStatementPrinter;
+        this.clock = clock;
+        openingBalances.forEach(balances::put);
+        this.threads = List.of(
+                start("ledger-business", this::runBusiness),
+                start("ledger-journal", this::runJournal),
+                start("ledger-completion", this::runCompletion));
+    }
+
+    /**
+     * Opens the account with its initial balance, or fails with an
+     * {@link IllegalArgumentException} if it already exists.
+     */
+    public CompletableFuture<OperationResult> openAccount(UUID accountId, long balance) {
+        ResultFuture future = new ResultFuture();
+        if (!publish(LedgerCommand.Kind.OPEN, accountId, balance, null, future, 0)) {
+            return closedFuture();
+        }
+        return future;
+    }
+
+    public CompletableFuture<OperationResult> submitDeposit(UUID accountId, BigDecimal amount, String libelle) {
+        return submit(LedgerCommand.Kind.DEPOSIT, accountId, amount, libelle);
+    }
+
+    public CompletableFuture<OperationResult> submitWithdraw(UUID accountId, BigDecimal amount, String libelle) {
+        return submit(LedgerCommand.Kind.WITHDRAWAL, accountId, amount, libelle);
+    }
+
+    @Override
+    public OperationResult tryDeposit(UUID accountId, BigDecimal amount, String libelle) {
+        return join(submitDeposit(accountId, amount, libelle));
+    }
+
+    @Override
+    public OperationResult tryWithdraw(UUID accountId, BigDecimal amount, String libelle) {
+        return join(submitWithdraw(accountId, amount, libelle));
+    }
+
+    @Override
+    public List<MovementResult> applyBatch(List<Movement> movements) {
+        MovementResult[] results = new MovementResult[movements.size()];
+        int published = 0;
+        for (int i = 0; i < movements.size(); i++) {
+            MovementStatus status = movementStatus(movements.get(i).getAmount(), movements.get(i).getLibelle());
+            if (status != MovementStatus.ACCEPTED) {
+                results[i] = MovementResult.rejected(movements.get(i), status);
+            } else {
+                published++;
+            }
+        }
+        BatchCompletion batch = new BatchCompletion(movements, results, published);
+        for (int i = 0; i < movements.size() && published > 0; i++) {
+            Movement movement = movements.get(i);
+            if (results[i] == null && !publish(kindOf(movement.getOperationType()), movement.getAccountId(), Money.toCents(movement.getAmount()), movement.getLibelle(), batch, i)) {
+                batch.failFrom(i);
+                break;
+            }
+        }
+        if (published > 0) {
+            join(batch);
+        }
+        return Arrays.asList(results);
+    }
+
+    @Override
+    public void printAccountOperations(UUID accountId) {
+        printAccountOperations(accountId, OperationQuery.all());
+    }
+
+    @Override
+    public void printAccountOperations(UUID accountId, OperationQuery query) {
+        try (Stream<Operation> operations = operationRepository.streamByAccountIdOrderByDateDesc(accountId, query)) {
+            accountStatementPrinter.print(operationListFormatter.format(operations));
+        }
+    }
+
+    /**
+     * Stops accepting commands, lets the stages drain what was already published and waits for
+     * them to finish.
+     */
+    @Override
+    public void close() {
+        ring.close();
+        boolean interrupted = false;
+        for (Thread thread : threads) {
+            while (thread.isAlive()) {
+                try {
+                    thread.join();
+                } catch (InterruptedException e) {
+                    interrupted = true;
+                }
+            }
+        }
+        if (interrupted) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    private CompletableFuture<OperationResult> submit(LedgerCommand.Kind kind, UUID accountId, BigDecimal amount, String libelle) {
+        MovementStatus status = movementStatus(amount, libelle);
+        if (status != MovementStatus.ACCEPTED) {
+            return CompletableFuture.completedFuture(OperationResult.rejected(status));
+        }
+        ResultFuture future = new ResultFuture();
+        if (!publish(kind, accountId, Money.toCents(amount), libelle, future, 0)) {
+            return closedFuture();
+        }
+        return future;
+    }
+
+    private boolean publish(LedgerCommand.Kind kind, UUID accountId, long amount, String libelle, LedgerCompletion completion, int completionIndex) {
+        long sequence = ring.claim();
+        if (sequence < 0) {
+            return false;
+        }
+        ring.slot(sequence).set(kind, accountId, amount, libelle, completion, completionIndex);
+        ring.publish(sequence);
+        return true;
+    }
+
+    private void runBusiness() {
+        long next = 0;
+        int idle = 0;
+        while (true) {
+            long available = next - 1;
+            while (ring.isPublished(available + 1)) {
+                apply(ring.slot(++available));
+            }
+            if (available >= next) {
+                applied.advance(available);
+                next = available + 1;
+                idle = 0;
+            } else if (ring.isClosed() && next > ring.lastClaimed()) {
+                applied.finish();
+                return;
+            } else {
+                idle = CommandRing.idle(idle);
+            }
+        }
+    }
+
+    private void apply(LedgerCommand command) {
+        if (journalFailure != null) {
+            command.failure = journalFailure;
+            return;
+        }
+        try {
+            if (command.kind == LedgerCommand.Kind.OPEN) {
+                if (balances.indexOf(command.accountId) >= 0) {
+                    command.failure = new IllegalArgumentException("Le compte existe déjà");
+                    return;
+                }
+                balances.put(command.accountId, command.amount);
+                command.status = MovementStatus.ACCEPTED;
+                command.balance = command.amount;
+                return;
+            }
+            int index = balances.indexOf(command.accountId);
+            if (index < 0) {
+                command.status = MovementStatus.ACCOUNT_NOT_FOUND;
+                return;
+            }
+            OperationType operationType;
+            long newAmount;
+            if (command.kind == LedgerCommand.Kind.DEPOSIT) {
+                operationType = OperationType.DEPOSIT;
+                newAmount = Money.add(balances.balanceAt(index), command.amount);
+            } else {
+                operationType = OperationType.WITHDRAWAL;
+                newAmount = Money.subtract(balances.balanceAt(index), command.amount);
+                if (newAmount < 0) {
+                    command.status = MovementStatus.OVERDRAFT;
+                    return;
+                }
+            }
+            balances.setBalanceAt(index, newAmount);
+            command.status = MovementStatus.ACCEPTED;
+            command.balance = newAmount;
+            command.operation = new Operation(command.accountId, operationType, command.libelle, LocalDateTime.now(clock), command.amount, newAmount);
+        } catch (RuntimeException e) {
+            command.failure = e;
+        }
+    }
+
+    private void runJournal() {
+        long next = 0;
+        while (true) {
+            long available = applied.await(next);
+            if (available < 0) {
+                journaled.finish();
+                return;
+            }
+            if (journalFailure == null) {
+                try {
+                    journal(next, available);
+                } catch (RuntimeException e) {
+                    journalFailure = new IllegalStateException("Le moteur de comptes est arrêté après un échec du journal", e);
+                    ring.close();
+                }
+            }
+            if (journalFailure != null) {
+                for (long sequence = next; sequence <= available; sequence++) {
+                    ring.slot(sequence).failure = journalFailure;
+                }
+            }
+            journaled.advance(available);
+            next = available + 1;
+        }
+    }
+
+    private void journal(long from, long to) {
+        List<Operation> operations = new ArrayList<>((int) (to - from + 1));
+        for (long sequence = from; sequence <= to; sequence++) {
+            LedgerCommand command = ring.slot(sequence);
+            if (command.operation != null) {
+                operations.add(command.operation);
+            } else if (command.kind == LedgerCommand.Kind.OPEN && command.status == MovementStatus.ACCEPTED) {
+                if (!operations.isEmpty()) {
+                    operationRepository.createAll(operations);
+                    operations = new ArrayList<>((int) (to - sequence));
+                }
+                operationRepository.recordOpening(command.accountId, command.amount);
+            }
+        }
+        if (!operations.isEmpty()) {
+            operationRepository.createAll(operations);
+        }
+    }
+
+    private void runCompletion() {
+        long next = 0;
+        while (true) {
+            long available = journaled.await(next);
+            if (available < 0) {
+                return;
+            }
+            for (long sequence = next; sequence <= available; sequence++) {
+                LedgerCommand command = ring.slot(sequence);
+                LedgerCompletion completion = command.completion;
+                int index = command.completionIndex;
+                Throwable failure = command.failure;
+                MovementStatus status = command.status;
+                long balance = command.balance;
+                command.clear();
+                if (failure != null) {
+                    completion.fail(index, failure);
+                } else {
+                    completion.complete(index, status, balance);
+                }
+            }
+            ring.release(available);
+            next = available + 1;
+        }
+    }
+
+    private static Thread start(String name, Runnable stage) {
+        Thread thread = new Thread(stage, name);
+        thread.setDaemon(true);
+        thread.start();
+        return thread;
+    }
+
+    private static LedgerCommand.Kind kindOf(OperationType operationType) {
+        return operationType == OperationType.DEPOSIT ? LedgerCommand.Kind.DEPOSIT : LedgerCommand.Kind.WITHDRAWAL;
+    }
+
+    private static MovementStatus movementStatus(BigDecimal amount, String libelle) {
+        if (!Money.isCents(amount)) {
+            return MovementStatus.INVALID_AMOUNT;
+        }
+        if (amount.signum() <= 0) {
+            return MovementStatus.NEGATIVE_AMOUNT;
+        }
+        if (!Operation.isValidLibelle(libelle)) {
+            return MovementStatus.INVALID_LIBELLE;
+        }
+        return MovementStatus.ACCEPTED;
+    }
+
+    private static <T> CompletableFuture<T> closedFuture() {
+        return CompletableFuture.failedFuture(new RejectedExecutionException("Le moteur de comptes est arrêté"));
+    }
+
+    private static <T> T join(CompletableFuture<T> future) {
+        try {
+            return future.join();
+        } catch (CompletionException e) {
+            if (e.getCause() instanceof RuntimeException cause) {
+                throw cause;
+            }
+            throw e;
+        }
+    }
+
+    private static final class StageSequence {
+
+        private final AtomicLong value = new AtomicLong(-1);
+
+        private volatile boolean finished;
+
+        void advance(long sequence) {
+            value.setRelease(sequence);
+        }
+
+        void finish() {
+            finished = true;
+        }
+
+        /**
+         * Waits until the stage has passed {@code sequence} and returns its progress, or
+         * {@code -1} once it has finished short of it.
+         */
+        long await(long sequence) {
+            int idle = 0;
+            while (true) {
+                boolean done = finished;
+                long available = value.getAcquire();
+                if (available >= sequence) {
+                    return available;
+                }
+                if (done) {
+                    return -1;
+                }
+                idle = CommandRing.idle(idle);
+            }
+        }
+    }
+
+    private static final class ResultFuture extends CompletableFuture<OperationResult> implements LedgerCompletion {
+
+        @Override
+        public void complete(int index, MovementStatus status, long balance) {
+            complete(switch (status) {
+                case ACCEPTED -> OperationResult.ACCEPTED;
+                case ACCOUNT_NOT_FOUND -> OperationResult.NOT_FOUND;
+                default -> OperationResult.rejected(status);
+            });
+        }
+
+        @Override
+        public void fail(int index, Throwable failure) {
+            completeExceptionally(failure);
+        }
+    }
+
+    private static final class BatchCompletion extends CompletableFuture<Void> implements LedgerCompletion {
+
+        private final List<Movement> movements;
+
+        private final MovementResult[] results;
+
+        private int remaining;
+
+        private Throwable failure;
+
+        BatchCompletion(List<Movement> movements, MovementResult[] results, int remaining) {
+            this.movements = movements;
+            this.results = results;
+            this.remaining = remaining;
+        }
+
+        @Override
+        public synchronized void complete(int index, MovementStatus status, long balance) {
+            results[index] = status == MovementStatus.ACCEPTED
+                    ? new MovementResult(movements.get(index), status, balance)
+                    : MovementResult.rejected(movements.get(index), status);
+            countDown(1);
+        }
+
+        @Override
+        public synchronized void fail(int index, Throwable failure) {
+            if (this.failure == null) {
+                this.failure = failure;
+            }
+            countDown(1);
+        }
+
+        /**
+         * Reports {@link MovementStatus#FAILED} for the movements from {@code from} that could not
+         * be published because the engine stopped.
+         */
+        synchronized void failFrom(int from) {
+            int unpublished = 0;
+            for (int index = from; index < results.length; index++) {
+                if (results[index] == null) {
+                    results[index] = MovementResult.rejected(movements.get(index), MovementStatus.FAILED);
+                    unpublished++;
+                }
+            }
+            countDown(unpublished);
+        }
+
+        private void countDown(int count) {
+            remaining -= count;
+            if (remaining == 0) {
+                if (failure == null) {
+                    complete(null);
+                } else {
+                    completeExceptionally(failure);
+                }
+            }
+        }
+    }
+}
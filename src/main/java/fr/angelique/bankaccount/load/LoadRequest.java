@@ -0,0 +1,54 @@
+package fr.angelique.bankaccount.load;
+
+import java.math.BigDecimal;
+import java.util.Objects;
+import java.util.UUID;
+
+public final class LoadRequest {
+
+    public enum Kind {
+        DEPOSIT,
+        WITHDRAWAL,
+        STATEMENT
+    }
+
+    private final Kind kind;
+    private final UUID accountId;
+    private final BigDecimal amount;
+
+    LoadRequest(Kind kind, UUID accountId, BigDecimal amount) {
+        this.kind = kind;
+        this.accountId = accountId;
+        this.amount = amount;
+    }
+
+    public Kind getKind() {
+        return kind;
+    }
+
+    public UUID getAccountId() {
+        return accountId;
+    }
+
+    public BigDecimal getAmount() {
+        return amount;
+    }
+
+    @Override
+    public boolean equals(Object o) {
+        if (this == o) return true;
+        if (o == null || getClass() != o.getClass()) return false;
+        LoadRequest that = (LoadRequest) o;
+        return kind == that.kind && Objects.equals(accountId, that.accountId) && Objects.equals(amount, that.amount);
+    }
+
+    @Override
+    public int hashCode() {
+        return Objects.hash(kind, accountId, amount);
+    }
+
+    @Override
+    public String toString() {
+        return kind + " " + accountId + (amount == null ? "" : " " + amount);
+    }
+}
@@ -0,0 +1,62 @@
+package fr.angelique.bankaccount.load;
+
+import java.time.Duration;
+
+/**
+ * Requests completed during one reporting interval of a soak run. Latencies are in nanoseconds.
+ */
+public final class SoakInterval {
+
+    private final Duration end;
+    private final Duration length;
+    private final long operationCount;
+    private final long p50;
+    private final long p99;
+    private final long p999;
+    private final long max;
+
+    SoakInterval(Duration end, Duration length, long operationCount, long p50, long p99, long p999, long max) {
+        this.end = end;
+        this.length = length;
+        this.operationCount = operationCount;
+        this.p50 = p50;
+        this.p99 = p99;
+        this.p999 = p999;
+        this.max = max;
+    }
+
+    /**
+     * Time elapsed since the start of the run at the end of the interval.
+     */
+    public Duration getEnd() {
+        return end;
+    }
+
+    public Duration getLength() {
+        return length;
+    }
+
+    public long getOperationCount() {
+        return operationCount;
+    }
+
+    public double getThroughput() {
+        return SoakReport.perSecond(operationCount, length);
+    }
+
+    public long getP50() {
+        return p50;
+    }
+
+    public long getP99() {
+        return p99;
+    }
+
+    public long getP999() {
+        return p999;
+    }
+
+    public long getMax() {
+        return max;
+    }
+}
@@ -0,0 +1,129 @@
+package fr.angelique.bankaccount.load;
+
+import fr.angelique.bankaccount.enums.MovementStatus;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+
+/**
+ * Outcome of a soak run: throughput and latencies over the whole run and per interval, and the
+ * check that the balances moved by exactly the accepted deposits minus the accepted withdrawals.
+ */
+public final class SoakReport {
+
+    private final long operationCount;
+    private final Duration elapsed;
+    private final Map<MovementStatus, Long> movementCounts;
+    private final long statementCount;
+    private final List<SoakInterval> intervals;
+    private final long p50;
+    private final long p99;
+    private final long p999;
+    private final long max;
+    private final long depositedCents;
+    private final long withdrawnCents;
+    private final long balanceChangeCents;
+
+    SoakReport(long operationCount, Duration elapsed, Map<MovementStatus, Long> movementCounts, long statementCount, List<SoakInterval> intervals,
+               long p50, long p99, long p999, long max, long depositedCents, long withdrawnCents, long balanceChangeCents) {
+        this.operationCount = operationCount;
+        this.elapsed = elapsed;
+        this.movementCounts = Map.copyOf(movementCounts);
+        this.statementCount = statementCount;
+        this.intervals = List.copyOf(intervals);
+        this.p50 = p50;
+        this.p99 = p99;
+        this.p999 = p999;
+        this.max = max;
+        this.depositedCents = depositedCents;
+        this.withdrawnCents = withdrawnCents;
+        this.balanceChangeCents = balanceChangeCents;
+    }
+
+    public long getOperationCount() {
+        return operationCount;
+    }
+
+    public Duration getElapsed() {
+        return elapsed;
+    }
+
+    public double getThroughput() {
+        return perSecond(operationCount, elapsed);
+    }
+
+    public long getMovementCount(MovementStatus status) {
+        return movementCounts.getOrDefault(status, 0L);
+    }
+
+    public long getStatementCount() {
+        return statementCount;
+    }
+
+    public List<SoakInterval> getIntervals() {
+        return intervals;
+    }
+
+    public long getP50() {
+        return p50;
+    }
+
+    public long getP99() {
+        return p99;
+    }
+
+    public long getP999() {
+        return p999;
+    }
+
+    public long getMax() {
+        return max;
+    }
+
+    public long getDepositedCents() {
+        return depositedCents;
+    }
+
+    public long getWithdrawnCents() {
+        return withdrawnCents;
+    }
+
+    public long getBalanceChangeCents() {
+        return balanceChangeCents;
+    }
+
+    /**
+     * Tells whether the sum of the balances moved by the accepted deposits minus the accepted
+     * withdrawals, no more and no less.
+     */
+    public boolean isBalanced() {
+        return depositedCents - withdrawnCents == balanceChangeCents;
+    }
+
+    public String toText() {
+        StringBuilder report = new StringBuilder();
+        for (SoakInterval interval : intervals) {
+            report.append(String.format(Locale.ROOT, "%8.1fs ops=%d throughput=%.0f/s p50=%dns p99=%dns p999=%dns max=%dns%n",
+                    interval.getEnd().toMillis() / 1000.0, interval.getOperationCount(), interval.getThroughput(),
+                    interval.getP50(), interval.getP99(), interval.getP999(), interval.getMax()));
+        }
+        report.append(String.format(Locale.ROOT, "total ops=%d elapsed=%dms throughput=%.0f/s p50=%dns p99=%dns p999=%dns max=%dns%n",
+                operationCount, elapsed.toMillis(), getThroughput(), p50, p99, p999, max));
+        for (MovementStatus status : MovementStatus.values()) {
+            report.append(status).append(" count=").append(getMovementCount(status)).append('\n');
+        }
+        report.append("STATEMENT count=").append(statementCount).append('\n');
+        report.append("deposited=").append(depositedCents)
+                .append(" withdrawn=").append(withdrawnCents)
+                .append(" balanceChange=").append(balanceChangeCents)
+                .append(isBalanced() ? " balanced" : " UNBALANCED").append('\n');
+        return report.toString();
+    }
+
+    static double perSecond(long count, Duration duration) {
+        long nanos = duration.toNanos();
+        return nanos == 0 ? 0 : count * 1e9 / nanos;
+    }
+}
@@ -0,0 +1,197 @@
+package fr.angelique.bankaccount.load;
+
+import fr.angelique.bankaccount.enums.MovementStatus;
+import fr.angelique.bankaccount.metrics.LatencyHistogram;
+import fr.angelique.bankaccount.repository.OperationQuery;
+import fr.angelique.bankaccount.service.BankAccountService;
+import fr.angelique.bankaccount.service.exception.AccountNotFoundException;
+import fr.angelique.bankaccount.service.model.Money;
+import fr.angelique.bankaccount.service.model.OperationResult;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.EnumMap;
+import java.util.List;
+import java.util.Map;
+import java.util.SplittableRandom;
+import java.util.UUID;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.Consumer;
+import java.util.function.ToLongFunction;
+
+/**
+ * Drives a bank account service with a workload from several threads, and reports the latencies
+ * of the requests as they complete.
+ * <p>
+ * The accounts of the workload must be open before the run. Their balances are read through the
+ * balance reader before and after it, for instance {@code accountRepository::getBalance}: the run
+ * is balanced when they moved by exactly the amounts of the accepted deposits minus the accepted
+ * withdrawals, so nothing else may move them meanwhile.
+ */
+public class SoakRunner {
+
+    private final BankAccountService bankAccountService;
+
+    private final ToLongFunction<UUID> balanceReader;
+
+    private final Workload workload;
+
+    public SoakRunner(BankAccountService bankAccountService, ToLongFunction<UUID> balanceReader, Workload workload) {
+        this.bankAccountService = bankAccountService;
+        this.balanceReader = balanceReader;
+        this.workload = workload;
+    }
+
+    public SoakReport run() {
+        return run(interval -> { });
+    }
+
+    /**
+     * Runs the workload, handing each interval to the listener as soon as it ends.
+     */
+    public SoakReport run(Consumer<SoakInterval> listener) {
+        WorkloadConfig config = workload.getConfig();
+        long balancesBefore = sumOfBalances();
+        Run run = new Run();
+        List<SoakInterval> intervals = new ArrayList<>();
+        ExecutorService workers = Executors.newFixedThreadPool(config.getThreadCount(), runnable -> {
+            Thread thread = new Thread(runnable, "soak-worker");
+            thread.setDaemon(true);
+            return thread;
+        });
+        CountDownLatch done = new CountDownLatch(config.getThreadCount());
+        List<Future<?>> futures = new ArrayList<>(config.getThreadCount());
+        long start = System.nanoTime();
+        long intervalStart = start;
+        try {
+            for (int worker = 0; worker < config.getThreadCount(); worker++) {
+                long count = config.getOperationCount() / config.getThreadCount() + (worker < config.getOperationCount() % config.getThreadCount() ? 1 : 0);
+                SplittableRandom random = workload.randomOf(worker);
+                futures.add(workers.submit(() -> {
+                    try {
+                        work(run, random, count);
+                        return null;
+                    } finally {
+                        done.countDown();
+                    }
+                }));
+            }
+            boolean finished = false;
+            while (!finished) {
+                finished = done.await(config.getReportInterval().toNanos(), TimeUnit.NANOSECONDS);
+                long now = System.nanoTime();
+                SoakInterval interval = run.endInterval(Duration.ofNanos(now - start), Duration.ofNanos(now - intervalStart));
+                intervalStart = now;
+                intervals.add(interval);
+                listener.accept(interval);
+            }
+            for (Future<?> future : futures) {
+                future.get();
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException("Le test d'endurance a été interrompu", e);
+        } catch (ExecutionException e) {
+            throw new IllegalStateException("Le test d'endurance a échoué", e.getCause());
+        } finally {
+            workers.shutdownNow();
+        }
+        Duration elapsed = Duration.ofNanos(System.nanoTime() - start);
+        Map<MovementStatus, Long> movementCounts = new EnumMap<>(MovementStatus.class);
+        for (MovementStatus status : MovementStatus.values()) {
+            movementCounts.put(status, run.movements[status.ordinal()].sum());
+        }
+        LatencyHistogram latencies = run.latencies;
+        return new SoakReport(latencies.getCount(), elapsed, movementCounts, run.statements.sum(), intervals,
+                latencies.valueAtPercentile(50), latencies.valueAtPercentile(99), latencies.valueAtPercentile(99.9), latencies.getMax(),
+                run.deposited.sum(), run.withdrawn.sum(), sumOfBalances() - balancesBefore);
+    }
+
+    private void work(Run run, SplittableRandom random, long count) throws AccountNotFoundException {
+        OperationQuery statementPage = OperationQuery.all().limit(workload.getConfig().getStatementPageSize());
+        long deposited = 0;
+        long withdrawn = 0;
+        for (long i = 0; i < count; i++) {
+            LoadRequest request = workload.next(random);
+            long start = System.nanoTime();
+            OperationResult result = null;
+            switch (request.getKind()) {
+                case DEPOSIT -> result = bankAccountService.tryDeposit(request.getAccountId(), request.getAmount(), "versement");
+                case WITHDRAWAL -> result = bankAccountService.tryWithdraw(request.getAccountId(), request.getAmount(), "retrait");
+                case STATEMENT -> bankAccountService.printAccountOperations(request.getAccountId(), statementPage);
+            }
+            run.record(System.nanoTime() - start);
+            if (result == null) {
+                run.statements.increment();
+                continue;
+            }
+            run.movements[result.getStatus().ordinal()].increment();
+            if (result.getStatus() == MovementStatus.ACCEPTED) {
+                if (request.getKind() == LoadRequest.Kind.DEPOSIT) {
+                    deposited = Money.add(deposited, Money.toCents(request.getAmount()));
+                } else {
+                    withdrawn = Money.add(withdrawn, Money.toCents(request.getAmount()));
+                }
+            }
+        }
+        run.deposited.add(deposited);
+        run.withdrawn.add(withdrawn);
+    }
+
+    private long sumOfBalances() {
+        long sum = 0;
+        for (UUID accountId : workload.getAccountIds()) {
+            sum = Money.add(sum, balanceReader.applyAsLong(accountId));
+        }
+        return sum;
+    }
+
+    private static final class Run {
+
+        private final LatencyHistogram latencies = new LatencyHistogram();
+
+        private final AtomicReference<LatencyHistogram> intervalLatencies = new AtomicReference<>(new LatencyHistogram());
+
+        private final LongAdder[] movements = new LongAdder[MovementStatus.values().length];
+
+        private final LongAdder statements = new LongAdder();
+
+        private final LongAdder deposited = new LongAdder();
+
+        private final LongAdder withdrawn = new LongAdder();
+
+        private long reportedCount;
+
+        private Run() {
+            for (int i = 0; i < movements.length; i++) {
+                movements[i] = new LongAdder();
+            }
+        }
+
+        /**
+         * A request completing while its interval ends may land in the latencies of the ended
+         * interval after they are read. The interval counts come from the latencies of the whole
+         * run instead, so that they always add up.
+         */
+        private void record(long nanos) {
+            latencies.record(nanos);
+            intervalLatencies.get().record(nanos);
+        }
+
+        private SoakInterval endInterval(Duration end, Duration length) {
+            LatencyHistogram ended = intervalLatencies.getAndSet(new LatencyHistogram());
+            long count = latencies.getCount();
+            long intervalCount = count - reportedCount;
+            reportedCount = count;
+            return new SoakInterval(end, length, intervalCount,
+                    ended.valueAtPercentile(50), ended.valueAtPercentile(99), ended.valueAtPercentile(99.9), ended.getMax());
+        }
+    }
+}
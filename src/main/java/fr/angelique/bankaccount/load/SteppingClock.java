@@ -0,0 +1,48 @@
+package fr.angelique.bankaccount.load;
+
+import java.time.Clock;
+import java.time.Duration;
+import java.time.Instant;
+import java.time.ZoneId;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Clock moving forward by a fixed step each time it is read, so the dates of the operations of a
+ * run only depend on how many were recorded, not on how fast.
+ */
+public class SteppingClock extends Clock {
+
+    private final Instant start;
+
+    private final long stepNanos;
+
+    private final ZoneId zone;
+
+    private final AtomicLong ticks;
+
+    public SteppingClock(Instant start, Duration step, ZoneId zone) {
+        this(start, step.toNanos(), zone, new AtomicLong());
+    }
+
+    private SteppingClock(Instant start, long stepNanos, ZoneId zone, AtomicLong ticks) {
+        this.start = start;
+        this.stepNanos = stepNanos;
+        this.zone = zone;
+        this.ticks = ticks;
+    }
+
+    @Override
+    public ZoneId getZone() {
+        return zone;
+    }
+
+    @Override
+    public Clock withZone(ZoneId zone) {
+        return new SteppingClock(start, stepNanos, zone, ticks);
+    }
+
+    @Override
+    public Instant instant() {
+        return start.plusNanos(ticks.getAndIncrement() * stepNanos);
+    }
+}
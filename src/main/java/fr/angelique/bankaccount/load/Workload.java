@@ -0,0 +1,92 @@
+package fr.angelique.bankaccount.load;
+
+import fr.angelique.bankaccount.service.model.Money;
+
+import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Random;
+import java.util.SplittableRandom;
+import java.util.UUID;
+
+/**
+ * Accounts and requests of a workload.
+ * <p>
+ * The account identifiers and their popularity ranks are drawn from the seed, so the hottest
+ * accounts are not the first ones opened. Each worker draws its requests from its own random
+ * generator, also derived from the seed, so a worker's sequence does not depend on the others.
+ */
+public class Workload {
+
+    static final long OVERDRAFT_AMOUNT_CENTS = 1_000_000_000_000_000L;
+
+    private static final long WORKER_SEED_INCREMENT = 0x9E3779B97F4A7C15L;
+
+    private static final BigDecimal OVERDRAFT_AMOUNT = Money.toBigDecimal(OVERDRAFT_AMOUNT_CENTS);
+
+    private final WorkloadConfig config;
+
+    private final List<UUID> accountIds;
+
+    private final UUID[] accountsByRank;
+
+    private final ZipfDistribution popularity;
+
+    private final BigDecimal[] amounts;
+
+    public Workload(WorkloadConfig config) {
+        this.config = config;
+        SplittableRandom random = new SplittableRandom(config.getSeed());
+        List<UUID> ids = new ArrayList<>(config.getAccountCount());
+        for (int i = 0; i < config.getAccountCount(); i++) {
+            ids.add(new UUID(random.nextLong(), random.nextLong()));
+        }
+        this.accountIds = List.copyOf(ids);
+        Collections.shuffle(ids, new Random(random.nextLong()));
+        this.accountsByRank = ids.toArray(new UUID[0]);
+        this.popularity = new ZipfDistribution(config.getAccountCount(), config.getZipfExponent());
+        this.amounts = new BigDecimal[(int) Math.min(config.getMaximumAmountCents(), 100_000)];
+        for (int i = 0; i < amounts.length; i++) {
+            amounts[i] = Money.toBigDecimal(i + 1);
+        }
+    }
+
+    public WorkloadConfig getConfig() {
+        return config;
+    }
+
+    public List<UUID> getAccountIds() {
+        return accountIds;
+    }
+
+    /**
+     * Returns the account of the given popularity rank, 0 being the hottest.
+     */
+    public UUID accountOfRank(int rank) {
+        return accountsByRank[rank];
+    }
+
+    public SplittableRandom randomOf(int worker) {
+        return new SplittableRandom(config.getSeed() + (worker + 1) * WORKER_SEED_INCREMENT);
+    }
+
+    public LoadRequest next(SplittableRandom random) {
+        UUID accountId = accountsByRank[popularity.sample(random)];
+        if (random.nextDouble() < config.getStatementReadRatio()) {
+            return new LoadRequest(LoadRequest.Kind.STATEMENT, accountId, null);
+        }
+        if (random.nextDouble() < config.getDepositRatio()) {
+            return new LoadRequest(LoadRequest.Kind.DEPOSIT, accountId, amount(random));
+        }
+        if (random.nextDouble() < config.getOverdraftRate()) {
+            return new LoadRequest(LoadRequest.Kind.WITHDRAWAL, accountId, OVERDRAFT_AMOUNT);
+        }
+        return new LoadRequest(LoadRequest.Kind.WITHDRAWAL, accountId, amount(random));
+    }
+
+    private BigDecimal amount(SplittableRandom random) {
+        long cents = random.nextLong(config.getMaximumAmountCents()) + 1;
+        return cents <= amounts.length ? amounts[(int) cents - 1] : Money.toBigDecimal(cents);
+    }
+}
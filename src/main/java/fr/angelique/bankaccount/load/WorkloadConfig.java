@@ -0,0 +1,170 @@
+package fr.angelique.bankaccount.load;
+
+import java.time.Duration;
+
+/**
+ * Shape of a generated workload. Every random choice derives from the seed, so two runs with the
+ * same configuration send each worker the same requests.
+ */
+public final class WorkloadConfig {
+
+    private static final WorkloadConfig DEFAULTS = new WorkloadConfig(42, 1_000, 1.0, 0.5, 0.01, 0.05, 10_000, 20, 4, 100_000, Duration.ofSeconds(1));
+
+    private final long seed;
+    private final int accountCount;
+    private final double zipfExponent;
+    private final double depositRatio;
+    private final double overdraftRate;
+    private final double statementReadRatio;
+    private final long maximumAmountCents;
+    private final int statementPageSize;
+    private final int threadCount;
+    private final long operationCount;
+    private final Duration reportInterval;
+
+    private WorkloadConfig(long seed, int accountCount, double zipfExponent, double depositRatio, double overdraftRate, double statementReadRatio,
+                           long maximumAmountCents, int statementPageSize, int threadCount, long operationCount, Duration reportInterval) {
+        this.seed = seed;
+        this.accountCount = accountCount;
+        this.zipfExponent = zipfExponent;
+        this.depositRatio = depositRatio;
+        this.overdraftRate = overdraftRate;
+        this.statementReadRatio = statementReadRatio;
+        this.maximumAmountCents = maximumAmountCents;
+        this.statementPageSize = statementPageSize;
+        this.threadCount = threadCount;
+        this.operationCount = operationCount;
+        this.reportInterval = reportInterval;
+    }
+
+    public static WorkloadConfig defaults() {
+        return DEFAULTS;
+    }
+
+    public WorkloadConfig seed(long seed) {
+        return new WorkloadConfig(seed, accountCount, zipfExponent, depositRatio, overdraftRate, statementReadRatio, maximumAmountCents, statementPageSize, threadCount, operationCount, reportInterval);
+    }
+
+    public WorkloadConfig accountCount(int accountCount) {
+        if (accountCount <= 0) {
+            throw new IllegalArgumentException("Le nombre de comptes doit être positif : " + accountCount);
+        }
+        return new WorkloadConfig(seed, accountCount, zipfExponent, depositRatio, overdraftRate, statementReadRatio, maximumAmountCents, statementPageSize, threadCount, operationCount, reportInterval);
+    }
+
+    /**
+     * Skew of the account popularity: the account of rank {@code k} is picked with a probability
+     * proportional to {@code 1 / k^exponent}. Zero picks the accounts uniformly.
+     */
+    public WorkloadConfig zipfExponent(double zipfExponent) {
+        if (!(zipfExponent >= 0) || Double.isInfinite(zipfExponent)) {
+            throw new IllegalArgumentException("L'exposant de Zipf doit être positif ou nul : " + zipfExponent);
+        }
+        return new WorkloadConfig(seed, accountCount, zipfExponent, depositRatio, overdraftRate, statementReadRatio, maximumAmountCents, statementPageSize, threadCount, operationCount, reportInterval);
+    }
+
+    /**
+     * Share of deposits among the movements, the others being withdrawals.
+     */
+    public WorkloadConfig depositRatio(double depositRatio) {
+        return new WorkloadConfig(seed, accountCount, zipfExponent, ratio(depositRatio), overdraftRate, statementReadRatio, maximumAmountCents, statementPageSize, threadCount, operationCount, reportInterval);
+    }
+
+    /**
+     * Share of withdrawals asking for more than any balance can hold. Other withdrawals can still
+     * be refused when the account runs dry.
+     */
+    public WorkloadConfig overdraftRate(double overdraftRate) {
+        return new WorkloadConfig(seed, accountCount, zipfExponent, depositRatio, ratio(overdraftRate), statementReadRatio, maximumAmountCents, statementPageSize, threadCount, operationCount, reportInterval);
+    }
+
+    public WorkloadConfig statementReadRatio(double statementReadRatio) {
+        return new WorkloadConfig(seed, accountCount, zipfExponent, depositRatio, overdraftRate, ratio(statementReadRatio), maximumAmountCents, statementPageSize, threadCount, operationCount, reportInterval);
+    }
+
+    public WorkloadConfig maximumAmountCents(long maximumAmountCents) {
+        if (maximumAmountCents <= 0 || maximumAmountCents >= Workload.OVERDRAFT_AMOUNT_CENTS) {
+            throw new IllegalArgumentException("Le montant maximum est hors limites : " + maximumAmountCents);
+        }
+        return new WorkloadConfig(seed, accountCount, zipfExponent, depositRatio, overdraftRate, statementReadRatio, maximumAmountCents, statementPageSize, threadCount, operationCount, reportInterval);
+    }
+
+    public WorkloadConfig statementPageSize(int statementPageSize) {
+        if (statementPageSize <= 0) {
+            throw new IllegalArgumentException("La taille de page doit être positive");
+        }
+        return new WorkloadConfig(seed, accountCount, zipfExponent, depositRatio, overdraftRate, statementReadRatio, maximumAmountCents, statementPageSize, threadCount, operationCount, reportInterval);
+    }
+
+    public WorkloadConfig threadCount(int threadCount) {
+        if (threadCount <= 0) {
+            throw new IllegalArgumentException("Le nombre de threads doit être positif : " + threadCount);
+        }
+        return new WorkloadConfig(seed, accountCount, zipfExponent, depositRatio, overdraftRate, statementReadRatio, maximumAmountCents, statementPageSize, threadCount, operationCount, reportInterval);
+    }
+
+    public WorkloadConfig operationCount(long operationCount) {
+        if (operationCount < 0) {
+            throw new IllegalArgumentException("Le nombre d'opérations doit être positif : " + operationCount);
+        }
+        return new WorkloadConfig(seed, accountCount, zipfExponent, depositRatio, overdraftRate, statementReadRatio, maximumAmountCents, statementPageSize, threadCount, operationCount, reportInterval);
+    }
+
+    public WorkloadConfig reportInterval(Duration reportInterval) {
+        if (reportInterval.isNegative() || reportInterval.isZero()) {
+            throw new IllegalArgumentException("L'intervalle de rapport doit être positif : " + reportInterval);
+        }
+        return new WorkloadConfig(seed, accountCount, zipfExponent, depositRatio, overdraftRate, statementReadRatio, maximumAmountCents, statementPageSize, threadCount, operationCount, reportInterval);
+    }
+
+    public long getSeed() {
+        return seed;
+    }
+
+    public int getAccountCount() {
+        return accountCount;
+    }
+
+    public double getZipfExponent() {
+        return zipfExponent;
+    }
+
+    public double getDepositRatio() {
+        return depositRatio;
+    }
+
+    public double getOverdraftRate() {
+        return overdraftRate;
+    }
+
+    public double getStatementReadRatio() {
+        return statementReadRatio;
+    }
+
+    public long getMaximumAmountCents() {
+        return maximumAmountCents;
+    }
+
+    public int getStatementPageSize() {
+        return statementPageSize;
+    }
+
+    public int getThreadCount() {
+        return threadCount;
+    }
+
+    public long getOperationCount() {
+        return operationCount;
+    }
+
+    public Duration getReportInterval() {
+        return reportInterval;
+    }
+
+    private static double ratio(double ratio) {
+        if (!(ratio >= 0 && ratio <= 1)) {
+            throw new IllegalArgumentException("La proportion doit être comprise entre 0 et 1 : " + ratio);
+        }
+        return ratio;
+    }
+}
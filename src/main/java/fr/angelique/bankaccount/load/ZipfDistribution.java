@@ -0,0 +1,40 @@
+package fr.angelique.bankaccount.load;
+
+import java.util.SplittableRandom;
+
+/**
+ * Ranks from 0 to {@code size - 1}, rank {@code k} drawn with a probability proportional to
+ * {@code 1 / (k + 1)^exponent}, by binary search over the cumulative distribution.
+ */
+final class ZipfDistribution {
+
+    private final double[] cumulative;
+
+    ZipfDistribution(int size, double exponent) {
+        cumulative = new double[size];
+        double total = 0;
+        for (int rank = 0; rank < size; rank++) {
+            total += 1 / Math.pow(rank + 1, exponent);
+            cumulative[rank] = total;
+        }
+        for (int rank = 0; rank < size; rank++) {
+            cumulative[rank] /= total;
+        }
+        cumulative[size - 1] = 1;
+    }
+
+    int sample(SplittableRandom random) {
+        double value = random.nextDouble();
+        int low = 0;
+        int high = cumulative.length - 1;
+        while (low < high) {
+            int middle = (low + high) >>> 1;
+            if (cumulative[middle] <= value) {
+                low = middle + 1;
+            } else {
+                high = middle;
+            }
+        }
+        return low;
+    }
+}
@@ -0,0 +1,77 @@
+package fr.angelique.bankaccount.metrics;
+
+import fr.angelique.bankaccount.repository.AccountRepository;
+
+import java.util.UUID;
+import java.util.concurrent.atomic.LongAdder;
+
+public class InstrumentedAccountRepository implements AccountRepository {
+
+    private final AccountRepository accountRepository;
+
+    private final MetricsRegistry metrics;
+
+    private final LatencyHistogram existsByIdLatency;
+
+    private final LatencyHistogram getBalanceLatency;
+
+    private final LatencyHistogram updateBalanceLatency;
+
+    private final LatencyHistogram compareAndUpdateBalanceLatency;
+
+    private final LongAdder compareAndUpdateConflicts;
+
+    public InstrumentedAccountRepository(AccountRepository accountRepository, MetricsRegistry metrics) {
+        this.accountRepository = accountRepository;
+        this.metrics = metrics;
+        this.existsByIdLatency = metrics.histogram("accountRepository.existsById");
+        this.getBalanceLatency = metrics.histogram("accountRepository.getBalance");
+        this.updateBalanceLatency = metrics.histogram("accountRepository.updateBalance");
+        this.compareAndUpdateBalanceLatency = metrics.histogram("accountRepository.compareAndUpdateBalance");
+        this.compareAndUpdateConflicts = metrics.counter("accountRepository.compareAndUpdateBalance.conflicts");
+    }
+
+    @Override
+    public boolean existsById(UUID id) {
+        long start = metrics.startTimer();
+        try {
+            return accountRepository.existsById(id);
+        } finally {
+            existsByIdLatency.recordSince(start);
+        }
+    }
+
+    @Override
+    public long getBalance(UUID id) {
+        long start = metrics.startTimer();
+        try {
+            return accountRepository.getBalance(id);
+        } finally {
+            getBalanceLatency.recordSince(start);
+        }
+    }
+
+    @Override
+    public void updateBalance(UUID id, long amount) {
+        long start = metrics.startTimer();
+        try {
+            accountRepository.updateBalance(id, amount);
+        } finally {
+            updateBalanceLatency.recordSince(start);
+        }
+    }
+
+    @Override
+    public boolean compareAndUpdateBalance(UUID id, long expectedBalance, long newBalance) {
+        long start = metrics.startTimer();
+        try {
+            boolean updated = accountRepository.compareAndUpdateBalance(id, expectedBalance, newBalance);
+            if (!updated) {
+                compareAndUpdateConflicts.increment();
+            }
+            return updated;
+        } finally {
+            compareAndUpdateBalanceLatency.recordSince(start);
+        }
+    }
+}
@@ -0,0 +1,38 @@
+package fr.angelique.bankaccount.metrics;
+
+import fr.angelique.bankaccount.AccountStatementPrinter;
+
+import java.util.concurrent.atomic.LongAdder;
+import java.util.stream.Stream;
+
+/**
+ * Records the time spent printing each statement and counts the printed lines. Statement lines
+ * are produced lazily, so this time includes formatting.
+ */
+public class InstrumentedAccountStatementPrinter implements AccountStatementPrinter {
+
+    private final AccountStatementPrinter accountStatementPrinter;
+
+    private final MetricsRegistry metrics;
+
+    private final LatencyHistogram statementLatency;
+
+    private final LongAdder lines;
+
+    public InstrumentedAccountStatementPrinter(AccountStatementPrinter accountStatementPrinter, MetricsRegistry metrics) {
+        this.accountStatementPrinter = accountStatementPrinter;
+        this.metrics = metrics;
+        this.statementLatency = metrics.histogram("printer.statement");
+        this.lines = metrics.counter("printer.lines");
+    }
+
+    @Override
+    public void print(Stream<String> statementLines) {
+        long start = metrics.startTimer();
+        try {
+            accountStatementPrinter.print(statementLines.peek(line -> lines.increment()));
+        } finally {
+            statementLatency.recordSince(start);
+        }
+    }
+}
@@ -0,0 +1,121 @@
+package fr.angelique.bankaccount.metrics;
+
+import fr.angelique.bankaccount.enums.MovementStatus;
+import fr.angelique.bankaccount.repository.OperationQuery;
+import fr.angelique.bankaccount.service.BankAccountService;
+import fr.angelique.bankaccount.service.exception.AccountNotFoundException;
+import fr.angelique.bankaccount.service.model.Movement;
+import fr.angelique.bankaccount.service.model.MovementResult;
+import fr.angelique.bankaccount.service.model.OperationResult;
+
+import java.math.BigDecimal;
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.atomic.LongAdder;
+
+public class InstrumentedBankAccountService implements BankAccountService {
+
+    private final BankAccountService bankAccountService;
+
+    private final MetricsRegistry metrics;
+
+    private final LatencyHistogram depositLatency;
+
+    private final LatencyHistogram withdrawLatency;
+
+    private final LatencyHistogram applyBatchLatency;
+
+    private final LatencyHistogram printLatency;
+
+    private final LongAdder accountNotFound;
+
+    private final LongAdder negativeAmount;
+
+    private final LongAdder overdraft;
+
+    public InstrumentedBankAccountService(BankAccountService bankAccountService, MetricsRegistry metrics) {
+        this.bankAccountService = bankAccountService;
+        this.metrics = metrics;
+        this.depositLatency = metrics.histogram("service.deposit");
+        this.withdrawLatency = metrics.histogram("service.withdraw");
+        this.applyBatchLatency = metrics.histogram("service.applyBatch");
+        this.printLatency = metrics.histogram("service.printAccountOperations");
+        this.accountNotFound = metrics.counter("service.accountNotFound");
+        this.negativeAmount = metrics.counter("service.negativeAmount");
+        this.overdraft = metrics.counter("service.overdraft");
+    }
+
+    @Override
+    public OperationResult tryDeposit(UUID accountId, BigDecimal amount, String libelle) {
+        long start = metrics.startTimer();
+        try {
+            return count(bankAccountService.tryDeposit(accountId, amount, libelle));
+        } finally {
+            depositLatency.recordSince(start);
+        }
+    }
+
+    @Override
+    public OperationResult tryWithdraw(UUID accountId, BigDecimal amount, String libelle) {
+        long start = metrics.startTimer();
+        try {
+            return count(bankAccountService.tryWithdraw(accountId, amount, libelle));
+        } finally {
+            withdrawLatency.recordSince(start);
+        }
+    }
+
+    @Override
+    public List<MovementResult> applyBatch(List<Movement> movements) {
+        long start = metrics.startTimer();
+        try {
+            List<MovementResult> results = bankAccountService.applyBatch(movements);
+            for (MovementResult result : results) {
+                count(result.getStatus());
+            }
+            return results;
+        } finally {
+            applyBatchLatency.recordSince(start);
+        }
+    }
+
+    @Override
+    public void printAccountOperations(UUID accountId) throws AccountNotFoundException {
+        long start = metrics.startTimer();
+        try {
+            bankAccountService.printAccountOperations(accountId);
+        } catch (AccountNotFoundException e) {
+            accountNotFound.increment();
+            throw e;
+        } finally {
+            printLatency.recordSince(start);
+        }
+    }
+
+    @Override
+    public void printAccountOperations(UUID accountId, OperationQuery query) throws AccountNotFoundException {
+        long start = metrics.startTimer();
+        try {
+            bankAccountService.printAccountOperations(accountId, query);
+        } catch (AccountNotFoundException e) {
+            accountNotFound.increment();
+            throw e;
+        } finally {
+            printLatency.recordSince(start);
+        }
+    }
+
+    private OperationResult count(OperationResult result) {
+        count(result.getStatus());
+        return result;
+    }
+
+    private void count(MovementStatus status) {
+        switch (status) {
+            case ACCOUNT_NOT_FOUND -> accountNotFound.increment();
+            case NEGATIVE_AMOUNT -> negativeAmount.increment();
+            case OVERDRAFT -> overdraft.increment();
+            default -> { }
+        }
+    }
+}
@@ -0,0 +1,82 @@
+package fr.angelique.bankaccount.metrics;
+
+import fr.angelique.bankaccount.repository.OperationQuery;
+import fr.angelique.bankaccount.repository.OperationRepository;
+import fr.angelique.bankaccount.service.model.Operation;
+
+import java.util.List;
+import java.util.UUID;
+import java.util.stream.Stream;
+
+/**
+ * Times every repository call. Streams are lazy, so only the time to open them is recorded; the
+ * reads themselves show up in the formatter and printer histograms.
+ */
+public class InstrumentedOperationRepository implements OperationRepository {
+
+    private final OperationRepository operationRepository;
+
+    private final MetricsRegistry metrics;
+
+    private final LatencyHistogram findAllLatency;
+
+    private final LatencyHistogram streamLatency;
+
+    private final LatencyHistogram createLatency;
+
+    private final LatencyHistogram createAllLatency;
+
+    public InstrumentedOperationRepository(OperationRepository operationRepository, MetricsRegistry metrics) {
+        this.operationRepository = operationRepository;
+        this.metrics = metrics;
+        this.findAllLatency = metrics.histogram("operationRepository.findAllByAccountIdOrderByDateDesc");
+        this.streamLatency = metrics.histogram("operationRepository.streamByAccountIdOrderByDateDesc");
+        this.createLatency = metrics.histogram("operationRepository.create");
+        this.createAllLatency = metrics.histogram("operationRepository.createAll");
+    }
+
+    @Override
+    public List<Operation> findAllByAccountIdOrderByDateDesc(UUID id) {
+        long start = metrics.startTimer();
+        try {
+            return operationRepository.findAllByAccountIdOrderByDateDesc(id);
+        } finally {
+            findAllLatency.recordSince(start);
+        }
+    }
+
+    @Override
+    public Stream<Operation> streamByAccountIdOrderByDateDesc(UUID id, OperationQuery query) {
+        long start = metrics.startTimer();
+        try {
+            return operationRepository.streamByAccountIdOrderByDateDesc(id, query);
+        } finally {
+            streamLatency.recordSince(start);
+        }
+    }
+
+    @Override
+    public void create(Operation entity) {
+        long start = metrics.startTimer();
+        try {
+            operationRepository.create(entity);
+        } finally {
+            createLatency.recordSince(start);
+        }
+    }
+
+    @Override
+    public void createAll(List<Operation> entities) {
+        long start = metrics.startTimer();
+        try {
+            operationRepository.createAll(entities);
+        } finally {
+            createAllLatency.recordSince(start);
+        }
+    }
+
+    @Override
+    public void recordOpening(UUID accountId, long initialBalance) {
+        operationRepository.recordOpening(accountId, initialBalance);
+    }
+}
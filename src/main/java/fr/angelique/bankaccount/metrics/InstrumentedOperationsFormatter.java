@@ -0,0 +1,45 @@
+package fr.angelique.bankaccount.metrics;
+
+import fr.angelique.bankaccount.OperationsFormatter;
+import fr.angelique.bankaccount.service.model.Operation;
+
+import java.util.stream.Stream;
+
+/**
+ * Records the time spent formatting each statement line while keeping the delegate's own stream
+ * pipeline, so formatters that reuse a buffer across lines still do.
+ */
+public class InstrumentedOperationsFormatter implements OperationsFormatter {
+
+    private final OperationsFormatter operationsFormatter;
+
+    private final MetricsRegistry metrics;
+
+    private final LatencyHistogram lineLatency;
+
+    public InstrumentedOperationsFormatter(OperationsFormatter operationsFormatter, MetricsRegistry metrics) {
+        this.operationsFormatter = operationsFormatter;
+        this.metrics = metrics;
+        this.lineLatency = metrics.histogram("formatter.line");
+    }
+
+    @Override
+    public String format(Operation operation) {
+        long start = metrics.startTimer();
+        try {
+            return operationsFormatter.format(operation);
+        } finally {
+            lineLatency.recordSince(start);
+        }
+    }
+
+    @Override
+    public Stream<String> format(Stream<Operation> operations) {
+        if (operations.isParallel()) {
+            return operations.map(this::format);
+        }
+        long[] lineStart = new long[1];
+        return operationsFormatter.format(operations.peek(operation -> lineStart[0] = metrics.startTimer()))
+                .peek(line -> lineLatency.recordSince(lineStart[0]));
+    }
+}
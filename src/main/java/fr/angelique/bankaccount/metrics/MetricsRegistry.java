@@ -0,0 +1,109 @@
+package fr.angelique.bankaccount.metrics;
+
+import java.util.Locale;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Named counters and latency histograms. Instruments look their metrics up once at construction
+ * and record on them directly afterwards.
+ * <p>
+ * Reading the clock costs about as much as a deposit, so durations can be sampled: with an
+ * interval of {@code n}, one call in {@code n} on average is timed. Counters are always exact.
+ */
+public class MetricsRegistry {
+
+    public static final long UNSAMPLED = Long.MIN_VALUE;
+
+    private static final double[] PERCENTILES = {50, 90, 99, 99.9};
+
+    private final int samplingInterval;
+
+    private final int samplingMask;
+
+    private final ConcurrentMap<String, LatencyHistogram> histograms = new ConcurrentHashMap<>();
+
+    private final ConcurrentMap<String, LongAdder> counters = new ConcurrentHashMap<>();
+
+    public MetricsRegistry() {
+        this(1);
+    }
+
+    public MetricsRegistry(int samplingInterval) {
+        if (samplingInterval < 1 || Integer.bitCount(samplingInterval) != 1) {
+            throw new IllegalArgumentException("L'intervalle d'échantillonnage doit être une puissance de deux : " + samplingInterval);
+        }
+        this.samplingInterval = samplingInterval;
+        this.samplingMask = samplingInterval - 1;
+    }
+
+    public int getSamplingInterval() {
+        return samplingInterval;
+    }
+
+    public long startTimer() {
+        if (samplingMask != 0 && (ThreadLocalRandom.current().nextInt() & samplingMask) != 0) {
+            return UNSAMPLED;
+        }
+        return System.nanoTime();
+    }
+
+    public LatencyHistogram histogram(String name) {
+        return histograms.computeIfAbsent(name, key -> new LatencyHistogram());
+    }
+
+    public LongAdder counter(String name) {
+        return counters.computeIfAbsent(name, key -> new LongAdder());
+    }
+
+    public String toText() {
+        StringBuilder report = new StringBuilder();
+        report.append("sampling 1/").append(samplingInterval).append('\n');
+        new TreeMap<>(counters).forEach((name, counter) -> report.append(name).append(" count=").append(counter.sum()).append('\n'));
+        new TreeMap<>(histograms).forEach((name, histogram) -> {
+            report.append(name)
+                    .append(" count=").append(histogram.getCount())
+                    .append(String.format(Locale.ROOT, " mean=%.1fns", histogram.getMean()));
+            for (double percentile : PERCENTILES) {
+                report.append(" p").append(label(percentile)).append('=').append(histogram.valueAtPercentile(percentile)).append("ns");
+            }
+            report.append(" max=").append(histogram.getMax()).append("ns\n");
+        });
+        return report.toString();
+    }
+
+    public String toJson() {
+        StringBuilder json = new StringBuilder("{\"samplingInterval\":").append(samplingInterval).append(",\"counters\":{");
+        String separator = "";
+        for (Map.Entry<String, LongAdder> counter : new TreeMap<>(counters).entrySet()) {
+            json.append(separator).append(quote(counter.getKey())).append(':').append(counter.getValue().sum());
+            separator = ",";
+        }
+        json.append("},\"histograms\":{");
+        separator = "";
+        for (Map.Entry<String, LatencyHistogram> entry : new TreeMap<>(histograms).entrySet()) {
+            LatencyHistogram histogram = entry.getValue();
+            json.append(separator).append(quote(entry.getKey()))
+                    .append(":{\"count\":").append(histogram.getCount())
+                    .append(String.format(Locale.ROOT, ",\"mean\":%.1f", histogram.getMean()));
+            for (double percentile : PERCENTILES) {
+                json.append(",\"p").append(label(percentile)).append("\":").append(histogram.valueAtPercentile(percentile));
+            }
+            json.append(",\"max\":").append(histogram.getMax()).append('}');
+            separator = ",";
+        }
+        return json.append("}}").toString();
+    }
+
+    private static String label(double percentile) {
+        return percentile == Math.rint(percentile) ? Long.toString((long) percentile) : Double.toString(percentile).replace(".", "");
+    }
+
+    private static String quote(String value) {
+        return '"' + value.replace("\\", "\\\\").replace("\"", "\\\"") + '"';
+    }
+}
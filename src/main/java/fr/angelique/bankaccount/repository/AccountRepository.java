@@ -1,12 +1,13 @@
 package fr.angelique.bankaccount.repository;
 
-import java.math.BigDecimal;
 import java.util.UUID;
 
 public interface AccountRepository {
     boolean existsById(UUID id);
 
-    BigDecimal getBalance(UUID id);
+    long getBalance(UUID id);
 
-    void updateBalance(UUID id, BigDecimal amount);
+    void updateBalance(UUID id, long amount);
+
+    boolean compareAndUpdateBalance(UUID id, long expectedBalance, long newBalance);
 }
@@ -0,0 +1,277 @@
+package fr.angelique.bankaccount.repository;
+
+import java.time.Duration;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * Keeps the most recently used balances and existence flags in front of another repository.
+ * <p>
+ * Balance updates are coalesced and written to the underlying repository at most once per
+ * write-behind window; a zero window writes each updated balance through immediately. Until then,
+ * the pending balances are served from memory, even once evicted from the cache. Unknown accounts
+ * are remembered for the negative lookup TTL.
+ * <p>
+ * The cache is split into lock stripes, and misses are loaded from the underlying repository
+ * without holding the stripe lock; a load that raced with a write to its stripe is retried.
+ */
+public class CachingAccountRepository implements AccountRepository, AutoCloseable {
+
+    private static final int MAXIMUM_STRIPES = 16;
+
+    private final AccountRepository accountRepository;
+
+    private final long negativeLookupTtlNanos;
+
+    private final Stripe[] stripes;
+
+    private final ConcurrentMap<UUID, Long> pendingBalances = new ConcurrentHashMap<>();
+
+    private final ScheduledExecutorService flusher;
+
+    private final LongAdder hits = new LongAdder();
+
+    private final LongAdder misses = new LongAdder();
+
+    private final LongAdder evictions = new LongAdder();
+
+    private final LongAdder flushedBalances = new LongAdder();
+
+    private final LongAdder flushFailures = new LongAdder();
+
+    public CachingAccountRepository(AccountRepository accountRepository, int maximumSize, Duration writeBehindWindow, Duration negativeLookupTtl) {
+        this.accountRepository = accountRepository;
+        this.negativeLookupTtlNanos = negativeLookupTtl.toNanos();
+        int stripeCount = Integer.highestOneBit(Math.max(1, Math.min(MAXIMUM_STRIPES, maximumSize)));
+        int stripeSize = (maximumSize + stripeCount - 1) / stripeCount;
+        this.stripes = new Stripe[stripeCount];
+        for (int i = 0; i < stripeCount; i++) {
+            stripes[i] = new Stripe(stripeSize);
+        }
+        if (writeBehindWindow.isZero()) {
+            this.flusher = null;
+        } else {
+            this.flusher = Executors.newSingleThreadScheduledExecutor(runnable -> {
+                Thread thread = new Thread(runnable, "account-write-behind");
+                thread.setDaemon(true);
+                return thread;
+            });
+            long windowNanos = writeBehindWindow.toNanos();
+            this.flusher.scheduleWithFixedDelay(this::scheduledFlush, windowNanos, windowNanos, TimeUnit.NANOSECONDS);
+        }
+    }
+
+    @Override
+    public boolean existsById(UUID id) {
+        Stripe stripe = stripe(id);
+        try {
+            return lockAccount(stripe, id, false).exists;
+        } finally {
+            stripe.lock.unlock();
+        }
+    }
+
+    @Override
+    public long getBalance(UUID id) {
+        Stripe stripe = stripe(id);
+        try {
+            return lockAccount(stripe, id, true).balance;
+        } finally {
+            stripe.lock.unlock();
+        }
+    }
+
+    @Override
+    public void updateBalance(UUID id, long amount) {
+        Stripe stripe = stripe(id);
+        stripe.lock.lock();
+        try {
+            CachedAccount account = stripe.accounts.get(id);
+            if (account == null) {
+                account = new CachedAccount();
+                stripe.accounts.put(id, account);
+            }
+            account.exists = true;
+            account.balanceLoaded = true;
+            account.balance = amount;
+            pendingBalances.put(id, amount);
+            stripe.modifications++;
+        } finally {
+            stripe.lock.unlock();
+        }
+        if (flusher == null) {
+            flush(id);
+        }
+    }
+
+    @Override
+    public boolean compareAndUpdateBalance(UUID id, long expectedBalance, long newBalance) {
+        Stripe stripe = stripe(id);
+        try {
+            CachedAccount account = lockAccount(stripe, id, true);
+            if (account.balance != expectedBalance) {
+                return false;
+            }
+            account.balance = newBalance;
+            pendingBalances.put(id, newBalance);
+            stripe.modifications++;
+        } finally {
+            stripe.lock.unlock();
+        }
+        if (flusher == null) {
+            flush(id);
+        }
+        return true;
+    }
+
+    public void flush() {
+        for (UUID id : pendingBalances.keySet()) {
+            flush(id);
+        }
+    }
+
+    public long getHitCount() {
+        return hits.sum();
+    }
+
+    public long getMissCount() {
+        return misses.sum();
+    }
+
+    public long getEvictionCount() {
+        return evictions.sum();
+    }
+
+    public long getFlushedBalanceCount() {
+        return flushedBalances.sum();
+    }
+
+    public long getFlushFailureCount() {
+        return flushFailures.sum();
+    }
+
+    public int getPendingBalanceCount() {
+        return pendingBalances.size();
+    }
+
+    @Override
+    public void close() {
+        if (flusher != null) {
+            flusher.shutdown();
+        }
+        flush();
+    }
+
+    private void scheduledFlush() {
+        try {
+            flush();
+        } catch (RuntimeException e) {
+            flushFailures.increment();
+        }
+    }
+
+    private void flush(UUID id) {
+        pendingBalances.computeIfPresent(id, (pendingId, balance) -> {
+            accountRepository.updateBalance(pendingId, balance);
+            flushedBalances.increment();
+            return null;
+        });
+    }
+
+    private Stripe stripe(UUID id) {
+        int hash = id.hashCode();
+        return stripes[(hash ^ (hash >>> 16)) & (stripes.length - 1)];
+    }
+
+    /**
+     * Returns the cached account with its stripe locked, loading it first if needed. The stripe
+     * lock is held on return, even when the load fails, and must be released by the caller.
+     */
+    private CachedAccount lockAccount(Stripe stripe, UUID id, boolean withBalance) {
+        stripe.lock.lock();
+        boolean counted = false;
+        while (true) {
+            CachedAccount account = stripe.accounts.get(id);
+            boolean cached = account != null && !account.isExpired();
+            if (!counted) {
+                (cached ? hits : misses).increment();
+                counted = true;
+            }
+            if (cached && (account.balanceLoaded || !withBalance)) {
+                return account;
+            }
+            Long pendingBalance = pendingBalances.get(id);
+            if (pendingBalance != null) {
+                CachedAccount pendingAccount = new CachedAccount();
+                pendingAccount.exists = true;
+                pendingAccount.balanceLoaded = true;
+                pendingAccount.balance = pendingBalance;
+                stripe.accounts.put(id, pendingAccount);
+                return pendingAccount;
+            }
+            long modifications = stripe.modifications;
+            CachedAccount loadedAccount;
+            stripe.lock.unlock();
+            try {
+                loadedAccount = load(id, cached, withBalance);
+            } finally {
+                stripe.lock.lock();
+            }
+            if (stripe.modifications == modifications) {
+                stripe.accounts.put(id, loadedAccount);
+                return loadedAccount;
+            }
+        }
+    }
+
+    private CachedAccount load(UUID id, boolean known, boolean withBalance) {
+        CachedAccount account = new CachedAccount();
+        account.exists = known || accountRepository.existsById(id);
+        if (withBalance) {
+            account.balance = accountRepository.getBalance(id);
+            account.balanceLoaded = true;
+            account.exists = true;
+        } else if (!account.exists) {
+            account.expiresAtNanos = System.nanoTime() + negativeLookupTtlNanos;
+        }
+        return account;
+    }
+
+    private final class Stripe {
+        private final ReentrantLock lock = new ReentrantLock();
+        private final Map<UUID, CachedAccount> accounts;
+        private long modifications;
+
+        private Stripe(int maximumSize) {
+            this.accounts = new LinkedHashMap<>(16, 0.75f, true) {
+                @Override
+                protected boolean removeEldestEntry(Map.Entry<UUID, CachedAccount> eldest) {
+                    boolean evict = size() > maximumSize;
+                    if (evict) {
+                        evictions.increment();
+                    }
+                    return evict;
+                }
+            };
+        }
+    }
+
+    private static class CachedAccount {
+        private boolean exists;
+        private boolean balanceLoaded;
+        private long balance;
+        private long expiresAtNanos;
+
+        private boolean isExpired() {
+            return !exists && System.nanoTime() - expiresAtNanos > 0;
+        }
+    }
+}
@@ -0,0 +1,82 @@
+package fr.angelique.bankaccount.repository;
+
+import fr.angelique.bankaccount.service.model.Operation;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.stream.Stream;
+import java.util.stream.StreamSupport;
+
+/**
+ * Operations of one account sorted by date, oldest first, read through a row accessor.
+ * <p>
+ * Subclasses store the rows and guard every change with the instance monitor; pages are read in
+ * batches under that monitor with the cursor semantics of {@link OperationQuery#apply}.
+ */
+public abstract class DateOrderedOperations {
+
+    protected abstract int size();
+
+    protected abstract Operation read(int index);
+
+    /**
+     * Compares the date of the operation at the given index with the given date.
+     */
+    protected abstract int compareDate(int index, LocalDateTime date);
+
+    public synchronized List<Operation> newestFirst() {
+        List<Operation> operations = new ArrayList<>(size());
+        for (int index = size() - 1; index >= 0; index--) {
+            operations.add(read(index));
+        }
+        return operations;
+    }
+
+    public Stream<Operation> newestFirst(OperationQuery query) {
+        return StreamSupport.stream(new OperationPageSpliterator(this, query), false);
+    }
+
+    synchronized int newestFirst(OperationQuery query, Operation after, Operation[] batch) {
+        int index = size() - 1;
+        if (after != null) {
+            index = indexOf(after) - 1;
+        }
+        if (query.getTo() != null) {
+            index = Math.min(index, firstIndexNotBefore(query.getTo()) - 1);
+        }
+        int count = 0;
+        while (index >= 0 && count < batch.length) {
+            Operation operation = read(index--);
+            if (query.isBeforeRange(operation)) {
+                break;
+            }
+            batch[count++] = operation;
+        }
+        return count;
+    }
+
+    private int indexOf(Operation operation) {
+        int firstAtDate = firstIndexNotBefore(operation.getDate());
+        for (int index = firstAtDate; index < size() && compareDate(index, operation.getDate()) == 0; index++) {
+            if (read(index).equals(operation)) {
+                return index;
+            }
+        }
+        return firstAtDate;
+    }
+
+    private int firstIndexNotBefore(LocalDateTime date) {
+        int low = 0;
+        int high = size();
+        while (low < high) {
+            int middle = (low + high) >>> 1;
+            if (compareDate(middle, date) < 0) {
+                low = middle + 1;
+            } else {
+                high = middle;
+            }
+        }
+        return low;
+    }
+}
@@ -0,0 +1,59 @@
+package fr.angelique.bankaccount.repository;
+
+import java.util.Collections;
+import java.util.Set;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.atomic.AtomicLong;
+
+public class InMemoryAccountRepository implements AccountRepository {
+
+    private final ConcurrentMap<UUID, AtomicLong> balances = new ConcurrentHashMap<>();
+
+    public void open(UUID id, long initialBalance) {
+        if (balances.putIfAbsent(id, new AtomicLong(initialBalance)) != null) {
+            throw new IllegalArgumentException("Le compte existe déjà");
+        }
+    }
+
+    public long remove(UUID id) {
+        AtomicLong balanceCell = balances.remove(id);
+        if (balanceCell == null) {
+            throw new IllegalArgumentException("Le compte n'existe pas");
+        }
+        return balanceCell.get();
+    }
+
+    public Set<UUID> accountIds() {
+        return Collections.unmodifiableSet(balances.keySet());
+    }
+
+    @Override
+    public boolean existsById(UUID id) {
+        return balances.containsKey(id);
+    }
+
+    @Override
+    public long getBalance(UUID id) {
+        return balanceCell(id).get();
+    }
+
+    @Override
+    public void updateBalance(UUID id, long amount) {
+        balanceCell(id).set(amount);
+    }
+
+    @Override
+    public boolean compareAndUpdateBalance(UUID id, long expectedBalance, long newBalance) {
+        return balanceCell(id).compareAndSet(expectedBalance, newBalance);
+    }
+
+    private AtomicLong balanceCell(UUID id) {
+        AtomicLong balanceCell = balances.get(id);
+        if (balanceCell == null) {
+            throw new IllegalArgumentException("Le compte n'existe pas");
+        }
+        return balanceCell;
+    }
+}
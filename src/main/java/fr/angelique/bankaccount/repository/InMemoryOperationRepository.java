@@ -0,0 +1,44 @@
+package fr.angelique.bankaccount.repository;
+
+import fr.angelique.bankaccount.service.model.Operation;
+
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+
+public class InMemoryOperationRepository implements OperationRepository {
+
+    private final ConcurrentMap<UUID, OperationHistory> histories = new ConcurrentHashMap<>();
+
+    @Override
+    public List<Operation> findAllByAccountIdOrderByDateDesc(UUID id) {
+        OperationHistory history = histories.get(id);
+        return history == null ? List.of() : history.newestFirst();
+    }
+
+    @Override
+    public Stream<Operation> streamByAccountIdOrderByDateDesc(UUID id, OperationQuery query) {
+        OperationHistory history = histories.get(id);
+        return history == null ? Stream.empty() : history.newestFirst(query);
+    }
+
+    public List<Operation> removeAllByAccountId(UUID id) {
+        OperationHistory history = histories.remove(id);
+        return history == null ? List.of() : history.newestFirst();
+    }
+
+    @Override
+    public void create(Operation entity) {
+        histories.computeIfAbsent(entity.getAccountId(), id -> new OperationHistory()).append(entity);
+    }
+
+    @Override
+    public void createAll(List<Operation> entities) {
+        entities.stream()
+                .collect(Collectors.groupingBy(Operation::getAccountId))
+                .forEach((id, operations) -> histories.computeIfAbsent(id, accountId -> new OperationHistory()).appendAll(operations));
+    }
+}
@@ -0,0 +1,296 @@
+package fr.angelique.bankaccount.repository;
+
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.VarHandle;
+import java.util.UUID;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.locks.StampedLock;
+
+/**
+ * Account balances in open-addressing tables that keep both halves of the UUID next to the
+ * balance in a {@code long[]}, without a node, a boxed key or a balance object per account.
+ * <p>
+ * Accounts are spread over segments that grow independently: opening an account write-locks
+ * one segment, and a resize copies only that segment. Lookups are optimistic reads validated
+ * against the segment stamp; balance updates share the segment read lock and compare-and-set
+ * the balance slot in place.
+ */
+public class OpenAddressingAccountRepository implements AccountRepository {
+
+    private static final VarHandle BALANCES = MethodHandles.arrayElementVarHandle(long[].class);
+
+    private static final int SEGMENT_BITS = 6;
+
+    private static final int MIN_SEGMENT_CAPACITY = 16;
+
+    private static final int MAX_SEGMENT_CAPACITY = 1 << 28;
+
+    private final Segment[] segments = new Segment[1 << SEGMENT_BITS];
+
+    private final AtomicLong nilAccountBalance = new AtomicLong();
+
+    private volatile boolean nilAccountOpened;
+
+    public OpenAddressingAccountRepository() {
+        this(0);
+    }
+
+    public OpenAddressingAccountRepository(int expectedAccounts) {
+        int perSegment = (int) Math.min(MAX_SEGMENT_CAPACITY, 1 + (long) expectedAccounts * 4 / 3 / segments.length);
+        int capacity = Math.max(MIN_SEGMENT_CAPACITY, Integer.highestOneBit(perSegment - 1) << 1);
+        for (int i = 0; i < segments.length; i++) {
+            segments[i] = new Segment(capacity);
+        }
+    }
+
+    public void open(UUID id, long initialBalance) {
+        if (isNil(id)) {
+            openNilAccount(initialBalance);
+            return;
+        }
+        long hash = hash(id);
+        if (!segment(hash).insert(id.getMostSignificantBits(), id.getLeastSignificantBits(), hash, initialBalance)) {
+            throw new IllegalArgumentException("Le compte existe déjà");
+        }
+    }
+
+    public long size() {
+        long size = nilAccountOpened ? 1 : 0;
+        for (Segment segment : segments) {
+            size += segment.size();
+        }
+        return size;
+    }
+
+    @Override
+    public boolean existsById(UUID id) {
+        if (isNil(id)) {
+            return nilAccountOpened;
+        }
+        long hash = hash(id);
+        return segment(hash).contains(id.getMostSignificantBits(), id.getLeastSignificantBits(), hash);
+    }
+
+    @Override
+    public long getBalance(UUID id) {
+        if (isNil(id)) {
+            return nilAccountBalance().get();
+        }
+        long hash = hash(id);
+        Segment segment = segment(hash);
+        long stamp = segment.lock.tryOptimisticRead();
+        Table table = segment.table;
+        int index = table.indexOf(id.getMostSignificantBits(), id.getLeastSignificantBits(), hash);
+        long balance = index < 0 ? 0 : (long) BALANCES.getVolatile(table.slots, index);
+        if (!segment.lock.validate(stamp)) {
+            stamp = segment.lock.readLock();
+            try {
+                table = segment.table;
+                index = table.indexOf(id.getMostSignificantBits(), id.getLeastSignificantBits(), hash);
+                balance = index < 0 ? 0 : (long) BALANCES.getVolatile(table.slots, index);
+            } finally {
+                segment.lock.unlockRead(stamp);
+            }
+        }
+        if (index < 0) {
+            throw new IllegalArgumentException("Le compte n'existe pas");
+        }
+        return balance;
+    }
+
+    @Override
+    public void updateBalance(UUID id, long amount) {
+        if (isNil(id)) {
+            nilAccountBalance().set(amount);
+            return;
+        }
+        long hash = hash(id);
+        Segment segment = segment(hash);
+        long stamp = segment.lock.readLock();
+        try {
+            Table table = segment.table;
+            BALANCES.setVolatile(table.slots, existingIndex(table, id, hash), amount);
+        } finally {
+            segment.lock.unlockRead(stamp);
+        }
+    }
+
+    @Override
+    public boolean compareAndUpdateBalance(UUID id, long expectedBalance, long newBalance) {
+        if (isNil(id)) {
+            return nilAccountBalance().compareAndSet(expectedBalance, newBalance);
+        }
+        long hash = hash(id);
+        Segment segment = segment(hash);
+        long stamp = segment.lock.readLock();
+        try {
+            Table table = segment.table;
+            return BALANCES.compareAndSet(table.slots, existingIndex(table, id, hash), expectedBalance, newBalance);
+        } finally {
+            segment.lock.unlockRead(stamp);
+        }
+    }
+
+    private synchronized void openNilAccount(long initialBalance) {
+        if (nilAccountOpened) {
+            throw new IllegalArgumentException("Le compte existe déjà");
+        }
+        nilAccountBalance.set(initialBalance);
+        nilAccountOpened = true;
+    }
+
+    private AtomicLong nilAccountBalance() {
+        if (!nilAccountOpened) {
+            throw new IllegalArgumentException("Le compte n'existe pas");
+        }
+        return nilAccountBalance;
+    }
+
+    private static boolean isNil(UUID id) {
+        return id.getMostSignificantBits() == 0 && id.getLeastSignificantBits() == 0;
+    }
+
+    private Segment segment(long hash) {
+        return segments[(int) (hash >>> (64 - SEGMENT_BITS))];
+    }
+
+    private static int existingIndex(Table table, UUID id, long hash) {
+        int index = table.indexOf(id.getMostSignificantBits(), id.getLeastSignificantBits(), hash);
+        if (index < 0) {
+            throw new IllegalArgumentException("Le compte n'existe pas");
+        }
+        return index;
+    }
+
+    private static long hash(UUID id) {
+        return hash(id.getMostSignificantBits(), id.getLeastSignificantBits());
+    }
+
+    private static long hash(long msb, long lsb) {
+        long hash = msb * 0x9E3779B97F4A7C15L + lsb;
+        hash = (hash ^ (hash >>> 33)) * 0xFF51AFD7ED558CCDL;
+        hash = (hash ^ (hash >>> 33)) * 0xC4CEB9FE1A85EC53L;
+        return hash ^ (hash >>> 33);
+    }
+
+    private static final class Segment {
+
+        private final StampedLock lock = new StampedLock();
+
+        private volatile Table table;
+
+        private int size;
+
+        Segment(int capacity) {
+            table = new Table(capacity);
+        }
+
+        int size() {
+            long stamp = lock.readLock();
+            try {
+                return size;
+            } finally {
+                lock.unlockRead(stamp);
+            }
+        }
+
+        boolean contains(long msb, long lsb, long hash) {
+            long stamp = lock.tryOptimisticRead();
+            boolean found = table.indexOf(msb, lsb, hash) >= 0;
+            if (lock.validate(stamp)) {
+                return found;
+            }
+            stamp = lock.readLock();
+            try {
+                return table.indexOf(msb, lsb, hash) >= 0;
+            } finally {
+                lock.unlockRead(stamp);
+            }
+        }
+
+        boolean insert(long msb, long lsb, long hash, long balance) {
+            long stamp = lock.writeLock();
+            try {
+                if (table.indexOf(msb, lsb, hash) >= 0) {
+                    return false;
+                }
+                if (4L * (size + 1) > 3L * table.capacity()) {
+                    if (table.capacity() == MAX_SEGMENT_CAPACITY) {
+                        throw new IllegalStateException("Le nombre maximal de comptes est atteint");
+                    }
+                    table = table.grow();
+                }
+                table.put(msb, lsb, hash, balance);
+                size++;
+                return true;
+            } finally {
+                lock.unlockWrite(stamp);
+            }
+        }
+    }
+
+    /**
+     * Linear-probing table storing each account as three consecutive longs (most and least
+     * significant bits of the UUID, then the balance), so a probe reads a single cache line.
+     * A slot whose key is the nil UUID is free; the nil account itself is kept aside.
+     */
+    private static final class Table {
+
+        private static final int STRIDE = 3;
+
+        private final long[] slots;
+        private final int mask;
+
+        Table(int capacity) {
+            slots = new long[capacity * STRIDE];
+            mask = capacity - 1;
+        }
+
+        int capacity() {
+            return mask + 1;
+        }
+
+        /**
+         * Returns the position of the balance of the account in {@link #slots}, or {@code -1}.
+         */
+        int indexOf(long msb, long lsb, long hash) {
+            int slot = (int) hash & mask;
+            for (int probes = 0; probes <= mask; probes++) {
+                int offset = slot * STRIDE;
+                long slotMsb = slots[offset];
+                long slotLsb = slots[offset + 1];
+                if (slotMsb == msb && slotLsb == lsb) {
+                    return offset + 2;
+                }
+                if (slotMsb == 0 && slotLsb == 0) {
+                    return -1;
+                }
+                slot = (slot + 1) & mask;
+            }
+            return -1;
+        }
+
+        void put(long msb, long lsb, long hash, long balance) {
+            int slot = (int) hash & mask;
+            while (slots[slot * STRIDE] != 0 || slots[slot * STRIDE + 1] != 0) {
+                slot = (slot + 1) & mask;
+            }
+            int offset = slot * STRIDE;
+            slots[offset + 2] = balance;
+            slots[offset + 1] = lsb;
+            slots[offset] = msb;
+        }
+
+        Table grow() {
+            Table grown = new Table(capacity() * 2);
+            for (int offset = 0; offset < slots.length; offset += STRIDE) {
+                long msb = slots[offset];
+                long lsb = slots[offset + 1];
+                if (msb != 0 || lsb != 0) {
+                    grown.put(msb, lsb, hash(msb, lsb), slots[offset + 2]);
+                }
+            }
+            return grown;
+        }
+    }
+}
@@ -0,0 +1,60 @@
+package fr.angelique.bankaccount.repository;
+
+import fr.angelique.bankaccount.service.model.Operation;
+
+import java.time.LocalDateTime;
+import java.util.Arrays;
+import java.util.List;
+
+class OperationHistory extends DateOrderedOperations {
+
+    private static final int CHUNK_SHIFT = 8;
+    private static final int CHUNK_SIZE = 1 << CHUNK_SHIFT;
+    private static final int CHUNK_MASK = CHUNK_SIZE - 1;
+
+    private Operation[][] chunks = new Operation[1][];
+    private int size;
+
+    synchronized void append(Operation operation) {
+        int chunk = size >>> CHUNK_SHIFT;
+        if (chunk == chunks.length) {
+            chunks = Arrays.copyOf(chunks, chunks.length * 2);
+        }
+        if (chunks[chunk] == null) {
+            chunks[chunk] = new Operation[CHUNK_SIZE];
+        }
+        int index = size++;
+        while (index > 0 && get(index - 1).getDate().isAfter(operation.getDate())) {
+            set(index, get(index - 1));
+            index--;
+        }
+        set(index, operation);
+    }
+
+    synchronized void appendAll(List<Operation> operations) {
+        operations.forEach(this::append);
+    }
+
+    @Override
+    protected synchronized int size() {
+        return size;
+    }
+
+    @Override
+    protected Operation read(int index) {
+        return get(index);
+    }
+
+    @Override
+    protected int compareDate(int index, LocalDateTime date) {
+        return get(index).getDate().compareTo(date);
+    }
+
+    private Operation get(int index) {
+        return chunks[index >>> CHUNK_SHIFT][index & CHUNK_MASK];
+    }
+
+    private void set(int index, Operation operation) {
+        chunks[index >>> CHUNK_SHIFT][index & CHUNK_MASK] = operation;
+    }
+}
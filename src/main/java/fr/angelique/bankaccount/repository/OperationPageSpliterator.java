@@ -0,0 +1,57 @@
+package fr.angelique.bankaccount.repository;
+
+import fr.angelique.bankaccount.service.model.Operation;
+
+import java.util.Spliterator;
+import java.util.Spliterators;
+import java.util.function.Consumer;
+
+/**
+ * Streams a page of {@link DateOrderedOperations}, newest first, one batch at a time so that the
+ * monitor is never held while the caller consumes the operations.
+ */
+class OperationPageSpliterator extends Spliterators.AbstractSpliterator<Operation> {
+
+    private static final int BATCH_SIZE = 256;
+
+    private final DateOrderedOperations operations;
+    private final OperationQuery query;
+    private final Operation[] batch;
+    private Operation last;
+    private int remaining;
+    private int batchSize;
+    private int batchIndex;
+    private boolean exhausted;
+
+    OperationPageSpliterator(DateOrderedOperations operations, OperationQuery query) {
+        super(Long.MAX_VALUE, Spliterator.ORDERED | Spliterator.NONNULL);
+        this.operations = operations;
+        this.query = query;
+        this.batch = new Operation[Math.min(BATCH_SIZE, query.getLimit())];
+        this.last = query.getAfter();
+        this.remaining = query.getLimit();
+    }
+
+    @Override
+    public boolean tryAdvance(Consumer<? super Operation> action) {
+        if (remaining == 0) {
+            return false;
+        }
+        if (batchIndex == batchSize) {
+            if (exhausted) {
+                return false;
+            }
+            batchSize = operations.newestFirst(query, last, batch);
+            batchIndex = 0;
+            exhausted = batchSize < batch.length;
+            if (batchSize == 0) {
+                return false;
+            }
+        }
+        last = batch[batchIndex];
+        batch[batchIndex++] = null;
+        remaining--;
+        action.accept(last);
+        return true;
+    }
+}
@@ -0,0 +1,102 @@
+package fr.angelique.bankaccount.repository;
+
+import fr.angelique.bankaccount.service.model.Operation;
+
+import java.time.LocalDateTime;
+import java.util.Objects;
+import java.util.stream.Stream;
+
+public final class OperationQuery {
+
+    private static final OperationQuery ALL = new OperationQuery(null, null, Integer.MAX_VALUE, null);
+
+    private final LocalDateTime from;
+    private final LocalDateTime to;
+    private final int limit;
+    private final Operation after;
+
+    private OperationQuery(LocalDateTime from, LocalDateTime to, int limit, Operation after) {
+        this.from = from;
+        this.to = to;
+        this.limit = limit;
+        this.after = after;
+    }
+
+    public static OperationQuery all() {
+        return ALL;
+    }
+
+    public OperationQuery between(LocalDateTime from, LocalDateTime to) {
+        return new OperationQuery(from, to, limit, after);
+    }
+
+    public OperationQuery limit(int limit) {
+        if (limit <= 0) {
+            throw new IllegalArgumentException("La taille de page doit être positive");
+        }
+        return new OperationQuery(from, to, limit, after);
+    }
+
+    /**
+     * Resumes the history after the last operation of the previous page. When that operation is
+     * no longer in the history, resumes with the operations dated strictly before it.
+     */
+    public OperationQuery after(Operation lastOperationOfPreviousPage) {
+        return new OperationQuery(from, to, limit, lastOperationOfPreviousPage);
+    }
+
+    public LocalDateTime getFrom() {
+        return from;
+    }
+
+    public LocalDateTime getTo() {
+        return to;
+    }
+
+    public int getLimit() {
+        return limit;
+    }
+
+    public Operation getAfter() {
+        return after;
+    }
+
+    public boolean isAfterRange(Operation operation) {
+        return to != null && !operation.getDate().isBefore(to);
+    }
+
+    public boolean isBeforeRange(Operation operation) {
+        return from != null && operation.getDate().isBefore(from);
+    }
+
+    public Stream<Operation> apply(Stream<Operation> operationsByDateDesc) {
+        Stream<Operation> operations = operationsByDateDesc;
+        if (after != null) {
+            boolean[] cursorReached = {false};
+            operations = operations.dropWhile(operation -> {
+                if (cursorReached[0] || operation.getDate().isBefore(after.getDate())) {
+                    return false;
+                }
+                cursorReached[0] = operation.equals(after);
+                return true;
+            });
+        }
+        return operations
+                .dropWhile(this::isAfterRange)
+                .takeWhile(operation -> !isBeforeRange(operation))
+                .limit(limit);
+    }
+
+    @Override
+    public boolean equals(Object o) {
+        if (this == o) return true;
+        if (o == null || getClass() != o.getClass()) return false;
+        OperationQuery that = (OperationQuery) o;
+        return limit == that.limit && Objects.equals(from, that.from) && Objects.equals(to, that.to) && Objects.equals(after, that.after);
+    }
+
+    @Override
+    public int hashCode() {
+        return Objects.hash(from, to, limit, after);
+    }
+}
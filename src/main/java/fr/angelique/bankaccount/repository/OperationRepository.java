@@ -4,9 +4,25 @@ import fr.angelique.bankaccount.service.model.Operation;
 
 import java.util.List;
 import java.util.UUID;
+import java.util.stream.Stream;
 
 public interface OperationRepository {
     List<Operation> findAllByAccountIdOrderByDateDesc(UUID id);
 
+    default Stream<Operation> streamByAccountIdOrderByDateDesc(UUID id, OperationQuery query) {
+        return query.apply(findAllByAccountIdOrderByDateDesc(id).stream());
+    }
+
     void create(Operation entity);
+
+    default void createAll(List<Operation> entities) {
+        entities.forEach(this::create);
+    }
+
+    /**
+     * Records the opening of an account with its initial balance. Only repositories that can
+     * rebuild the accounts, such as a journal, keep it.
+     */
+    default void recordOpening(UUID accountId, long initialBalance) {
+    }
 }
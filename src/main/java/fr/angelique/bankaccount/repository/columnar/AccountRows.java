@@ -0,0 +1,61 @@
+package fr.angelique.bankaccount.repository.columnar;
+
+import fr.angelique.bankaccount.repository.DateOrderedOperations;
+import fr.angelique.bankaccount.service.model.Operation;
+
+import java.time.LocalDateTime;
+import java.time.ZoneOffset;
+import java.util.Arrays;
+import java.util.List;
+import java.util.UUID;
+
+/**
+ * Row numbers of one account's operations, kept sorted by date like the in-memory history.
+ */
+final class AccountRows extends DateOrderedOperations {
+
+    private final UUID accountId;
+    private final OperationColumns columns;
+    private final LibelleDictionary libelles;
+
+    private int[] rows = new int[8];
+    private int size;
+
+    AccountRows(UUID accountId, OperationColumns columns, LibelleDictionary libelles) {
+        this.accountId = accountId;
+        this.columns = columns;
+        this.libelles = libelles;
+    }
+
+    synchronized void append(Operation operation) {
+        int row = columns.append(operation, libelles.idOf(operation.getData()));
+        if (size == rows.length) {
+            rows = Arrays.copyOf(rows, size * 2);
+        }
+        int index = size++;
+        while (index > 0 && columns.compareDates(rows[index - 1], row) > 0) {
+            rows[index] = rows[index - 1];
+            index--;
+        }
+        rows[index] = row;
+    }
+
+    synchronized void appendAll(List<Operation> operations) {
+        operations.forEach(this::append);
+    }
+
+    @Override
+    protected int size() {
+        return size;
+    }
+
+    @Override
+    protected Operation read(int index) {
+        return columns.read(accountId, rows[index], libelles);
+    }
+
+    @Override
+    protected int compareDate(int index, LocalDateTime date) {
+        return columns.compareDate(rows[index], date.toEpochSecond(ZoneOffset.UTC), date.getNano());
+    }
+}
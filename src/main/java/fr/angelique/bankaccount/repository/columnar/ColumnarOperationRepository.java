@@ -0,0 +1,66 @@
+package fr.angelique.bankaccount.repository.columnar;
+
+import fr.angelique.bankaccount.repository.OperationQuery;
+import fr.angelique.bankaccount.repository.OperationRepository;
+import fr.angelique.bankaccount.service.model.Operation;
+
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+
+/**
+ * Keeps the operation history off-heap in columnar segments. The heap only holds one row number
+ * per operation and the distinct libelles; {@link Operation} instances are built when a statement
+ * reads them.
+ */
+public class ColumnarOperationRepository implements OperationRepository {
+
+    private final OperationColumns columns = new OperationColumns();
+
+    private final LibelleDictionary libelles = new LibelleDictionary();
+
+    private final ConcurrentMap<UUID, AccountRows> accounts = new ConcurrentHashMap<>();
+
+    @Override
+    public List<Operation> findAllByAccountIdOrderByDateDesc(UUID id) {
+        AccountRows rows = accounts.get(id);
+        return rows == null ? List.of() : rows.newestFirst();
+    }
+
+    @Override
+    public Stream<Operation> streamByAccountIdOrderByDateDesc(UUID id, OperationQuery query) {
+        AccountRows rows = accounts.get(id);
+        return rows == null ? Stream.empty() : rows.newestFirst(query);
+    }
+
+    @Override
+    public void create(Operation entity) {
+        rowsOf(entity.getAccountId()).append(entity);
+    }
+
+    @Override
+    public void createAll(List<Operation> entities) {
+        entities.stream()
+                .collect(Collectors.groupingBy(Operation::getAccountId))
+                .forEach((id, operations) -> rowsOf(id).appendAll(operations));
+    }
+
+    public int size() {
+        return columns.size();
+    }
+
+    public int getLibelleCount() {
+        return libelles.size();
+    }
+
+    public long getOffHeapBytes() {
+        return columns.offHeapBytes();
+    }
+
+    private AccountRows rowsOf(UUID accountId) {
+        return accounts.computeIfAbsent(accountId, id -> new AccountRows(id, columns, libelles));
+    }
+}
@@ -0,0 +1,50 @@
+package fr.angelique.bankaccount.repository.columnar;
+
+import java.util.Arrays;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+
+/**
+ * Stores each distinct libelle once; rows keep its id, {@code -1} standing for no libelle.
+ */
+final class LibelleDictionary {
+
+    private static final int NO_LIBELLE = -1;
+
+    private final ConcurrentMap<String, Integer> ids = new ConcurrentHashMap<>();
+
+    private volatile String[] libelles = new String[16];
+
+    private int size;
+
+    int idOf(String libelle) {
+        if (libelle == null) {
+            return NO_LIBELLE;
+        }
+        Integer id = ids.get(libelle);
+        return id != null ? id : add(libelle);
+    }
+
+    String get(int id) {
+        return id == NO_LIBELLE ? null : libelles[id];
+    }
+
+    synchronized int size() {
+        return size;
+    }
+
+    private synchronized int add(String libelle) {
+        Integer id = ids.get(libelle);
+        if (id != null) {
+            return id;
+        }
+        String[] current = libelles;
+        if (size == current.length) {
+            current = Arrays.copyOf(current, size * 2);
+        }
+        current[size] = libelle;
+        libelles = current;
+        ids.put(libelle, size);
+        return size++;
+    }
+}
@@ -0,0 +1,112 @@
+package fr.angelique.bankaccount.repository.columnar;
+
+import fr.angelique.bankaccount.enums.OperationType;
+import fr.angelique.bankaccount.service.model.Operation;
+
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.time.LocalDateTime;
+import java.time.ZoneOffset;
+import java.util.Arrays;
+import java.util.UUID;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Rows of operations stored off-heap, one direct buffer per segment of 65536 rows. Inside a
+ * segment each field is a contiguous column:
+ * epochSecond (long) | nano (int) | amount (long) | balance (long) | libelle id (int) | type (byte).
+ * <p>
+ * A row is written before it is published to its {@link AccountRows} under the account monitor,
+ * and read after it was found there under the same monitor.
+ */
+final class OperationColumns {
+
+    private static final int SEGMENT_SHIFT = 16;
+    private static final int SEGMENT_ROWS = 1 << SEGMENT_SHIFT;
+    private static final int SEGMENT_MASK = SEGMENT_ROWS - 1;
+
+    private static final int EPOCH_SECONDS = 0;
+    private static final int NANOS = EPOCH_SECONDS + Long.BYTES * SEGMENT_ROWS;
+    private static final int AMOUNTS = NANOS + Integer.BYTES * SEGMENT_ROWS;
+    private static final int BALANCES = AMOUNTS + Long.BYTES * SEGMENT_ROWS;
+    private static final int LIBELLES = BALANCES + Long.BYTES * SEGMENT_ROWS;
+    private static final int TYPES = LIBELLES + Integer.BYTES * SEGMENT_ROWS;
+    private static final int SEGMENT_SIZE = TYPES + SEGMENT_ROWS;
+
+    private static final OperationType[] TYPES_BY_ORDINAL = OperationType.values();
+
+    private final AtomicInteger rowCount = new AtomicInteger();
+
+    private volatile ByteBuffer[] segments = new ByteBuffer[0];
+
+    private int allocatedSegments;
+
+    int append(Operation operation, int libelleId) {
+        int row = rowCount.getAndIncrement();
+        if (row < 0) {
+            throw new IllegalStateException("Le nombre maximal d'opérations est atteint");
+        }
+        ByteBuffer segment = segment(row);
+        int index = row & SEGMENT_MASK;
+        LocalDateTime date = operation.getDate();
+        segment.putLong(EPOCH_SECONDS + index * Long.BYTES, date.toEpochSecond(ZoneOffset.UTC));
+        segment.putInt(NANOS + index * Integer.BYTES, date.getNano());
+        segment.putLong(AMOUNTS + index * Long.BYTES, operation.getAmount());
+        segment.putLong(BALANCES + index * Long.BYTES, operation.getBalance());
+        segment.putInt(LIBELLES + index * Integer.BYTES, libelleId);
+        segment.put(TYPES + index, (byte) operation.getOperationType().ordinal());
+        return row;
+    }
+
+    Operation read(UUID accountId, int row, LibelleDictionary libelles) {
+        ByteBuffer segment = segments[row >>> SEGMENT_SHIFT];
+        int index = row & SEGMENT_MASK;
+        return new Operation(accountId,
+                TYPES_BY_ORDINAL[segment.get(TYPES + index)],
+                libelles.get(segment.getInt(LIBELLES + index * Integer.BYTES)),
+                LocalDateTime.ofEpochSecond(segment.getLong(EPOCH_SECONDS + index * Long.BYTES), segment.getInt(NANOS + index * Integer.BYTES), ZoneOffset.UTC),
+                segment.getLong(AMOUNTS + index * Long.BYTES),
+                segment.getLong(BALANCES + index * Long.BYTES));
+    }
+
+    int compareDate(int row, long epochSecond, int nano) {
+        ByteBuffer segment = segments[row >>> SEGMENT_SHIFT];
+        int index = row & SEGMENT_MASK;
+        int comparison = Long.compare(segment.getLong(EPOCH_SECONDS + index * Long.BYTES), epochSecond);
+        return comparison != 0 ? comparison : Integer.compare(segment.getInt(NANOS + index * Integer.BYTES), nano);
+    }
+
+    int compareDates(int row, int otherRow) {
+        ByteBuffer segment = segments[otherRow >>> SEGMENT_SHIFT];
+        int index = otherRow & SEGMENT_MASK;
+        return compareDate(row, segment.getLong(EPOCH_SECONDS + index * Long.BYTES), segment.getInt(NANOS + index * Integer.BYTES));
+    }
+
+    int size() {
+        return rowCount.get();
+    }
+
+    synchronized long offHeapBytes() {
+        return (long) allocatedSegments * SEGMENT_SIZE;
+    }
+
+    private ByteBuffer segment(int row) {
+        int segmentIndex = row >>> SEGMENT_SHIFT;
+        ByteBuffer[] current = segments;
+        if (segmentIndex < current.length && current[segmentIndex] != null) {
+            return current[segmentIndex];
+        }
+        synchronized (this) {
+            current = segments;
+            if (segmentIndex >= current.length) {
+                current = Arrays.copyOf(current, Math.max(segmentIndex + 1, current.length * 2));
+            }
+            if (current[segmentIndex] == null) {
+                current[segmentIndex] = ByteBuffer.allocateDirect(SEGMENT_SIZE).order(ByteOrder.nativeOrder());
+                allocatedSegments++;
+            }
+            segments = current;
+            return current[segmentIndex];
+        }
+    }
+}
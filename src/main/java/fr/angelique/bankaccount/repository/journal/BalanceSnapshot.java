@@ -0,0 +1,127 @@
+package fr.angelique.bankaccount.repository.journal;
+
+import java.io.BufferedOutputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Optional;
+import java.util.UUID;
+import java.util.zip.CRC32C;
+import java.util.zip.CheckedOutputStream;
+
+/**
+ * Balances of every account as of a journal position.
+ * <p>
+ * File layout: magic | version | position | count | (msb, lsb, balance) * count | CRC32C.
+ */
+public final class BalanceSnapshot {
+
+    private static final int MAGIC = 0x42534E50;
+    private static final int VERSION = 1;
+    private static final int HEADER_SIZE = Integer.BYTES * 3 + Long.BYTES;
+    private static final int ENTRY_SIZE = Long.BYTES * 3;
+    private static final String PREFIX = "snapshot-";
+    private static final String SUFFIX = ".bin";
+
+    private final long position;
+    private final Map<UUID, Long> balances;
+
+    public BalanceSnapshot(long position, Map<UUID, Long> balances) {
+        this.position = position;
+        this.balances = Collections.unmodifiableMap(balances);
+    }
+
+    public long getPosition() {
+        return position;
+    }
+
+    public Map<UUID, Long> getBalances() {
+        return balances;
+    }
+
+    static boolean isSnapshot(Path path) {
+        String fileName = path.getFileName().toString();
+        return fileName.startsWith(PREFIX) && fileName.endsWith(SUFFIX);
+    }
+
+    static long positionOf(Path path) {
+        String fileName = path.getFileName().toString();
+        return Long.parseLong(fileName.substring(PREFIX.length(), fileName.length() - SUFFIX.length()));
+    }
+
+    Path write(Path directory) {
+        Path file = directory.resolve(String.format("%s%020d%s", PREFIX, position, SUFFIX));
+        Path temporary = directory.resolve(file.getFileName() + ".tmp");
+        try {
+            CheckedOutputStream checked = new CheckedOutputStream(new BufferedOutputStream(Files.newOutputStream(temporary), 1 << 16), new CRC32C());
+            try (DataOutputStream output = new DataOutputStream(checked)) {
+                output.writeInt(MAGIC);
+                output.writeInt(VERSION);
+                output.writeLong(position);
+                output.writeInt(balances.size());
+                for (Map.Entry<UUID, Long> entry : balances.entrySet()) {
+                    output.writeLong(entry.getKey().getMostSignificantBits());
+                    output.writeLong(entry.getKey().getLeastSignificantBits());
+                    output.writeLong(entry.getValue());
+                }
+                output.writeInt((int) checked.getChecksum().getValue());
+            }
+            try (FileChannel channel = FileChannel.open(temporary, StandardOpenOption.WRITE)) {
+                channel.force(true);
+            }
+            return Files.move(temporary, file, StandardCopyOption.ATOMIC_MOVE, StandardCopyOption.REPLACE_EXISTING);
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    static Optional<BalanceSnapshot> read(Path file) {
+        try (FileChannel channel = FileChannel.open(file, StandardOpenOption.READ)) {
+            long size = channel.size();
+            if (size < HEADER_SIZE + Integer.BYTES) {
+                return Optional.empty();
+            }
+            MappedByteBuffer buffer = channel.map(FileChannel.MapMode.READ_ONLY, 0, size);
+            int count = buffer.getInt(HEADER_SIZE - Integer.BYTES);
+            if (buffer.getInt(0) != MAGIC || buffer.getInt(Integer.BYTES) != VERSION
+                    || count < 0 || size != HEADER_SIZE + (long) count * ENTRY_SIZE + Integer.BYTES) {
+                return Optional.empty();
+            }
+            CRC32C crc = new CRC32C();
+            crc.update(buffer.slice(0, (int) size - Integer.BYTES));
+            if ((int) crc.getValue() != buffer.getInt((int) size - Integer.BYTES)) {
+                return Optional.empty();
+            }
+            Map<UUID, Long> balances = HashMap.newHashMap(count);
+            for (int offset = HEADER_SIZE; offset < size - Integer.BYTES; offset += ENTRY_SIZE) {
+                balances.put(new UUID(buffer.getLong(offset), buffer.getLong(offset + Long.BYTES)), buffer.getLong(offset + 2 * Long.BYTES));
+            }
+            return Optional.of(new BalanceSnapshot(buffer.getLong(2 * Integer.BYTES), balances));
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    @Override
+    public boolean equals(Object o) {
+        if (this == o) return true;
+        if (o == null || getClass() != o.getClass()) return false;
+        BalanceSnapshot that = (BalanceSnapshot) o;
+        return position == that.position && Objects.equals(balances, that.balances);
+    }
+
+    @Override
+    public int hashCode() {
+        return Objects.hash(position, balances);
+    }
+}
@@ -0,0 +1,169 @@
+package fr.angelique.bankaccount.repository.journal;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.UUID;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.function.ObjLongConsumer;
+import java.util.stream.Stream;
+
+/**
+ * Periodically folds the journal into {@link BalanceSnapshot} files so that a restart only replays
+ * the records appended after the latest snapshot.
+ * <p>
+ * Each snapshot starts from the previous one and folds the records up to the current journal
+ * position, so writers are never paused. Those records are forced to disk before the snapshot is
+ * written. A snapshot beyond the position recovered by the journal covers records lost in a crash:
+ * it is deleted when the snapshotter is created, which must therefore happen before anything is
+ * appended to the freshly opened journal.
+ */
+public class BalanceSnapshotter implements AutoCloseable {
+
+    private static final int RETAINED_SNAPSHOTS = 2;
+
+    private final MappedOperationJournal journal;
+
+    private final Path directory;
+
+    private final ScheduledExecutorService scheduler;
+
+    private volatile BalanceSnapshot latest;
+
+    public BalanceSnapshotter(MappedOperationJournal journal, Path directory, Duration interval) {
+        this.journal = journal;
+        this.directory = directory;
+        deleteSnapshotsBeyond(journal.position());
+        this.latest = load().orElse(new BalanceSnapshot(0, Map.of()));
+        if (interval.isZero()) {
+            this.scheduler = null;
+        } else {
+            this.scheduler = Executors.newSingleThreadScheduledExecutor(runnable -> {
+                Thread thread = new Thread(runnable, "balance-snapshot");
+                thread.setDaemon(true);
+                return thread;
+            });
+            long intervalNanos = interval.toNanos();
+            this.scheduler.scheduleWithFixedDelay(this::snapshot, intervalNanos, intervalNanos, TimeUnit.NANOSECONDS);
+        }
+    }
+
+    public BalanceSnapshot getLatest() {
+        return latest;
+    }
+
+    public synchronized BalanceSnapshot snapshot() {
+        BalanceSnapshot previous = latest;
+        long position = journal.position();
+        if (position == previous.getPosition()) {
+            return previous;
+        }
+        journal.awaitDurable(position);
+        Map<UUID, Long> balances = new HashMap<>(previous.getBalances());
+        journal.replayBalances(previous.getPosition(), position, balances);
+        BalanceSnapshot snapshot = new BalanceSnapshot(position, balances);
+        snapshot.write(directory);
+        latest = snapshot;
+        deleteOlderSnapshots();
+        return snapshot;
+    }
+
+    public Map<UUID, Long> recoverBalances() {
+        BalanceSnapshot snapshot = latest;
+        Map<UUID, Long> balances = new HashMap<>(snapshot.getBalances());
+        journal.replayBalances(snapshot.getPosition(), journal.position(), balances);
+        return balances;
+    }
+
+    /**
+     * Opens every account with its balance recovered from the latest snapshot and the journal
+     * tail, typically with {@code accountRepository::open} on an empty repository.
+     */
+    public void recoverAccounts(ObjLongConsumer<UUID> accountOpener) {
+        recoverBalances().forEach(accountOpener::accept);
+    }
+
+    /**
+     * Compares the snapshot with the balance recorded by the last journaled record of each account
+     * up to the snapshot position and returns the accounts that disagree. The writers must journal
+     * the operations of an account in the order its balance changed, as the services do.
+     */
+    public List<UUID> verify(BalanceSnapshot snapshot) {
+        Map<UUID, Long> recordedBalances = new HashMap<>();
+        journal.replayRecordedBalances(0, snapshot.getPosition(), recordedBalances::put);
+        List<UUID> mismatches = new ArrayList<>();
+        snapshot.getBalances().forEach((accountId, balance) -> {
+            if (!balance.equals(recordedBalances.get(accountId))) {
+                mismatches.add(accountId);
+            }
+        });
+        recordedBalances.keySet().stream().filter(accountId -> !snapshot.getBalances().containsKey(accountId)).forEach(mismatches::add);
+        return mismatches;
+    }
+
+    @Override
+    public void close() {
+        if (scheduler != null) {
+            scheduler.shutdown();
+            try {
+                scheduler.awaitTermination(1, TimeUnit.MINUTES);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+        }
+    }
+
+    private Optional<BalanceSnapshot> load() {
+        return snapshotFiles().stream()
+                .map(BalanceSnapshot::read)
+                .flatMap(Optional::stream)
+                .filter(snapshot -> snapshot.getPosition() <= journal.position())
+                .findFirst();
+    }
+
+    private void deleteSnapshotsBeyond(long position) {
+        try {
+            for (Path file : snapshotFiles()) {
+                if (BalanceSnapshot.positionOf(file) > position) {
+                    Files.deleteIfExists(file);
+                }
+            }
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    private void deleteOlderSnapshots() {
+        try {
+            List<Path> files = snapshotFiles();
+            for (Path file : files.subList(Math.min(RETAINED_SNAPSHOTS, files.size()), files.size())) {
+                Files.deleteIfExists(file);
+            }
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    private List<Path> snapshotFiles() {
+        try {
+            Files.createDirectories(directory);
+            try (Stream<Path> files = Files.list(directory)) {
+                return files.filter(BalanceSnapshot::isSnapshot)
+                        .sorted(Comparator.comparingLong(BalanceSnapshot::positionOf).reversed())
+                        .toList();
+            }
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+}
@@ -0,0 +1,168 @@
+package fr.angelique.bankaccount.repository.journal;
+
+import fr.angelique.bankaccount.enums.OperationType;
+import fr.angelique.bankaccount.service.model.Operation;
+
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDateTime;
+import java.time.ZoneOffset;
+import java.util.UUID;
+import java.util.zip.CRC32C;
+
+/**
+ * Binary layout of a journal record:
+ * <pre>
+ * int   body length
+ * long  account id (most significant bits)
+ * long  account id (least significant bits)
+ * byte  operation type, or 0x7F for the opening of an account
+ * long  epoch second (UTC)
+ * int   nano of second
+ * long  amount in cents
+ * long  balance in cents
+ * short libelle length (-1 when absent)
+ * byte[] libelle (UTF-8)
+ * int   CRC32C of the body
+ * </pre>
+ * An opening record carries the initial balance as both amount and balance, at the epoch and
+ * without libelle. A zero body length marks the end of the written part of a segment.
+ */
+final class JournalRecords {
+
+    static final int HEADER_SIZE = Integer.BYTES;
+    static final int TRAILER_SIZE = Integer.BYTES;
+    static final int FIXED_BODY_SIZE = 2 * Long.BYTES + Byte.BYTES + Long.BYTES + Integer.BYTES + 2 * Long.BYTES + Short.BYTES;
+    static final int MAX_LIBELLE_SIZE = Operation.MAX_LIBELLE_SIZE;
+    static final int MAX_RECORD_SIZE = HEADER_SIZE + FIXED_BODY_SIZE + MAX_LIBELLE_SIZE + TRAILER_SIZE;
+
+    private static final OperationType[] OPERATION_TYPES = OperationType.values();
+    private static final short NO_LIBELLE = -1;
+    private static final byte ACCOUNT_OPENING = 0x7F;
+    private static final LocalDateTime OPENING_DATE = LocalDateTime.ofEpochSecond(0, 0, ZoneOffset.UTC);
+
+    private JournalRecords() {
+    }
+
+    static byte[] encodeLibelle(String libelle) {
+        if (libelle == null) {
+            return null;
+        }
+        byte[] bytes = libelle.getBytes(StandardCharsets.UTF_8);
+        if (bytes.length > MAX_LIBELLE_SIZE) {
+            throw new IllegalArgumentException("Le libellé dépasse " + MAX_LIBELLE_SIZE + " octets");
+        }
+        return bytes;
+    }
+
+    static int recordSize(byte[] libelle) {
+        return HEADER_SIZE + bodySize(libelle) + TRAILER_SIZE;
+    }
+
+    static int write(ByteBuffer buffer, int position, Operation operation, byte[] libelle) {
+        return write(buffer, position, operation.getAccountId(), (byte) operation.getOperationType().ordinal(), operation.getDate(),
+                operation.getAmount(), operation.getBalance(), libelle);
+    }
+
+    static int writeOpening(ByteBuffer buffer, int position, UUID accountId, long initialBalance) {
+        return write(buffer, position, accountId, ACCOUNT_OPENING, OPENING_DATE, initialBalance, initialBalance, null);
+    }
+
+    private static int write(ByteBuffer buffer, int position, UUID accountId, byte type, LocalDateTime date, long amount, long balance, byte[] libelle) {
+        int bodySize = bodySize(libelle);
+        int bodyStart = position + HEADER_SIZE;
+        buffer.putInt(position, bodySize)
+                .putLong(bodyStart, accountId.getMostSignificantBits())
+                .putLong(bodyStart + 8, accountId.getLeastSignificantBits())
+                .put(bodyStart + 16, type)
+                .putLong(bodyStart + 17, date.toEpochSecond(ZoneOffset.UTC))
+                .putInt(bodyStart + 25, date.getNano())
+                .putLong(bodyStart + 29, amount)
+                .putLong(bodyStart + 37, balance)
+                .putShort(bodyStart + 45, libelle == null ? NO_LIBELLE : (short) libelle.length);
+        if (libelle != null) {
+            buffer.put(bodyStart + FIXED_BODY_SIZE, libelle);
+        }
+        buffer.putInt(bodyStart + bodySize, checksum(buffer, bodyStart, bodySize));
+        return HEADER_SIZE + bodySize + TRAILER_SIZE;
+    }
+
+    /**
+     * Returns the size of the valid record starting at {@code position}, 0 at the end of the written part
+     * of the segment, or -1 when the record is torn or corrupted.
+     */
+    static int validate(ByteBuffer buffer, int position) {
+        if (position + HEADER_SIZE > buffer.capacity()) {
+            return 0;
+        }
+        int bodySize = buffer.getInt(position);
+        if (bodySize == 0) {
+            return 0;
+        }
+        if (bodySize < FIXED_BODY_SIZE || bodySize > FIXED_BODY_SIZE + MAX_LIBELLE_SIZE
+                || position + HEADER_SIZE + bodySize + TRAILER_SIZE > buffer.capacity()) {
+            return -1;
+        }
+        int bodyStart = position + HEADER_SIZE;
+        short libelleSize = buffer.getShort(bodyStart + 45);
+        int expectedBodySize = FIXED_BODY_SIZE + Math.max(libelleSize, 0);
+        byte type = buffer.get(bodyStart + 16);
+        if (libelleSize < NO_LIBELLE || expectedBodySize != bodySize
+                || (type < 0 || type >= OPERATION_TYPES.length) && type != ACCOUNT_OPENING
+                || buffer.getInt(bodyStart + bodySize) != checksum(buffer, bodyStart, bodySize)) {
+            return -1;
+        }
+        return HEADER_SIZE + bodySize + TRAILER_SIZE;
+    }
+
+    static UUID readAccountId(ByteBuffer buffer, int position) {
+        int bodyStart = position + HEADER_SIZE;
+        return new UUID(buffer.getLong(bodyStart), buffer.getLong(bodyStart + 8));
+    }
+
+    static boolean hasAccountId(ByteBuffer buffer, int position, UUID accountId) {
+        int bodyStart = position + HEADER_SIZE;
+        return buffer.getLong(bodyStart) == accountId.getMostSignificantBits()
+                && buffer.getLong(bodyStart + 8) == accountId.getLeastSignificantBits();
+    }
+
+    static boolean isOpening(ByteBuffer buffer, int position) {
+        return buffer.get(position + HEADER_SIZE + 16) == ACCOUNT_OPENING;
+    }
+
+    static OperationType readOperationType(ByteBuffer buffer, int position) {
+        return OPERATION_TYPES[buffer.get(position + HEADER_SIZE + 16)];
+    }
+
+    static long readAmount(ByteBuffer buffer, int position) {
+        return buffer.getLong(position + HEADER_SIZE + 29);
+    }
+
+    static long readBalance(ByteBuffer buffer, int position) {
+        return buffer.getLong(position + HEADER_SIZE + 37);
+    }
+
+    static Operation read(ByteBuffer buffer, int position) {
+        int bodyStart = position + HEADER_SIZE;
+        LocalDateTime date = LocalDateTime.ofEpochSecond(buffer.getLong(bodyStart + 17), buffer.getInt(bodyStart + 25), ZoneOffset.UTC);
+        short libelleSize = buffer.getShort(bodyStart + 45);
+        String libelle = null;
+        if (libelleSize != NO_LIBELLE) {
+            byte[] bytes = new byte[libelleSize];
+            buffer.get(bodyStart + FIXED_BODY_SIZE, bytes);
+            libelle = new String(bytes, StandardCharsets.UTF_8);
+        }
+        return new Operation(readAccountId(buffer, position), readOperationType(buffer, position), libelle, date,
+                readAmount(buffer, position), readBalance(buffer, position));
+    }
+
+    private static int bodySize(byte[] libelle) {
+        return FIXED_BODY_SIZE + (libelle == null ? 0 : libelle.length);
+    }
+
+    private static int checksum(ByteBuffer buffer, int bodyStart, int bodySize) {
+        CRC32C crc = new CRC32C();
+        crc.update(buffer.slice(bodyStart, bodySize));
+        return (int) crc.getValue();
+    }
+}
@@ -0,0 +1,311 @@
+package fr.angelique.bankaccount.repository.journal;
+
+import fr.angelique.bankaccount.enums.OperationType;
+import fr.angelique.bankaccount.repository.OperationQuery;
+import fr.angelique.bankaccount.repository.OperationRepository;
+import fr.angelique.bankaccount.service.model.Operation;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.ByteBuffer;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.function.Consumer;
+import java.util.function.ObjLongConsumer;
+import java.util.stream.IntStream;
+import java.util.stream.Stream;
+
+/**
+ * Append-only write-ahead journal of operations stored in memory-mapped segment files.
+ * <p>
+ * {@link #create(Operation)} returns once the record is forced to disk. Concurrent writers share
+ * the same {@code force()}: the first one flushes everything appended so far and the others
+ * return as soon as their record is covered.
+ * <p>
+ * The journal also records the opening of each account with its initial balance, so that
+ * {@link #recoverAccounts} rebuilds every account, including those without any operation.
+ */
+public class MappedOperationJournal implements OperationRepository, Closeable {
+
+    public static final int DEFAULT_SEGMENT_SIZE = 64 * 1024 * 1024;
+
+    private static final long SEGMENT_STRIDE = 1L << 31;
+
+    private final Path directory;
+    private final int segmentSize;
+    private final List<JournalSegment> segments = new CopyOnWriteArrayList<>();
+    private final ReentrantLock appendLock = new ReentrantLock();
+    private final Object forceLock = new Object();
+
+    private volatile JournalSegment currentSegment;
+    private volatile long writtenPosition;
+    private volatile long durablePosition;
+    private int segmentOffset;
+
+    public MappedOperationJournal(Path directory) {
+        this(directory, DEFAULT_SEGMENT_SIZE);
+    }
+
+    public MappedOperationJournal(Path directory, int segmentSize) {
+        if (segmentSize < JournalRecords.MAX_RECORD_SIZE) {
+            throw new IllegalArgumentException("La taille de segment est trop petite : " + segmentSize);
+        }
+        this.directory = directory;
+        this.segmentSize = segmentSize;
+        recover();
+    }
+
+    @Override
+    public void create(Operation entity) {
+        createAll(List.of(entity));
+    }
+
+    @Override
+    public void createAll(List<Operation> entities) {
+        List<byte[]> libelles = new ArrayList<>(entities.size());
+        for (Operation entity : entities) {
+            libelles.add(JournalRecords.encodeLibelle(entity.getData()));
+        }
+        long end;
+        appendLock.lock();
+        try {
+            for (int i = 0; i < entities.size(); i++) {
+                if (segmentOffset + JournalRecords.recordSize(libelles.get(i)) > currentSegment.size()) {
+                    roll();
+                }
+                segmentOffset += JournalRecords.write(currentSegment.buffer(), segmentOffset, entities.get(i), libelles.get(i));
+                writtenPosition = position(currentSegment, segmentOffset);
+            }
+            end = writtenPosition;
+        } finally {
+            appendLock.unlock();
+        }
+        awaitDurable(end);
+    }
+
+    @Override
+    public void recordOpening(UUID accountId, long initialBalance) {
+        long end;
+        appendLock.lock();
+        try {
+            if (segmentOffset + JournalRecords.recordSize(null) > currentSegment.size()) {
+                roll();
+            }
+            segmentOffset += JournalRecords.writeOpening(currentSegment.buffer(), segmentOffset, accountId, initialBalance);
+            writtenPosition = position(currentSegment, segmentOffset);
+            end = writtenPosition;
+        } finally {
+            appendLock.unlock();
+        }
+        awaitDurable(end);
+    }
+
+    @Override
+    public List<Operation> findAllByAccountIdOrderByDateDesc(UUID id) {
+        List<Operation> operations = new ArrayList<>();
+        forEachRecord(0, writtenPosition, (buffer, position, journalPosition) -> {
+            if (JournalRecords.hasAccountId(buffer, position, id) && !JournalRecords.isOpening(buffer, position)) {
+                operations.add(JournalRecords.read(buffer, position));
+            }
+        });
+        Collections.reverse(operations);
+        return operations;
+    }
+
+    /**
+     * Scans the journal for the positions of the account's records only, then decodes them from
+     * the newest one as the stream is consumed, so a page only decodes the records it reads.
+     */
+    @Override
+    public Stream<Operation> streamByAccountIdOrderByDateDesc(UUID id, OperationQuery query) {
+        RecordPositions positions = new RecordPositions();
+        forEachRecord(0, writtenPosition, (buffer, position, journalPosition) -> {
+            if (JournalRecords.hasAccountId(buffer, position, id) && !JournalRecords.isOpening(buffer, position)) {
+                positions.add(journalPosition);
+            }
+        });
+        return query.apply(IntStream.range(0, positions.size).mapToObj(i -> read(positions.values[positions.size - 1 - i])));
+    }
+
+    public void replay(Consumer<Operation> consumer) {
+        replay(0, writtenPosition, consumer);
+    }
+
+    public void replay(long fromPosition, long toPosition, Consumer<Operation> consumer) {
+        forEachRecord(fromPosition, toPosition, (buffer, position, journalPosition) -> {
+            if (!JournalRecords.isOpening(buffer, position)) {
+                consumer.accept(JournalRecords.read(buffer, position));
+            }
+        });
+    }
+
+    public Map<UUID, Long> replayBalances() {
+        Map<UUID, Long> balances = new HashMap<>();
+        replayBalances(0, writtenPosition, balances);
+        return balances;
+    }
+
+    public void replayBalances(long fromPosition, long toPosition, Map<UUID, Long> balances) {
+        forEachRecord(fromPosition, toPosition, (buffer, position, journalPosition) -> {
+            long amount = JournalRecords.readAmount(buffer, position);
+            long delta = JournalRecords.isOpening(buffer, position) || JournalRecords.readOperationType(buffer, position) == OperationType.DEPOSIT ? amount : -amount;
+            balances.merge(JournalRecords.readAccountId(buffer, position), delta, Math::addExact);
+        });
+    }
+
+    /**
+     * Visits, in journal order, the balance recorded by each record between the two positions,
+     * including account openings.
+     */
+    public void replayRecordedBalances(long fromPosition, long toPosition, ObjLongConsumer<UUID> consumer) {
+        forEachRecord(fromPosition, toPosition, (buffer, position, journalPosition) ->
+                consumer.accept(JournalRecords.readAccountId(buffer, position), JournalRecords.readBalance(buffer, position)));
+    }
+
+    /**
+     * Opens every journaled account with the balance rebuilt from the journal, typically with
+     * {@code accountRepository::open} on an empty repository.
+     */
+    public void recoverAccounts(ObjLongConsumer<UUID> accountOpener) {
+        replayBalances().forEach(accountOpener::accept);
+    }
+
+    public long position() {
+        return writtenPosition;
+    }
+
+    @Override
+    public void close() {
+        awaitDurable(writtenPosition);
+    }
+
+    private void recover() {
+        try {
+            Files.createDirectories(directory);
+            List<Long> indexes;
+            try (Stream<Path> files = Files.list(directory)) {
+                indexes = files.filter(JournalSegment::isSegment).map(JournalSegment::indexOf).sorted().toList();
+            }
+            boolean torn = false;
+            for (long index : indexes) {
+                JournalSegment segment = JournalSegment.open(directory, index, segmentSize);
+                if (torn) {
+                    segment.delete();
+                    continue;
+                }
+                int offset = 0;
+                int recordSize;
+                while ((recordSize = JournalRecords.validate(segment.buffer(), offset)) > 0) {
+                    offset += recordSize;
+                }
+                if (recordSize < 0) {
+                    segment.truncate(offset);
+                    torn = true;
+                }
+                segments.add(segment);
+                currentSegment = segment;
+                segmentOffset = offset;
+            }
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+        if (currentSegment == null) {
+            currentSegment = JournalSegment.open(directory, 0, segmentSize);
+            segments.add(currentSegment);
+            segmentOffset = 0;
+        }
+        writtenPosition = position(currentSegment, segmentOffset);
+        durablePosition = writtenPosition;
+    }
+
+    private void roll() {
+        currentSegment.force();
+        JournalSegment next = JournalSegment.open(directory, currentSegment.index() + 1, segmentSize);
+        segments.add(next);
+        currentSegment = next;
+        segmentOffset = 0;
+    }
+
+    /**
+     * Returns once every record up to {@code position} is forced to disk.
+     */
+    public void awaitDurable(long position) {
+        if (durablePosition >= position) {
+            return;
+        }
+        synchronized (forceLock) {
+            if (durablePosition >= position) {
+                return;
+            }
+            long target = writtenPosition;
+            currentSegment.force();
+            durablePosition = target;
+        }
+    }
+
+    private void forEachRecord(long fromPosition, long toPosition, RecordVisitor visitor) {
+        long end = Math.min(toPosition, writtenPosition);
+        for (JournalSegment segment : segments) {
+            long segmentStart = position(segment, 0);
+            if (segmentStart >= end) {
+                break;
+            }
+            if (fromPosition >= segmentStart + SEGMENT_STRIDE) {
+                continue;
+            }
+            ByteBuffer buffer = segment.buffer();
+            int limit = (int) Math.min(segment.size(), end - segmentStart);
+            int offset = (int) Math.max(0, fromPosition - segmentStart);
+            while (offset + JournalRecords.HEADER_SIZE <= limit) {
+                int bodySize = buffer.getInt(offset);
+                if (bodySize == 0) {
+                    break;
+                }
+                visitor.visit(buffer, offset, segmentStart + offset);
+                offset += JournalRecords.HEADER_SIZE + bodySize + JournalRecords.TRAILER_SIZE;
+            }
+        }
+    }
+
+    private Operation read(long position) {
+        long index = position / SEGMENT_STRIDE;
+        for (JournalSegment segment : segments) {
+            if (segment.index() == index) {
+                return JournalRecords.read(segment.buffer(), (int) (position - index * SEGMENT_STRIDE));
+            }
+        }
+        throw new IllegalStateException("Position hors du journal : " + position);
+    }
+
+    private static long position(JournalSegment segment, int offset) {
+        return segment.index() * SEGMENT_STRIDE + offset;
+    }
+
+    private static final class RecordPositions {
+
+        private long[] values = new long[16];
+        private int size;
+
+        void add(long position) {
+            if (size == values.length) {
+                values = Arrays.copyOf(values, size * 2);
+            }
+            values[size++] = position;
+        }
+    }
+
+    @FunctionalInterface
+    private interface RecordVisitor {
+        void visit(ByteBuffer buffer, int offset, long position);
+    }
+}
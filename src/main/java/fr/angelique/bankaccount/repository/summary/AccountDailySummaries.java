@@ -0,0 +1,128 @@
+package fr.angelique.bankaccount.repository.summary;
+
+import fr.angelique.bankaccount.enums.OperationType;
+import fr.angelique.bankaccount.service.model.Operation;
+
+import java.time.LocalDate;
+import java.util.Arrays;
+import java.util.OptionalLong;
+
+/**
+ * Daily aggregates of one account, slot {@code 0} being {@code firstDay}.
+ */
+final class AccountDailySummaries {
+
+    private static final int INITIAL_CAPACITY = 64;
+
+    private final FenwickTree depositTotals = new FenwickTree(INITIAL_CAPACITY);
+    private final FenwickTree withdrawalTotals = new FenwickTree(INITIAL_CAPACITY);
+    private final FenwickTree depositCounts = new FenwickTree(INITIAL_CAPACITY);
+    private final FenwickTree withdrawalCounts = new FenwickTree(INITIAL_CAPACITY);
+    private final FenwickTree activeDays = new FenwickTree(INITIAL_CAPACITY);
+
+    private long[] closingBalances = new long[INITIAL_CAPACITY];
+    private long[] closingNanosOfDay = new long[INITIAL_CAPACITY];
+    private long firstDay = Long.MIN_VALUE;
+    private int lastSlot = -1;
+    private boolean opened;
+    private long openingBalance;
+
+    synchronized void recordOpening(long initialBalance) {
+        opened = true;
+        openingBalance = initialBalance;
+    }
+
+    synchronized void record(Operation operation) {
+        long day = operation.getDate().toLocalDate().toEpochDay();
+        if (firstDay == Long.MIN_VALUE) {
+            firstDay = day;
+        }
+        int slot = slotFor(day);
+        if (operation.getOperationType() == OperationType.DEPOSIT) {
+            depositTotals.add(slot, operation.getAmount());
+            depositCounts.add(slot, 1);
+        } else {
+            withdrawalTotals.add(slot, operation.getAmount());
+            withdrawalCounts.add(slot, 1);
+        }
+        long nanoOfDay = operation.getDate().toLocalTime().toNanoOfDay();
+        if (activeDays.range(slot, slot) == 0) {
+            activeDays.add(slot, 1);
+            closingNanosOfDay[slot] = nanoOfDay;
+            closingBalances[slot] = operation.getBalance();
+        } else if (nanoOfDay >= closingNanosOfDay[slot]) {
+            closingNanosOfDay[slot] = nanoOfDay;
+            closingBalances[slot] = operation.getBalance();
+        }
+        lastSlot = Math.max(lastSlot, slot);
+    }
+
+    synchronized DailySummary summarize(LocalDate from, LocalDate to) {
+        if (firstDay == Long.MIN_VALUE) {
+            return DailySummary.EMPTY;
+        }
+        int fromSlot = (int) Math.max(0, Math.min(from.toEpochDay() - firstDay, lastSlot + 1L));
+        int toSlot = (int) Math.max(-1, Math.min(to.toEpochDay() - firstDay, lastSlot));
+        return new DailySummary(
+                depositTotals.range(fromSlot, toSlot),
+                withdrawalTotals.range(fromSlot, toSlot),
+                depositCounts.range(fromSlot, toSlot),
+                withdrawalCounts.range(fromSlot, toSlot));
+    }
+
+    synchronized OptionalLong closingBalance(LocalDate day) {
+        if (firstDay == Long.MIN_VALUE || day.toEpochDay() < firstDay) {
+            return openingBalance();
+        }
+        int slot = (int) Math.min(day.toEpochDay() - firstDay, lastSlot);
+        long activeDaysUntil = activeDays.prefix(slot);
+        if (activeDaysUntil == 0) {
+            return openingBalance();
+        }
+        return OptionalLong.of(closingBalances[activeDays.firstReaching(activeDaysUntil)]);
+    }
+
+    private OptionalLong openingBalance() {
+        return opened ? OptionalLong.of(openingBalance) : OptionalLong.empty();
+    }
+
+    private int slotFor(long day) {
+        if (day < firstDay) {
+            int shift = (int) Math.min(Integer.MAX_VALUE / 2, firstDay - day + (lastSlot + 1) / 2);
+            ensureCapacity((long) lastSlot + 1 + shift);
+            for (FenwickTree tree : trees()) {
+                tree.shiftRight(shift);
+            }
+            closingBalances = shifted(closingBalances, shift);
+            closingNanosOfDay = shifted(closingNanosOfDay, shift);
+            firstDay -= shift;
+            lastSlot += shift;
+        }
+        long slot = day - firstDay;
+        ensureCapacity(slot + 1);
+        return (int) slot;
+    }
+
+    private void ensureCapacity(long size) {
+        if (size > Integer.MAX_VALUE / 2) {
+            throw new IllegalArgumentException("L'historique du compte couvre trop de jours");
+        }
+        while (depositTotals.capacity() < size) {
+            for (FenwickTree tree : trees()) {
+                tree.doubleCapacity();
+            }
+            closingBalances = Arrays.copyOf(closingBalances, depositTotals.capacity());
+            closingNanosOfDay = Arrays.copyOf(closingNanosOfDay, depositTotals.capacity());
+        }
+    }
+
+    private FenwickTree[] trees() {
+        return new FenwickTree[]{depositTotals, withdrawalTotals, depositCounts, withdrawalCounts, activeDays};
+    }
+
+    private static long[] shifted(long[] values, int shift) {
+        long[] shifted = new long[values.length];
+        System.arraycopy(values, 0, shifted, shift, values.length - shift);
+        return shifted;
+    }
+}
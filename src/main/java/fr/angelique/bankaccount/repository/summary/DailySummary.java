@@ -0,0 +1,59 @@
+package fr.angelique.bankaccount.repository.summary;
+
+import java.util.Objects;
+
+public final class DailySummary {
+
+    static final DailySummary EMPTY = new DailySummary(0, 0, 0, 0);
+
+    private final long depositTotal;
+    private final long withdrawalTotal;
+    private final long depositCount;
+    private final long withdrawalCount;
+
+    public DailySummary(long depositTotal, long withdrawalTotal, long depositCount, long withdrawalCount) {
+        this.depositTotal = depositTotal;
+        this.withdrawalTotal = withdrawalTotal;
+        this.depositCount = depositCount;
+        this.withdrawalCount = withdrawalCount;
+    }
+
+    public long getDepositTotal() {
+        return depositTotal;
+    }
+
+    public long getWithdrawalTotal() {
+        return withdrawalTotal;
+    }
+
+    public long getDepositCount() {
+        return depositCount;
+    }
+
+    public long getWithdrawalCount() {
+        return withdrawalCount;
+    }
+
+    public long getNetAmount() {
+        return depositTotal - withdrawalTotal;
+    }
+
+    @Override
+    public boolean equals(Object o) {
+        if (this == o) return true;
+        if (o == null || getClass() != o.getClass()) return false;
+        DailySummary that = (DailySummary) o;
+        return depositTotal == that.depositTotal && withdrawalTotal == that.withdrawalTotal && depositCount == that.depositCount && withdrawalCount == that.withdrawalCount;
+    }
+
+    @Override
+    public int hashCode() {
+        return Objects.hash(depositTotal, withdrawalTotal, depositCount, withdrawalCount);
+    }
+
+    @Override
+    public String toString() {
+        return "DailySummary{depositTotal=" + depositTotal + ", withdrawalTotal=" + withdrawalTotal
+                + ", depositCount=" + depositCount + ", withdrawalCount=" + withdrawalCount + '}';
+    }
+}
@@ -0,0 +1,47 @@
+package fr.angelique.bankaccount.repository.summary;
+
+import fr.angelique.bankaccount.service.model.Operation;
+
+import java.time.LocalDate;
+import java.util.OptionalLong;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+
+/**
+ * Per-account, per-day totals kept in Fenwick trees over days, so that range totals and closing
+ * balances are answered in logarithmic time instead of scanning the history.
+ */
+public class DailySummaryIndex {
+
+    private final ConcurrentMap<UUID, AccountDailySummaries> accounts = new ConcurrentHashMap<>();
+
+    public void record(Operation operation) {
+        accounts.computeIfAbsent(operation.getAccountId(), id -> new AccountDailySummaries()).record(operation);
+    }
+
+    public void recordOpening(UUID accountId, long initialBalance) {
+        accounts.computeIfAbsent(accountId, id -> new AccountDailySummaries()).recordOpening(initialBalance);
+    }
+
+    /**
+     * Totals of the operations of the account from {@code from} to {@code to}, both included.
+     */
+    public DailySummary summarize(UUID accountId, LocalDate from, LocalDate to) {
+        AccountDailySummaries summaries = accounts.get(accountId);
+        return summaries == null ? DailySummary.EMPTY : summaries.summarize(from, to);
+    }
+
+    public DailySummary summarize(UUID accountId, LocalDate day) {
+        return summarize(accountId, day, day);
+    }
+
+    /**
+     * Balance recorded by the last operation of the account at the end of {@code day}, its opening
+     * balance if it had no operation yet, or nothing if its opening was not recorded either.
+     */
+    public OptionalLong balanceAt(UUID accountId, LocalDate day) {
+        AccountDailySummaries summaries = accounts.get(accountId);
+        return summaries == null ? OptionalLong.empty() : summaries.closingBalance(day);
+    }
+}
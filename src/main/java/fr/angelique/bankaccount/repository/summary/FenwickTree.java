@@ -0,0 +1,76 @@
+package fr.angelique.bankaccount.repository.summary;
+
+import java.util.Arrays;
+
+/**
+ * Binary indexed tree over day slots {@code 0..capacity-1}; the capacity stays a power of two so
+ * that doubling it only needs the root of the new half.
+ */
+final class FenwickTree {
+
+    private long[] tree;
+
+    FenwickTree(int capacity) {
+        this.tree = new long[capacity + 1];
+    }
+
+    int capacity() {
+        return tree.length - 1;
+    }
+
+    void add(int slot, long delta) {
+        for (int i = slot + 1; i < tree.length; i += i & -i) {
+            tree[i] += delta;
+        }
+    }
+
+    long prefix(int slot) {
+        long sum = 0;
+        for (int i = Math.min(slot + 1, tree.length - 1); i > 0; i -= i & -i) {
+            sum += tree[i];
+        }
+        return sum;
+    }
+
+    long range(int fromSlot, int toSlot) {
+        return fromSlot > toSlot ? 0 : prefix(toSlot) - prefix(fromSlot - 1);
+    }
+
+    /**
+     * Smallest slot whose prefix reaches {@code target}, for trees holding non-negative values.
+     */
+    int firstReaching(long target) {
+        int position = 0;
+        long remaining = target;
+        for (int step = Integer.highestOneBit(tree.length - 1); step > 0; step >>= 1) {
+            int next = position + step;
+            if (next < tree.length && tree[next] < remaining) {
+                position = next;
+                remaining -= tree[next];
+            }
+        }
+        return position;
+    }
+
+    void doubleCapacity() {
+        int capacity = capacity();
+        tree = Arrays.copyOf(tree, 2 * capacity + 1);
+        tree[2 * capacity] = tree[capacity];
+    }
+
+    void shiftRight(int slots) {
+        int capacity = capacity();
+        long[] values = new long[capacity];
+        for (int slot = 0; slot < capacity - slots; slot++) {
+            values[slot + slots] = range(slot, slot);
+        }
+        tree = new long[capacity + 1];
+        for (int i = 1; i <= capacity; i++) {
+            tree[i] += values[i - 1];
+            int parent = i + (i & -i);
+            if (parent <= capacity) {
+                tree[parent] += tree[i];
+            }
+        }
+    }
+}
@@ -0,0 +1,74 @@
+package fr.angelique.bankaccount.repository.summary;
+
+import fr.angelique.bankaccount.enums.OperationType;
+import fr.angelique.bankaccount.repository.OperationQuery;
+import fr.angelique.bankaccount.repository.OperationRepository;
+import fr.angelique.bankaccount.service.model.Money;
+import fr.angelique.bankaccount.service.model.Operation;
+
+import java.util.Collection;
+import java.util.List;
+import java.util.UUID;
+import java.util.stream.Stream;
+
+/**
+ * Feeds a {@link DailySummaryIndex} with every operation and opening saved through it. The
+ * operations already in the wrapped repository are indexed when it is built, for the accounts it is
+ * given.
+ */
+public class SummarizingOperationRepository implements OperationRepository {
+
+    private final OperationRepository operationRepository;
+
+    private final DailySummaryIndex index;
+
+    public SummarizingOperationRepository(OperationRepository operationRepository, DailySummaryIndex index) {
+        this(operationRepository, index, List.of());
+    }
+
+    public SummarizingOperationRepository(OperationRepository operationRepository, DailySummaryIndex index, Collection<UUID> accountIds) {
+        this.operationRepository = operationRepository;
+        this.index = index;
+        accountIds.forEach(this::backfill);
+    }
+
+    @Override
+    public List<Operation> findAllByAccountIdOrderByDateDesc(UUID id) {
+        return operationRepository.findAllByAccountIdOrderByDateDesc(id);
+    }
+
+    @Override
+    public Stream<Operation> streamByAccountIdOrderByDateDesc(UUID id, OperationQuery query) {
+        return operationRepository.streamByAccountIdOrderByDateDesc(id, query);
+    }
+
+    @Override
+    public void create(Operation entity) {
+        operationRepository.create(entity);
+        index.record(entity);
+    }
+
+    @Override
+    public void createAll(List<Operation> entities) {
+        operationRepository.createAll(entities);
+        entities.forEach(index::record);
+    }
+
+    @Override
+    public void recordOpening(UUID accountId, long initialBalance) {
+        operationRepository.recordOpening(accountId, initialBalance);
+        index.recordOpening(accountId, initialBalance);
+    }
+
+    private void backfill(UUID accountId) {
+        List<Operation> operations = operationRepository.findAllByAccountIdOrderByDateDesc(accountId);
+        if (operations.isEmpty()) {
+            return;
+        }
+        Operation first = operations.get(operations.size() - 1);
+        index.recordOpening(accountId, first.getOperationType() == OperationType.DEPOSIT
+                ? Money.subtract(first.getBalance(), first.getAmount())
+                : Money.add(first.getBalance(), first.getAmount()));
+        operations.forEach(index::record);
+    }
+}
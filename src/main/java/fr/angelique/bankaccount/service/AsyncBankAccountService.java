@@ -0,0 +1,132 @@
+package fr.angelique.bankaccount.service;
+
+import java.math.BigDecimal;
+import java.time.Duration;
+import java.util.UUID;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.LongAdder;
+
+public class AsyncBankAccountService implements AutoCloseable {
+
+    private static final CompletableFuture<Void> COMPLETED = CompletableFuture.completedFuture(null);
+
+    private final BankAccountService bankAccountService;
+
+    private final ExecutorService executor = Executors.newVirtualThreadPerTaskExecutor();
+
+    private final ConcurrentMap<UUID, CompletableFuture<Void>> accountQueues = new ConcurrentHashMap<>();
+
+    private final int maxInFlightRequests;
+
+    private final Semaphore admissions;
+
+    private final long admissionTimeoutNanos;
+
+    private final AtomicInteger runningRequests = new AtomicInteger();
+
+    private final LongAdder rejectedRequests = new LongAdder();
+
+    public AsyncBankAccountService(BankAccountService bankAccountService, int maxInFlightRequests, Duration admissionTimeout) {
+        this.bankAccountService = bankAccountService;
+        this.maxInFlightRequests = maxInFlightRequests;
+        this.admissions = new Semaphore(maxInFlightRequests);
+        this.admissionTimeoutNanos = admissionTimeout.toNanos();
+    }
+
+    public CompletableFuture<Void> deposit(UUID accountId, BigDecimal amount, String libelle) {
+        return submit(accountId, () -> bankAccountService.deposit(accountId, amount, libelle));
+    }
+
+    public CompletableFuture<Void> withdraw(UUID accountId, BigDecimal amount, String libelle) {
+        return submit(accountId, () -> bankAccountService.withdraw(accountId, amount, libelle));
+    }
+
+    public CompletableFuture<Void> printAccountOperations(UUID accountId) {
+        return submit(accountId, () -> bankAccountService.printAccountOperations(accountId));
+    }
+
+    public int getInFlightRequests() {
+        return maxInFlightRequests - admissions.availablePermits();
+    }
+
+    public int getRunningRequests() {
+        return runningRequests.get();
+    }
+
+    public int getQueuedRequests() {
+        return Math.max(0, getInFlightRequests() - getRunningRequests());
+    }
+
+    public long getRejectedRequests() {
+        return rejectedRequests.sum();
+    }
+
+    @Override
+    public void close() {
+        executor.close();
+    }
+
+    private CompletableFuture<Void> submit(UUID accountId, AccountTask task) {
+        try {
+            if (!admissions.tryAcquire(admissionTimeoutNanos, TimeUnit.NANOSECONDS)) {
+                rejectedRequests.increment();
+                return CompletableFuture.failedFuture(new RejectedExecutionException("Trop de requêtes en cours"));
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            return CompletableFuture.failedFuture(e);
+        }
+        if (executor.isShutdown()) {
+            admissions.release();
+            return CompletableFuture.failedFuture(new RejectedExecutionException("Le service est arrêté"));
+        }
+        CompletableFuture<Void> result = new CompletableFuture<>();
+        CompletableFuture<Void> previous = accountQueues.put(accountId, result);
+        (previous == null ? COMPLETED : previous).whenComplete((ignored, error) -> schedule(accountId, task, result));
+        return result.copy();
+    }
+
+    private void schedule(UUID accountId, AccountTask task, CompletableFuture<Void> result) {
+        try {
+            executor.execute(() -> run(accountId, task, result));
+        } catch (RejectedExecutionException e) {
+            complete(accountId, result, e);
+        }
+    }
+
+    private void run(UUID accountId, AccountTask task, CompletableFuture<Void> result) {
+        runningRequests.incrementAndGet();
+        Throwable failure = null;
+        try {
+            task.run();
+        } catch (Throwable e) {
+            failure = e;
+        } finally {
+            runningRequests.decrementAndGet();
+            complete(accountId, result, failure);
+        }
+    }
+
+    private void complete(UUID accountId, CompletableFuture<Void> result, Throwable failure) {
+        accountQueues.remove(accountId, result);
+        admissions.release();
+        if (failure == null) {
+            result.complete(null);
+        } else {
+            result.completeExceptionally(failure);
+        }
+    }
+
+    @FunctionalInterface
+    private interface AccountTask {
+        void run() throws Exception;
+    }
+}
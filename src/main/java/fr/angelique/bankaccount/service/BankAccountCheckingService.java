@@ -2,22 +2,33 @@ package fr.angelique.bankaccount.service;
 
 import fr.angelique.bankaccount.AccountStatementPrinter;
 import fr.angelique.bankaccount.OperationsFormatter;
+import fr.angelique.bankaccount.enums.MovementStatus;
 import fr.angelique.bankaccount.enums.OperationType;
 import fr.angelique.bankaccount.repository.AccountRepository;
+import fr.angelique.bankaccount.repository.OperationQuery;
 import fr.angelique.bankaccount.repository.OperationRepository;
-import fr.angelique.bankaccount.service.exception.AccountNotFoundException;
-import fr.angelique.bankaccount.service.exception.NegativeAmountException;
-import fr.angelique.bankaccount.service.exception.OverdraftAccountException;
+import fr.angelique.bankaccount.service.model.Money;
+import fr.angelique.bankaccount.service.model.Movement;
+import fr.angelique.bankaccount.service.model.MovementResult;
 import fr.angelique.bankaccount.service.model.Operation;
+import fr.angelique.bankaccount.service.model.OperationResult;
 
 import java.math.BigDecimal;
 import java.time.Clock;
 import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.LinkedHashMap;
 import java.util.List;
+import java.util.Map;
 import java.util.UUID;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.stream.Stream;
 
 public class BankAccountCheckingService implements BankAccountService {
 
+    private static final int STRIPE_COUNT = 64;
+
     private final AccountRepository accountRepository;
 
     private final OperationRepository operationRepository;
@@ -28,47 +39,185 @@ public class BankAccountCheckingService implements BankAccountService {
 
     private final Clock clock;
 
+    private final ReentrantLock[] stripes = new ReentrantLock[STRIPE_COUNT];
+
     public BankAccountCheckingService(AccountRepository accountRepository, OperationRepository operationRepository, OperationsFormatter operationListFormatter, AccountStatementPrinter accountStatementPrinter, Clock clock) {
         this.accountRepository = accountRepository;
         this.operationRepository = operationRepository;
         this.operationListFormatter = operationListFormatter;
         this.accountStatementPrinter = accountStatementPrinter;
         this.clock = clock;
+        for (int i = 0; i < STRIPE_COUNT; i++) {
+            stripes[i] = new ReentrantLock();
+        }
+    }
+
+    @Override
+    public OperationResult tryDeposit(UUID accountId, BigDecimal amount, String libelle) {
+        return move(accountId, OperationType.DEPOSIT, amount, libelle);
     }
 
     @Override
-    public void deposit(UUID accountId, BigDecimal amount, String libelle) throws NegativeAmountException, AccountNotFoundException {
-        if (amount.compareTo(BigDecimal.ZERO) <= 0) {
-            throw new NegativeAmountException("Les valeurs négatives ne sont pas acceptées");
+    public OperationResult tryWithdraw(UUID accountId, BigDecimal amount, String libelle) {
+        return move(accountId, OperationType.WITHDRAWAL, amount, libelle);
+    }
+
+    /**
+     * Updates the balance and saves the operation under the lock stripe of the account, so the
+     * operations of an account are saved in the order its balance changed. The balance update is
+     * undone when the operation cannot be saved.
+     */
+    private OperationResult move(UUID accountId, OperationType operationType, BigDecimal amount, String libelle) {
+        MovementStatus status = movementStatus(amount, libelle);
+        if (status != MovementStatus.ACCEPTED) {
+            return OperationResult.rejected(status);
         }
+        long cents = Money.toCents(amount);
         if (!accountRepository.existsById(accountId)) {
-            throw new AccountNotFoundException("Le compte n'existe pas");
+            return OperationResult.NOT_FOUND;
+        }
+        ReentrantLock stripe = stripe(accountId);
+        stripe.lock();
+        try {
+            long balance;
+            long newAmount;
+            do {
+                balance = accountRepository.getBalance(accountId);
+                newAmount = operationType == OperationType.DEPOSIT ? Money.add(balance, cents) : Money.subtract(balance, cents);
+                if (newAmount < 0) {
+                    return OperationResult.rejected(MovementStatus.OVERDRAFT);
+                }
+            } while (!accountRepository.compareAndUpdateBalance(accountId, balance, newAmount));
+            try {
+                operationRepository.create(new Operation(accountId, operationType, libelle, LocalDateTime.now(clock), cents, newAmount));
+            } catch (RuntimeException e) {
+                revertBalance(accountId, Money.subtract(newAmount, balance));
+                throw e;
+            }
+            return OperationResult.ACCEPTED;
+        } finally {
+            stripe.unlock();
         }
-        BigDecimal newAmount = accountRepository.getBalance(accountId).add(amount);
-        operationRepository.create(new Operation(OperationType.DEPOSIT, libelle, LocalDateTime.now(clock), amount, newAmount));
-        accountRepository.updateBalance(accountId, newAmount);
     }
 
+    /**
+     * Applies the movements of each account with a single balance update, then saves that
+     * account's operations right away. A failure only affects the movements of its account: they
+     * are reported {@link MovementStatus#FAILED} and their balance update is undone.
+     */
     @Override
-    public void withdraw(UUID accountId, BigDecimal amount, String libelle) throws NegativeAmountException, AccountNotFoundException, OverdraftAccountException {
-        if (amount.compareTo(BigDecimal.ZERO) <= 0) {
-            throw new NegativeAmountException("Les valeurs négatives ne sont pas acceptées");
+    public List<MovementResult> applyBatch(List<Movement> movements) {
+        MovementResult[] results = new MovementResult[movements.size()];
+        Map<UUID, List<Integer>> movementIndexesByAccount = new LinkedHashMap<>();
+        for (int i = 0; i < movements.size(); i++) {
+            movementIndexesByAccount.computeIfAbsent(movements.get(i).getAccountId(), id -> new ArrayList<>()).add(i);
         }
-        if (!accountRepository.existsById(accountId)) {
-            throw new AccountNotFoundException("Le compte n'existe pas");
+        movementIndexesByAccount.entrySet().parallelStream()
+                .forEach(entry -> applyAccountMovements(entry.getKey(), entry.getValue(), movements, results));
+        return Arrays.asList(results);
+    }
+
+    private void applyAccountMovements(UUID accountId, List<Integer> movementIndexes, List<Movement> movements, MovementResult[] results) {
+        List<Integer> validIndexes = new ArrayList<>(movementIndexes.size());
+        long[] amounts = new long[movementIndexes.size()];
+        for (int index : movementIndexes) {
+            Movement movement = movements.get(index);
+            MovementStatus status = movementStatus(movement.getAmount(), movement.getLibelle());
+            if (status != MovementStatus.ACCEPTED) {
+                results[index] = MovementResult.rejected(movement, status);
+                continue;
+            }
+            amounts[validIndexes.size()] = Money.toCents(movement.getAmount());
+            validIndexes.add(index);
         }
-        BigDecimal newAmount = accountRepository.getBalance(accountId).subtract(amount);
-        if (newAmount.compareTo(BigDecimal.ZERO) < 0) {
-            throw new OverdraftAccountException("Le montant de retrait est supérieur au solde sur le compte");
+        if (validIndexes.isEmpty()) {
+            return;
+        }
+        ReentrantLock stripe = stripe(accountId);
+        stripe.lock();
+        try {
+            applyValidMovements(accountId, validIndexes, amounts, movements, results);
+        } finally {
+            stripe.unlock();
         }
-        operationRepository.create(new Operation(OperationType.WITHDRAWAL, libelle, LocalDateTime.now(clock), amount, newAmount));
-        accountRepository.updateBalance(accountId, newAmount);
+    }
+
+    private void applyValidMovements(UUID accountId, List<Integer> validIndexes, long[] amounts, List<Movement> movements, MovementResult[] results) {
+        long initialBalance;
+        long balance;
+        List<Operation> operations;
+        try {
+            if (!accountRepository.existsById(accountId)) {
+                validIndexes.forEach(index -> results[index] = MovementResult.rejected(movements.get(index), MovementStatus.ACCOUNT_NOT_FOUND));
+                return;
+            }
+            do {
+                initialBalance = accountRepository.getBalance(accountId);
+                balance = initialBalance;
+                LocalDateTime date = LocalDateTime.now(clock);
+                operations = new ArrayList<>(validIndexes.size());
+                for (int i = 0; i < validIndexes.size(); i++) {
+                    Movement movement = movements.get(validIndexes.get(i));
+                    long newAmount = movement.getOperationType() == OperationType.DEPOSIT
+                            ? Money.add(balance, amounts[i])
+                            : Money.subtract(balance, amounts[i]);
+                    if (newAmount < 0) {
+                        results[validIndexes.get(i)] = MovementResult.rejected(movement, MovementStatus.OVERDRAFT);
+                        continue;
+                    }
+                    balance = newAmount;
+                    operations.add(new Operation(accountId, movement.getOperationType(), movement.getLibelle(), date, amounts[i], balance));
+                    results[validIndexes.get(i)] = new MovementResult(movement, MovementStatus.ACCEPTED, balance);
+                }
+            } while (!operations.isEmpty() && !accountRepository.compareAndUpdateBalance(accountId, initialBalance, balance));
+        } catch (RuntimeException e) {
+            validIndexes.forEach(index -> results[index] = MovementResult.rejected(movements.get(index), MovementStatus.FAILED));
+            return;
+        }
+        if (operations.isEmpty()) {
+            return;
+        }
+        try {
+            operationRepository.createAll(operations);
+        } catch (RuntimeException e) {
+            revertBalance(accountId, Money.subtract(balance, initialBalance));
+            validIndexes.forEach(index -> results[index] = MovementResult.rejected(movements.get(index), MovementStatus.FAILED));
+        }
+    }
+
+    private ReentrantLock stripe(UUID accountId) {
+        return stripes[(accountId.hashCode() & Integer.MAX_VALUE) % STRIPE_COUNT];
+    }
+
+    private void revertBalance(UUID accountId, long delta) {
+        long balance;
+        do {
+            balance = accountRepository.getBalance(accountId);
+        } while (!accountRepository.compareAndUpdateBalance(accountId, balance, Money.subtract(balance, delta)));
     }
 
     @Override
     public void printAccountOperations(UUID accountId) {
-        List<Operation> operations = operationRepository.findAllByAccountIdOrderByDateDesc(accountId);
-        List<String> lines = operationListFormatter.format(operations);
-        accountStatementPrinter.print(lines);
+        printAccountOperations(accountId, OperationQuery.all());
+    }
+
+    @Override
+    public void printAccountOperations(UUID accountId, OperationQuery query) {
+        try (Stream<Operation> operations = operationRepository.streamByAccountIdOrderByDateDesc(accountId, query)) {
+            accountStatementPrinter.print(operationListFormatter.format(operations));
+        }
+    }
+
+    private static MovementStatus movementStatus(BigDecimal amount, String libelle) {
+        if (!Money.isCents(amount)) {
+            return MovementStatus.INVALID_AMOUNT;
+        }
+        if (amount.signum() <= 0) {
+            return MovementStatus.NEGATIVE_AMOUNT;
+        }
+        if (!Operation.isValidLibelle(libelle)) {
+            return MovementStatus.INVALID_LIBELLE;
+        }
+        return MovementStatus.ACCEPTED;
     }
 }
@@ -1,14 +1,45 @@
 package fr.angelique.bankaccount.service;
 
+import fr.angelique.bankaccount.enums.MovementStatus;
+import fr.angelique.bankaccount.repository.OperationQuery;
 import fr.angelique.bankaccount.service.exception.AccountNotFoundException;
 import fr.angelique.bankaccount.service.exception.NegativeAmountException;
 import fr.angelique.bankaccount.service.exception.OverdraftAccountException;
+import fr.angelique.bankaccount.service.model.Movement;
+import fr.angelique.bankaccount.service.model.MovementResult;
+import fr.angelique.bankaccount.service.model.Operation;
+import fr.angelique.bankaccount.service.model.OperationResult;
 
 import java.math.BigDecimal;
+import java.util.List;
 import java.util.UUID;
 
 public interface BankAccountService {
-    void deposit(UUID accountId, BigDecimal amount, String libelle) throws AccountNotFoundException, NegativeAmountException;
-    void withdraw(UUID accountId, BigDecimal amount, String libelle) throws AccountNotFoundException, NegativeAmountException, OverdraftAccountException;
+    OperationResult tryDeposit(UUID accountId, BigDecimal amount, String libelle);
+    OperationResult tryWithdraw(UUID accountId, BigDecimal amount, String libelle);
+    List<MovementResult> applyBatch(List<Movement> movements);
     void printAccountOperations(UUID accountId) throws AccountNotFoundException;
+    void printAccountOperations(UUID accountId, OperationQuery query) throws AccountNotFoundException;
+
+    default void deposit(UUID accountId, BigDecimal amount, String libelle) throws AccountNotFoundException, NegativeAmountException {
+        throwIfRejected(tryDeposit(accountId, amount, libelle), amount);
+    }
+
+    default void withdraw(UUID accountId, BigDecimal amount, String libelle) throws AccountNotFoundException, NegativeAmountException, OverdraftAccountException {
+        OperationResult result = tryWithdraw(accountId, amount, libelle);
+        if (result.getStatus() == MovementStatus.OVERDRAFT) {
+            throw new OverdraftAccountException("Le montant de retrait est supérieur au solde sur le compte");
+        }
+        throwIfRejected(result, amount);
+    }
+
+    private static void throwIfRejected(OperationResult result, BigDecimal amount) throws AccountNotFoundException, NegativeAmountException {
+        switch (result.getStatus()) {
+            case ACCOUNT_NOT_FOUND -> throw new AccountNotFoundException("Le compte n'existe pas");
+            case NEGATIVE_AMOUNT -> throw new NegativeAmountException("Les valeurs négatives ne sont pas acceptées");
+            case INVALID_AMOUNT -> throw new IllegalArgumentException("Le montant doit être exprimé en centimes d'euro : " + amount);
+            case INVALID_LIBELLE -> throw new IllegalArgumentException("Le libellé dépasse " + Operation.MAX_LIBELLE_SIZE + " octets");
+            default -> { }
+        }
+    }
 }
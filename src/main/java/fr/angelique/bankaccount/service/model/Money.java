@@ -0,0 +1,43 @@
+package fr.angelique.bankaccount.service.model;
+
+import java.math.BigDecimal;
+
+public final class Money {
+
+    private static final int SCALE = 2;
+
+    private static final BigDecimal MIN_CENTS = BigDecimal.valueOf(Long.MIN_VALUE);
+
+    private static final BigDecimal MAX_CENTS = BigDecimal.valueOf(Long.MAX_VALUE);
+
+    private Money() {
+    }
+
+    public static long toCents(BigDecimal amount) {
+        try {
+            return amount.movePointRight(SCALE).longValueExact();
+        } catch (ArithmeticException e) {
+            throw new IllegalArgumentException("Le montant doit être exprimé en centimes d'euro : " + amount, e);
+        }
+    }
+
+    public static boolean isCents(BigDecimal amount) {
+        BigDecimal cents = amount.movePointRight(SCALE);
+        if (cents.scale() > 0 && cents.stripTrailingZeros().scale() > 0) {
+            return false;
+        }
+        return cents.compareTo(MIN_CENTS) >= 0 && cents.compareTo(MAX_CENTS) <= 0;
+    }
+
+    public static BigDecimal toBigDecimal(long cents) {
+        return BigDecimal.valueOf(cents, SCALE);
+    }
+
+    public static long add(long cents, long otherCents) {
+        return Math.addExact(cents, otherCents);
+    }
+
+    public static long subtract(long cents, long otherCents) {
+        return Math.subtractExact(cents, otherCents);
+    }
+}
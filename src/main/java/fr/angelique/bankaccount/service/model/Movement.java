@@ -0,0 +1,51 @@
+package fr.angelique.bankaccount.service.model;
+
+import fr.angelique.bankaccount.enums.OperationType;
+
+import java.math.BigDecimal;
+import java.util.Objects;
+import java.util.UUID;
+
+public class Movement {
+
+    private final UUID accountId;
+    private final OperationType operationType;
+    private final BigDecimal amount;
+    private final String libelle;
+
+    public Movement(UUID accountId, OperationType operationType, BigDecimal amount, String libelle) {
+        this.accountId = accountId;
+        this.operationType = operationType;
+        this.amount = amount;
+        this.libelle = libelle;
+    }
+
+    public UUID getAccountId() {
+        return accountId;
+    }
+
+    public OperationType getOperationType() {
+        return operationType;
+    }
+
+    public BigDecimal getAmount() {
+        return amount;
+    }
+
+    public String getLibelle() {
+        return libelle;
+    }
+
+    @Override
+    public boolean equals(Object o) {
+        if (this == o) return true;
+        if (o == null || getClass() != o.getClass()) return false;
+        Movement that = (Movement) o;
+        return Objects.equals(accountId, that.accountId) && operationType == that.operationType && Objects.equals(amount, that.amount) && Objects.equals(libelle, that.libelle);
+    }
+
+    @Override
+    public int hashCode() {
+        return Objects.hash(accountId, operationType, amount, libelle);
+    }
+}
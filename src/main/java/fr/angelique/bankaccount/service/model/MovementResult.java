@@ -0,0 +1,51 @@
+package fr.angelique.bankaccount.service.model;
+
+import fr.angelique.bankaccount.enums.MovementStatus;
+
+import java.util.Objects;
+
+public class MovementResult {
+
+    private final Movement movement;
+    private final MovementStatus status;
+    private final long balance;
+
+    public MovementResult(Movement movement, MovementStatus status, long balance) {
+        this.movement = movement;
+        this.status = status;
+        this.balance = balance;
+    }
+
+    public static MovementResult rejected(Movement movement, MovementStatus status) {
+        return new MovementResult(movement, status, 0);
+    }
+
+    public Movement getMovement() {
+        return movement;
+    }
+
+    public MovementStatus getStatus() {
+        return status;
+    }
+
+    public long getBalance() {
+        return balance;
+    }
+
+    public boolean isAccepted() {
+        return status == MovementStatus.ACCEPTED;
+    }
+
+    @Override
+    public boolean equals(Object o) {
+        if (this == o) return true;
+        if (o == null || getClass() != o.getClass()) return false;
+        MovementResult that = (MovementResult) o;
+        return balance == that.balance && Objects.equals(movement, that.movement) && status == that.status;
+    }
+
+    @Override
+    public int hashCode() {
+        return Objects.hash(movement, status, balance);
+    }
+}
@@ -2,19 +2,24 @@ package fr.angelique.bankaccount.service.model;
 
 import fr.angelique.bankaccount.enums.OperationType;
 
-import java.math.BigDecimal;
+import java.nio.charset.StandardCharsets;
 import java.time.LocalDateTime;
 import java.util.Objects;
+import java.util.UUID;
 
 public class Operation {
 
+    public static final int MAX_LIBELLE_SIZE = Short.MAX_VALUE;
+
+    private final UUID accountId;
     private final String data;
     private final OperationType operationType;
     private final LocalDateTime date;
-    private final BigDecimal amount;
-    private final BigDecimal balance;
+    private final long amount;
+    private final long balance;
 
-    public Operation(OperationType operationType, String data, LocalDateTime date, BigDecimal amount, BigDecimal balance) {
+    public Operation(UUID accountId, OperationType operationType, String data, LocalDateTime date, long amount, long balance) {
+        this.accountId = accountId;
         this.operationType = operationType;
         this.data = data;
         this.date = date;
@@ -22,6 +27,21 @@ public class Operation {
         this.balance = balance;
     }
 
+    /**
+     * Tells whether the libelle fits in {@link #MAX_LIBELLE_SIZE} bytes once encoded in UTF-8, the
+     * limit of the journal records.
+     */
+    public static boolean isValidLibelle(String libelle) {
+        if (libelle == null || libelle.length() <= MAX_LIBELLE_SIZE / 3) {
+            return true;
+        }
+        return libelle.length() <= MAX_LIBELLE_SIZE && libelle.getBytes(StandardCharsets.UTF_8).length <= MAX_LIBELLE_SIZE;
+    }
+
+    public UUID getAccountId() {
+        return accountId;
+    }
+
     public OperationType getOperationType() {
         return operationType;
     }
@@ -34,11 +54,11 @@ public class Operation {
         return date;
     }
 
-    public BigDecimal getAmount() {
+    public long getAmount() {
         return amount;
     }
 
-    public BigDecimal getBalance() {
+    public long getBalance() {
         return balance;
     }
 
@@ -47,11 +67,11 @@ public class Operation {
         if (this == o) return true;
         if (o == null || getClass() != o.getClass()) return false;
         Operation that = (Operation) o;
-        return Objects.equals(data, that.data) && operationType == that.operationType && Objects.equals(date, that.date) && Objects.equals(amount, that.amount) && Objects.equals(balance, that.balance);
+        return amount == that.amount && balance == that.balance && Objects.equals(accountId, that.accountId) && Objects.equals(data, that.data) && operationType == that.operationType && Objects.equals(date, that.date);
     }
 
     @Override
     public int hashCode() {
-        return Objects.hash(data, operationType, date, amount, balance);
+        return Objects.hash(accountId, data, operationType, date, amount, balance);
     }
 }
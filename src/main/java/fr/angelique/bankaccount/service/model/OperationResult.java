@@ -0,0 +1,79 @@
+package fr.angelique.bankaccount.service.model;
+
+import fr.angelique.bankaccount.enums.MovementStatus;
+
+/**
+ * Outcome of a deposit or a withdrawal. Every instance is preallocated, so reporting a rejection
+ * costs neither an allocation nor a stack trace.
+ */
+public sealed interface OperationResult permits OperationResult.Accepted, OperationResult.Rejected, OperationResult.NotFound {
+
+    Accepted ACCEPTED = new Accepted();
+
+    NotFound NOT_FOUND = new NotFound();
+
+    /**
+     * Returns the rejection for the given reason, which can be neither {@code ACCEPTED} nor
+     * {@code ACCOUNT_NOT_FOUND}: those outcomes are {@link #ACCEPTED} and {@link #NOT_FOUND}.
+     */
+    static Rejected rejected(MovementStatus reason) {
+        if (reason == MovementStatus.ACCEPTED || reason == MovementStatus.ACCOUNT_NOT_FOUND) {
+            throw new IllegalArgumentException("Le statut " + reason + " n'est pas un rejet");
+        }
+        return Rejected.INSTANCES[reason.ordinal()];
+    }
+
+    MovementStatus getStatus();
+
+    default boolean isAccepted() {
+        return this == ACCEPTED;
+    }
+
+    final class Accepted implements OperationResult {
+
+        private Accepted() {
+        }
+
+        @Override
+        public MovementStatus getStatus() {
+            return MovementStatus.ACCEPTED;
+        }
+    }
+
+    final class Rejected implements OperationResult {
+
+        private static final Rejected[] INSTANCES = new Rejected[MovementStatus.values().length];
+
+        static {
+            for (MovementStatus reason : MovementStatus.values()) {
+                INSTANCES[reason.ordinal()] = new Rejected(reason);
+            }
+        }
+
+        private final MovementStatus reason;
+
+        private Rejected(MovementStatus reason) {
+            this.reason = reason;
+        }
+
+        public MovementStatus getReason() {
+            return reason;
+        }
+
+        @Override
+        public MovementStatus getStatus() {
+            return reason;
+        }
+    }
+
+    final class NotFound implements OperationResult {
+
+        private NotFound() {
+        }
+
+        @Override
+        public MovementStatus getStatus() {
+            return MovementStatus.ACCOUNT_NOT_FOUND;
+        }
+    }
+}
@@ -0,0 +1,148 @@
+package fr.angelique.bankaccount.statement;
+
+import fr.angelique.bankaccount.OperationsFormatter;
+import fr.angelique.bankaccount.repository.OperationQuery;
+import fr.angelique.bankaccount.service.model.Operation;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.OptionalLong;
+
+/**
+ * Operations of one account in date order, with the lines rendered so far.
+ * <p>
+ * New operations are queued by the writers and merged on the next read. Lines are rendered the
+ * first time a read selects them, so a read after a deposit only renders the new line. An
+ * operation dated before the last cached one is inserted at its place, as the underlying history
+ * does.
+ */
+final class CachedStatement {
+
+    private final List<Operation> operations;
+
+    private final List<String> lines;
+
+    private List<Operation> pending = new ArrayList<>();
+
+    boolean evicted;
+
+    int accountedSize;
+
+    CachedStatement(List<Operation> operationsByDateDesc) {
+        operations = new ArrayList<>(operationsByDateDesc);
+        Collections.reverse(operations);
+        lines = new ArrayList<>(operations.size());
+    }
+
+    synchronized void enqueue(Operation operation) {
+        pending.add(operation);
+    }
+
+    synchronized int size() {
+        return operations.size() + pending.size();
+    }
+
+    synchronized List<Operation> operationsByDateDesc() {
+        merge();
+        List<Operation> newestFirst = new ArrayList<>(operations);
+        Collections.reverse(newestFirst);
+        return newestFirst;
+    }
+
+    /**
+     * Returns the lines of the operations selected by the query, newest first, with the same
+     * semantics as {@link OperationQuery#apply}.
+     */
+    synchronized List<String> lines(OperationQuery query, OperationsFormatter formatter) {
+        merge();
+        int index = newestSelected(query);
+        List<String> selected = new ArrayList<>(Math.min(index + 1, query.getLimit()));
+        while (index >= 0 && selected.size() < query.getLimit() && !query.isBeforeRange(operations.get(index))) {
+            selected.add(line(index--, formatter));
+        }
+        return selected;
+    }
+
+    synchronized List<Operation> operations(OperationQuery query) {
+        merge();
+        int index = newestSelected(query);
+        List<Operation> selected = new ArrayList<>(Math.min(index + 1, query.getLimit()));
+        while (index >= 0 && selected.size() < query.getLimit() && !query.isBeforeRange(operations.get(index))) {
+            selected.add(operations.get(index--));
+        }
+        return selected;
+    }
+
+    synchronized OptionalLong balanceAt(LocalDateTime date) {
+        merge();
+        int index = upperBound(date) - 1;
+        return index < 0 ? OptionalLong.empty() : OptionalLong.of(operations.get(index).getBalance());
+    }
+
+    private void merge() {
+        if (pending.isEmpty()) {
+            return;
+        }
+        for (Operation operation : pending) {
+            int index = upperBound(operation.getDate());
+            operations.add(index, operation);
+            if (index < lines.size()) {
+                lines.add(index, null);
+            }
+        }
+        pending = new ArrayList<>();
+    }
+
+    private int newestSelected(OperationQuery query) {
+        int index = operations.size() - 1;
+        if (query.getAfter() != null) {
+            index = indexOf(query.getAfter()) - 1;
+        }
+        while (index >= 0 && query.isAfterRange(operations.get(index))) {
+            index--;
+        }
+        return index;
+    }
+
+    private String line(int index, OperationsFormatter formatter) {
+        while (lines.size() <= index) {
+            lines.add(null);
+        }
+        String line = lines.get(index);
+        if (line == null) {
+            line = formatter.format(operations.get(index));
+            lines.set(index, line);
+        }
+        return line;
+    }
+
+    /**
+     * Returns the index of the operation or, when it is missing, the index of the first operation
+     * at its date, so that a page resumes with the operations dated strictly before it.
+     */
+    private int indexOf(Operation operation) {
+        int index = upperBound(operation.getDate()) - 1;
+        for (; index >= 0 && operations.get(index).getDate().equals(operation.getDate()); index--) {
+            if (operations.get(index).equals(operation)) {
+                return index;
+            }
+        }
+        return index + 1;
+    }
+
+    private int upperBound(LocalDateTime date) {
+        int low = 0;
+        int high = operations.size();
+        while (low < high) {
+            int middle = (low + high) >>> 1;
+            if (operations.get(middle).getDate().isAfter(date)) {
+                high = middle;
+            } else {
+                low = middle + 1;
+            }
+        }
+        return low;
+    }
+}
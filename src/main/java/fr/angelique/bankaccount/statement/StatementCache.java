@@ -0,0 +1,221 @@
+package fr.angelique.bankaccount.statement;
+
+import fr.angelique.bankaccount.OperationsFormatter;
+import fr.angelique.bankaccount.repository.OperationQuery;
+import fr.angelique.bankaccount.repository.OperationRepository;
+import fr.angelique.bankaccount.service.model.Operation;
+
+import java.time.LocalDateTime;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.OptionalLong;
+import java.util.TreeSet;
+import java.util.UUID;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.stream.Stream;
+
+/**
+ * Keeps the date-ordered operations and the rendered statement lines of the most recently read
+ * accounts in front of another operation repository.
+ * <p>
+ * Writes go through to the underlying repository and are then queued on the cached statement of
+ * their account, if any, so a cached statement is never re-read nor re-rendered: only the lines
+ * of the new operations are. A writer and the first read of an account hold the same lock stripe,
+ * so an operation is either part of the loaded history or queued afterwards, never both. The least
+ * recently used statements are evicted once the cache holds more than {@code maximumOperations}
+ * operations, a statement without any operation counting as one.
+ */
+public class StatementCache implements OperationRepository {
+
+    private static final int STRIPE_COUNT = 64;
+
+    private final OperationRepository operationRepository;
+
+    private final OperationsFormatter operationsFormatter;
+
+    private final long maximumOperations;
+
+    private final ReentrantLock[] stripes = new ReentrantLock[STRIPE_COUNT];
+
+    private final ReentrantLock lock = new ReentrantLock();
+
+    private final Map<UUID, CachedStatement> statements = new LinkedHashMap<>(16, 0.75f, true);
+
+    private long cachedOperations;
+
+    private final LongAdder hits = new LongAdder();
+
+    private final LongAdder misses = new LongAdder();
+
+    private final LongAdder evictions = new LongAdder();
+
+    public StatementCache(OperationRepository operationRepository, OperationsFormatter operationsFormatter, long maximumOperations) {
+        if (maximumOperations <= 0) {
+            throw new IllegalArgumentException("La taille du cache doit être positive : " + maximumOperations);
+        }
+        this.operationRepository = operationRepository;
+        this.operationsFormatter = operationsFormatter;
+        this.maximumOperations = maximumOperations;
+        for (int i = 0; i < STRIPE_COUNT; i++) {
+            stripes[i] = new ReentrantLock();
+        }
+    }
+
+    @Override
+    public List<Operation> findAllByAccountIdOrderByDateDesc(UUID id) {
+        return statement(id).operationsByDateDesc();
+    }
+
+    @Override
+    public Stream<Operation> streamByAccountIdOrderByDateDesc(UUID id, OperationQuery query) {
+        return statement(id).operations(query).stream();
+    }
+
+    @Override
+    public void create(Operation entity) {
+        ReentrantLock stripe = stripe(entity.getAccountId());
+        stripe.lock();
+        try {
+            operationRepository.create(entity);
+            enqueue(entity);
+        } finally {
+            stripe.unlock();
+        }
+    }
+
+    @Override
+    public void createAll(List<Operation> entities) {
+        TreeSet<Integer> stripeIndexes = new TreeSet<>();
+        for (Operation entity : entities) {
+            stripeIndexes.add(stripeIndex(entity.getAccountId()));
+        }
+        stripeIndexes.forEach(index -> stripes[index].lock());
+        try {
+            operationRepository.createAll(entities);
+            entities.forEach(this::enqueue);
+        } finally {
+            stripeIndexes.descendingSet().forEach(index -> stripes[index].unlock());
+        }
+    }
+
+    @Override
+    public void recordOpening(UUID accountId, long initialBalance) {
+        operationRepository.recordOpening(accountId, initialBalance);
+    }
+
+    public List<String> statementLines(UUID accountId) {
+        return statementLines(accountId, OperationQuery.all());
+    }
+
+    public List<String> statementLines(UUID accountId, OperationQuery query) {
+        return statement(accountId).lines(query, operationsFormatter);
+    }
+
+    /**
+     * Returns the balance recorded by the last operation at or before {@code date}, or nothing when
+     * the account had no operation yet.
+     */
+    public OptionalLong balanceAt(UUID accountId, LocalDateTime date) {
+        return statement(accountId).balanceAt(date);
+    }
+
+    public long getHitCount() {
+        return hits.sum();
+    }
+
+    public long getMissCount() {
+        return misses.sum();
+    }
+
+    public long getEvictionCount() {
+        return evictions.sum();
+    }
+
+    public long getCachedOperationCount() {
+        lock.lock();
+        try {
+            return cachedOperations;
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    private CachedStatement statement(UUID accountId) {
+        CachedStatement statement = cached(accountId);
+        if (statement != null) {
+            hits.increment();
+        } else {
+            misses.increment();
+            ReentrantLock stripe = stripe(accountId);
+            stripe.lock();
+            try {
+                statement = cached(accountId);
+                if (statement == null) {
+                    statement = new CachedStatement(operationRepository.findAllByAccountIdOrderByDateDesc(accountId));
+                    lock.lock();
+                    try {
+                        statements.put(accountId, statement);
+                    } finally {
+                        lock.unlock();
+                    }
+                }
+            } finally {
+                stripe.unlock();
+            }
+        }
+        account(statement);
+        return statement;
+    }
+
+    private void enqueue(Operation operation) {
+        CachedStatement statement = cached(operation.getAccountId());
+        if (statement != null) {
+            statement.enqueue(operation);
+        }
+    }
+
+    private CachedStatement cached(UUID accountId) {
+        lock.lock();
+        try {
+            return statements.get(accountId);
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    private void account(CachedStatement statement) {
+        int size = Math.max(1, statement.size());
+        lock.lock();
+        try {
+            if (statement.evicted) {
+                return;
+            }
+            cachedOperations += size - statement.accountedSize;
+            statement.accountedSize = size;
+            Iterator<CachedStatement> eldest = statements.values().iterator();
+            while (cachedOperations > maximumOperations && statements.size() > 1) {
+                CachedStatement evicted = eldest.next();
+                if (evicted == statement) {
+                    continue;
+                }
+                eldest.remove();
+                evicted.evicted = true;
+                cachedOperations -= evicted.accountedSize;
+                evictions.increment();
+            }
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    private ReentrantLock stripe(UUID accountId) {
+        return stripes[stripeIndex(accountId)];
+    }
+
+    private static int stripeIndex(UUID accountId) {
+        return (accountId.hashCode() & Integer.MAX_VALUE) % STRIPE_COUNT;
+    }
+}
@@ -0,0 +1,57 @@
+package fr.angelique.bankaccount.statement;
+
+import fr.angelique.bankaccount.AccountStatementPrinter;
+import fr.angelique.bankaccount.repository.OperationQuery;
+import fr.angelique.bankaccount.service.BankAccountService;
+import fr.angelique.bankaccount.service.exception.AccountNotFoundException;
+import fr.angelique.bankaccount.service.model.Movement;
+import fr.angelique.bankaccount.service.model.MovementResult;
+import fr.angelique.bankaccount.service.model.OperationResult;
+
+import java.math.BigDecimal;
+import java.util.List;
+import java.util.UUID;
+
+/**
+ * Prints statements from a {@link StatementCache}. The wrapped service must write its operations
+ * through the same cache, so that the cached statements follow the deposits and withdrawals.
+ */
+public class StatementCachingBankAccountService implements BankAccountService {
+
+    private final BankAccountService bankAccountService;
+
+    private final StatementCache statementCache;
+
+    private final AccountStatementPrinter accountStatementPrinter;
+
+    public StatementCachingBankAccountService(BankAccountService bankAccountService, StatementCache statementCache, AccountStatementPrinter accountStatementPrinter) {
+        this.bankAccountService = bankAccountService;
+        this.statementCache = statementCache;
+        this.accountStatementPrinter = accountStatementPrinter;
+    }
+
+    @Override
+    public OperationResult tryDeposit(UUID accountId, BigDecimal amount, String libelle) {
+        return bankAccountService.tryDeposit(accountId, amount, libelle);
+    }
+
+    @Override
+    public OperationResult tryWithdraw(UUID accountId, BigDecimal amount, String libelle) {
+        return bankAccountService.tryWithdraw(accountId, amount, libelle);
+    }
+
+    @Override
+    public List<MovementResult> applyBatch(List<Movement> movements) {
+        return bankAccountService.applyBatch(movements);
+    }
+
+    @Override
+    public void printAccountOperations(UUID accountId) throws AccountNotFoundException {
+        printAccountOperations(accountId, OperationQuery.all());
+    }
+
+    @Override
+    public void printAccountOperations(UUID accountId, OperationQuery query) throws AccountNotFoundException {
+        accountStatementPrinter.print(statementCache.statementLines(accountId, query));
+    }
+}
@@ -0,0 +1,98 @@
+package fr.angelique.bankaccount.statement;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.BitSet;
+import java.util.Arrays;
+
+/**
+ * Text file listing the partitions whose shard is complete, one per line, after a header that
+ * identifies the job. A checkpoint written for other accounts, another partitioning or another
+ * query is ignored; a last line torn by a crash is ignored and cut off. The job deletes it once complete.
+ */
+final class StatementCheckpoint implements AutoCloseable {
+
+    private final FileChannel channel;
+
+    private final BitSet completed;
+
+    private final Path file;
+
+    private StatementCheckpoint(Path file, FileChannel channel, BitSet completed) {
+        this.file = file;
+        this.channel = channel;
+        this.completed = completed;
+    }
+
+    static StatementCheckpoint open(Path file, String header) {
+        try {
+            BitSet completed = new BitSet();
+            long completeLength = 0;
+            if (Files.exists(file)) {
+                String content = Files.readString(file, StandardCharsets.UTF_8);
+                String[] lines = content.split("\n", -1);
+                if (lines.length > 1 && lines[0].equals(header)) {
+                    for (String line : Arrays.asList(lines).subList(1, lines.length - 1)) {
+                        if (!line.isEmpty() && line.chars().allMatch(Character::isDigit)) {
+                            completed.set(Integer.parseInt(line));
+                        }
+                    }
+                    completeLength = content.substring(0, content.lastIndexOf('\n') + 1)
+                            .getBytes(StandardCharsets.UTF_8).length;
+                }
+            }
+            if (completed.isEmpty()) {
+                Files.writeString(file, header + '\n', StandardCharsets.UTF_8);
+            }
+            FileChannel channel = FileChannel.open(file, StandardOpenOption.WRITE, StandardOpenOption.APPEND);
+            if (!completed.isEmpty()) {
+                channel.truncate(completeLength);
+            }
+            return new StatementCheckpoint(file, channel, completed);
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    synchronized boolean isCompleted(int partition) {
+        return completed.get(partition);
+    }
+
+    synchronized int completedCount() {
+        return completed.cardinality();
+    }
+
+    synchronized void complete(int partition) {
+        try {
+            channel.write(ByteBuffer.wrap((partition + "\n").getBytes(StandardCharsets.US_ASCII)));
+            channel.force(false);
+            completed.set(partition);
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    synchronized void delete() {
+        close();
+        try {
+            Files.deleteIfExists(file);
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    @Override
+    public void close() {
+        try {
+            channel.close();
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+}
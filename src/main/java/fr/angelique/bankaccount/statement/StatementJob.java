@@ -0,0 +1,181 @@
+package fr.angelique.bankaccount.statement;
+
+import fr.angelique.bankaccount.ChannelAccountStatementPrinter;
+import fr.angelique.bankaccount.OperationsFormatter;
+import fr.angelique.bankaccount.repository.OperationQuery;
+import fr.angelique.bankaccount.repository.OperationRepository;
+import fr.angelique.bankaccount.service.model.Operation;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+import java.util.Objects;
+import java.util.UUID;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveAction;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.stream.Stream;
+
+/**
+ * Renders the statements of many accounts at once.
+ * <p>
+ * Accounts are sorted and cut into partitions of {@code partitionSize}. A fork-join pool renders
+ * each partition into its own shard file through a {@link ChannelAccountStatementPrinter}. The
+ * shard is written to a temporary file and renamed once complete, then the partition is recorded
+ * in a checkpoint. Running the job again after a crash only renders the partitions missing from
+ * the checkpoint; the checkpoint is deleted once every partition is complete, so the next run
+ * renders every statement again.
+ */
+public class StatementJob {
+
+    private static final String CHECKPOINT = "checkpoint";
+    private static final int SHARD_BUFFER_SIZE = 64 * 1024;
+
+    private final OperationRepository operationRepository;
+
+    private final OperationsFormatter operationsFormatter;
+
+    private final Path directory;
+
+    private final int parallelism;
+
+    private final int partitionSize;
+
+    public StatementJob(OperationRepository operationRepository, OperationsFormatter operationsFormatter, Path directory, int parallelism, int partitionSize) {
+        if (parallelism <= 0 || partitionSize <= 0) {
+            throw new IllegalArgumentException("Le parallélisme et la taille des partitions doivent être positifs");
+        }
+        this.operationRepository = operationRepository;
+        this.operationsFormatter = operationsFormatter;
+        this.directory = directory;
+        this.parallelism = parallelism;
+        this.partitionSize = partitionSize;
+    }
+
+    public StatementJobReport run(Collection<UUID> accountIds, OperationQuery query, StatementJobListener listener) {
+        List<UUID> accounts = accountIds.stream().sorted().distinct().toList();
+        int partitionCount = (accounts.size() + partitionSize - 1) / partitionSize;
+        List<Path> shards = new ArrayList<>(partitionCount);
+        for (int partition = 0; partition < partitionCount; partition++) {
+            shards.add(directory.resolve(String.format("statements-%06d.txt", partition)));
+        }
+        try {
+            Files.createDirectories(directory);
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+        try (StatementCheckpoint checkpoint = StatementCheckpoint.open(directory.resolve(CHECKPOINT), header(accounts, query))) {
+            int resumedPartitions = checkpoint.completedCount();
+            AtomicInteger completedPartitions = new AtomicInteger(resumedPartitions);
+            LongAdder statements = new LongAdder();
+            LongAdder lines = new LongAdder();
+            ForkJoinPool pool = new ForkJoinPool(parallelism);
+            try {
+                pool.invoke(new PartitionRange(0, partitionCount, partition -> {
+                    if (checkpoint.isCompleted(partition)) {
+                        return;
+                    }
+                    List<UUID> partitionAccounts = accounts.subList(partition * partitionSize, Math.min(accounts.size(), (partition + 1) * partitionSize));
+                    lines.add(render(partitionAccounts, query, shards.get(partition)));
+                    checkpoint.complete(partition);
+                    statements.add(partitionAccounts.size());
+                    listener.onPartitionCompleted(completedPartitions.incrementAndGet(), partitionCount, statements.sum());
+                }));
+                checkpoint.delete();
+            } finally {
+                pool.shutdown();
+            }
+            return new StatementJobReport(shards, resumedPartitions, statements.sum(), lines.sum());
+        }
+    }
+
+    public static void merge(List<Path> shards, Path target) {
+        try (FileChannel output = FileChannel.open(target, StandardOpenOption.CREATE, StandardOpenOption.WRITE, StandardOpenOption.TRUNCATE_EXISTING)) {
+            for (Path shard : shards) {
+                try (FileChannel input = FileChannel.open(shard, StandardOpenOption.READ)) {
+                    long position = 0;
+                    long size = input.size();
+                    while (position < size) {
+                        position += input.transferTo(position, size - position, output);
+                    }
+                }
+            }
+            output.force(true);
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    private long render(List<UUID> accounts, OperationQuery query, Path shard) {
+        Path temporary = shard.resolveSibling(shard.getFileName() + ".tmp");
+        LongAdder lines = new LongAdder();
+        try {
+            try (FileChannel channel = FileChannel.open(temporary, StandardOpenOption.CREATE, StandardOpenOption.WRITE, StandardOpenOption.TRUNCATE_EXISTING)) {
+                ChannelAccountStatementPrinter printer = new ChannelAccountStatementPrinter(channel, SHARD_BUFFER_SIZE);
+                for (UUID accountId : accounts) {
+                    try (Stream<Operation> operations = operationRepository.streamByAccountIdOrderByDateDesc(accountId, query)) {
+                        printer.print(Stream.concat(Stream.of("Compte " + accountId), operationsFormatter.format(operations))
+                                .peek(line -> lines.increment()));
+                    }
+                }
+                channel.force(true);
+            }
+            Files.move(temporary, shard, StandardCopyOption.ATOMIC_MOVE, StandardCopyOption.REPLACE_EXISTING);
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+        return lines.sum();
+    }
+
+    private String header(List<UUID> accounts, OperationQuery query) {
+        long fingerprint = 1;
+        for (UUID account : accounts) {
+            fingerprint = 31 * fingerprint + account.getMostSignificantBits();
+            fingerprint = 31 * fingerprint + account.getLeastSignificantBits();
+        }
+        Operation after = query.getAfter();
+        return "accounts=" + accounts.size() + " partitionSize=" + partitionSize
+                + " fingerprint=" + Long.toHexString(fingerprint)
+                + " from=" + query.getFrom() + " to=" + query.getTo() + " limit=" + query.getLimit()
+                + " after=" + (after == null ? null : after.getDate() + "/" + after.getOperationType().name()
+                        + "/" + after.getAmount() + "/" + after.getBalance() + "/" + Integer.toHexString(Objects.hashCode(after.getData())));
+    }
+
+    @FunctionalInterface
+    private interface PartitionRenderer {
+        void render(int partition);
+    }
+
+    private static final class PartitionRange extends RecursiveAction {
+
+        private final int from;
+        private final int to;
+        private final PartitionRenderer renderer;
+
+        private PartitionRange(int from, int to, PartitionRenderer renderer) {
+            this.from = from;
+            this.to = to;
+            this.renderer = renderer;
+        }
+
+        @Override
+        protected void compute() {
+            if (to - from <= 1) {
+                if (from < to) {
+                    renderer.render(from);
+                }
+                return;
+            }
+            int middle = (from + to) >>> 1;
+            invokeAll(new PartitionRange(from, middle, renderer), new PartitionRange(middle, to, renderer));
+        }
+    }
+}
@@ -0,0 +1,9 @@
+package fr.angelique.bankaccount.statement;
+
+@FunctionalInterface
+public interface StatementJobListener {
+
+    StatementJobListener NONE = (completedPartitions, partitionCount, statementCount) -> { };
+
+    void onPartitionCompleted(int completedPartitions, int partitionCount, long statementCount);
+}
@@ -0,0 +1,39 @@
+package fr.angelique.bankaccount.statement;
+
+import java.nio.file.Path;
+import java.util.List;
+
+public final class StatementJobReport {
+
+    private final List<Path> shards;
+    private final int resumedPartitions;
+    private final long statementCount;
+    private final long lineCount;
+
+    StatementJobReport(List<Path> shards, int resumedPartitions, long statementCount, long lineCount) {
+        this.shards = List.copyOf(shards);
+        this.resumedPartitions = resumedPartitions;
+        this.statementCount = statementCount;
+        this.lineCount = lineCount;
+    }
+
+    public List<Path> getShards() {
+        return shards;
+    }
+
+    public int getPartitionCount() {
+        return shards.size();
+    }
+
+    public int getResumedPartitions() {
+        return resumedPartitions;
+    }
+
+    public long getStatementCount() {
+        return statementCount;
+    }
+
+    public long getLineCount() {
+        return lineCount;
+    }
+}
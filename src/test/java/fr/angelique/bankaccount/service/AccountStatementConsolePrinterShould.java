@@ -9,6 +9,7 @@ import org.junit.jupiter.api.Test;
 import java.io.ByteArrayOutputStream;
 import java.io.PrintStream;
 import java.util.List;
+import java.util.stream.Stream;
 
 import static org.junit.jupiter.api.Assertions.assertEquals;
 
@@ -35,6 +36,16 @@ class AccountStatementConsolePrinterShould {
         assertEquals("operation1" + System.lineSeparator() + "operation2" + System.lineSeparator(), outContent.toString());
     }
 
+    @DisplayName("print a stream of strings")
+    @Test
+    void printStreamOfOperations() {
+        // WHEN
+        accountStatementRowsPrinter.print(Stream.of("operation1", "operation2"));
+
+        // THEN
+        assertEquals("operation1" + System.lineSeparator() + "operation2" + System.lineSeparator(), outContent.toString());
+    }
+
     @DisplayName("print nothing")
     @Test
     void printNothing() {
@@ -0,0 +1,222 @@
+package fr.angelique.bankaccount.service;
+
+import fr.angelique.bankaccount.enums.MovementStatus;
+import fr.angelique.bankaccount.repository.OperationQuery;
+import fr.angelique.bankaccount.service.exception.NegativeAmountException;
+import fr.angelique.bankaccount.service.model.Movement;
+import fr.angelique.bankaccount.service.model.MovementResult;
+import fr.angelique.bankaccount.service.model.OperationResult;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.math.BigDecimal;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Queue;
+import java.util.UUID;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class AsyncBankAccountServiceShould {
+
+    @DisplayName("run the requests of one account in submission order, one at a time")
+    @Test
+    void serializeRequestsPerAccount() throws Exception {
+        // GIVEN
+        RecordingBankAccountService delegate = new RecordingBankAccountService();
+        UUID accountId = UUID.randomUUID();
+        List<CompletableFuture<Void>> futures = new ArrayList<>();
+
+        // WHEN
+        try (AsyncBankAccountService service = new AsyncBankAccountService(delegate, 10_000, Duration.ofSeconds(1))) {
+            for (int i = 0; i < 1_000; i++) {
+                futures.add(service.deposit(accountId, BigDecimal.ONE, String.valueOf(i)));
+            }
+            CompletableFuture.allOf(futures.toArray(CompletableFuture[]::new)).get(10, TimeUnit.SECONDS);
+
+            // THEN
+            assertEquals(1, delegate.maxConcurrency.get());
+            List<String> libelles = new ArrayList<>(delegate.libelles);
+            for (int i = 0; i < libelles.size(); i++) {
+                assertEquals(String.valueOf(i), libelles.get(i));
+            }
+            assertEquals(0, service.getInFlightRequests());
+        }
+    }
+
+    @DisplayName("complete the future with the exception of the service")
+    @Test
+    void completeExceptionally() {
+        // GIVEN
+        RecordingBankAccountService delegate = new RecordingBankAccountService();
+
+        // WHEN
+        try (AsyncBankAccountService service = new AsyncBankAccountService(delegate, 10, Duration.ZERO)) {
+            CompletableFuture<Void> future = service.deposit(UUID.randomUUID(), new BigDecimal("-1"), "test");
+
+            // THEN
+            ExecutionException exception = assertThrows(ExecutionException.class, () -> future.get(10, TimeUnit.SECONDS));
+            assertInstanceOf(NegativeAmountException.class, exception.getCause());
+        }
+    }
+
+    @DisplayName("complete the future and keep serving the account when the service throws an error")
+    @Test
+    void completeOnError() throws Exception {
+        // GIVEN
+        RecordingBankAccountService delegate = new RecordingBankAccountService();
+        UUID accountId = UUID.randomUUID();
+
+        try (AsyncBankAccountService service = new AsyncBankAccountService(delegate, 10, Duration.ZERO)) {
+            // WHEN
+            CompletableFuture<Void> failed = service.withdraw(accountId, BigDecimal.ONE, "erreur");
+            CompletableFuture<Void> next = service.deposit(accountId, BigDecimal.ONE, "suivant");
+
+            // THEN
+            ExecutionException exception = assertThrows(ExecutionException.class, () -> failed.get(10, TimeUnit.SECONDS));
+            assertInstanceOf(StackOverflowError.class, exception.getCause());
+            next.get(10, TimeUnit.SECONDS);
+            assertEquals(List.of("suivant"), new ArrayList<>(delegate.libelles));
+            assertEquals(0, service.getInFlightRequests());
+        }
+    }
+
+    @DisplayName("reject requests submitted after close without holding an admission")
+    @Test
+    void rejectAfterClose() {
+        // GIVEN
+        RecordingBankAccountService delegate = new RecordingBankAccountService();
+        AsyncBankAccountService service = new AsyncBankAccountService(delegate, 10, Duration.ZERO);
+        UUID accountId = UUID.randomUUID();
+        service.close();
+
+        // WHEN
+        CompletableFuture<Void> first = service.deposit(accountId, BigDecimal.ONE, "tardif");
+        CompletableFuture<Void> second = service.deposit(accountId, BigDecimal.ONE, "tardif");
+
+        // THEN
+        assertInstanceOf(RejectedExecutionException.class, assertThrows(ExecutionException.class, first::get).getCause());
+        assertInstanceOf(RejectedExecutionException.class, assertThrows(ExecutionException.class, second::get).getCause());
+        assertEquals(0, service.getInFlightRequests());
+    }
+
+    @DisplayName("reject requests beyond the admission limit and report the queue depth")
+    @Test
+    void rejectBeyondAdmissionLimit() throws Exception {
+        // GIVEN
+        RecordingBankAccountService delegate = new RecordingBankAccountService();
+        delegate.gate = new CountDownLatch(1);
+        UUID accountId = UUID.randomUUID();
+
+        try (AsyncBankAccountService service = new AsyncBankAccountService(delegate, 2, Duration.ofMillis(10))) {
+            // WHEN
+            CompletableFuture<Void> first = service.deposit(accountId, BigDecimal.ONE, "1");
+            CompletableFuture<Void> second = service.deposit(accountId, BigDecimal.ONE, "2");
+            CompletableFuture<Void> rejected = service.deposit(accountId, BigDecimal.ONE, "3");
+
+            // THEN
+            ExecutionException exception = assertThrows(ExecutionException.class, () -> rejected.get(10, TimeUnit.SECONDS));
+            assertInstanceOf(RejectedExecutionException.class, exception.getCause());
+            assertEquals(1, service.getRejectedRequests());
+            assertEquals(2, service.getInFlightRequests());
+            while (service.getRunningRequests() == 0) {
+                Thread.onSpinWait();
+            }
+            assertEquals(1, service.getQueuedRequests());
+
+            delegate.gate.countDown();
+            first.get(10, TimeUnit.SECONDS);
+            second.get(10, TimeUnit.SECONDS);
+        }
+    }
+
+    @DisplayName("keep 100k blocking requests in flight at the same time")
+    @Test
+    void keepHundredThousandRequestsInFlight() throws Exception {
+        // GIVEN
+        int requests = 100_000;
+        RecordingBankAccountService delegate = new RecordingBankAccountService();
+        delegate.barrier = new CountDownLatch(requests);
+        List<CompletableFuture<Void>> futures = new ArrayList<>(requests);
+
+        // WHEN
+        try (AsyncBankAccountService service = new AsyncBankAccountService(delegate, requests, Duration.ofSeconds(1))) {
+            for (int i = 0; i < requests; i++) {
+                futures.add(service.withdraw(UUID.randomUUID(), BigDecimal.ONE, null));
+            }
+
+            // THEN
+            CompletableFuture.allOf(futures.toArray(CompletableFuture[]::new)).get(60, TimeUnit.SECONDS);
+            assertEquals(requests, delegate.maxConcurrency.get());
+        }
+    }
+
+    private static class RecordingBankAccountService implements BankAccountService {
+
+        private final Queue<String> libelles = new ConcurrentLinkedQueue<>();
+        private final AtomicInteger concurrency = new AtomicInteger();
+        private final AtomicInteger maxConcurrency = new AtomicInteger();
+        private volatile CountDownLatch gate;
+        private volatile CountDownLatch barrier;
+
+        @Override
+        public OperationResult tryDeposit(UUID accountId, BigDecimal amount, String libelle) {
+            if (amount.signum() < 0) {
+                return OperationResult.rejected(MovementStatus.NEGATIVE_AMOUNT);
+            }
+            record(libelle);
+            return OperationResult.ACCEPTED;
+        }
+
+        @Override
+        public OperationResult tryWithdraw(UUID accountId, BigDecimal amount, String libelle) {
+            if ("erreur".equals(libelle)) {
+                throw new StackOverflowError();
+            }
+            record(libelle);
+            return OperationResult.ACCEPTED;
+        }
+
+        @Override
+        public List<MovementResult> applyBatch(List<Movement> movements) {
+            return List.of();
+        }
+
+        @Override
+        public void printAccountOperations(UUID accountId) {
+            record(null);
+        }
+
+        @Override
+        public void printAccountOperations(UUID accountId, OperationQuery query) {
+            record(null);
+        }
+
+        private void record(String libelle) {
+            maxConcurrency.accumulateAndGet(concurrency.incrementAndGet(), Math::max);
+            try {
+                if (gate != null) {
+                    gate.await();
+                }
+                if (barrier != null) {
+                    barrier.countDown();
+                    barrier.await();
+                }
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+            if (libelle != null) {
+                libelles.add(libelle);
+            }
+            concurrency.decrementAndGet();
+        }
+    }
+}
@@ -0,0 +1,225 @@
+package fr.angelique.bankaccount.service;
+
+import fr.angelique.bankaccount.enums.OperationType;
+import fr.angelique.bankaccount.repository.InMemoryAccountRepository;
+import fr.angelique.bankaccount.repository.journal.BalanceSnapshot;
+import fr.angelique.bankaccount.repository.journal.BalanceSnapshotter;
+import fr.angelique.bankaccount.repository.journal.MappedOperationJournal;
+import fr.angelique.bankaccount.service.model.Operation;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+import java.util.stream.Stream;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class BalanceSnapshotterShould {
+
+    private static final int SEGMENT_SIZE = 64 * 1024;
+    private static final LocalDateTime DATE = LocalDateTime.of(2022, 11, 21, 15, 22, 48);
+
+    @TempDir
+    Path directory;
+
+    private final UUID accountId = UUID.randomUUID();
+    private final UUID otherAccountId = UUID.randomUUID();
+
+    @DisplayName("recover balances from the latest snapshot and the records appended after it")
+    @Test
+    void recoverFromSnapshotAndTail() {
+        // GIVEN
+        try (MappedOperationJournal journal = new MappedOperationJournal(journalDirectory(), SEGMENT_SIZE);
+             BalanceSnapshotter snapshotter = new BalanceSnapshotter(journal, snapshotDirectory(), Duration.ZERO)) {
+            appendDeposits(journal, 3_000);
+            snapshotter.snapshot();
+            appendDeposits(journal, 2_000);
+        }
+
+        // WHEN
+        try (MappedOperationJournal journal = new MappedOperationJournal(journalDirectory(), SEGMENT_SIZE);
+             BalanceSnapshotter snapshotter = new BalanceSnapshotter(journal, snapshotDirectory(), Duration.ZERO)) {
+            Map<UUID, Long> balances = snapshotter.recoverBalances();
+
+            // THEN
+            assertTrue(snapshotter.getLatest().getPosition() > 0);
+            assertEquals(journal.replayBalances(), balances);
+            assertEquals(Map.of(accountId, 250_000L, otherAccountId, 250_000L), balances);
+        }
+    }
+
+    @DisplayName("build each snapshot from the previous one and keep only the latest files")
+    @Test
+    void snapshotIncrementally() throws IOException {
+        try (MappedOperationJournal journal = new MappedOperationJournal(journalDirectory(), SEGMENT_SIZE);
+             BalanceSnapshotter snapshotter = new BalanceSnapshotter(journal, snapshotDirectory(), Duration.ZERO)) {
+            for (int i = 0; i < 4; i++) {
+                // GIVEN
+                appendDeposits(journal, 500);
+
+                // WHEN
+                BalanceSnapshot snapshot = snapshotter.snapshot();
+
+                // THEN
+                assertEquals(journal.position(), snapshot.getPosition());
+                assertEquals(journal.replayBalances(), snapshot.getBalances());
+            }
+            assertEquals(2, snapshotFileCount());
+        }
+    }
+
+    @DisplayName("drop a snapshot covering journal records lost in a crash")
+    @Test
+    void dropSnapshotBeyondRecoveredJournal() throws IOException {
+        // GIVEN
+        long snapshotPosition;
+        try (MappedOperationJournal journal = new MappedOperationJournal(journalDirectory(), SEGMENT_SIZE);
+             BalanceSnapshotter snapshotter = new BalanceSnapshotter(journal, snapshotDirectory(), Duration.ZERO)) {
+            appendDeposits(journal, 100);
+            snapshotPosition = snapshotter.snapshot().getPosition();
+        }
+        Path segment;
+        try (Stream<Path> files = Files.list(journalDirectory())) {
+            segment = files.findFirst().orElseThrow();
+        }
+        try (FileChannel channel = FileChannel.open(segment, StandardOpenOption.WRITE)) {
+            channel.write(ByteBuffer.allocate((int) (SEGMENT_SIZE - snapshotPosition / 2)), snapshotPosition / 2);
+        }
+        try (MappedOperationJournal journal = new MappedOperationJournal(journalDirectory(), SEGMENT_SIZE);
+             BalanceSnapshotter snapshotter = new BalanceSnapshotter(journal, snapshotDirectory(), Duration.ZERO)) {
+            assertTrue(journal.position() < snapshotPosition);
+            appendDeposits(journal, 150);
+            assertTrue(journal.position() > snapshotPosition);
+        }
+
+        // WHEN
+        try (MappedOperationJournal journal = new MappedOperationJournal(journalDirectory(), SEGMENT_SIZE);
+             BalanceSnapshotter snapshotter = new BalanceSnapshotter(journal, snapshotDirectory(), Duration.ZERO)) {
+
+            // THEN
+            assertEquals(0, snapshotter.getLatest().getPosition());
+            assertEquals(journal.replayBalances(), snapshotter.recoverBalances());
+        }
+    }
+
+    @DisplayName("fall back to the previous snapshot when the latest one is corrupted")
+    @Test
+    void ignoreCorruptedSnapshot() throws IOException {
+        // GIVEN
+        BalanceSnapshot previous;
+        try (MappedOperationJournal journal = new MappedOperationJournal(journalDirectory(), SEGMENT_SIZE);
+             BalanceSnapshotter snapshotter = new BalanceSnapshotter(journal, snapshotDirectory(), Duration.ZERO)) {
+            appendDeposits(journal, 100);
+            previous = snapshotter.snapshot();
+            appendDeposits(journal, 100);
+            Path latest = snapshotDirectory().resolve(String.format("snapshot-%020d.bin", snapshotter.snapshot().getPosition()));
+            byte[] content = Files.readAllBytes(latest);
+            content[content.length / 2] ^= 1;
+            Files.write(latest, content);
+        }
+
+        // WHEN
+        try (MappedOperationJournal journal = new MappedOperationJournal(journalDirectory(), SEGMENT_SIZE);
+             BalanceSnapshotter snapshotter = new BalanceSnapshotter(journal, snapshotDirectory(), Duration.ZERO)) {
+
+            // THEN
+            assertEquals(previous, snapshotter.getLatest());
+            assertEquals(journal.replayBalances(), snapshotter.recoverBalances());
+        }
+    }
+
+    @DisplayName("report the accounts whose snapshot balance differs from the recorded operations")
+    @Test
+    void verifySnapshot() {
+        try (MappedOperationJournal journal = new MappedOperationJournal(journalDirectory(), SEGMENT_SIZE);
+             BalanceSnapshotter snapshotter = new BalanceSnapshotter(journal, snapshotDirectory(), Duration.ZERO)) {
+            // GIVEN
+            appendDeposits(journal, 10);
+            BalanceSnapshot snapshot = snapshotter.snapshot();
+            BalanceSnapshot altered = new BalanceSnapshot(snapshot.getPosition(), Map.of(accountId, snapshot.getBalances().get(accountId), otherAccountId, 1L));
+
+            // WHEN / THEN
+            assertEquals(List.of(), snapshotter.verify(snapshot));
+            assertEquals(List.of(otherAccountId), snapshotter.verify(altered));
+        }
+    }
+
+    @DisplayName("verify against the last journaled record of each account, including openings")
+    @Test
+    void verifyInJournalOrder() {
+        try (MappedOperationJournal journal = new MappedOperationJournal(journalDirectory(), SEGMENT_SIZE);
+             BalanceSnapshotter snapshotter = new BalanceSnapshotter(journal, snapshotDirectory(), Duration.ZERO)) {
+            // GIVEN
+            journal.recordOpening(accountId, 5_000L);
+            journal.recordOpening(otherAccountId, 1_000L);
+            journal.create(new Operation(accountId, OperationType.DEPOSIT, "dépôt", DATE, 100L, 5_100L));
+            journal.create(new Operation(accountId, OperationType.WITHDRAWAL, "retrait", DATE.minusDays(1), 600L, 4_500L));
+
+            // WHEN
+            BalanceSnapshot snapshot = snapshotter.snapshot();
+
+            // THEN
+            assertEquals(Map.of(accountId, 4_500L, otherAccountId, 1_000L), snapshot.getBalances());
+            assertEquals(List.of(), snapshotter.verify(snapshot));
+        }
+    }
+
+    @DisplayName("reopen the accounts recovered from the snapshot and the journal tail")
+    @Test
+    void recoverAccounts() {
+        // GIVEN
+        try (MappedOperationJournal journal = new MappedOperationJournal(journalDirectory(), SEGMENT_SIZE);
+             BalanceSnapshotter snapshotter = new BalanceSnapshotter(journal, snapshotDirectory(), Duration.ZERO)) {
+            journal.recordOpening(accountId, 5_000L);
+            snapshotter.snapshot();
+            journal.recordOpening(otherAccountId, 1_000L);
+            journal.create(new Operation(accountId, OperationType.DEPOSIT, "dépôt", DATE, 100L, 5_100L));
+        }
+        InMemoryAccountRepository accountRepository = new InMemoryAccountRepository();
+
+        // WHEN
+        try (MappedOperationJournal journal = new MappedOperationJournal(journalDirectory(), SEGMENT_SIZE);
+             BalanceSnapshotter snapshotter = new BalanceSnapshotter(journal, snapshotDirectory(), Duration.ZERO)) {
+            snapshotter.recoverAccounts(accountRepository::open);
+        }
+
+        // THEN
+        assertEquals(5_100L, accountRepository.getBalance(accountId));
+        assertEquals(1_000L, accountRepository.getBalance(otherAccountId));
+    }
+
+    private void appendDeposits(MappedOperationJournal journal, int count) {
+        Map<UUID, Long> balances = journal.replayBalances();
+        for (int i = 0; i < count; i++) {
+            UUID id = i % 2 == 0 ? accountId : otherAccountId;
+            long balance = balances.merge(id, 100L, Long::sum);
+            journal.create(new Operation(id, OperationType.DEPOSIT, "dépôt", DATE.plusSeconds(balance), 100L, balance));
+        }
+    }
+
+    private long snapshotFileCount() throws IOException {
+        try (Stream<Path> files = Files.list(snapshotDirectory())) {
+            return files.count();
+        }
+    }
+
+    private Path journalDirectory() {
+        return directory.resolve("journal");
+    }
+
+    private Path snapshotDirectory() {
+        return directory.resolve("snapshots");
+    }
+}
@@ -2,13 +2,20 @@ package fr.angelique.bankaccount.service;
 
 import fr.angelique.bankaccount.AccountStatementPrinter;
 import fr.angelique.bankaccount.OperationsFormatter;
+import fr.angelique.bankaccount.enums.MovementStatus;
 import fr.angelique.bankaccount.enums.OperationType;
 import fr.angelique.bankaccount.repository.AccountRepository;
+import fr.angelique.bankaccount.repository.InMemoryAccountRepository;
+import fr.angelique.bankaccount.repository.InMemoryOperationRepository;
+import fr.angelique.bankaccount.repository.OperationQuery;
 import fr.angelique.bankaccount.repository.OperationRepository;
 import fr.angelique.bankaccount.service.exception.AccountNotFoundException;
 import fr.angelique.bankaccount.service.exception.NegativeAmountException;
 import fr.angelique.bankaccount.service.exception.OverdraftAccountException;
+import fr.angelique.bankaccount.service.model.Movement;
+import fr.angelique.bankaccount.service.model.MovementResult;
 import fr.angelique.bankaccount.service.model.Operation;
+import fr.angelique.bankaccount.service.model.OperationResult;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.DisplayName;
 import org.junit.jupiter.api.Test;
@@ -21,10 +28,20 @@ import java.math.BigDecimal;
 import java.time.Clock;
 import java.time.LocalDateTime;
 import java.time.ZoneId;
+import java.util.ArrayList;
 import java.util.List;
 import java.util.UUID;
-
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Stream;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertInstanceOf;
+import static org.junit.jupiter.api.Assertions.assertSame;
 import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
 import static org.mockito.Mockito.*;
 
 @ExtendWith(MockitoExtension.class)
@@ -61,11 +78,37 @@ class BankAccountCheckingServiceShould {
         UUID uuid = UUID.randomUUID();
         String libelle = "cadeau pour noel";
         BigDecimal depositAmount = new BigDecimal("20");
-        BigDecimal finalAmountOnAccount = new BigDecimal("50");
+        long finalAmountOnAccount = 5_000L;
+        InOrder inOrder = inOrder(accountRepository, operationRepository);
+
+        when(accountRepository.existsById(uuid)).thenReturn(true);
+        when(accountRepository.getBalance(uuid)).thenReturn(3_000L);
+        when(accountRepository.compareAndUpdateBalance(uuid, 3_000L, finalAmountOnAccount)).thenReturn(true);
+
+        // WHEN
+        bankAccountCheckingService.deposit(uuid, depositAmount, libelle);
+
+        // THEN
+        inOrder.verify(accountRepository).existsById(uuid);
+        inOrder.verify(accountRepository).getBalance(uuid);
+        inOrder.verify(accountRepository).compareAndUpdateBalance(uuid, 3_000L, finalAmountOnAccount);
+        inOrder.verify(operationRepository).create(new Operation(uuid, OperationType.DEPOSIT, libelle, LOCAL_DATE, 2_000L, finalAmountOnAccount));
+        inOrder.verifyNoMoreInteractions();
+    }
+
+    @Test
+    @DisplayName("read the balance again when it was changed concurrently during a deposit")
+    void depositRetryOnConcurrentUpdate() throws NegativeAmountException, AccountNotFoundException {
+        // GIVEN
+        UUID uuid = UUID.randomUUID();
+        String libelle = "salaire";
+        BigDecimal depositAmount = new BigDecimal("20");
         InOrder inOrder = inOrder(accountRepository, operationRepository);
 
         when(accountRepository.existsById(uuid)).thenReturn(true);
-        when(accountRepository.getBalance(uuid)).thenReturn(new BigDecimal("30"));
+        when(accountRepository.getBalance(uuid)).thenReturn(3_000L, 10_000L);
+        when(accountRepository.compareAndUpdateBalance(uuid, 3_000L, 5_000L)).thenReturn(false);
+        when(accountRepository.compareAndUpdateBalance(uuid, 10_000L, 12_000L)).thenReturn(true);
 
         // WHEN
         bankAccountCheckingService.deposit(uuid, depositAmount, libelle);
@@ -73,8 +116,10 @@ class BankAccountCheckingServiceShould {
         // THEN
         inOrder.verify(accountRepository).existsById(uuid);
         inOrder.verify(accountRepository).getBalance(uuid);
-        inOrder.verify(operationRepository).create(new Operation(OperationType.DEPOSIT, libelle, LOCAL_DATE, depositAmount, finalAmountOnAccount));
-        inOrder.verify(accountRepository).updateBalance(uuid, finalAmountOnAccount);
+        inOrder.verify(accountRepository).compareAndUpdateBalance(uuid, 3_000L, 5_000L);
+        inOrder.verify(accountRepository).getBalance(uuid);
+        inOrder.verify(accountRepository).compareAndUpdateBalance(uuid, 10_000L, 12_000L);
+        inOrder.verify(operationRepository).create(new Operation(uuid, OperationType.DEPOSIT, libelle, LOCAL_DATE, 2_000L, 12_000L));
         inOrder.verifyNoMoreInteractions();
     }
 
@@ -116,10 +161,11 @@ class BankAccountCheckingServiceShould {
         InOrder inOrder = inOrder(accountRepository, operationRepository);
         BigDecimal withdrawAmount = new BigDecimal("30");
         String libelle = "course";
-        BigDecimal finalAmountOnAccount = new BigDecimal("970");
+        long finalAmountOnAccount = 97_000L;
 
         when(accountRepository.existsById(uuid)).thenReturn(true);
-        when(accountRepository.getBalance(uuid)).thenReturn(new BigDecimal("1000"));
+        when(accountRepository.getBalance(uuid)).thenReturn(100_000L);
+        when(accountRepository.compareAndUpdateBalance(uuid, 100_000L, finalAmountOnAccount)).thenReturn(true);
 
         // WHEN
         bankAccountCheckingService.withdraw(uuid, withdrawAmount, libelle);
@@ -127,11 +173,32 @@ class BankAccountCheckingServiceShould {
         // THEN
         inOrder.verify(accountRepository).existsById(uuid);
         inOrder.verify(accountRepository).getBalance(uuid);
-        inOrder.verify(operationRepository).create(new Operation(OperationType.WITHDRAWAL, libelle, LOCAL_DATE, withdrawAmount, finalAmountOnAccount));
-        inOrder.verify(accountRepository).updateBalance(uuid, finalAmountOnAccount);
+        inOrder.verify(accountRepository).compareAndUpdateBalance(uuid, 100_000L, finalAmountOnAccount);
+        inOrder.verify(operationRepository).create(new Operation(uuid, OperationType.WITHDRAWAL, libelle, LOCAL_DATE, 3_000L, finalAmountOnAccount));
         inOrder.verifyNoMoreInteractions();
     }
 
+    @Test
+    @DisplayName("throw OverdraftAccountException when a concurrent update leaves an insufficient balance")
+    void withdrawOverdraftAfterConcurrentUpdate() {
+        // GIVEN
+        UUID uuid = UUID.randomUUID();
+        when(accountRepository.existsById(uuid)).thenReturn(true);
+        when(accountRepository.getBalance(uuid)).thenReturn(100_000L, 1_000L);
+        when(accountRepository.compareAndUpdateBalance(uuid, 100_000L, 97_000L)).thenReturn(false);
+
+        // WHEN
+        assertThrows(OverdraftAccountException.class, () ->
+                bankAccountCheckingService.withdraw(uuid, new BigDecimal("30"), "test"));
+
+        // THEN
+        verify(accountRepository).existsById(uuid);
+        verify(accountRepository, times(2)).getBalance(uuid);
+        verify(accountRepository).compareAndUpdateBalance(uuid, 100_000L, 97_000L);
+        verifyNoMoreInteractions(accountRepository);
+        verifyNoInteractions(operationRepository, operationsFormatter, accountStatementPrinter);
+    }
+
 
     @Test
     @DisplayName("throw NegativeAmountException when the withdraw value is negative")
@@ -170,7 +237,7 @@ class BankAccountCheckingServiceShould {
         // GIVEN
         UUID uuid = UUID.randomUUID();
         when(accountRepository.existsById(uuid)).thenReturn(true);
-        when(accountRepository.getBalance(uuid)).thenReturn(new BigDecimal("500"));
+        when(accountRepository.getBalance(uuid)).thenReturn(50_000L);
 
         // WHEN
         assertThrows(OverdraftAccountException.class, () ->
@@ -184,34 +251,264 @@ class BankAccountCheckingServiceShould {
     }
 
     @Test
-    @DisplayName("format a list of operations as a list of strings and print it")
+    @DisplayName("report rejected deposits and withdrawals with preallocated results instead of exceptions")
+    void reportRejectionsWithoutExceptions() {
+        // GIVEN
+        UUID uuid = UUID.randomUUID();
+        UUID unknownUuid = UUID.randomUUID();
+        when(accountRepository.existsById(uuid)).thenReturn(true);
+        when(accountRepository.existsById(unknownUuid)).thenReturn(false);
+        when(accountRepository.getBalance(uuid)).thenReturn(1_000L);
+
+        // WHEN
+        OperationResult negative = bankAccountCheckingService.tryDeposit(uuid, new BigDecimal("-5"), "fraude");
+        OperationResult invalid = bankAccountCheckingService.tryDeposit(uuid, new BigDecimal("0.001"), "fraude");
+        OperationResult notFound = bankAccountCheckingService.tryDeposit(unknownUuid, BigDecimal.TEN, "fraude");
+        OperationResult overdraft = bankAccountCheckingService.tryWithdraw(uuid, new BigDecimal("10.01"), "fraude");
+
+        // THEN
+        assertSame(OperationResult.rejected(MovementStatus.NEGATIVE_AMOUNT), negative);
+        assertSame(OperationResult.rejected(MovementStatus.INVALID_AMOUNT), invalid);
+        assertSame(OperationResult.NOT_FOUND, notFound);
+        assertInstanceOf(OperationResult.Rejected.class, overdraft);
+        assertEquals(MovementStatus.OVERDRAFT, ((OperationResult.Rejected) overdraft).getReason());
+        verify(accountRepository, never()).compareAndUpdateBalance(any(), anyLong(), anyLong());
+        verifyNoInteractions(operationRepository);
+    }
+
+    @Test
+    @DisplayName("reject a libelle too long for the journal before touching the balance")
+    void rejectTooLongLibelle() {
+        // GIVEN
+        UUID uuid = UUID.randomUUID();
+        String libelle = "é".repeat(Operation.MAX_LIBELLE_SIZE / 2 + 1);
+        Movement movement = new Movement(uuid, OperationType.DEPOSIT, BigDecimal.TEN, libelle);
+
+        // WHEN
+        OperationResult deposit = bankAccountCheckingService.tryDeposit(uuid, BigDecimal.TEN, libelle);
+        OperationResult withdrawal = bankAccountCheckingService.tryWithdraw(uuid, BigDecimal.TEN, libelle);
+        List<MovementResult> batch = bankAccountCheckingService.applyBatch(List.of(movement));
+
+        // THEN
+        assertSame(OperationResult.rejected(MovementStatus.INVALID_LIBELLE), deposit);
+        assertSame(OperationResult.rejected(MovementStatus.INVALID_LIBELLE), withdrawal);
+        assertEquals(List.of(MovementResult.rejected(movement, MovementStatus.INVALID_LIBELLE)), batch);
+        assertThrows(IllegalArgumentException.class, () -> bankAccountCheckingService.deposit(uuid, BigDecimal.TEN, libelle));
+        verifyNoInteractions(accountRepository);
+        verify(operationRepository, never()).create(any());
+    }
+
+    @Test
+    @DisplayName("accept a withdrawal through the result API")
+    void acceptWithdrawalWithoutExceptions() {
+        // GIVEN
+        UUID uuid = UUID.randomUUID();
+        when(accountRepository.existsById(uuid)).thenReturn(true);
+        when(accountRepository.getBalance(uuid)).thenReturn(1_000L);
+        when(accountRepository.compareAndUpdateBalance(uuid, 1_000L, 0L)).thenReturn(true);
+
+        // WHEN
+        OperationResult result = bankAccountCheckingService.tryWithdraw(uuid, BigDecimal.TEN, "retrait");
+
+        // THEN
+        assertSame(OperationResult.ACCEPTED, result);
+        assertTrue(result.isAccepted());
+        verify(operationRepository).create(new Operation(uuid, OperationType.WITHDRAWAL, "retrait", LOCAL_DATE, 1_000L, 0L));
+    }
+
+    @Test
+    @DisplayName("stream the operations of the account through the formatter to the printer")
     void printAllOperations() {
 
         // GIVEN
         UUID id = UUID.randomUUID();
 
-        Operation operationEntity = new Operation(OperationType.WITHDRAWAL, "Retrait", LOCAL_DATE, new BigDecimal("10"), new BigDecimal("10"));
-        Operation operationEntity2 = new Operation(OperationType.DEPOSIT, "Dépot", LOCAL_DATE, new BigDecimal("20"), new BigDecimal("30"));
-        Operation operationEntity3 = new Operation(OperationType.WITHDRAWAL, "Retrait", LOCAL_DATE, new BigDecimal("40"), new BigDecimal("300"));
-        List<Operation> operationEntities = List.of(operationEntity, operationEntity2, operationEntity3);
-
-        String operation1 = "Type d'opération: Retrait, libelle: Retrait2, date: 2022-11-21T15:22, montant : 10, solde après opération: 10";
-        String operation2 = "Type d'opération: Dépot, libelle: Dépot1, date: 2022-11-21T16:30, montant : 10, solde après opération: 10";
-        String operation3 = "Type d'opération: Retrait, libelle: Retrait1, date: 2022-11-21T17, montant : 10, solde après opération: 10";
-        List<String> operationStrings = List.of(operation1, operation2, operation3);
+        Stream<Operation> operations = Stream.of(
+                new Operation(id, OperationType.WITHDRAWAL, "Retrait", LOCAL_DATE, 1_000L, 1_000L),
+                new Operation(id, OperationType.DEPOSIT, "Dépot", LOCAL_DATE, 2_000L, 3_000L));
+        Stream<String> lines = Stream.of(
+                "Type d'opération: Retrait, libelle: Retrait2, date: 2022-11-21T15:22, montant : 10, solde après opération: 10",
+                "Type d'opération: Dépot, libelle: Dépot1, date: 2022-11-21T16:30, montant : 10, solde après opération: 10");
 
         InOrder inOrder = inOrder(accountRepository, operationRepository, operationsFormatter, accountStatementPrinter);
 
-        when(operationRepository.findAllByAccountIdOrderByDateDesc(id)).thenReturn(operationEntities);
-        when(operationsFormatter.format(operationEntities)).thenReturn(operationStrings);
+        when(operationRepository.streamByAccountIdOrderByDateDesc(id, OperationQuery.all())).thenReturn(operations);
+        when(operationsFormatter.format(operations)).thenReturn(lines);
 
         // WHEN
         bankAccountCheckingService.printAccountOperations(id);
 
         // THEN
-        inOrder.verify(operationRepository).findAllByAccountIdOrderByDateDesc(id);
-        inOrder.verify(operationsFormatter).format(operationEntities);
-        inOrder.verify(accountStatementPrinter).print(operationStrings);
+        inOrder.verify(operationRepository).streamByAccountIdOrderByDateDesc(id, OperationQuery.all());
+        inOrder.verify(operationsFormatter).format(operations);
+        inOrder.verify(accountStatementPrinter).print(lines);
         inOrder.verifyNoMoreInteractions();
     }
-}
\ No newline at end of file
+
+    @Test
+    @DisplayName("print only the page of operations asked by the query")
+    void printPageOfOperations() {
+        // GIVEN
+        UUID id = UUID.randomUUID();
+        OperationQuery query = OperationQuery.all().between(LOCAL_DATE.minusDays(30), LOCAL_DATE).limit(50);
+        Stream<Operation> operations = Stream.empty();
+        Stream<String> lines = Stream.empty();
+
+        when(operationRepository.streamByAccountIdOrderByDateDesc(id, query)).thenReturn(operations);
+        when(operationsFormatter.format(operations)).thenReturn(lines);
+
+        // WHEN
+        bankAccountCheckingService.printAccountOperations(id, query);
+
+        // THEN
+        verify(operationRepository).streamByAccountIdOrderByDateDesc(id, query);
+        verify(accountStatementPrinter).print(lines);
+        verifyNoMoreInteractions(operationRepository, accountStatementPrinter);
+    }
+
+    @Test
+    @DisplayName("apply a batch of movements account by account and report each movement")
+    void applyBatch() {
+        // GIVEN
+        UUID uuid = UUID.randomUUID();
+        UUID unknownUuid = UUID.randomUUID();
+        Movement deposit = new Movement(uuid, OperationType.DEPOSIT, new BigDecimal("50"), "salaire");
+        Movement overdraft = new Movement(uuid, OperationType.WITHDRAWAL, new BigDecimal("200"), "voiture");
+        Movement unknownAccount = new Movement(unknownUuid, OperationType.DEPOSIT, new BigDecimal("10"), "cadeau");
+        Movement negative = new Movement(uuid, OperationType.DEPOSIT, new BigDecimal("-10"), "erreur");
+        Movement invalid = new Movement(uuid, OperationType.DEPOSIT, new BigDecimal("0.001"), "erreur");
+        Movement withdrawal = new Movement(uuid, OperationType.WITHDRAWAL, new BigDecimal("120"), "loyer");
+
+        when(accountRepository.existsById(uuid)).thenReturn(true);
+        when(accountRepository.existsById(unknownUuid)).thenReturn(false);
+        when(accountRepository.getBalance(uuid)).thenReturn(10_000L);
+        when(accountRepository.compareAndUpdateBalance(uuid, 10_000L, 3_000L)).thenReturn(true);
+
+        // WHEN
+        List<MovementResult> results = bankAccountCheckingService.applyBatch(List.of(deposit, overdraft, unknownAccount, negative, invalid, withdrawal));
+
+        // THEN
+        assertEquals(List.of(
+                new MovementResult(deposit, MovementStatus.ACCEPTED, 15_000L),
+                MovementResult.rejected(overdraft, MovementStatus.OVERDRAFT),
+                MovementResult.rejected(unknownAccount, MovementStatus.ACCOUNT_NOT_FOUND),
+                MovementResult.rejected(negative, MovementStatus.NEGATIVE_AMOUNT),
+                MovementResult.rejected(invalid, MovementStatus.INVALID_AMOUNT),
+                new MovementResult(withdrawal, MovementStatus.ACCEPTED, 3_000L)), results);
+        verify(operationRepository).createAll(List.of(
+                new Operation(uuid, OperationType.DEPOSIT, "salaire", LOCAL_DATE, 5_000L, 15_000L),
+                new Operation(uuid, OperationType.WITHDRAWAL, "loyer", LOCAL_DATE, 12_000L, 3_000L)));
+        verifyNoMoreInteractions(operationRepository);
+    }
+
+    @Test
+    @DisplayName("apply the movements of an account again when its balance was changed concurrently")
+    void applyBatchRetryOnConcurrentUpdate() {
+        // GIVEN
+        UUID uuid = UUID.randomUUID();
+        Movement withdrawal = new Movement(uuid, OperationType.WITHDRAWAL, new BigDecimal("80"), "loyer");
+
+        when(accountRepository.existsById(uuid)).thenReturn(true);
+        when(accountRepository.getBalance(uuid)).thenReturn(10_000L, 5_000L);
+        when(accountRepository.compareAndUpdateBalance(uuid, 10_000L, 2_000L)).thenReturn(false);
+
+        // WHEN
+        List<MovementResult> results = bankAccountCheckingService.applyBatch(List.of(withdrawal));
+
+        // THEN
+        assertEquals(List.of(MovementResult.rejected(withdrawal, MovementStatus.OVERDRAFT)), results);
+        verifyNoInteractions(operationRepository);
+    }
+
+    @Test
+    @DisplayName("report the movements of an account whose operations cannot be saved as failed and undo its balance update")
+    void applyBatchIsolatesFailures() {
+        // GIVEN
+        UUID uuid = UUID.randomUUID();
+        UUID failingUuid = UUID.randomUUID();
+        Movement deposit = new Movement(uuid, OperationType.DEPOSIT, new BigDecimal("50"), "salaire");
+        Movement failingDeposit = new Movement(failingUuid, OperationType.DEPOSIT, new BigDecimal("20"), "cadeau");
+        Operation failingOperation = new Operation(failingUuid, OperationType.DEPOSIT, "cadeau", LOCAL_DATE, 2_000L, 3_000L);
+
+        when(accountRepository.existsById(any())).thenReturn(true);
+        when(accountRepository.getBalance(uuid)).thenReturn(10_000L);
+        when(accountRepository.getBalance(failingUuid)).thenReturn(1_000L, 3_500L);
+        when(accountRepository.compareAndUpdateBalance(uuid, 10_000L, 15_000L)).thenReturn(true);
+        when(accountRepository.compareAndUpdateBalance(failingUuid, 1_000L, 3_000L)).thenReturn(true);
+        when(accountRepository.compareAndUpdateBalance(failingUuid, 3_500L, 1_500L)).thenReturn(true);
+        doThrow(new IllegalStateException("disque plein")).when(operationRepository).createAll(List.of(failingOperation));
+
+        // WHEN
+        List<MovementResult> results = bankAccountCheckingService.applyBatch(List.of(deposit, failingDeposit));
+
+        // THEN
+        assertEquals(List.of(
+                new MovementResult(deposit, MovementStatus.ACCEPTED, 15_000L),
+                MovementResult.rejected(failingDeposit, MovementStatus.FAILED)), results);
+        verify(operationRepository).createAll(List.of(new Operation(uuid, OperationType.DEPOSIT, "salaire", LOCAL_DATE, 5_000L, 15_000L)));
+        verify(accountRepository).compareAndUpdateBalance(failingUuid, 3_500L, 1_500L);
+    }
+
+    @Test
+    @DisplayName("refuse to build a rejection from an accepted or not found status")
+    void refuseRejectionFromNonRejectedStatus() {
+        // WHEN / THEN
+        assertEquals(MovementStatus.OVERDRAFT, OperationResult.rejected(MovementStatus.OVERDRAFT).getStatus());
+        assertThrows(IllegalArgumentException.class, () -> OperationResult.rejected(MovementStatus.ACCEPTED));
+        assertThrows(IllegalArgumentException.class, () -> OperationResult.rejected(MovementStatus.ACCOUNT_NOT_FOUND));
+    }
+
+    @Test
+    @DisplayName("undo the balance update of a deposit whose operation cannot be saved")
+    void revertDepositWhenOperationIsNotSaved() {
+        // GIVEN
+        UUID uuid = UUID.randomUUID();
+        when(accountRepository.existsById(uuid)).thenReturn(true);
+        when(accountRepository.getBalance(uuid)).thenReturn(10_000L, 12_000L);
+        when(accountRepository.compareAndUpdateBalance(uuid, 10_000L, 12_000L)).thenReturn(true);
+        when(accountRepository.compareAndUpdateBalance(uuid, 12_000L, 10_000L)).thenReturn(true);
+        doThrow(new IllegalStateException("disque plein")).when(operationRepository).create(any());
+
+        // WHEN
+        assertThrows(IllegalStateException.class, () -> bankAccountCheckingService.tryDeposit(uuid, new BigDecimal("20"), "salaire"));
+
+        // THEN
+        verify(accountRepository).compareAndUpdateBalance(uuid, 12_000L, 10_000L);
+    }
+
+    @Test
+    @DisplayName("save the operations of an account in the order its balance changed under concurrent writers")
+    void saveOperationsInBalanceOrder() throws Exception {
+        // GIVEN
+        UUID uuid = UUID.randomUUID();
+        InMemoryAccountRepository accounts = new InMemoryAccountRepository();
+        accounts.open(uuid, 0);
+        InMemoryOperationRepository operations = new InMemoryOperationRepository();
+        BankAccountCheckingService service = new BankAccountCheckingService(accounts, operations, operationsFormatter, accountStatementPrinter, fixedClock);
+        ExecutorService executor = Executors.newFixedThreadPool(4);
+
+        // WHEN
+        try {
+            List<Future<?>> writers = new ArrayList<>();
+            for (int w = 0; w < 4; w++) {
+                writers.add(executor.submit(() -> {
+                    for (int i = 0; i < 1_000; i++) {
+                        service.tryDeposit(uuid, new BigDecimal("0.01"), "depot");
+                    }
+                }));
+            }
+            for (Future<?> writer : writers) {
+                writer.get(30, TimeUnit.SECONDS);
+            }
+        } finally {
+            executor.shutdown();
+        }
+
+        // THEN
+        List<Operation> newestFirst = operations.findAllByAccountIdOrderByDateDesc(uuid);
+        assertEquals(4_000, newestFirst.size());
+        for (int i = 0; i < newestFirst.size(); i++) {
+            assertEquals(newestFirst.size() - i, newestFirst.get(i).getBalance());
+        }
+    }
+}
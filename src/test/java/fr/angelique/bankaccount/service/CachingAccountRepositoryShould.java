@@ -0,0 +1,204 @@
+package fr.angelique.bankaccount.service;
+
+import fr.angelique.bankaccount.repository.AccountRepository;
+import fr.angelique.bankaccount.repository.CachingAccountRepository;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import java.time.Duration;
+import java.util.UUID;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class CachingAccountRepositoryShould {
+
+    private static final Duration ONE_HOUR = Duration.ofHours(1);
+
+    @Mock
+    private AccountRepository accountRepository;
+
+    private CachingAccountRepository cachingAccountRepository;
+
+    @AfterEach
+    void tearDown() {
+        cachingAccountRepository.close();
+    }
+
+    @Test
+    @DisplayName("serve repeated reads of a hot account from the cache")
+    void serveHotAccountFromCache() {
+        // GIVEN
+        cachingAccountRepository = new CachingAccountRepository(accountRepository, 10, ONE_HOUR, ONE_HOUR);
+        UUID id = UUID.randomUUID();
+        when(accountRepository.existsById(id)).thenReturn(true);
+        when(accountRepository.getBalance(id)).thenReturn(10_000L);
+
+        // WHEN
+        for (int i = 0; i < 5; i++) {
+            assertTrue(cachingAccountRepository.existsById(id));
+            assertEquals(10_000L, cachingAccountRepository.getBalance(id));
+        }
+
+        // THEN
+        verify(accountRepository).existsById(id);
+        verify(accountRepository).getBalance(id);
+        assertEquals(1, cachingAccountRepository.getMissCount());
+        assertEquals(9, cachingAccountRepository.getHitCount());
+    }
+
+    @Test
+    @DisplayName("remember unknown accounts")
+    void cacheNegativeLookups() {
+        // GIVEN
+        cachingAccountRepository = new CachingAccountRepository(accountRepository, 10, ONE_HOUR, ONE_HOUR);
+        UUID id = UUID.randomUUID();
+        when(accountRepository.existsById(id)).thenReturn(false);
+
+        // WHEN
+        assertFalse(cachingAccountRepository.existsById(id));
+        assertFalse(cachingAccountRepository.existsById(id));
+
+        // THEN
+        verify(accountRepository).existsById(id);
+    }
+
+    @Test
+    @DisplayName("look unknown accounts up again once the negative lookup has expired")
+    void expireNegativeLookups() {
+        // GIVEN
+        cachingAccountRepository = new CachingAccountRepository(accountRepository, 10, ONE_HOUR, Duration.ZERO);
+        UUID id = UUID.randomUUID();
+        when(accountRepository.existsById(id)).thenReturn(false, true);
+
+        // WHEN
+        assertFalse(cachingAccountRepository.existsById(id));
+        assertTrue(cachingAccountRepository.existsById(id));
+
+        // THEN
+        verify(accountRepository, times(2)).existsById(id);
+    }
+
+    @Test
+    @DisplayName("coalesce balance updates into a single write-behind flush")
+    void coalesceUpdates() {
+        // GIVEN
+        cachingAccountRepository = new CachingAccountRepository(accountRepository, 10, ONE_HOUR, ONE_HOUR);
+        UUID id = UUID.randomUUID();
+        when(accountRepository.getBalance(id)).thenReturn(10_000L);
+
+        // WHEN
+        assertTrue(cachingAccountRepository.compareAndUpdateBalance(id, 10_000L, 11_000L));
+        assertFalse(cachingAccountRepository.compareAndUpdateBalance(id, 10_000L, 12_000L));
+        assertTrue(cachingAccountRepository.compareAndUpdateBalance(id, 11_000L, 12_000L));
+        cachingAccountRepository.updateBalance(id, 13_000L);
+        verify(accountRepository, never()).updateBalance(any(), anyLong());
+        cachingAccountRepository.flush();
+
+        // THEN
+        verify(accountRepository).updateBalance(id, 13_000L);
+        assertEquals(0, cachingAccountRepository.getPendingBalanceCount());
+    }
+
+    @Test
+    @DisplayName("keep serving a pending balance after its account was evicted")
+    void keepPendingBalanceAfterEviction() {
+        // GIVEN
+        cachingAccountRepository = new CachingAccountRepository(accountRepository, 1, ONE_HOUR, ONE_HOUR);
+        UUID id = UUID.randomUUID();
+        UUID otherId = UUID.randomUUID();
+        when(accountRepository.existsById(id)).thenReturn(true);
+        when(accountRepository.getBalance(id)).thenReturn(10_000L);
+        when(accountRepository.existsById(otherId)).thenReturn(true);
+
+        // WHEN
+        assertTrue(cachingAccountRepository.compareAndUpdateBalance(id, 10_000L, 5_000L));
+        assertTrue(cachingAccountRepository.existsById(otherId));
+
+        // THEN
+        assertTrue(cachingAccountRepository.existsById(id));
+        assertEquals(5_000L, cachingAccountRepository.getBalance(id));
+        assertEquals(2, cachingAccountRepository.getEvictionCount());
+        verify(accountRepository).existsById(id);
+        verify(accountRepository).getBalance(id);
+    }
+
+    @Test
+    @DisplayName("write balances through when the write-behind window is zero")
+    void writeThrough() {
+        // GIVEN
+        cachingAccountRepository = new CachingAccountRepository(accountRepository, 10, Duration.ZERO, ONE_HOUR);
+        UUID id = UUID.randomUUID();
+
+        // WHEN
+        cachingAccountRepository.updateBalance(id, 7_000L);
+
+        // THEN
+        verify(accountRepository).updateBalance(id, 7_000L);
+        assertEquals(7_000L, cachingAccountRepository.getBalance(id));
+    }
+
+    @Test
+    @DisplayName("serve other accounts while a miss is loaded from the underlying repository")
+    void loadMissesOutsideTheLock() throws Exception {
+        // GIVEN
+        cachingAccountRepository = new CachingAccountRepository(accountRepository, 1, ONE_HOUR, ONE_HOUR);
+        UUID slowId = UUID.randomUUID();
+        UUID id = UUID.randomUUID();
+        CountDownLatch loading = new CountDownLatch(1);
+        CountDownLatch release = new CountDownLatch(1);
+        when(accountRepository.existsById(slowId)).thenAnswer(invocation -> {
+            loading.countDown();
+            return release.await(10, TimeUnit.SECONDS);
+        });
+        when(accountRepository.existsById(id)).thenReturn(true);
+        ExecutorService executor = Executors.newSingleThreadExecutor();
+
+        try {
+            // WHEN
+            Future<Boolean> slowLookup = executor.submit(() -> cachingAccountRepository.existsById(slowId));
+            assertTrue(loading.await(10, TimeUnit.SECONDS));
+            boolean exists = cachingAccountRepository.existsById(id);
+            release.countDown();
+
+            // THEN
+            assertTrue(exists);
+            assertTrue(slowLookup.get(10, TimeUnit.SECONDS));
+        } finally {
+            executor.shutdownNow();
+        }
+    }
+
+    @Test
+    @DisplayName("keep flushing in the background after a failed write-behind flush")
+    void keepFlushingAfterFailure() throws Exception {
+        // GIVEN
+        cachingAccountRepository = new CachingAccountRepository(accountRepository, 10, Duration.ofMillis(5), ONE_HOUR);
+        UUID id = UUID.randomUUID();
+        doThrow(new IllegalStateException("indisponible")).doNothing().when(accountRepository).updateBalance(id, 7_000L);
+
+        // WHEN
+        cachingAccountRepository.updateBalance(id, 7_000L);
+        long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(10);
+        while (cachingAccountRepository.getPendingBalanceCount() > 0 && System.nanoTime() < deadline) {
+            Thread.sleep(5);
+        }
+
+        // THEN
+        assertEquals(0, cachingAccountRepository.getPendingBalanceCount());
+        assertEquals(1, cachingAccountRepository.getFlushFailureCount());
+        verify(accountRepository, times(2)).updateBalance(id, 7_000L);
+    }
+}
@@ -0,0 +1,100 @@
+package fr.angelique.bankaccount.service;
+
+import fr.angelique.bankaccount.ChannelAccountStatementPrinter;
+import fr.angelique.bankaccount.FileAccountStatementPrinter;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.nio.channels.Channels;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.List;
+import java.util.stream.Collectors;
+import java.util.stream.IntStream;
+import java.util.stream.Stream;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+class ChannelAccountStatementPrinterShould {
+
+    @TempDir
+    Path directory;
+
+    @DisplayName("write every line encoded in UTF-8 followed by a line separator")
+    @Test
+    void printOperations() {
+        // GIVEN
+        ByteArrayOutputStream output = new ByteArrayOutputStream();
+        ChannelAccountStatementPrinter printer = new ChannelAccountStatementPrinter(Channels.newChannel(output));
+
+        // WHEN
+        printer.print(List.of("Type d'opération : Dépot", "operation2"));
+
+        // THEN
+        assertEquals("Type d'opération : Dépot" + System.lineSeparator() + "operation2" + System.lineSeparator(), output.toString(StandardCharsets.UTF_8));
+    }
+
+    @DisplayName("write lines larger than the buffer in several chunks")
+    @Test
+    void printLinesLargerThanBuffer() {
+        // GIVEN
+        ByteArrayOutputStream output = new ByteArrayOutputStream();
+        ChannelAccountStatementPrinter printer = new ChannelAccountStatementPrinter(Channels.newChannel(output), 16);
+        List<String> lines = IntStream.range(0, 100)
+                .mapToObj(i -> "opération n°" + i + " " + "é€😀".repeat(i))
+                .toList();
+
+        // WHEN
+        printer.print(lines.stream());
+
+        // THEN
+        assertEquals(lines.stream().map(line -> line + System.lineSeparator()).collect(Collectors.joining()), output.toString(StandardCharsets.UTF_8));
+    }
+
+    @DisplayName("write each statement in its own file")
+    @Test
+    void printOneFilePerStatement() throws IOException {
+        // GIVEN
+        FileAccountStatementPrinter printer = new FileAccountStatementPrinter(directory);
+
+        // WHEN
+        printer.print(Stream.of("compte 1 operation 1", "compte 1 operation 2"));
+        printer.print(Stream.of("compte 2 operation 1"));
+
+        // THEN
+        List<Path> statements;
+        try (Stream<Path> files = Files.list(directory)) {
+            statements = files.sorted().toList();
+        }
+        assertEquals(2, statements.size());
+        assertEquals(List.of("compte 1 operation 1", "compte 1 operation 2"), Files.readAllLines(statements.get(0)));
+        assertEquals(List.of("compte 2 operation 1"), Files.readAllLines(statements.get(1)));
+    }
+
+    @DisplayName("number the statements after the files already in the directory")
+    @Test
+    void skipExistingStatementFiles() throws IOException {
+        // GIVEN
+        new FileAccountStatementPrinter(directory).print(Stream.of("premier passage"));
+        FileAccountStatementPrinter rerun = new FileAccountStatementPrinter(directory);
+        FileAccountStatementPrinter other = new FileAccountStatementPrinter(directory);
+
+        // WHEN
+        rerun.print(Stream.of("second passage"));
+        other.print(Stream.of("autre imprimante"));
+
+        // THEN
+        List<Path> statements;
+        try (Stream<Path> files = Files.list(directory)) {
+            statements = files.sorted().toList();
+        }
+        assertEquals(3, statements.size());
+        assertEquals(List.of("premier passage"), Files.readAllLines(statements.get(0)));
+        assertEquals(List.of("second passage"), Files.readAllLines(statements.get(1)));
+        assertEquals(List.of("autre imprimante"), Files.readAllLines(statements.get(2)));
+    }
+}
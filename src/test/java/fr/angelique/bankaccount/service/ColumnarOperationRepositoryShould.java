@@ -0,0 +1,128 @@
+package fr.angelique.bankaccount.service;
+
+import fr.angelique.bankaccount.enums.OperationType;
+import fr.angelique.bankaccount.repository.InMemoryOperationRepository;
+import fr.angelique.bankaccount.repository.OperationQuery;
+import fr.angelique.bankaccount.repository.columnar.ColumnarOperationRepository;
+import fr.angelique.bankaccount.service.model.Operation;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+class ColumnarOperationRepositoryShould {
+
+    private static final LocalDateTime DATE = LocalDateTime.of(2022, 11, 21, 15, 22, 48, 123456789);
+
+    private final ColumnarOperationRepository operationRepository = new ColumnarOperationRepository();
+
+    @DisplayName("give back every field of the operations of an account from the most recent to the oldest")
+    @Test
+    void findOperationsOfAnAccount() {
+        // GIVEN
+        UUID accountId = UUID.randomUUID();
+        UUID otherAccountId = UUID.randomUUID();
+        Operation deposit = new Operation(accountId, OperationType.DEPOSIT, "salaire", DATE, 10_000L, 10_000L);
+        Operation otherDeposit = new Operation(otherAccountId, OperationType.DEPOSIT, null, DATE, 500L, 500L);
+        Operation withdrawal = new Operation(accountId, OperationType.WITHDRAWAL, "café", DATE.minusYears(300), -250L, Long.MIN_VALUE);
+
+        // WHEN
+        operationRepository.create(deposit);
+        operationRepository.create(otherDeposit);
+        operationRepository.create(withdrawal);
+
+        // THEN
+        assertEquals(List.of(deposit, withdrawal), operationRepository.findAllByAccountIdOrderByDateDesc(accountId));
+        assertEquals(List.of(otherDeposit), operationRepository.findAllByAccountIdOrderByDateDesc(otherAccountId));
+        assertEquals(List.of(), operationRepository.findAllByAccountIdOrderByDateDesc(UUID.randomUUID()));
+    }
+
+    @DisplayName("store each distinct libelle once across segments")
+    @Test
+    void encodeLibellesOnce() {
+        // GIVEN
+        UUID accountId = UUID.randomUUID();
+        List<Operation> operations = new ArrayList<>();
+        for (int i = 0; i < 200_000; i++) {
+            operations.add(new Operation(accountId, i % 2 == 0 ? OperationType.DEPOSIT : OperationType.WITHDRAWAL, "libelle " + i % 10, DATE.plusSeconds(i), i, 2L * i));
+        }
+
+        // WHEN
+        operationRepository.createAll(operations);
+
+        // THEN
+        List<Operation> expected = new ArrayList<>(operations);
+        Collections.reverse(expected);
+        assertEquals(expected, operationRepository.findAllByAccountIdOrderByDateDesc(accountId));
+        assertEquals(200_000, operationRepository.size());
+        assertEquals(10, operationRepository.getLibelleCount());
+    }
+
+    @DisplayName("stream and page the history the same way as the in-memory repository")
+    @Test
+    void streamLikeInMemoryRepository() {
+        // GIVEN
+        InMemoryOperationRepository reference = new InMemoryOperationRepository();
+        UUID accountId = UUID.randomUUID();
+        for (int i = 0; i < 1_000; i++) {
+            Operation operation = new Operation(accountId, OperationType.DEPOSIT, "depot " + i % 7, DATE.plusMinutes(i * 7919L % 1_000 / 3), 100L, 100L * (i + 1));
+            reference.create(operation);
+            operationRepository.create(operation);
+        }
+        OperationQuery query = OperationQuery.all().between(DATE.plusMinutes(10), DATE.plusMinutes(300)).limit(100);
+
+        // WHEN / THEN
+        List<Operation> page = operationRepository.streamByAccountIdOrderByDateDesc(accountId, query).toList();
+        while (!page.isEmpty()) {
+            assertEquals(reference.streamByAccountIdOrderByDateDesc(accountId, query).toList(), page);
+            query = query.after(page.get(page.size() - 1));
+            page = operationRepository.streamByAccountIdOrderByDateDesc(accountId, query).toList();
+        }
+        assertEquals(reference.findAllByAccountIdOrderByDateDesc(accountId), operationRepository.findAllByAccountIdOrderByDateDesc(accountId));
+    }
+
+    @DisplayName("keep every operation appended concurrently on distinct accounts")
+    @Test
+    void appendConcurrently() throws Exception {
+        // GIVEN
+        int threads = 8;
+        int operationsPerThread = 20_000;
+        ExecutorService executor = Executors.newFixedThreadPool(threads);
+        List<UUID> accountIds = new ArrayList<>();
+
+        // WHEN
+        try {
+            List<Future<?>> writers = new ArrayList<>();
+            for (int t = 0; t < threads; t++) {
+                UUID accountId = UUID.randomUUID();
+                accountIds.add(accountId);
+                writers.add(executor.submit(() -> {
+                    for (int i = 0; i < operationsPerThread; i++) {
+                        operationRepository.create(new Operation(accountId, OperationType.DEPOSIT, "depot", DATE.plusNanos(i), 1L, i));
+                    }
+                }));
+            }
+            for (Future<?> writer : writers) {
+                writer.get();
+            }
+        } finally {
+            executor.shutdown();
+        }
+
+        // THEN
+        for (UUID accountId : accountIds) {
+            List<Operation> operations = operationRepository.findAllByAccountIdOrderByDateDesc(accountId);
+            assertEquals(operationsPerThread, operations.size());
+            assertEquals(operationsPerThread - 1, operations.get(0).getBalance());
+        }
+    }
+}
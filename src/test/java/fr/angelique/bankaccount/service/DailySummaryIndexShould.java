@@ -0,0 +1,138 @@
+package fr.angelique.bankaccount.service;
+
+import fr.angelique.bankaccount.enums.OperationType;
+import fr.angelique.bankaccount.repository.InMemoryOperationRepository;
+import fr.angelique.bankaccount.repository.summary.DailySummary;
+import fr.angelique.bankaccount.repository.summary.DailySummaryIndex;
+import fr.angelique.bankaccount.repository.summary.SummarizingOperationRepository;
+import fr.angelique.bankaccount.service.model.Operation;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.OptionalLong;
+import java.util.Random;
+import java.util.UUID;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+class DailySummaryIndexShould {
+
+    private static final LocalDateTime DATE = LocalDateTime.of(2022, 3, 1, 9, 30);
+
+    private final DailySummaryIndex index = new DailySummaryIndex();
+    private final InMemoryOperationRepository history = new InMemoryOperationRepository();
+    private final SummarizingOperationRepository operationRepository = new SummarizingOperationRepository(history, index);
+    private final UUID accountId = UUID.randomUUID();
+
+    @DisplayName("total the deposits and withdrawals of a date range")
+    @Test
+    void summarizeRange() {
+        // GIVEN
+        operationRepository.create(new Operation(accountId, OperationType.DEPOSIT, "salaire", DATE, 200_000L, 200_000L));
+        operationRepository.create(new Operation(accountId, OperationType.WITHDRAWAL, "loyer", DATE.plusDays(4), 80_000L, 120_000L));
+        operationRepository.create(new Operation(accountId, OperationType.WITHDRAWAL, "courses", DATE.plusDays(4).plusHours(2), 5_000L, 115_000L));
+        operationRepository.create(new Operation(accountId, OperationType.DEPOSIT, "salaire", DATE.plusMonths(1), 200_000L, 315_000L));
+
+        // WHEN
+        DailySummary march = index.summarize(accountId, LocalDate.of(2022, 3, 1), LocalDate.of(2022, 3, 31));
+
+        // THEN
+        assertEquals(new DailySummary(200_000L, 85_000L, 1, 2), march);
+        assertEquals(new DailySummary(0, 85_000L, 0, 2), index.summarize(accountId, LocalDate.of(2022, 3, 5)));
+        assertEquals(new DailySummary(0, 0, 0, 0), index.summarize(UUID.randomUUID(), LocalDate.of(2022, 3, 5)));
+        assertEquals(OptionalLong.of(115_000L), index.balanceAt(accountId, LocalDate.of(2022, 3, 20)));
+        assertEquals(OptionalLong.empty(), index.balanceAt(accountId, LocalDate.of(2022, 2, 28)));
+        assertEquals(4, history.findAllByAccountIdOrderByDateDesc(accountId).size());
+    }
+
+    @DisplayName("answer like a scan of the history for operations recorded in any order over years")
+    @Test
+    void matchHistoryScan() {
+        // GIVEN
+        Random random = new Random(7);
+        List<Operation> operations = new ArrayList<>();
+        for (int i = 0; i < 5_000; i++) {
+            LocalDateTime date = DATE.plusDays(random.nextInt(2_000) - 1_000).plusMinutes(random.nextInt(1_440));
+            OperationType type = random.nextBoolean() ? OperationType.DEPOSIT : OperationType.WITHDRAWAL;
+            operations.add(new Operation(accountId, type, "operation " + i, date, 1 + random.nextInt(10_000), random.nextLong(1_000_000)));
+        }
+
+        // WHEN
+        operations.forEach(operationRepository::create);
+
+        // THEN
+        for (int i = 0; i < 200; i++) {
+            LocalDate from = DATE.toLocalDate().plusDays(random.nextInt(2_400) - 1_200);
+            LocalDate to = from.plusDays(random.nextInt(400));
+            assertEquals(scan(operations, from, to), index.summarize(accountId, from, to));
+            assertEquals(closingBalance(operations, to), index.balanceAt(accountId, to));
+        }
+    }
+
+    @DisplayName("answer with the opening balance before the first operation")
+    @Test
+    void balanceBeforeFirstOperation() {
+        // GIVEN
+        operationRepository.recordOpening(accountId, 50_000L);
+        operationRepository.create(new Operation(accountId, OperationType.DEPOSIT, "salaire", DATE, 200_000L, 250_000L));
+
+        // WHEN
+        OptionalLong balance = index.balanceAt(accountId, LocalDate.of(2022, 2, 28));
+
+        // THEN
+        assertEquals(OptionalLong.of(50_000L), balance);
+        assertEquals(OptionalLong.of(250_000L), index.balanceAt(accountId, LocalDate.of(2022, 3, 1)));
+    }
+
+    @DisplayName("index the operations already saved in the wrapped repository")
+    @Test
+    void backfillExistingOperations() {
+        // GIVEN
+        history.create(new Operation(accountId, OperationType.WITHDRAWAL, "loyer", DATE, 80_000L, 20_000L));
+        history.create(new Operation(accountId, OperationType.DEPOSIT, "salaire", DATE.plusDays(3), 200_000L, 220_000L));
+        DailySummaryIndex backfilledIndex = new DailySummaryIndex();
+
+        // WHEN
+        SummarizingOperationRepository repository = new SummarizingOperationRepository(history, backfilledIndex, List.of(accountId));
+        repository.create(new Operation(accountId, OperationType.WITHDRAWAL, "courses", DATE.plusDays(3).plusHours(1), 5_000L, 215_000L));
+
+        // THEN
+        assertEquals(new DailySummary(200_000L, 85_000L, 1, 2), backfilledIndex.summarize(accountId, LocalDate.of(2022, 3, 1), LocalDate.of(2022, 3, 31)));
+        assertEquals(OptionalLong.of(100_000L), backfilledIndex.balanceAt(accountId, LocalDate.of(2022, 2, 28)));
+        assertEquals(OptionalLong.of(215_000L), backfilledIndex.balanceAt(accountId, LocalDate.of(2022, 3, 4)));
+    }
+
+    private static DailySummary scan(List<Operation> operations, LocalDate from, LocalDate to) {
+        long depositTotal = 0;
+        long withdrawalTotal = 0;
+        long depositCount = 0;
+        long withdrawalCount = 0;
+        for (Operation operation : operations) {
+            LocalDate day = operation.getDate().toLocalDate();
+            if (day.isBefore(from) || day.isAfter(to)) {
+                continue;
+            }
+            if (operation.getOperationType() == OperationType.DEPOSIT) {
+                depositTotal += operation.getAmount();
+                depositCount++;
+            } else {
+                withdrawalTotal += operation.getAmount();
+                withdrawalCount++;
+            }
+        }
+        return new DailySummary(depositTotal, withdrawalTotal, depositCount, withdrawalCount);
+    }
+
+    private static OptionalLong closingBalance(List<Operation> operations, LocalDate day) {
+        return operations.stream()
+                .filter(operation -> !operation.getDate().toLocalDate().isAfter(day))
+                .max(Comparator.comparing(Operation::getDate))
+                .map(operation -> OptionalLong.of(operation.getBalance()))
+                .orElse(OptionalLong.empty());
+    }
+}
@@ -0,0 +1,134 @@
+package fr.angelique.bankaccount.service;
+
+import fr.angelique.bankaccount.enums.OperationType;
+import fr.angelique.bankaccount.repository.InMemoryAccountRepository;
+import fr.angelique.bankaccount.repository.OperationRepository;
+import fr.angelique.bankaccount.service.exception.OverdraftAccountException;
+import fr.angelique.bankaccount.service.model.Operation;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.math.BigDecimal;
+import java.time.Clock;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Queue;
+import java.util.Random;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class InMemoryAccountRepositoryShould {
+
+    private final InMemoryAccountRepository accountRepository = new InMemoryAccountRepository();
+
+    @DisplayName("update the balance only when it still has the expected value")
+    @Test
+    void compareAndUpdateBalance() {
+        // GIVEN
+        UUID id = UUID.randomUUID();
+        accountRepository.open(id, 10_000L);
+
+        // WHEN
+        boolean staleUpdate = accountRepository.compareAndUpdateBalance(id, 5_000L, 7_000L);
+        boolean update = accountRepository.compareAndUpdateBalance(id, 10_000L, 12_000L);
+
+        // THEN
+        assertFalse(staleUpdate);
+        assertTrue(update);
+        assertEquals(12_000L, accountRepository.getBalance(id));
+    }
+
+    @DisplayName("refuse to open the same account twice")
+    @Test
+    void openExistingAccount() {
+        // GIVEN
+        UUID id = UUID.randomUUID();
+        accountRepository.open(id, 0L);
+
+        // WHEN / THEN
+        assertThrows(IllegalArgumentException.class, () -> accountRepository.open(id, 1_000L));
+    }
+
+    @DisplayName("keep balances consistent under concurrent deposits and withdrawals")
+    @Test
+    void keepBalancesConsistentUnderContention() throws Exception {
+        // GIVEN
+        int threads = 8;
+        int operationsPerThread = 5_000;
+        List<UUID> accounts = List.of(UUID.randomUUID(), UUID.randomUUID(), UUID.randomUUID());
+        long initialBalance = 10_000L;
+        accounts.forEach(id -> accountRepository.open(id, initialBalance));
+
+        RecordingOperationRepository operationRepository = new RecordingOperationRepository();
+        BankAccountCheckingService service = new BankAccountCheckingService(accountRepository, operationRepository,
+                operation -> "", lines -> { }, Clock.systemDefaultZone());
+
+        ExecutorService executor = Executors.newFixedThreadPool(threads);
+        CountDownLatch start = new CountDownLatch(1);
+        List<Future<?>> workers = new ArrayList<>();
+
+        // WHEN
+        for (int t = 0; t < threads; t++) {
+            long seed = t;
+            workers.add(executor.submit(() -> {
+                Random random = new Random(seed);
+                start.await();
+                for (int i = 0; i < operationsPerThread; i++) {
+                    UUID id = accounts.get(random.nextInt(accounts.size()));
+                    BigDecimal amount = BigDecimal.valueOf(1 + random.nextInt(50));
+                    if (random.nextBoolean()) {
+                        service.deposit(id, amount, "depot");
+                    } else {
+                        try {
+                            service.withdraw(id, amount, "retrait");
+                        } catch (OverdraftAccountException ignored) {
+                        }
+                    }
+                }
+                return null;
+            }));
+        }
+        start.countDown();
+        for (Future<?> worker : workers) {
+            worker.get();
+        }
+        executor.shutdown();
+        assertTrue(executor.awaitTermination(10, TimeUnit.SECONDS));
+
+        // THEN
+        long expectedTotal = initialBalance * accounts.size();
+        for (Operation operation : operationRepository.operations) {
+            assertTrue(operation.getBalance() >= 0);
+            expectedTotal += operation.getOperationType() == OperationType.DEPOSIT
+                    ? operation.getAmount()
+                    : -operation.getAmount();
+        }
+        long total = accounts.stream()
+                .mapToLong(accountRepository::getBalance)
+                .sum();
+        assertEquals(expectedTotal, total);
+        accounts.forEach(id -> assertTrue(accountRepository.getBalance(id) >= 0));
+    }
+
+    private static class RecordingOperationRepository implements OperationRepository {
+
+        private final Queue<Operation> operations = new ConcurrentLinkedQueue<>();
+
+        @Override
+        public List<Operation> findAllByAccountIdOrderByDateDesc(UUID id) {
+            return List.of();
+        }
+
+        @Override
+        public void create(Operation entity) {
+            operations.add(entity);
+        }
+    }
+}
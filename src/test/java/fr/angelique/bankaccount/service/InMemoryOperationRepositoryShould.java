@@ -0,0 +1,127 @@
+package fr.angelique.bankaccount.service;
+
+import fr.angelique.bankaccount.enums.OperationType;
+import fr.angelique.bankaccount.repository.InMemoryOperationRepository;
+import fr.angelique.bankaccount.repository.OperationQuery;
+import fr.angelique.bankaccount.service.model.Operation;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.List;
+import java.util.UUID;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+class InMemoryOperationRepositoryShould {
+
+    private static final LocalDateTime DATE = LocalDateTime.of(2022, 11, 21, 15, 22, 48);
+
+    private final InMemoryOperationRepository operationRepository = new InMemoryOperationRepository();
+
+    @DisplayName("find only the operations of the account from the most recent to the oldest")
+    @Test
+    void findOperationsOfAnAccount() {
+        // GIVEN
+        UUID accountId = UUID.randomUUID();
+        UUID otherAccountId = UUID.randomUUID();
+        Operation deposit = new Operation(accountId, OperationType.DEPOSIT, "salaire", DATE, 10_000L, 10_000L);
+        Operation otherDeposit = new Operation(otherAccountId, OperationType.DEPOSIT, "cadeau", DATE, 500L, 500L);
+        Operation withdrawal = new Operation(accountId, OperationType.WITHDRAWAL, "course", DATE.plusMinutes(5), 2_000L, 8_000L);
+
+        // WHEN
+        operationRepository.create(deposit);
+        operationRepository.create(otherDeposit);
+        operationRepository.create(withdrawal);
+
+        // THEN
+        assertEquals(List.of(withdrawal, deposit), operationRepository.findAllByAccountIdOrderByDateDesc(accountId));
+        assertEquals(List.of(otherDeposit), operationRepository.findAllByAccountIdOrderByDateDesc(otherAccountId));
+    }
+
+    @DisplayName("return an empty list for an account without operations")
+    @Test
+    void findNoOperation() {
+        assertEquals(List.of(), operationRepository.findAllByAccountIdOrderByDateDesc(UUID.randomUUID()));
+    }
+
+    @DisplayName("keep the history ordered by date when operations are created out of order")
+    @Test
+    void keepHistoryOrdered() {
+        // GIVEN
+        UUID accountId = UUID.randomUUID();
+        List<Operation> operations = new ArrayList<>();
+        for (int i = 0; i < 1_000; i++) {
+            operations.add(new Operation(accountId, OperationType.DEPOSIT, "depot " + i, DATE.plusSeconds(i * 7919L % 1_000), 100L, 100L));
+        }
+
+        // WHEN
+        operations.forEach(operationRepository::create);
+
+        // THEN
+        List<Operation> expected = new ArrayList<>(operations);
+        expected.sort(Comparator.comparing(Operation::getDate).reversed());
+        assertEquals(expected, operationRepository.findAllByAccountIdOrderByDateDesc(accountId));
+    }
+
+    @DisplayName("stream the operations of a date range, one page after the other")
+    @Test
+    void streamPages() {
+        // GIVEN
+        UUID accountId = UUID.randomUUID();
+        List<Operation> operations = new ArrayList<>();
+        for (int i = 0; i < 1_000; i++) {
+            Operation operation = new Operation(accountId, OperationType.DEPOSIT, "depot " + i, DATE.plusMinutes(i / 3), 100L, 100L * (i + 1));
+            operations.add(operation);
+            operationRepository.create(operation);
+        }
+        OperationQuery query = OperationQuery.all().between(DATE.plusMinutes(10), DATE.plusMinutes(300)).limit(100);
+
+        // WHEN
+        List<Operation> pages = new ArrayList<>();
+        List<Operation> page = operationRepository.streamByAccountIdOrderByDateDesc(accountId, query).toList();
+        while (!page.isEmpty()) {
+            pages.addAll(page);
+            page = operationRepository.streamByAccountIdOrderByDateDesc(accountId, query.after(page.get(page.size() - 1))).toList();
+        }
+
+        // THEN
+        List<Operation> expected = new ArrayList<>(operations.subList(30, 900));
+        Collections.reverse(expected);
+        assertEquals(expected, pages);
+        assertEquals(expected, pagesThroughDefaultQuery(accountId, query));
+    }
+
+    @DisplayName("resume before the date of a cursor that is no longer in the history")
+    @Test
+    void resumeAfterMissingCursor() {
+        // GIVEN
+        UUID accountId = UUID.randomUUID();
+        for (int i = 0; i < 100; i++) {
+            operationRepository.create(new Operation(accountId, OperationType.DEPOSIT, "depot " + i, DATE.plusMinutes(i / 2), 100L, 100L * (i + 1)));
+        }
+        Operation missing = new Operation(accountId, OperationType.WITHDRAWAL, "annulé", DATE.plusMinutes(20), 1L, 1L);
+        OperationQuery query = OperationQuery.all().limit(5).after(missing);
+
+        // WHEN
+        List<Operation> page = operationRepository.streamByAccountIdOrderByDateDesc(accountId, query).toList();
+
+        // THEN
+        List<Operation> expected = operationRepository.findAllByAccountIdOrderByDateDesc(accountId).subList(60, 65);
+        assertEquals(expected, page);
+        assertEquals(expected, query.apply(operationRepository.findAllByAccountIdOrderByDateDesc(accountId).stream()).toList());
+    }
+
+    private List<Operation> pagesThroughDefaultQuery(UUID accountId, OperationQuery query) {
+        List<Operation> pages = new ArrayList<>();
+        List<Operation> page = query.apply(operationRepository.findAllByAccountIdOrderByDateDesc(accountId).stream()).toList();
+        while (!page.isEmpty()) {
+            pages.addAll(page);
+            page = query.after(page.get(page.size() - 1)).apply(operationRepository.findAllByAccountIdOrderByDateDesc(accountId).stream()).toList();
+        }
+        return pages;
+    }
+}
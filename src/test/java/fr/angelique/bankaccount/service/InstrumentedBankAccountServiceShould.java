@@ -0,0 +1,124 @@
+package fr.angelique.bankaccount.service;
+
+import fr.angelique.bankaccount.TextOperationsFormatter;
+import fr.angelique.bankaccount.enums.OperationType;
+import fr.angelique.bankaccount.metrics.InstrumentedAccountRepository;
+import fr.angelique.bankaccount.metrics.InstrumentedAccountStatementPrinter;
+import fr.angelique.bankaccount.metrics.InstrumentedBankAccountService;
+import fr.angelique.bankaccount.metrics.InstrumentedOperationRepository;
+import fr.angelique.bankaccount.metrics.InstrumentedOperationsFormatter;
+import fr.angelique.bankaccount.metrics.MetricsRegistry;
+import fr.angelique.bankaccount.repository.InMemoryAccountRepository;
+import fr.angelique.bankaccount.repository.InMemoryOperationRepository;
+import fr.angelique.bankaccount.service.exception.AccountNotFoundException;
+import fr.angelique.bankaccount.service.exception.NegativeAmountException;
+import fr.angelique.bankaccount.service.exception.OverdraftAccountException;
+import fr.angelique.bankaccount.service.model.Movement;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.math.BigDecimal;
+import java.time.Clock;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class InstrumentedBankAccountServiceShould {
+
+    private final MetricsRegistry metrics = new MetricsRegistry();
+    private final InMemoryAccountRepository accountRepository = new InMemoryAccountRepository();
+    private final List<String> printedLines = new ArrayList<>();
+    private final UUID accountId = UUID.randomUUID();
+
+    private BankAccountService bankAccountService;
+
+    @BeforeEach
+    void setUp() {
+        accountRepository.open(accountId, 0L);
+        bankAccountService = new InstrumentedBankAccountService(new BankAccountCheckingService(
+                new InstrumentedAccountRepository(accountRepository, metrics),
+                new InstrumentedOperationRepository(new InMemoryOperationRepository(), metrics),
+                new InstrumentedOperationsFormatter(new TextOperationsFormatter(), metrics),
+                new InstrumentedAccountStatementPrinter(lines -> lines.forEachOrdered(printedLines::add), metrics),
+                Clock.systemDefaultZone()), metrics);
+    }
+
+    @DisplayName("time each service and repository call")
+    @Test
+    void timeCalls() throws Exception {
+        // WHEN
+        bankAccountService.deposit(accountId, new BigDecimal("100"), "salaire");
+        bankAccountService.withdraw(accountId, new BigDecimal("30"), "courses");
+        bankAccountService.printAccountOperations(accountId);
+
+        // THEN
+        assertEquals(1, metrics.histogram("service.deposit").getCount());
+        assertEquals(1, metrics.histogram("service.withdraw").getCount());
+        assertEquals(1, metrics.histogram("service.printAccountOperations").getCount());
+        assertEquals(2, metrics.histogram("accountRepository.compareAndUpdateBalance").getCount());
+        assertEquals(2, metrics.histogram("operationRepository.create").getCount());
+        assertEquals(2, metrics.histogram("formatter.line").getCount());
+        assertEquals(1, metrics.histogram("printer.statement").getCount());
+        assertEquals(2, metrics.counter("printer.lines").sum());
+        assertEquals(2, printedLines.size());
+    }
+
+    @DisplayName("count rejected operations by reason")
+    @Test
+    void countRejections() {
+        // WHEN
+        assertThrows(AccountNotFoundException.class, () -> bankAccountService.deposit(UUID.randomUUID(), BigDecimal.ONE, "cadeau"));
+        assertThrows(NegativeAmountException.class, () -> bankAccountService.deposit(accountId, new BigDecimal("-1"), "cadeau"));
+        assertThrows(OverdraftAccountException.class, () -> bankAccountService.withdraw(accountId, BigDecimal.TEN, "loyer"));
+        bankAccountService.applyBatch(List.of(
+                new Movement(accountId, OperationType.WITHDRAWAL, BigDecimal.TEN, "loyer"),
+                new Movement(UUID.randomUUID(), OperationType.DEPOSIT, BigDecimal.ONE, "cadeau")));
+
+        // THEN
+        assertEquals(2, metrics.counter("service.accountNotFound").sum());
+        assertEquals(1, metrics.counter("service.negativeAmount").sum());
+        assertEquals(2, metrics.counter("service.overdraft").sum());
+        assertEquals(3, metrics.histogram("service.deposit").getCount() + metrics.histogram("service.withdraw").getCount());
+    }
+
+    @DisplayName("dump the metrics as text and JSON")
+    @Test
+    void dumpMetrics() throws Exception {
+        // GIVEN
+        bankAccountService.deposit(accountId, new BigDecimal("100"), "salaire");
+
+        // WHEN
+        String text = metrics.toText();
+        String json = metrics.toJson();
+
+        // THEN
+        assertTrue(text.contains("service.deposit count=1 mean="), text);
+        assertTrue(text.contains(" p999="), text);
+        assertTrue(json.startsWith("{\"samplingInterval\":1,\"counters\":{"), json);
+        assertTrue(json.contains("\"service.deposit\":{\"count\":1,\"mean\":"), json);
+        assertTrue(json.contains("\"service.overdraft\":0"), json);
+    }
+
+    @DisplayName("time only a sample of the calls but count every rejection")
+    @Test
+    void sampleDurations() {
+        // GIVEN
+        MetricsRegistry sampledMetrics = new MetricsRegistry(16);
+        BankAccountService sampledService = new InstrumentedBankAccountService(bankAccountService, sampledMetrics);
+
+        // WHEN
+        for (int i = 0; i < 1_000; i++) {
+            assertThrows(NegativeAmountException.class, () -> sampledService.deposit(accountId, new BigDecimal("-1"), "cadeau"));
+        }
+
+        // THEN
+        long sampled = sampledMetrics.histogram("service.deposit").getCount();
+        assertTrue(sampled > 0 && sampled < 200, "sampled: " + sampled);
+        assertEquals(1_000, sampledMetrics.counter("service.negativeAmount").sum());
+    }
+}
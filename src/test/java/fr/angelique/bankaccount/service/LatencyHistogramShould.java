@@ -0,0 +1,90 @@
+package fr.angelique.bankaccount.service;
+
+import fr.angelique.bankaccount.metrics.LatencyHistogram;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class LatencyHistogramShould {
+
+    @DisplayName("report percentiles within the bucket precision")
+    @Test
+    void reportPercentiles() {
+        // GIVEN
+        LatencyHistogram histogram = new LatencyHistogram();
+        long[] values = new Random(42).longs(100_000, 0, 50_000_000).sorted().toArray();
+
+        // WHEN
+        for (long value : values) {
+            histogram.record(value);
+        }
+
+        // THEN
+        for (double percentile : new double[]{50, 90, 99, 99.9}) {
+            long expected = values[(int) Math.ceil(percentile / 100 * values.length) - 1];
+            long actual = histogram.valueAtPercentile(percentile);
+            assertTrue(actual >= expected && actual <= expected * 1.04, percentile + " : " + actual + " vs " + expected);
+        }
+        assertEquals(values.length, histogram.getCount());
+        assertEquals(values[values.length - 1], histogram.getMax());
+        assertEquals(values[values.length - 1], histogram.valueAtPercentile(100));
+    }
+
+    @DisplayName("keep exact values for short durations and clamp negative ones to zero")
+    @Test
+    void recordShortDurationsExactly() {
+        // GIVEN
+        LatencyHistogram histogram = new LatencyHistogram();
+
+        // WHEN
+        histogram.record(-5);
+        histogram.record(3);
+        histogram.record(40);
+
+        // THEN
+        assertEquals(0, histogram.valueAtPercentile(30));
+        assertEquals(3, histogram.valueAtPercentile(50));
+        assertEquals(40, histogram.valueAtPercentile(99));
+        assertEquals(43.0 / 3, histogram.getMean(), 1e-9);
+    }
+
+    @DisplayName("count every value recorded concurrently")
+    @Test
+    void recordConcurrently() throws Exception {
+        // GIVEN
+        LatencyHistogram histogram = new LatencyHistogram();
+        int threads = 8;
+        int valuesPerThread = 100_000;
+        ExecutorService executor = Executors.newFixedThreadPool(threads);
+
+        // WHEN
+        try {
+            List<Future<?>> recorders = new ArrayList<>();
+            for (int t = 0; t < threads; t++) {
+                recorders.add(executor.submit(() -> {
+                    for (int i = 0; i < valuesPerThread; i++) {
+                        histogram.record(i);
+                    }
+                }));
+            }
+            for (Future<?> recorder : recorders) {
+                recorder.get();
+            }
+        } finally {
+            executor.shutdown();
+        }
+
+        // THEN
+        assertEquals((long) threads * valuesPerThread, histogram.getCount());
+        assertEquals(valuesPerThread - 1, histogram.getMax());
+    }
+}
@@ -0,0 +1,233 @@
+package fr.angelique.bankaccount.service;
+
+import fr.angelique.bankaccount.TextOperationsFormatter;
+import fr.angelique.bankaccount.enums.MovementStatus;
+import fr.angelique.bankaccount.enums.OperationType;
+import fr.angelique.bankaccount.ledger.LedgerEngine;
+import fr.angelique.bankaccount.repository.InMemoryOperationRepository;
+import fr.angelique.bankaccount.repository.journal.MappedOperationJournal;
+import fr.angelique.bankaccount.service.exception.OverdraftAccountException;
+import fr.angelique.bankaccount.service.model.Movement;
+import fr.angelique.bankaccount.service.model.MovementResult;
+import fr.angelique.bankaccount.service.model.Operation;
+import fr.angelique.bankaccount.service.model.OperationResult;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.math.BigDecimal;
+import java.nio.file.Path;
+import java.time.Clock;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class LedgerEngineShould {
+
+    private final InMemoryOperationRepository operationRepository = new InMemoryOperationRepository();
+
+    private final UUID accountId = UUID.randomUUID();
+
+    @DisplayName("apply the same rules as the checking service and journal the accepted operations")
+    @Test
+    void applyRules() throws Exception {
+        // GIVEN
+        try (LedgerEngine engine = engine(Map.of(accountId, 10_000L), 8)) {
+            // WHEN
+            engine.deposit(accountId, new BigDecimal("50"), "salaire");
+            engine.withdraw(accountId, new BigDecimal("30.50"), "courses");
+
+            // THEN
+            assertThrows(OverdraftAccountException.class, () -> engine.withdraw(accountId, new BigDecimal("1000"), "voiture"));
+            assertEquals(MovementStatus.NEGATIVE_AMOUNT, engine.tryDeposit(accountId, new BigDecimal("-1"), "erreur").getStatus());
+            assertEquals(MovementStatus.INVALID_AMOUNT, engine.tryDeposit(accountId, new BigDecimal("0.001"), "erreur").getStatus());
+            assertSame(OperationResult.NOT_FOUND, engine.tryDeposit(UUID.randomUUID(), BigDecimal.ONE, "inconnu"));
+            List<Operation> operations = operationRepository.findAllByAccountIdOrderByDateDesc(accountId);
+            assertEquals(2, operations.size());
+            assertEquals(OperationType.WITHDRAWAL, operations.get(0).getOperationType());
+            assertEquals(3_050, operations.get(0).getAmount());
+            assertEquals(11_950, operations.get(0).getBalance());
+            assertEquals(15_000, operations.get(1).getBalance());
+        }
+    }
+
+    @DisplayName("serialize concurrent producers into one gap-free sequence of balances")
+    @Test
+    void serializeConcurrentProducers() throws Exception {
+        // GIVEN
+        int producers = 4;
+        int depositsPerProducer = 5_000;
+        ExecutorService executor = Executors.newFixedThreadPool(producers);
+
+        try (LedgerEngine engine = engine(Map.of(), 16)) {
+            engine.openAccount(accountId, 0).get(10, TimeUnit.SECONDS);
+
+            // WHEN
+            List<Future<?>> submissions = new ArrayList<>();
+            for (int p = 0; p < producers; p++) {
+                submissions.add(executor.submit(() -> {
+                    List<CompletableFuture<OperationResult>> futures = new ArrayList<>();
+                    for (int i = 0; i < depositsPerProducer; i++) {
+                        futures.add(engine.submitDeposit(accountId, new BigDecimal("0.01"), "depot"));
+                    }
+                    CompletableFuture.allOf(futures.toArray(CompletableFuture[]::new)).join();
+                }));
+            }
+            for (Future<?> submission : submissions) {
+                submission.get(30, TimeUnit.SECONDS);
+            }
+        } finally {
+            executor.shutdown();
+        }
+
+        // THEN
+        List<Operation> operations = operationRepository.findAllByAccountIdOrderByDateDesc(accountId);
+        assertEquals(producers * depositsPerProducer, operations.size());
+        for (int i = 0; i < operations.size(); i++) {
+            assertEquals(operations.size() - i, operations.get(i).getBalance());
+        }
+    }
+
+    @DisplayName("report the outcome and the balance of each movement of a batch")
+    @Test
+    void applyBatch() {
+        // GIVEN
+        List<Movement> movements = List.of(
+                new Movement(accountId, OperationType.DEPOSIT, new BigDecimal("10"), "depot"),
+                new Movement(accountId, OperationType.WITHDRAWAL, new BigDecimal("25"), "retrait"),
+                new Movement(accountId, OperationType.WITHDRAWAL, new BigDecimal("-5"), "erreur"),
+                new Movement(UUID.randomUUID(), OperationType.DEPOSIT, new BigDecimal("5"), "inconnu"),
+                new Movement(accountId, OperationType.WITHDRAWAL, new BigDecimal("15"), "retrait"));
+
+        try (LedgerEngine engine = engine(Map.of(accountId, 1_000L), 4)) {
+            // WHEN
+            List<MovementResult> results = engine.applyBatch(movements);
+
+            // THEN
+            assertEquals(new MovementResult(movements.get(0), MovementStatus.ACCEPTED, 2_000), results.get(0));
+            assertEquals(MovementStatus.OVERDRAFT, results.get(1).getStatus());
+            assertEquals(MovementStatus.NEGATIVE_AMOUNT, results.get(2).getStatus());
+            assertEquals(MovementStatus.ACCOUNT_NOT_FOUND, results.get(3).getStatus());
+            assertEquals(new MovementResult(movements.get(4), MovementStatus.ACCEPTED, 500), results.get(4));
+        }
+    }
+
+    @DisplayName("report the movements of a batch submitted after close as failed")
+    @Test
+    void failBatchOnClosedEngine() {
+        // GIVEN
+        List<Movement> movements = List.of(
+                new Movement(accountId, OperationType.DEPOSIT, new BigDecimal("10"), "depot"),
+                new Movement(accountId, OperationType.WITHDRAWAL, new BigDecimal("-5"), "erreur"),
+                new Movement(accountId, OperationType.WITHDRAWAL, new BigDecimal("15"), "retrait"));
+        LedgerEngine engine = engine(Map.of(accountId, 1_000L), 4);
+        engine.close();
+
+        // WHEN
+        List<MovementResult> results = engine.applyBatch(movements);
+
+        // THEN
+        assertEquals(MovementStatus.FAILED, results.get(0).getStatus());
+        assertEquals(MovementStatus.NEGATIVE_AMOUNT, results.get(1).getStatus());
+        assertEquals(MovementStatus.FAILED, results.get(2).getStatus());
+    }
+
+    @DisplayName("complete the published commands on close and refuse the following ones")
+    @Test
+    void drainOnClose() throws Exception {
+        // GIVEN
+        List<CompletableFuture<OperationResult>> futures = new ArrayList<>();
+        LedgerEngine engine = engine(Map.of(accountId, 0L), 1024);
+        for (int i = 0; i < 1_000; i++) {
+            futures.add(engine.submitDeposit(accountId, BigDecimal.ONE, "depot"));
+        }
+
+        // WHEN
+        engine.close();
+
+        // THEN
+        for (CompletableFuture<OperationResult> future : futures) {
+            assertTrue(future.isDone());
+            assertTrue(future.get().isAccepted());
+        }
+        ExecutionException exception = assertThrows(ExecutionException.class, () -> engine.submitDeposit(accountId, BigDecimal.ONE, "depot").get());
+        assertInstanceOf(RejectedExecutionException.class, exception.getCause());
+        assertEquals(100_000, operationRepository.findAllByAccountIdOrderByDateDesc(accountId).get(0).getBalance());
+    }
+
+    @DisplayName("journal the account openings in order with the operations")
+    @Test
+    void journalOpenings(@TempDir Path directory) throws Exception {
+        // GIVEN
+        UUID otherAccountId = UUID.randomUUID();
+        try (MappedOperationJournal journal = new MappedOperationJournal(directory);
+             LedgerEngine engine = new LedgerEngine(Map.of(), journal, new TextOperationsFormatter(), lines -> { }, Clock.systemDefaultZone(), 8)) {
+            // WHEN
+            engine.openAccount(accountId, 1_000L);
+            engine.submitDeposit(accountId, new BigDecimal("5"), "depot");
+            engine.openAccount(otherAccountId, 200L).get(10, TimeUnit.SECONDS);
+            engine.withdraw(otherAccountId, BigDecimal.ONE, "retrait");
+            engine.close();
+
+            // THEN
+            assertEquals(Map.of(accountId, 1_500L, otherAccountId, 100L), journal.replayBalances());
+        }
+    }
+
+    @DisplayName("refuse to open an existing account again without journaling it")
+    @Test
+    void refuseDuplicateOpening(@TempDir Path directory) throws Exception {
+        // GIVEN
+        try (MappedOperationJournal journal = new MappedOperationJournal(directory);
+             LedgerEngine engine = new LedgerEngine(Map.of(), journal, new TextOperationsFormatter(), lines -> { }, Clock.systemDefaultZone(), 8)) {
+            engine.openAccount(accountId, 1_000L).get(10, TimeUnit.SECONDS);
+            engine.submitDeposit(accountId, new BigDecimal("5"), "depot").get(10, TimeUnit.SECONDS);
+
+            // WHEN
+            ExecutionException exception = assertThrows(ExecutionException.class, () -> engine.openAccount(accountId, 0L).get(10, TimeUnit.SECONDS));
+            engine.withdraw(accountId, new BigDecimal("15"), "retrait");
+            engine.close();
+
+            // THEN
+            assertInstanceOf(IllegalArgumentException.class, exception.getCause());
+            assertEquals(Map.of(accountId, 0L), journal.replayBalances());
+        }
+    }
+
+    @DisplayName("stop once the journal fails instead of applying commands on unjournaled balances")
+    @Test
+    void stopOnJournalFailure() {
+        // GIVEN
+        InMemoryOperationRepository failingRepository = new InMemoryOperationRepository() {
+            @Override
+            public void createAll(List<Operation> entities) {
+                throw new IllegalStateException("disque plein");
+            }
+        };
+
+        try (LedgerEngine engine = new LedgerEngine(Map.of(accountId, 1_000L), failingRepository, new TextOperationsFormatter(), lines -> { }, Clock.systemDefaultZone(), 8)) {
+            // WHEN
+            ExecutionException failure = assertThrows(ExecutionException.class, () -> engine.submitDeposit(accountId, BigDecimal.ONE, "depot").get(10, TimeUnit.SECONDS));
+
+            // THEN
+            assertInstanceOf(IllegalStateException.class, failure.getCause());
+            assertEquals("disque plein", failure.getCause().getCause().getMessage());
+            ExecutionException refused = assertThrows(ExecutionException.class, () -> engine.submitDeposit(accountId, BigDecimal.ONE, "depot").get(10, TimeUnit.SECONDS));
+            assertInstanceOf(RejectedExecutionException.class, refused.getCause());
+        }
+    }
+
+    private LedgerEngine engine(Map<UUID, Long> openingBalances, int capacity) {
+        return new LedgerEngine(openingBalances, operationRepository, new TextOperationsFormatter(), lines -> { }, Clock.systemDefaultZone(), capacity);
+    }
+}
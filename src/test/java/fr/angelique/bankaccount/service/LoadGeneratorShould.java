@@ -0,0 +1,227 @@
+package fr.angelique.bankaccount.service;
+
+import fr.angelique.bankaccount.TextOperationsFormatter;
+import fr.angelique.bankaccount.cluster.InProcessTransport;
+import fr.angelique.bankaccount.cluster.ShardNode;
+import fr.angelique.bankaccount.cluster.ShardedBankAccountService;
+import fr.angelique.bankaccount.enums.MovementStatus;
+import fr.angelique.bankaccount.load.LoadRequest;
+import fr.angelique.bankaccount.load.SoakInterval;
+import fr.angelique.bankaccount.load.SoakReport;
+import fr.angelique.bankaccount.load.SoakRunner;
+import fr.angelique.bankaccount.load.SteppingClock;
+import fr.angelique.bankaccount.load.Workload;
+import fr.angelique.bankaccount.load.WorkloadConfig;
+import fr.angelique.bankaccount.repository.InMemoryAccountRepository;
+import fr.angelique.bankaccount.repository.InMemoryOperationRepository;
+import fr.angelique.bankaccount.repository.OperationQuery;
+import fr.angelique.bankaccount.service.model.Movement;
+import fr.angelique.bankaccount.service.model.MovementResult;
+import fr.angelique.bankaccount.service.model.OperationResult;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.math.BigDecimal;
+import java.time.Clock;
+import java.time.Duration;
+import java.time.Instant;
+import java.time.LocalDateTime;
+import java.time.ZoneOffset;
+import java.util.ArrayList;
+import java.util.EnumMap;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.SplittableRandom;
+import java.util.UUID;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class LoadGeneratorShould {
+
+    private final WorkloadConfig config = WorkloadConfig.defaults()
+            .seed(7)
+            .accountCount(200)
+            .zipfExponent(1.2)
+            .depositRatio(0.6)
+            .overdraftRate(0.1)
+            .statementReadRatio(0.05)
+            .threadCount(4)
+            .operationCount(40_000)
+            .reportInterval(Duration.ofMillis(50));
+
+    @DisplayName("generate the same accounts and requests from the same seed")
+    @Test
+    void reproduceFromSeed() {
+        // GIVEN
+        Workload workload = new Workload(config);
+        Workload sameSeed = new Workload(config);
+        Workload otherSeed = new Workload(config.seed(8));
+
+        // WHEN
+        List<LoadRequest> requests = requests(workload, 1, 1_000);
+
+        // THEN
+        assertEquals(workload.getAccountIds(), sameSeed.getAccountIds());
+        assertEquals(requests, requests(sameSeed, 1, 1_000));
+        assertNotEquals(requests, requests(workload, 2, 1_000));
+        assertNotEquals(workload.getAccountIds(), otherSeed.getAccountIds());
+    }
+
+    @DisplayName("send most requests to the hot accounts with the configured mix")
+    @Test
+    void skewRequestsTowardsHotAccounts() {
+        // GIVEN
+        Workload workload = new Workload(config);
+
+        // WHEN
+        List<LoadRequest> requests = requests(workload, 0, 100_000);
+
+        // THEN
+        Map<UUID, Integer> requestsByAccount = new HashMap<>();
+        Map<LoadRequest.Kind, Integer> requestsByKind = new EnumMap<>(LoadRequest.Kind.class);
+        int overdrafts = 0;
+        for (LoadRequest request : requests) {
+            requestsByAccount.merge(request.getAccountId(), 1, Integer::sum);
+            requestsByKind.merge(request.getKind(), 1, Integer::sum);
+            if (request.getAmount() != null && request.getAmount().compareTo(new BigDecimal("100")) > 0) {
+                overdrafts++;
+            }
+        }
+        int hottest = requestsByAccount.get(workload.accountOfRank(0));
+        int tenth = requestsByAccount.get(workload.accountOfRank(9));
+        assertEquals(hottest, requestsByAccount.values().stream().mapToInt(Integer::intValue).max().orElseThrow());
+        assertEquals(Math.pow(10, 1.2), (double) hottest / tenth, 2.0);
+        assertEquals(5_000, requestsByKind.get(LoadRequest.Kind.STATEMENT), 500);
+        assertEquals(57_000, requestsByKind.get(LoadRequest.Kind.DEPOSIT), 1_000);
+        assertEquals(3_800, overdrafts, 400);
+    }
+
+    @DisplayName("move the clock by one step at each reading")
+    @Test
+    void stepClock() {
+        // GIVEN
+        Instant start = Instant.parse("2024-01-01T00:00:00Z");
+        Clock clock = new SteppingClock(start, Duration.ofMillis(10), ZoneOffset.UTC);
+
+        // WHEN
+        LocalDateTime first = LocalDateTime.now(clock);
+        LocalDateTime second = LocalDateTime.now(clock.withZone(ZoneOffset.ofHours(1)));
+        LocalDateTime third = LocalDateTime.now(clock);
+
+        // THEN
+        assertEquals(LocalDateTime.of(2024, 1, 1, 0, 0), first);
+        assertEquals(LocalDateTime.of(2024, 1, 1, 1, 0, 0, 10_000_000), second);
+        assertEquals(LocalDateTime.of(2024, 1, 1, 0, 0, 0, 20_000_000), third);
+    }
+
+    @DisplayName("run a multi-threaded soak test that keeps the balances consistent")
+    @Test
+    void soakCheckingService() {
+        // GIVEN
+        Workload workload = new Workload(config);
+        InMemoryAccountRepository accountRepository = new InMemoryAccountRepository();
+        workload.getAccountIds().forEach(id -> accountRepository.open(id, 5_000));
+        BankAccountService service = new BankAccountCheckingService(accountRepository, new InMemoryOperationRepository(), new TextOperationsFormatter(),
+                lines -> lines.forEach(line -> { }), new SteppingClock(Instant.parse("2024-01-01T00:00:00Z"), Duration.ofMillis(1), ZoneOffset.UTC));
+        List<SoakInterval> intervals = new ArrayList<>();
+
+        // WHEN
+        SoakReport report = new SoakRunner(service, accountRepository::getBalance, workload).run(intervals::add);
+
+        // THEN
+        assertTrue(report.isBalanced(), report.toText());
+        assertEquals(40_000, report.getOperationCount());
+        assertEquals(40_000, report.getStatementCount() + report.getMovementCount(MovementStatus.ACCEPTED) + report.getMovementCount(MovementStatus.OVERDRAFT));
+        assertTrue(report.getMovementCount(MovementStatus.OVERDRAFT) > 0);
+        assertEquals(intervals, report.getIntervals());
+        assertEquals(40_000, intervals.stream().mapToLong(SoakInterval::getOperationCount).sum());
+        assertTrue(report.getP50() <= report.getP99() && report.getP99() <= report.getP999() && report.getP999() <= report.getMax());
+        assertTrue(report.toText().contains("balanced"));
+    }
+
+    @DisplayName("detect a service that accepts deposits without crediting the account")
+    @Test
+    void detectLostDeposits() {
+        // GIVEN
+        Workload workload = new Workload(config.operationCount(2_000));
+        InMemoryAccountRepository accountRepository = new InMemoryAccountRepository();
+        workload.getAccountIds().forEach(id -> accountRepository.open(id, 5_000));
+        BankAccountService checkingService = new BankAccountCheckingService(accountRepository, new InMemoryOperationRepository(), new TextOperationsFormatter(),
+                lines -> { }, Clock.systemDefaultZone());
+        BankAccountService losingService = new LosingBankAccountService(checkingService);
+
+        // WHEN
+        SoakReport report = new SoakRunner(losingService, accountRepository::getBalance, workload).run();
+
+        // THEN
+        assertFalse(report.isBalanced());
+        assertTrue(report.toText().contains("UNBALANCED"));
+    }
+
+    @DisplayName("soak a sharded service through its own balance reader")
+    @Test
+    void soakShardedService() {
+        // GIVEN
+        Workload workload = new Workload(config.operationCount(2_000));
+        try (InProcessTransport transport = new InProcessTransport(2, 7)) {
+            ShardedBankAccountService service = new ShardedBankAccountService(transport, new TextOperationsFormatter(), lines -> { });
+            service.addNode(new ShardNode("a", Clock.systemDefaultZone()));
+            service.addNode(new ShardNode("b", Clock.systemDefaultZone()));
+            workload.getAccountIds().forEach(id -> service.openAccount(id, 5_000));
+
+            // WHEN
+            SoakReport report = new SoakRunner(service, service::getBalance, workload).run();
+
+            // THEN
+            assertTrue(report.isBalanced(), report.toText());
+            assertEquals(2_000, report.getOperationCount());
+        }
+    }
+
+    private static List<LoadRequest> requests(Workload workload, int worker, int count) {
+        SplittableRandom random = workload.randomOf(worker);
+        List<LoadRequest> requests = new ArrayList<>(count);
+        for (int i = 0; i < count; i++) {
+            requests.add(workload.next(random));
+        }
+        return requests;
+    }
+
+    private static final class LosingBankAccountService implements BankAccountService {
+
+        private final BankAccountService bankAccountService;
+
+        private int deposits;
+
+        private LosingBankAccountService(BankAccountService bankAccountService) {
+            this.bankAccountService = bankAccountService;
+        }
+
+        @Override
+        public synchronized OperationResult tryDeposit(UUID accountId, BigDecimal amount, String libelle) {
+            if (++deposits % 100 == 0) {
+                return OperationResult.ACCEPTED;
+            }
+            return bankAccountService.tryDeposit(accountId, amount, libelle);
+        }
+
+        @Override
+        public OperationResult tryWithdraw(UUID accountId, BigDecimal amount, String libelle) {
+            return bankAccountService.tryWithdraw(accountId, amount, libelle);
+        }
+
+        @Override
+        public List<MovementResult> applyBatch(List<Movement> movements) {
+            return bankAccountService.applyBatch(movements);
+        }
+
+        @Override
+        public void printAccountOperations(UUID accountId) {
+        }
+
+        @Override
+        public void printAccountOperations(UUID accountId, OperationQuery query) {
+        }
+    }
+}
@@ -0,0 +1,229 @@
+package fr.angelique.bankaccount.service;
+
+import fr.angelique.bankaccount.enums.OperationType;
+import fr.angelique.bankaccount.repository.InMemoryAccountRepository;
+import fr.angelique.bankaccount.repository.OperationQuery;
+import fr.angelique.bankaccount.repository.journal.MappedOperationJournal;
+import fr.angelique.bankaccount.service.model.Operation;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.stream.Stream;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class MappedOperationJournalShould {
+
+    private static final int SEGMENT_SIZE = 64 * 1024;
+    private static final LocalDateTime DATE = LocalDateTime.of(2022, 11, 21, 15, 22, 48, 123456789);
+
+    @TempDir
+    Path directory;
+
+    private final UUID accountId = UUID.randomUUID();
+    private final UUID otherAccountId = UUID.randomUUID();
+
+    @DisplayName("find the operations of an account from the most recent to the oldest")
+    @Test
+    void findOperationsOfAnAccount() {
+        // GIVEN
+        Operation deposit = new Operation(accountId, OperationType.DEPOSIT, "salaire", DATE, 10_000L, 10_000L);
+        Operation otherDeposit = new Operation(otherAccountId, OperationType.DEPOSIT, null, DATE, 500L, 500L);
+        Operation withdrawal = new Operation(accountId, OperationType.WITHDRAWAL, "café", DATE.plusHours(1), 250L, 9_750L);
+
+        // WHEN
+        try (MappedOperationJournal journal = new MappedOperationJournal(directory, SEGMENT_SIZE)) {
+            journal.create(deposit);
+            journal.create(otherDeposit);
+            journal.create(withdrawal);
+
+            // THEN
+            assertEquals(List.of(withdrawal, deposit), journal.findAllByAccountIdOrderByDateDesc(accountId));
+            assertEquals(List.of(otherDeposit), journal.findAllByAccountIdOrderByDateDesc(otherAccountId));
+        }
+    }
+
+    @DisplayName("roll over to new segments and replay every operation after a restart")
+    @Test
+    void rollSegmentsAndReplay() throws IOException {
+        // GIVEN
+        List<Operation> operations = operations(5_000);
+        try (MappedOperationJournal journal = new MappedOperationJournal(directory, SEGMENT_SIZE)) {
+            operations.forEach(journal::create);
+        }
+
+        // WHEN
+        List<Operation> replayed = new ArrayList<>();
+        try (MappedOperationJournal journal = new MappedOperationJournal(directory, SEGMENT_SIZE)) {
+            journal.replay(replayed::add);
+        }
+
+        // THEN
+        assertTrue(segmentCount() > 1);
+        assertEquals(operations, replayed);
+    }
+
+    @DisplayName("truncate a torn tail record on recovery and keep appending after it")
+    @Test
+    void truncateTornTail() throws IOException {
+        // GIVEN
+        Operation deposit = new Operation(accountId, OperationType.DEPOSIT, "salaire", DATE, 10_000L, 10_000L);
+        Operation withdrawal = new Operation(accountId, OperationType.WITHDRAWAL, "loyer", DATE.plusDays(1), 7_000L, 3_000L);
+        try (MappedOperationJournal journal = new MappedOperationJournal(directory, SEGMENT_SIZE)) {
+            journal.create(deposit);
+            journal.create(withdrawal);
+        }
+        tearLastRecord();
+
+        // WHEN
+        try (MappedOperationJournal journal = new MappedOperationJournal(directory, SEGMENT_SIZE)) {
+            assertEquals(List.of(deposit), journal.findAllByAccountIdOrderByDateDesc(accountId));
+            journal.create(withdrawal);
+        }
+
+        // THEN
+        try (MappedOperationJournal journal = new MappedOperationJournal(directory, SEGMENT_SIZE)) {
+            assertEquals(List.of(withdrawal, deposit), journal.findAllByAccountIdOrderByDateDesc(accountId));
+        }
+    }
+
+    @DisplayName("rebuild account balances by replaying the journal")
+    @Test
+    void replayBalances() {
+        // GIVEN
+        try (MappedOperationJournal journal = new MappedOperationJournal(directory, SEGMENT_SIZE)) {
+            journal.create(new Operation(accountId, OperationType.DEPOSIT, "salaire", DATE, 10_000L, 10_000L));
+            journal.create(new Operation(otherAccountId, OperationType.DEPOSIT, "cadeau", DATE, 2_000L, 2_000L));
+            journal.create(new Operation(accountId, OperationType.WITHDRAWAL, "loyer", DATE, 7_000L, 3_000L));
+        }
+
+        // WHEN
+        Map<UUID, Long> balances;
+        try (MappedOperationJournal journal = new MappedOperationJournal(directory, SEGMENT_SIZE)) {
+            balances = journal.replayBalances();
+        }
+
+        // THEN
+        assertEquals(Map.of(accountId, 3_000L, otherAccountId, 2_000L), balances);
+    }
+
+    @DisplayName("reopen every journaled account with its balance, including accounts without operations")
+    @Test
+    void recoverAccounts() {
+        // GIVEN
+        Operation deposit = new Operation(accountId, OperationType.DEPOSIT, "salaire", DATE, 1_000L, 6_000L);
+        try (MappedOperationJournal journal = new MappedOperationJournal(directory, SEGMENT_SIZE)) {
+            journal.recordOpening(accountId, 5_000L);
+            journal.recordOpening(otherAccountId, 700L);
+            journal.create(deposit);
+        }
+
+        // WHEN
+        InMemoryAccountRepository accountRepository = new InMemoryAccountRepository();
+        try (MappedOperationJournal journal = new MappedOperationJournal(directory, SEGMENT_SIZE)) {
+            journal.recoverAccounts(accountRepository::open);
+
+            // THEN
+            assertEquals(List.of(deposit), journal.findAllByAccountIdOrderByDateDesc(accountId));
+            assertEquals(List.of(), journal.findAllByAccountIdOrderByDateDesc(otherAccountId));
+        }
+        assertEquals(6_000L, accountRepository.getBalance(accountId));
+        assertEquals(700L, accountRepository.getBalance(otherAccountId));
+    }
+
+    @DisplayName("stream a page of an account's operations from the journal")
+    @Test
+    void streamPage() {
+        // GIVEN
+        List<Operation> operations = operations(1_000);
+        try (MappedOperationJournal journal = new MappedOperationJournal(directory, SEGMENT_SIZE)) {
+            operations.forEach(journal::create);
+            List<Operation> history = journal.findAllByAccountIdOrderByDateDesc(accountId);
+            OperationQuery query = OperationQuery.all().limit(20).after(history.get(99));
+
+            // WHEN
+            List<Operation> page = journal.streamByAccountIdOrderByDateDesc(accountId, query).toList();
+
+            // THEN
+            assertEquals(history.subList(100, 120), page);
+        }
+    }
+
+    @DisplayName("keep every operation appended concurrently")
+    @Test
+    void appendConcurrently() throws Exception {
+        // GIVEN
+        int threads = 8;
+        int operationsPerThread = 500;
+        ExecutorService executor = Executors.newFixedThreadPool(threads);
+
+        // WHEN
+        try (MappedOperationJournal journal = new MappedOperationJournal(directory, SEGMENT_SIZE)) {
+            List<Future<?>> writers = new ArrayList<>();
+            for (int t = 0; t < threads; t++) {
+                writers.add(executor.submit(() -> {
+                    for (int i = 0; i < operationsPerThread; i++) {
+                        journal.create(new Operation(accountId, OperationType.DEPOSIT, "depot", DATE, 1L, i));
+                    }
+                }));
+            }
+            for (Future<?> writer : writers) {
+                writer.get();
+            }
+        } finally {
+            executor.shutdown();
+        }
+
+        // THEN
+        try (MappedOperationJournal journal = new MappedOperationJournal(directory, SEGMENT_SIZE)) {
+            assertEquals(threads * operationsPerThread, journal.findAllByAccountIdOrderByDateDesc(accountId).size());
+            assertEquals((long) threads * operationsPerThread, journal.replayBalances().get(accountId));
+        }
+    }
+
+    private List<Operation> operations(int count) {
+        List<Operation> operations = new ArrayList<>();
+        for (int i = 0; i < count; i++) {
+            UUID id = i % 2 == 0 ? accountId : otherAccountId;
+            operations.add(new Operation(id, OperationType.DEPOSIT, "dépôt n°" + i, DATE.plusSeconds(i), 100L, 100L * (i / 2 + 1)));
+        }
+        return operations;
+    }
+
+    private long segmentCount() throws IOException {
+        try (Stream<Path> files = Files.list(directory)) {
+            return files.count();
+        }
+    }
+
+    private void tearLastRecord() throws IOException {
+        Path segment;
+        try (Stream<Path> files = Files.list(directory)) {
+            segment = files.sorted().reduce((first, second) -> second).orElseThrow();
+        }
+        try (FileChannel channel = FileChannel.open(segment, StandardOpenOption.READ, StandardOpenOption.WRITE)) {
+            ByteBuffer buffer = channel.map(FileChannel.MapMode.READ_WRITE, 0, channel.size());
+            int firstRecordSize = 4 + buffer.getInt(0) + 4;
+            int secondRecordSize = 4 + buffer.getInt(firstRecordSize) + 4;
+            for (int i = firstRecordSize + secondRecordSize / 2; i < firstRecordSize + secondRecordSize; i++) {
+                buffer.put(i, (byte) 0);
+            }
+        }
+    }
+}
@@ -0,0 +1,51 @@
+package fr.angelique.bankaccount.service;
+
+import fr.angelique.bankaccount.service.model.Money;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.math.BigDecimal;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class MoneyShould {
+
+    @DisplayName("convert an amount in euros to cents and back")
+    @Test
+    void convertEurosToCents() {
+        // WHEN
+        long cents = Money.toCents(new BigDecimal("40.3"));
+
+        // THEN
+        assertEquals(4_030L, cents);
+        assertEquals(new BigDecimal("40.30"), Money.toBigDecimal(cents));
+        assertEquals(-100_050L, Money.toCents(new BigDecimal("-1000.5")));
+    }
+
+    @DisplayName("refuse an amount with a fraction of cent")
+    @Test
+    void refuseFractionOfCent() {
+        assertThrows(IllegalArgumentException.class, () -> Money.toCents(new BigDecimal("0.001")));
+    }
+
+    @DisplayName("detect an overflow instead of wrapping around")
+    @Test
+    void detectOverflow() {
+        assertThrows(ArithmeticException.class, () -> Money.add(Long.MAX_VALUE, 1L));
+        assertThrows(ArithmeticException.class, () -> Money.subtract(Long.MIN_VALUE, 1L));
+        assertThrows(IllegalArgumentException.class, () -> Money.toCents(new BigDecimal("1E+30")));
+    }
+
+    @DisplayName("tell whether an amount is a whole number of cents without throwing")
+    @Test
+    void checkCents() {
+        assertTrue(Money.isCents(new BigDecimal("40.30")));
+        assertTrue(Money.isCents(new BigDecimal("40.3000")));
+        assertTrue(Money.isCents(new BigDecimal("1E+3")));
+        assertFalse(Money.isCents(new BigDecimal("0.001")));
+        assertFalse(Money.isCents(new BigDecimal("1E+30")));
+    }
+}
@@ -0,0 +1,97 @@
+package fr.angelique.bankaccount.service;
+
+import fr.angelique.bankaccount.repository.OpenAddressingAccountRepository;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class OpenAddressingAccountRepositoryShould {
+
+    private final OpenAddressingAccountRepository accountRepository = new OpenAddressingAccountRepository();
+
+    @DisplayName("update the balance only when it still has the expected value")
+    @Test
+    void compareAndUpdateBalance() {
+        // GIVEN
+        UUID id = UUID.randomUUID();
+        accountRepository.open(id, 10_000L);
+
+        // WHEN
+        boolean staleUpdate = accountRepository.compareAndUpdateBalance(id, 5_000L, 7_000L);
+        boolean update = accountRepository.compareAndUpdateBalance(id, 10_000L, 12_000L);
+
+        // THEN
+        assertFalse(staleUpdate);
+        assertTrue(update);
+        assertEquals(12_000L, accountRepository.getBalance(id));
+    }
+
+    @DisplayName("refuse to open the same account twice and reject unknown accounts")
+    @Test
+    void rejectDuplicateAndUnknownAccounts() {
+        // GIVEN
+        UUID id = new UUID(0, 0);
+        accountRepository.open(id, 0L);
+
+        // WHEN / THEN
+        assertThrows(IllegalArgumentException.class, () -> accountRepository.open(id, 1_000L));
+        assertTrue(accountRepository.existsById(id));
+        assertFalse(accountRepository.existsById(UUID.randomUUID()));
+        assertThrows(IllegalArgumentException.class, () -> accountRepository.getBalance(UUID.randomUUID()));
+        assertThrows(IllegalArgumentException.class, () -> accountRepository.updateBalance(UUID.randomUUID(), 1L));
+    }
+
+    @DisplayName("keep every account readable while other accounts are opened and segments grow")
+    @Test
+    void readWhileGrowing() throws Exception {
+        // GIVEN
+        List<UUID> existing = new ArrayList<>();
+        for (int i = 0; i < 1_000; i++) {
+            UUID id = UUID.randomUUID();
+            accountRepository.open(id, i);
+            existing.add(id);
+        }
+        ExecutorService executor = Executors.newFixedThreadPool(3);
+        AtomicBoolean opening = new AtomicBoolean(true);
+
+        // WHEN
+        Future<?> writer = executor.submit(() -> {
+            for (int i = 0; i < 200_000; i++) {
+                accountRepository.open(UUID.randomUUID(), i);
+            }
+            opening.set(false);
+        });
+        List<Future<?>> readers = new ArrayList<>();
+        for (int r = 0; r < 2; r++) {
+            readers.add(executor.submit(() -> {
+                do {
+                    for (int i = 0; i < existing.size(); i++) {
+                        UUID id = existing.get(i);
+                        assertTrue(accountRepository.existsById(id));
+                        assertTrue(accountRepository.compareAndUpdateBalance(id, accountRepository.getBalance(id), accountRepository.getBalance(id)));
+                    }
+                } while (opening.get());
+            }));
+        }
+        writer.get();
+        for (Future<?> reader : readers) {
+            reader.get();
+        }
+        executor.shutdown();
+
+        // THEN
+        assertEquals(201_000, accountRepository.size());
+        for (int i = 0; i < existing.size(); i++) {
+            assertEquals(i, accountRepository.getBalance(existing.get(i)));
+        }
+    }
+}
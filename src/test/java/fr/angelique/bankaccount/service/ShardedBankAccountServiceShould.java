@@ -0,0 +1,228 @@
+package fr.angelique.bankaccount.service;
+
+import fr.angelique.bankaccount.TextOperationsFormatter;
+import fr.angelique.bankaccount.cluster.ConsistentHashRing;
+import fr.angelique.bankaccount.cluster.InProcessTransport;
+import fr.angelique.bankaccount.cluster.ShardNode;
+import fr.angelique.bankaccount.cluster.ShardUnavailableException;
+import fr.angelique.bankaccount.cluster.ShardedBankAccountService;
+import fr.angelique.bankaccount.enums.MovementStatus;
+import fr.angelique.bankaccount.enums.OperationType;
+import fr.angelique.bankaccount.service.model.Movement;
+import fr.angelique.bankaccount.service.model.MovementResult;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.math.BigDecimal;
+import java.time.Clock;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+import java.util.Set;
+import java.util.UUID;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicLongArray;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class ShardedBankAccountServiceShould {
+
+    private final InProcessTransport transport = new InProcessTransport(2, 42);
+
+    private final List<String> printedLines = new ArrayList<>();
+
+    private final ShardedBankAccountService service = new ShardedBankAccountService(transport, new TextOperationsFormatter(), lines -> lines.forEachOrdered(printedLines::add));
+
+    @AfterEach
+    void tearDown() {
+        transport.close();
+    }
+
+    @DisplayName("move only the accounts of the arcs gained by a new node")
+    @Test
+    void moveFewAccountsOnNewNode() {
+        // GIVEN
+        ConsistentHashRing ring = new ConsistentHashRing().withNode("a").withNode("b").withNode("c");
+        ConsistentHashRing grown = ring.withNode("d");
+        List<UUID> accounts = accounts(10_000);
+
+        // WHEN
+        long moved = accounts.stream().filter(id -> !ring.nodeFor(id).equals(grown.nodeFor(id))).count();
+        long movedElsewhere = accounts.stream().filter(id -> !ring.nodeFor(id).equals(grown.nodeFor(id)) && !grown.nodeFor(id).equals("d")).count();
+
+        // THEN
+        assertTrue(moved > 1_500 && moved < 3_500, "comptes déplacés : " + moved);
+        assertEquals(0, movedElsewhere);
+        assertTrue(accounts.stream().allMatch(id -> grown.withoutNode("d").nodeFor(id).equals(ring.nodeFor(id))));
+    }
+
+    @DisplayName("route each account to its node and print its history")
+    @Test
+    void routeToOwner() throws Exception {
+        // GIVEN
+        List<ShardNode> nodes = List.of(node("a"), node("b"), node("c"));
+        nodes.forEach(service::addNode);
+        List<UUID> accounts = accounts(300);
+        accounts.forEach(id -> service.openAccount(id, 1_000));
+
+        // WHEN
+        service.deposit(accounts.get(0), new BigDecimal("5"), "depot");
+        service.withdraw(accounts.get(0), new BigDecimal("2.50"), "retrait");
+        List<MovementResult> results = service.applyBatch(List.of(
+                new Movement(accounts.get(1), OperationType.DEPOSIT, BigDecimal.ONE, "depot"),
+                new Movement(accounts.get(2), OperationType.WITHDRAWAL, new BigDecimal("20"), "retrait")));
+        service.printAccountOperations(accounts.get(0));
+
+        // THEN
+        assertEquals(1_250, service.getBalance(accounts.get(0)));
+        assertEquals(1_100, results.get(0).getBalance());
+        assertFalse(results.get(1).isAccepted());
+        assertEquals(2, printedLines.size());
+        assertEquals(300, nodes.stream().mapToInt(ShardNode::getAccountCount).sum());
+        assertTrue(nodes.stream().allMatch(node -> node.getAccountCount() > 50));
+    }
+
+    @DisplayName("lose no operation while nodes join and leave under load")
+    @Test
+    void keepOperationsAcrossRebalancing() throws Exception {
+        // GIVEN
+        service.addNode(node("a"));
+        service.addNode(node("b"));
+        List<UUID> accounts = accounts(200);
+        accounts.forEach(id -> service.openAccount(id, 0));
+        AtomicLongArray accepted = new AtomicLongArray(accounts.size());
+        AtomicBoolean running = new AtomicBoolean(true);
+        ExecutorService executor = Executors.newFixedThreadPool(4);
+        List<Future<?>> writers = new ArrayList<>();
+
+        // WHEN
+        for (int w = 0; w < 4; w++) {
+            long seed = w;
+            writers.add(executor.submit(() -> {
+                Random random = new Random(seed);
+                while (running.get()) {
+                    int index = random.nextInt(accounts.size());
+                    if (service.tryDeposit(accounts.get(index), new BigDecimal("0.01"), "depot").isAccepted()) {
+                        accepted.incrementAndGet(index);
+                    }
+                }
+                return null;
+            }));
+        }
+        service.addNode(node("c"));
+        service.addNode(node("d"));
+        service.removeNode("a");
+        service.addNode(node("e"));
+        service.removeNode("c");
+        running.set(false);
+        for (Future<?> writer : writers) {
+            writer.get(30, TimeUnit.SECONDS);
+        }
+        executor.shutdown();
+
+        // THEN
+        for (int i = 0; i < accounts.size(); i++) {
+            assertEquals(accepted.get(i), service.getBalance(accounts.get(i)));
+            printedLines.clear();
+            service.printAccountOperations(accounts.get(i));
+            assertEquals(accepted.get(i), printedLines.size());
+        }
+    }
+
+    @DisplayName("report a disconnected node and inject latency")
+    @Test
+    void injectFailuresAndLatency() throws Exception {
+        // GIVEN
+        service.addNode(node("a"));
+        service.addNode(node("b"));
+        UUID accountId = UUID.randomUUID();
+        service.openAccount(accountId, 0);
+
+        // WHEN
+        transport.disconnect(service.nodeFor(accountId));
+
+        // THEN
+        assertThrows(ShardUnavailableException.class, () -> service.tryDeposit(accountId, BigDecimal.ONE, "depot"));
+        transport.reconnect(service.nodeFor(accountId));
+        transport.setLatency(Duration.ofMillis(20));
+        long start = System.nanoTime();
+        assertTrue(service.tryDeposit(accountId, BigDecimal.ONE, "depot").isAccepted());
+        assertTrue(System.nanoTime() - start >= Duration.ofMillis(20).toNanos());
+        transport.setLatency(Duration.ZERO);
+        transport.setFailureRate(1);
+        assertThrows(ShardUnavailableException.class, () -> service.getBalance(accountId));
+    }
+
+    @DisplayName("fail only the movements of a batch sent to an unreachable node")
+    @Test
+    void failUndeliveredMovements() {
+        // GIVEN
+        service.addNode(node("a"));
+        service.addNode(node("b"));
+        List<UUID> accounts = accounts(20);
+        accounts.forEach(id -> service.openAccount(id, 0));
+        String disconnected = service.nodeFor(accounts.get(0));
+        List<Movement> movements = accounts.stream().map(id -> new Movement(id, OperationType.DEPOSIT, BigDecimal.ONE, "depot")).toList();
+        transport.disconnect(disconnected);
+
+        // WHEN
+        List<MovementResult> results = service.applyBatch(movements);
+
+        // THEN
+        transport.reconnect(disconnected);
+        for (int i = 0; i < accounts.size(); i++) {
+            boolean delivered = !service.nodeFor(accounts.get(i)).equals(disconnected);
+            assertEquals(delivered ? MovementStatus.ACCEPTED : MovementStatus.FAILED, results.get(i).getStatus());
+            assertEquals(delivered ? 100 : 0, service.getBalance(accounts.get(i)));
+        }
+    }
+
+    @DisplayName("give the accounts back and keep the previous ring when a node cannot accept them")
+    @Test
+    void restoreFailedHandoff() {
+        // GIVEN
+        service.addNode(node("a"));
+        service.addNode(node("b"));
+        List<UUID> accounts = accounts(100);
+        accounts.forEach(id -> service.openAccount(id, 1_000));
+        ConsistentHashRing grown = new ConsistentHashRing().withNode("a").withNode("b").withNode("c");
+        UUID duplicate = accounts.stream().filter(id -> grown.nodeFor(id).equals("c")).findFirst().orElseThrow();
+        ShardNode node = node("c");
+        try (InProcessTransport otherTransport = new InProcessTransport(1, 42)) {
+            ShardedBankAccountService otherService = new ShardedBankAccountService(otherTransport, new TextOperationsFormatter(), lines -> { });
+            otherService.addNode(node);
+            otherService.openAccount(duplicate, 5);
+        }
+
+        // WHEN
+        assertThrows(IllegalArgumentException.class, () -> service.addNode(node));
+
+        // THEN
+        assertEquals(Set.of("a", "b"), service.getNodes());
+        for (UUID accountId : accounts) {
+            assertEquals(1_000, service.getBalance(accountId));
+        }
+        service.addNode(node("d"));
+        assertTrue(service.tryDeposit(duplicate, BigDecimal.ONE, "depot").isAccepted());
+        assertEquals(1_100, service.getBalance(duplicate));
+    }
+
+    private static ShardNode node(String id) {
+        return new ShardNode(id, Clock.systemDefaultZone());
+    }
+
+    private static List<UUID> accounts(int count) {
+        Random random = new Random(7);
+        List<UUID> accounts = new ArrayList<>(count);
+        for (int i = 0; i < count; i++) {
+            accounts.add(new UUID(random.nextLong(), random.nextLong()));
+        }
+        return accounts;
+    }
+}
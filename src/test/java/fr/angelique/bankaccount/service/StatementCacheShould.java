@@ -0,0 +1,216 @@
+package fr.angelique.bankaccount.service;
+
+import fr.angelique.bankaccount.OperationsFormatter;
+import fr.angelique.bankaccount.TextOperationsFormatter;
+import fr.angelique.bankaccount.enums.OperationType;
+import fr.angelique.bankaccount.repository.InMemoryAccountRepository;
+import fr.angelique.bankaccount.repository.InMemoryOperationRepository;
+import fr.angelique.bankaccount.repository.OperationQuery;
+import fr.angelique.bankaccount.service.model.Movement;
+import fr.angelique.bankaccount.service.model.Operation;
+import fr.angelique.bankaccount.statement.StatementCache;
+import fr.angelique.bankaccount.statement.StatementCachingBankAccountService;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.math.BigDecimal;
+import java.time.Clock;
+import java.time.LocalDateTime;
+import java.time.ZoneId;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.OptionalLong;
+import java.util.UUID;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.*;
+
+class StatementCacheShould {
+
+    private static final LocalDateTime START = LocalDateTime.of(2024, 1, 1, 9, 0);
+
+    private final UUID accountId = UUID.randomUUID();
+
+    private final TextOperationsFormatter textFormatter = new TextOperationsFormatter();
+
+    private final AtomicInteger renderedLines = new AtomicInteger();
+
+    private final OperationsFormatter countingFormatter = operation -> {
+        renderedLines.incrementAndGet();
+        return textFormatter.format(operation);
+    };
+
+    @DisplayName("print a statement again without reading the history nor rendering the lines again")
+    @Test
+    void serveRepeatedPrintsFromCache() {
+        // GIVEN
+        InMemoryOperationRepository operationRepository = spy(new InMemoryOperationRepository());
+        operationRepository.createAll(history(accountId, 50));
+        StatementCache cache = new StatementCache(operationRepository, countingFormatter, 1_000);
+
+        // WHEN
+        List<String> first = cache.statementLines(accountId);
+        List<String> second = cache.statementLines(accountId);
+
+        // THEN
+        assertEquals(first, second);
+        assertEquals(50, renderedLines.get());
+        verify(operationRepository).findAllByAccountIdOrderByDateDesc(accountId);
+        assertEquals(1, cache.getMissCount());
+        assertEquals(1, cache.getHitCount());
+    }
+
+    @DisplayName("render only the new lines after a deposit and a withdrawal, newest first")
+    @Test
+    void renderOnlyNewLines() throws Exception {
+        // GIVEN
+        InMemoryAccountRepository accountRepository = new InMemoryAccountRepository();
+        accountRepository.open(accountId, 0);
+        InMemoryOperationRepository operationRepository = spy(new InMemoryOperationRepository());
+        StatementCache cache = new StatementCache(operationRepository, countingFormatter, 1_000);
+        List<List<String>> printed = new ArrayList<>();
+        BankAccountService service = cachingService(accountRepository, cache, printed, START);
+        service.tryDeposit(accountId, new BigDecimal("100"), "salaire");
+        service.printAccountOperations(accountId);
+
+        // WHEN
+        service.tryDeposit(accountId, new BigDecimal("20"), "remboursement");
+        service.tryWithdraw(accountId, new BigDecimal("30"), "courses");
+        service.printAccountOperations(accountId);
+
+        // THEN
+        assertEquals(3, renderedLines.get());
+        assertEquals(3, printed.get(1).size());
+        assertTrue(printed.get(1).get(0).contains("courses"));
+        assertTrue(printed.get(1).get(1).contains("remboursement"));
+        assertEquals(printed.get(0).get(0), printed.get(1).get(2));
+        verify(operationRepository, times(1)).findAllByAccountIdOrderByDateDesc(accountId);
+    }
+
+    @DisplayName("print the same pages as the service without cache")
+    @Test
+    void printSamePagesAsUncachedService() throws Exception {
+        // GIVEN
+        InMemoryAccountRepository accountRepository = new InMemoryAccountRepository();
+        accountRepository.open(accountId, 0);
+        InMemoryOperationRepository operationRepository = new InMemoryOperationRepository();
+        operationRepository.createAll(history(accountId, 200));
+        StatementCache cache = new StatementCache(operationRepository, textFormatter, 1_000);
+        List<List<String>> cached = new ArrayList<>();
+        List<List<String>> uncached = new ArrayList<>();
+        BankAccountService cachingService = cachingService(accountRepository, cache, cached, START.plusDays(1));
+        BankAccountService plainService = new BankAccountCheckingService(accountRepository, operationRepository, textFormatter,
+                lines -> uncached.add(lines.toList()), clock(START.plusDays(1)));
+        cachingService.printAccountOperations(accountId);
+        cachingService.applyBatch(List.of(
+                new Movement(accountId, OperationType.DEPOSIT, new BigDecimal("5"), "virement"),
+                new Movement(accountId, OperationType.WITHDRAWAL, new BigDecimal("1"), "frais")));
+        List<Operation> operations = operationRepository.findAllByAccountIdOrderByDateDesc(accountId);
+        List<OperationQuery> queries = List.of(
+                OperationQuery.all(),
+                OperationQuery.all().limit(20),
+                OperationQuery.all().between(START.plusMinutes(30), START.plusMinutes(90)),
+                OperationQuery.all().between(START.plusMinutes(30), START.plusMinutes(90)).limit(7),
+                OperationQuery.all().limit(10).after(operations.get(15)),
+                OperationQuery.all().after(new Operation(accountId, OperationType.DEPOSIT, "inconnue", START, 1, 1)),
+                OperationQuery.all().limit(5).after(new Operation(accountId, OperationType.DEPOSIT, "inconnue", START.plusMinutes(100), 1, 1)));
+
+        // WHEN
+        for (OperationQuery query : queries) {
+            cachingService.printAccountOperations(accountId, query);
+            plainService.printAccountOperations(accountId, query);
+        }
+
+        // THEN
+        assertEquals(uncached, cached.subList(1, cached.size()));
+        assertEquals(202, cached.get(1).size());
+    }
+
+    @DisplayName("give the balance of the account at any date")
+    @Test
+    void giveBalanceAtDate() {
+        // GIVEN
+        InMemoryOperationRepository operationRepository = new InMemoryOperationRepository();
+        operationRepository.createAll(history(accountId, 10));
+        StatementCache cache = new StatementCache(operationRepository, textFormatter, 1_000);
+        cache.statementLines(accountId);
+
+        // WHEN
+        cache.create(new Operation(accountId, OperationType.WITHDRAWAL, "rattrapage", START.plusMinutes(4).plusSeconds(30), 1, 999));
+
+        // THEN
+        assertEquals(OptionalLong.empty(), cache.balanceAt(accountId, START.minusSeconds(1)));
+        assertEquals(OptionalLong.of(100), cache.balanceAt(accountId, START));
+        assertEquals(OptionalLong.of(500), cache.balanceAt(accountId, START.plusMinutes(4).plusSeconds(29)));
+        assertEquals(OptionalLong.of(999), cache.balanceAt(accountId, START.plusMinutes(4).plusSeconds(30)));
+        assertEquals(OptionalLong.of(1_000), cache.balanceAt(accountId, START.plusYears(1)));
+        assertEquals(OptionalLong.empty(), cache.balanceAt(UUID.randomUUID(), START));
+    }
+
+    @DisplayName("evict the least recently read statements beyond the maximum size")
+    @Test
+    void evictLeastRecentlyRead() {
+        // GIVEN
+        InMemoryOperationRepository operationRepository = spy(new InMemoryOperationRepository());
+        UUID first = UUID.randomUUID();
+        UUID second = UUID.randomUUID();
+        UUID third = UUID.randomUUID();
+        operationRepository.createAll(history(first, 40));
+        operationRepository.createAll(history(second, 40));
+        operationRepository.createAll(history(third, 40));
+        StatementCache cache = new StatementCache(operationRepository, textFormatter, 100);
+
+        // WHEN
+        cache.statementLines(first);
+        cache.statementLines(second);
+        cache.statementLines(first);
+        cache.statementLines(third);
+        cache.statementLines(first);
+        cache.create(new Operation(first, OperationType.DEPOSIT, "nouveau", START.plusDays(1), 1, 1));
+        cache.statementLines(second);
+        List<String> lines = cache.statementLines(first);
+
+        // THEN
+        assertEquals(41, lines.size());
+        assertEquals(2, cache.getEvictionCount());
+        assertEquals(81, cache.getCachedOperationCount());
+        verify(operationRepository, times(1)).findAllByAccountIdOrderByDateDesc(first);
+        verify(operationRepository, times(2)).findAllByAccountIdOrderByDateDesc(second);
+        verify(operationRepository, times(1)).findAllByAccountIdOrderByDateDesc(third);
+    }
+
+    @DisplayName("evict statements without operations too")
+    @Test
+    void evictEmptyStatements() {
+        // GIVEN
+        StatementCache cache = new StatementCache(new InMemoryOperationRepository(), textFormatter, 2);
+
+        // WHEN
+        for (int i = 0; i < 5; i++) {
+            cache.statementLines(UUID.randomUUID());
+        }
+
+        // THEN
+        assertEquals(3, cache.getEvictionCount());
+        assertEquals(2, cache.getCachedOperationCount());
+    }
+
+    private BankAccountService cachingService(InMemoryAccountRepository accountRepository, StatementCache cache, List<List<String>> printed, LocalDateTime now) {
+        BankAccountService service = new BankAccountCheckingService(accountRepository, cache, textFormatter, lines -> fail("impression sans cache"), clock(now));
+        return new StatementCachingBankAccountService(service, cache, lines -> printed.add(lines.toList()));
+    }
+
+    private static Clock clock(LocalDateTime now) {
+        ZoneId zone = ZoneId.systemDefault();
+        return Clock.fixed(now.atZone(zone).toInstant(), zone);
+    }
+
+    private static List<Operation> history(UUID accountId, int size) {
+        List<Operation> operations = new ArrayList<>(size);
+        for (int i = 0; i < size; i++) {
+            operations.add(new Operation(accountId, OperationType.DEPOSIT, "versement " + i, START.plusMinutes(i), 100, 100L * (i + 1)));
+        }
+        return operations;
+    }
+}
@@ -0,0 +1,126 @@
+package fr.angelique.bankaccount.service;
+
+import fr.angelique.bankaccount.ChannelAccountStatementPrinter;
+import fr.angelique.bankaccount.TextOperationsFormatter;
+import fr.angelique.bankaccount.enums.OperationType;
+import fr.angelique.bankaccount.export.BinaryStatementExporter;
+import fr.angelique.bankaccount.export.BinaryStatementReader;
+import fr.angelique.bankaccount.export.CsvStatementExporter;
+import fr.angelique.bankaccount.export.CsvStatementReader;
+import fr.angelique.bankaccount.service.model.Operation;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.ByteArrayOutputStream;
+import java.nio.ByteBuffer;
+import java.nio.channels.Channels;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+import java.util.UUID;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class StatementExportShould {
+
+    private final UUID accountId = UUID.randomUUID();
+
+    private final UUID otherAccountId = UUID.randomUUID();
+
+    @DisplayName("read back the binary statements of several accounts")
+    @Test
+    void roundTripBinary(@TempDir Path directory) {
+        // GIVEN
+        List<Operation> first = history(accountId, 5_000, 1);
+        List<Operation> second = history(otherAccountId, 3, 2);
+        Path file = directory.resolve("statements.bin");
+        BinaryStatementExporter exporter = new BinaryStatementExporter(512);
+
+        // WHEN
+        try (FileChannel channel = FileChannel.open(file, StandardOpenOption.CREATE_NEW, StandardOpenOption.WRITE)) {
+            exporter.export(accountId, first.stream(), channel);
+            exporter.export(otherAccountId, second.stream(), channel);
+        } catch (Exception e) {
+            fail(e);
+        }
+
+        // THEN
+        List<Operation> expected = new ArrayList<>(first);
+        expected.addAll(second);
+        assertEquals(expected, BinaryStatementReader.readAll(file));
+    }
+
+    @DisplayName("read back CSV statements with quoted libelles")
+    @Test
+    void roundTripCsv() {
+        // GIVEN
+        List<Operation> operations = new ArrayList<>(history(accountId, 1_000, 3));
+        operations.add(new Operation(accountId, OperationType.DEPOSIT, "loyer, \"juin\"\nsuite", LocalDateTime.of(2024, 6, 1, 9, 0), 5, 10));
+        operations.add(new Operation(accountId, OperationType.WITHDRAWAL, "café ☕ 𝄞", LocalDateTime.of(2024, 6, 1, 9, 0, 0, 1), 5, -5));
+        ByteArrayOutputStream output = new ByteArrayOutputStream();
+
+        // WHEN
+        new CsvStatementExporter(512).export(accountId, operations.stream(), Channels.newChannel(output));
+
+        // THEN
+        List<Operation> read = new ArrayList<>();
+        CsvStatementReader.read(output.toString(StandardCharsets.UTF_8), read::add);
+        assertEquals(operations, read);
+        assertTrue(output.toString(StandardCharsets.UTF_8).startsWith("compte,type,libelle,date,montant,solde\n" + accountId + ","));
+    }
+
+    @DisplayName("reject a binary statement whose bytes were altered")
+    @Test
+    void detectCorruption() {
+        // GIVEN
+        ByteArrayOutputStream output = new ByteArrayOutputStream();
+        new BinaryStatementExporter().export(accountId, history(accountId, 100, 4).stream(), Channels.newChannel(output));
+        byte[] bytes = output.toByteArray();
+        bytes[bytes.length / 2] ^= 0x01;
+
+        // WHEN / THEN
+        assertThrows(IllegalArgumentException.class, () -> BinaryStatementReader.read(ByteBuffer.wrap(bytes), operation -> { }));
+    }
+
+    @DisplayName("take a fraction of the size of the text statement")
+    @Test
+    void shrinkStatements() {
+        // GIVEN
+        List<Operation> operations = history(accountId, 10_000, 5);
+        ByteArrayOutputStream text = new ByteArrayOutputStream();
+        ByteArrayOutputStream csv = new ByteArrayOutputStream();
+        ByteArrayOutputStream binary = new ByteArrayOutputStream();
+
+        // WHEN
+        new ChannelAccountStatementPrinter(Channels.newChannel(text)).print(new TextOperationsFormatter().format(operations.stream()));
+        new CsvStatementExporter().export(accountId, operations.stream(), Channels.newChannel(csv));
+        new BinaryStatementExporter().export(accountId, operations.stream(), Channels.newChannel(binary));
+
+        // THEN
+        assertTrue(csv.size() < text.size() * 2 / 3, "csv " + csv.size() + " / texte " + text.size());
+        assertTrue(binary.size() < text.size() / 8, "binaire " + binary.size() + " / texte " + text.size());
+    }
+
+    private static List<Operation> history(UUID accountId, int count, long seed) {
+        Random random = new Random(seed);
+        String[] libelles = {"salaire", "courses", "loyer", "électricité", "virement épargne"};
+        List<Operation> operations = new ArrayList<>(count);
+        LocalDateTime date = LocalDateTime.of(2024, 1, 1, 0, 0).plusSeconds(random.nextInt(1_000_000));
+        long balance = random.nextInt(1_000_000);
+        for (int i = 0; i < count; i++) {
+            date = date.minusSeconds(random.nextInt(86_400)).withNano(random.nextBoolean() ? 0 : random.nextInt(1_000_000_000));
+            long amount = 1 + random.nextInt(200_000);
+            OperationType type = random.nextBoolean() ? OperationType.DEPOSIT : OperationType.WITHDRAWAL;
+            String libelle = random.nextInt(10) == 0 ? null : libelles[random.nextInt(libelles.length)];
+            operations.add(new Operation(accountId, type, libelle, date, amount, balance));
+            balance += type == OperationType.DEPOSIT ? -amount : amount;
+        }
+        return operations;
+    }
+}
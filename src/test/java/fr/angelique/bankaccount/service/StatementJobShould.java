@@ -0,0 +1,202 @@
+package fr.angelique.bankaccount.service;
+
+import fr.angelique.bankaccount.TextOperationsFormatter;
+import fr.angelique.bankaccount.enums.OperationType;
+import fr.angelique.bankaccount.repository.InMemoryOperationRepository;
+import fr.angelique.bankaccount.repository.OperationQuery;
+import fr.angelique.bankaccount.service.model.Operation;
+import fr.angelique.bankaccount.statement.StatementJob;
+import fr.angelique.bankaccount.statement.StatementJobListener;
+import fr.angelique.bankaccount.statement.StatementJobReport;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+class StatementJobShould {
+
+    private static final LocalDateTime DATE = LocalDateTime.of(2022, 11, 21, 15, 22, 48);
+    private static final int ACCOUNT_COUNT = 50;
+    private static final int PARTITION_SIZE = 8;
+
+    @TempDir
+    Path directory;
+
+    private final InMemoryOperationRepository operationRepository = new InMemoryOperationRepository();
+    private final TextOperationsFormatter formatter = new TextOperationsFormatter();
+    private final List<UUID> accountIds = new ArrayList<>();
+
+    @BeforeEach
+    void setUp() {
+        for (int i = 0; i < ACCOUNT_COUNT; i++) {
+            UUID accountId = UUID.randomUUID();
+            accountIds.add(accountId);
+            for (int j = 0; j <= i % 4; j++) {
+                operationRepository.create(new Operation(accountId, OperationType.DEPOSIT, "depot " + j, DATE.plusDays(j), 100L, 100L * (j + 1)));
+            }
+        }
+    }
+
+    @DisplayName("render every statement into shards and merge them in account order")
+    @Test
+    void renderAndMerge() throws IOException {
+        // GIVEN
+        StatementJob job = new StatementJob(operationRepository, formatter, directory.resolve("job"), 4, PARTITION_SIZE);
+        List<Integer> progress = new ArrayList<>();
+
+        // WHEN
+        StatementJobReport report = job.run(accountIds, OperationQuery.all(), (completed, total, statements) -> {
+            synchronized (progress) {
+                progress.add(completed);
+            }
+        });
+        Path merged = directory.resolve("statements.txt");
+        StatementJob.merge(report.getShards(), merged);
+
+        // THEN
+        assertEquals(7, report.getPartitionCount());
+        assertEquals(ACCOUNT_COUNT, report.getStatementCount());
+        assertEquals(List.of(1, 2, 3, 4, 5, 6, 7), progress.stream().sorted().toList());
+        assertEquals(expectedStatements(), Files.readAllLines(merged, StandardCharsets.UTF_8));
+        assertEquals(report.getLineCount(), expectedStatements().size());
+    }
+
+    @DisplayName("resume after a crash without rendering the completed partitions again")
+    @Test
+    void resumeAfterCrash() throws IOException {
+        // GIVEN
+        Path jobDirectory = directory.resolve("job");
+        AtomicInteger completedBeforeCrash = new AtomicInteger();
+        assertThrows(RuntimeException.class, () -> new StatementJob(operationRepository, formatter, jobDirectory, 1, PARTITION_SIZE)
+                .run(accountIds, OperationQuery.all(), (completed, total, statements) -> {
+                    if (completedBeforeCrash.incrementAndGet() == 3) {
+                        throw new IllegalStateException("panne");
+                    }
+                }));
+
+        // WHEN
+        StatementJobReport report = new StatementJob(operationRepository, formatter, jobDirectory, 2, PARTITION_SIZE)
+                .run(accountIds, OperationQuery.all(), StatementJobListener.NONE);
+        Path merged = directory.resolve("statements.txt");
+        StatementJob.merge(report.getShards(), merged);
+
+        // THEN
+        assertEquals(3, report.getResumedPartitions());
+        assertEquals(ACCOUNT_COUNT - 3 * PARTITION_SIZE, report.getStatementCount());
+        assertEquals(expectedStatements(), Files.readAllLines(merged, StandardCharsets.UTF_8));
+    }
+
+    @DisplayName("cut a checkpoint line torn by a crash before resuming")
+    @Test
+    void resumeAfterTornCheckpoint() throws IOException {
+        // GIVEN
+        Path jobDirectory = directory.resolve("job");
+        AtomicInteger completedBeforeCrash = new AtomicInteger();
+        assertThrows(RuntimeException.class, () -> new StatementJob(operationRepository, formatter, jobDirectory, 1, PARTITION_SIZE)
+                .run(accountIds, OperationQuery.all(), (completed, total, statements) -> {
+                    if (completedBeforeCrash.incrementAndGet() == 3) {
+                        throw new IllegalStateException("panne");
+                    }
+                }));
+        Files.writeString(jobDirectory.resolve("checkpoint"), "6", StandardCharsets.US_ASCII, StandardOpenOption.APPEND);
+        assertThrows(RuntimeException.class, () -> new StatementJob(operationRepository, formatter, jobDirectory, 1, PARTITION_SIZE)
+                .run(accountIds, OperationQuery.all(), (completed, total, statements) -> {
+                    throw new IllegalStateException("panne");
+                }));
+
+        // WHEN
+        StatementJobReport report = new StatementJob(operationRepository, formatter, jobDirectory, 2, PARTITION_SIZE)
+                .run(accountIds, OperationQuery.all(), StatementJobListener.NONE);
+        Path merged = directory.resolve("statements.txt");
+        StatementJob.merge(report.getShards(), merged);
+
+        // THEN
+        assertEquals(4, report.getResumedPartitions());
+        assertEquals(ACCOUNT_COUNT - 4 * PARTITION_SIZE, report.getStatementCount());
+        assertEquals(expectedStatements(), Files.readAllLines(merged, StandardCharsets.UTF_8));
+    }
+
+    @DisplayName("resume a paged run from an equal copy of the last operation of the previous page")
+    @Test
+    void resumePagedRunFromCopiedCursor() {
+        // GIVEN
+        Path jobDirectory = directory.resolve("job");
+        AtomicInteger completedBeforeCrash = new AtomicInteger();
+        assertThrows(RuntimeException.class, () -> new StatementJob(operationRepository, formatter, jobDirectory, 1, PARTITION_SIZE)
+                .run(accountIds, OperationQuery.all().after(cursor()), (completed, total, statements) -> {
+                    if (completedBeforeCrash.incrementAndGet() == 3) {
+                        throw new IllegalStateException("panne");
+                    }
+                }));
+
+        // WHEN
+        StatementJobReport report = new StatementJob(operationRepository, formatter, jobDirectory, 2, PARTITION_SIZE)
+                .run(accountIds, OperationQuery.all().after(cursor()), StatementJobListener.NONE);
+
+        // THEN
+        assertEquals(3, report.getResumedPartitions());
+    }
+
+    private Operation cursor() {
+        return new Operation(accountIds.get(0), OperationType.DEPOSIT, "depot 0", DATE.plusDays(2), 100L, 100L);
+    }
+
+    @DisplayName("start over when the checkpoint belongs to another set of accounts")
+    @Test
+    void ignoreForeignCheckpoint() {
+        // GIVEN
+        Path jobDirectory = directory.resolve("job");
+        new StatementJob(operationRepository, formatter, jobDirectory, 2, PARTITION_SIZE).run(accountIds.subList(0, 10), OperationQuery.all(), StatementJobListener.NONE);
+
+        // WHEN
+        StatementJobReport report = new StatementJob(operationRepository, formatter, jobDirectory, 2, PARTITION_SIZE).run(accountIds, OperationQuery.all(), StatementJobListener.NONE);
+
+        // THEN
+        assertEquals(0, report.getResumedPartitions());
+        assertEquals(ACCOUNT_COUNT, report.getStatementCount());
+    }
+
+    @DisplayName("render every statement again on the next run once the previous run completed")
+    @Test
+    void rerunAfterCompletedRun() throws IOException {
+        // GIVEN
+        Path jobDirectory = directory.resolve("job");
+        new StatementJob(operationRepository, formatter, jobDirectory, 2, PARTITION_SIZE).run(accountIds, OperationQuery.all(), StatementJobListener.NONE);
+        operationRepository.create(new Operation(accountIds.get(0), OperationType.DEPOSIT, "nouveau", DATE.plusDays(10), 100L, 200L));
+
+        // WHEN
+        StatementJobReport report = new StatementJob(operationRepository, formatter, jobDirectory, 2, PARTITION_SIZE).run(accountIds, OperationQuery.all(), StatementJobListener.NONE);
+        Path merged = directory.resolve("statements.txt");
+        StatementJob.merge(report.getShards(), merged);
+
+        // THEN
+        assertEquals(0, report.getResumedPartitions());
+        assertEquals(ACCOUNT_COUNT, report.getStatementCount());
+        assertEquals(expectedStatements(), Files.readAllLines(merged, StandardCharsets.UTF_8));
+        assertFalse(Files.exists(jobDirectory.resolve("checkpoint")));
+    }
+
+    private List<String> expectedStatements() {
+        List<String> lines = new ArrayList<>();
+        accountIds.stream().sorted().forEach(accountId -> {
+            lines.add("Compte " + accountId);
+            lines.addAll(formatter.format(operationRepository.findAllByAccountIdOrderByDateDesc(accountId)));
+        });
+        return lines;
+    }
+}
@@ -2,35 +2,46 @@ package fr.angelique.bankaccount.service;
 
 import fr.angelique.bankaccount.TextOperationsFormatter;
 import fr.angelique.bankaccount.enums.OperationType;
+import fr.angelique.bankaccount.service.model.Money;
 import fr.angelique.bankaccount.service.model.Operation;
 import org.junit.jupiter.api.DisplayName;
 import org.junit.jupiter.api.Test;
 
-import java.math.BigDecimal;
+import java.text.DecimalFormat;
+import java.text.NumberFormat;
 import java.time.LocalDateTime;
+import java.time.format.DateTimeFormatter;
+import java.util.ArrayList;
 import java.util.List;
+import java.util.Locale;
+import java.util.Random;
+import java.util.UUID;
 
 import static org.junit.jupiter.api.Assertions.assertEquals;
 
 class TextOperationsFormatterShould {
 
+    private static final UUID ACCOUNT_ID = UUID.randomUUID();
+
     private final TextOperationsFormatter accountStatementRowsToStringFormatter = new TextOperationsFormatter();
 
     @DisplayName("format a list of operations to a list of strings")
     @Test
     void formatOperationListToStringList() {
         Operation operationEntity1 = new Operation(
+                ACCOUNT_ID,
                 OperationType.WITHDRAWAL,
                 "course",
                 LocalDateTime.of(2022, 11, 21, 15, 22, 48),
-                new BigDecimal("10"),
-                new BigDecimal("20"));
+                1_000L,
+                2_000L);
         Operation operationEntity2 = new Operation(
+                ACCOUNT_ID,
                 OperationType.DEPOSIT,
                 "cadeau",
                 LocalDateTime.of(2022, 11, 21, 16, 30, 00),
-                new BigDecimal("20"),
-                new BigDecimal("40.30"));
+                2_000L,
+                4_030L);
 
         String operation1 = "Type d'opération : Retrait, " +
                         "libelle: course, " +
@@ -60,4 +71,92 @@ class TextOperationsFormatterShould {
         // THEN
         assertEquals(List.of(), result);
     }
-}
\ No newline at end of file
+
+    @DisplayName("write the same lines as the String.format and DecimalFormat rendering")
+    @Test
+    void matchReferenceRendering() {
+        // GIVEN
+        Random random = new Random(20221121);
+        List<Operation> operations = new ArrayList<>();
+        for (int i = 0; i < 10_000; i++) {
+            operations.add(randomOperation(random));
+        }
+
+        // WHEN
+        List<String> result = accountStatementRowsToStringFormatter.format(operations);
+
+        // THEN
+        DecimalFormat defaultDecimalFormat = new DecimalFormat();
+        defaultDecimalFormat.setMaximumFractionDigits(2);
+        for (int i = 0; i < operations.size(); i++) {
+            assertEquals(referenceFormat(operations.get(i), defaultDecimalFormat), result.get(i));
+        }
+    }
+
+    @DisplayName("render the same lines when the caller makes the returned stream parallel")
+    @Test
+    void formatParallelStream() {
+        // GIVEN
+        Random random = new Random(7);
+        List<Operation> operations = new ArrayList<>();
+        for (int i = 0; i < 10_000; i++) {
+            operations.add(randomOperation(random));
+        }
+
+        // WHEN
+        List<String> result = accountStatementRowsToStringFormatter.format(operations.stream()).parallel().toList();
+
+        // THEN
+        for (int i = 0; i < operations.size(); i++) {
+            assertEquals(accountStatementRowsToStringFormatter.format(operations.get(i)), result.get(i));
+        }
+    }
+
+    @DisplayName("write the same lines as the reference rendering in other locales")
+    @Test
+    void matchReferenceRenderingInOtherLocales() {
+        Random random = new Random(42);
+        for (Locale locale : List.of(Locale.US, Locale.GERMANY, Locale.forLanguageTag("de-CH"), Locale.forLanguageTag("hi-IN"), Locale.forLanguageTag("ar-EG"))) {
+            // GIVEN
+            TextOperationsFormatter formatter = new TextOperationsFormatter(locale);
+            DecimalFormat decimalFormat = (DecimalFormat) NumberFormat.getNumberInstance(locale);
+            decimalFormat.setMaximumFractionDigits(2);
+            StringBuilder line = new StringBuilder();
+
+            for (int i = 0; i < 2_000; i++) {
+                Operation operation = randomOperation(random);
+
+                // WHEN
+                line.setLength(0);
+                formatter.formatTo(operation, line);
+
+                // THEN
+                assertEquals(referenceFormat(operation, decimalFormat), line.toString(), locale.toLanguageTag());
+            }
+        }
+    }
+
+    private static Operation randomOperation(Random random) {
+        long[] magnitudes = {1L, 100L, 10_000L, 1_000_000L, 1_000_000_000L, Long.MAX_VALUE / 1_000};
+        long amount = Math.floorMod(random.nextLong(), magnitudes[random.nextInt(magnitudes.length)]);
+        long balance = random.nextInt(10) == 0 ? -amount : Math.floorMod(random.nextLong(), magnitudes[random.nextInt(magnitudes.length)]);
+        LocalDateTime date = LocalDateTime.of(1 + random.nextInt(9999), 1 + random.nextInt(12), 1 + random.nextInt(28),
+                random.nextInt(24), random.nextInt(60), random.nextInt(60), random.nextInt(1_000_000_000));
+        OperationType type = random.nextBoolean() ? OperationType.DEPOSIT : OperationType.WITHDRAWAL;
+        String libelle = random.nextInt(20) == 0 ? null : "libellé " + random.nextInt();
+        return new Operation(ACCOUNT_ID, type, libelle, date, amount, balance);
+    }
+
+    private static String referenceFormat(Operation operation, DecimalFormat decimalFormat) {
+        return String.format("Type d'opération : %s, " +
+                        "libelle: %s, " +
+                        "date : %s, " +
+                        "montant de l'opération : %s euros, " +
+                        "solde après opération : %s euros",
+                operation.getOperationType() == OperationType.WITHDRAWAL ? "Retrait" : "Dépot",
+                operation.getData(),
+                operation.getDate().format(DateTimeFormatter.ofPattern("yyyy-MM-dd HH:mm:ss")),
+                decimalFormat.format(Money.toBigDecimal(operation.getAmount())),
+                decimalFormat.format(Money.toBigDecimal(operation.getBalance())));
+    }
+}